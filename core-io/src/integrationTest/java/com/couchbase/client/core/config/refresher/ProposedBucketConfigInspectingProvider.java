@@ -4,6 +4,7 @@ import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.ProposedBucketConfigContext;
 import com.couchbase.client.core.config.ProposedGlobalConfigContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.io.CollectionMap;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -32,6 +33,11 @@ public class ProposedBucketConfigInspectingProvider implements ConfigurationProv
     delegate.proposeBucketConfig(ctx);
   }
 
+  @Override
+  public void proposeBucketConfig(final String bucketName, final ByteBuf config, final String origin) {
+    delegate.proposeBucketConfig(bucketName, config, origin);
+  }
+
   List<ProposedBucketConfigContext> proposedConfigs() {
     return configs;
   }
@@ -65,6 +71,16 @@ public class ProposedBucketConfigInspectingProvider implements ConfigurationProv
     return delegate.shutdown();
   }
 
+  @Override
+  public void configPushChannelActive(String bucket) {
+    delegate.configPushChannelActive(bucket);
+  }
+
+  @Override
+  public void configPushChannelInactive(String bucket) {
+    delegate.configPushChannelInactive(bucket);
+  }
+
   @Override
   public void proposeGlobalConfig(ProposedGlobalConfigContext ctx) {
     delegate.proposeGlobalConfig(ctx);
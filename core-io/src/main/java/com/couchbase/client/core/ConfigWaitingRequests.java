@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core;
+
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.msg.Request;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Parks requests per bucket until a config newer than the one they were parked with has been applied.
+ *
+ * <p>This is used to retry requests which received a "not my vbucket" response as soon as the client learned about
+ * the new partition map, instead of after a fixed backoff. Every parked request is released at most once, either
+ * by a newer config or by its fallback (see {@link Parked#release()}), whichever comes first. A request is removed
+ * from its bucket as soon as it has been released or has completed, so the queues only hold waiting requests.</p>
+ *
+ * @since 2.0.0
+ */
+class ConfigWaitingRequests {
+
+  private final Map<String, Queue<Parked>> parked = new ConcurrentHashMap<>();
+  private final Consumer<Request<?>> dispatcher;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param dispatcher sends a released request (which has not completed yet) again.
+   */
+  ConfigWaitingRequests(final Consumer<Request<?>> dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  /**
+   * Parks a request until a config newer than the given revision is applied for its bucket.
+   *
+   * @param bucket the name of the bucket.
+   * @param revision the revision of the bucket config at the time of parking, or -1 if there is none.
+   * @param request the request to park.
+   * @return the parked request, which can be released as a fallback.
+   */
+  Parked park(final String bucket, final long revision, final Request<?> request) {
+    final Queue<Parked> queue = parked.computeIfAbsent(bucket, b -> new ConcurrentLinkedQueue<>());
+    final Parked p = new Parked(revision, request, queue);
+    queue.add(p);
+    // Registered after adding, so a request which has completed in the meantime is removed right away.
+    request.response().whenComplete((response, throwable) -> p.remove());
+    return p;
+  }
+
+  /**
+   * Releases all requests whose bucket config in the given cluster config is newer than the one they were parked
+   * with.
+   *
+   * @param config the cluster config which has just been applied.
+   */
+  void release(final ClusterConfig config) {
+    for (Map.Entry<String, Queue<Parked>> entry : parked.entrySet()) {
+      final Queue<Parked> queue = entry.getValue();
+      if (queue.isEmpty()) {
+        continue;
+      }
+      final BucketConfig bucketConfig = config.bucketConfig(entry.getKey());
+      final long revision = bucketConfig == null ? -1 : bucketConfig.rev();
+      queue.removeIf(p -> (p.released() || (revision > p.revision && p.dispatch())) && p.markRemoved());
+    }
+  }
+
+  /**
+   * Returns the number of parked requests for the given bucket.
+   */
+  int size(final String bucket) {
+    final Queue<Parked> queue = parked.get(bucket);
+    return queue == null ? 0 : queue.size();
+  }
+
+  /**
+   * A single parked request.
+   */
+  class Parked {
+
+    private final long revision;
+    private final Request<?> request;
+    private final Queue<Parked> queue;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    private final AtomicBoolean removed = new AtomicBoolean(false);
+
+    Parked(final long revision, final Request<?> request, final Queue<Parked> queue) {
+      this.revision = revision;
+      this.request = request;
+      this.queue = queue;
+    }
+
+    /**
+     * Dispatches the request again, unless it has already been released or completed, and removes it from its
+     * bucket.
+     */
+    void release() {
+      dispatch();
+      remove();
+    }
+
+    /**
+     * Dispatches the request again, unless it has already been released or completed.
+     *
+     * @return always true, so it can be used to remove the request once released.
+     */
+    private boolean dispatch() {
+      if (released.compareAndSet(false, true) && !request.completed()) {
+        dispatcher.accept(request);
+      }
+      return true;
+    }
+
+    boolean released() {
+      return released.get() || request.completed();
+    }
+
+    /**
+     * Claims the removal from the bucket, which must only be performed by whoever claimed it.
+     *
+     * @return true if the caller has to remove the request from its bucket.
+     */
+    private boolean markRemoved() {
+      return removed.compareAndSet(false, true);
+    }
+
+    private void remove() {
+      if (markRemoved()) {
+        queue.remove(this);
+      }
+    }
+
+  }
+
+}
@@ -34,6 +34,7 @@ import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.DefaultConfigurationProvider;
 import com.couchbase.client.core.config.GlobalConfig;
 import com.couchbase.client.core.diag.EndpointHealth;
+import com.couchbase.client.core.endpoint.EndpointWriteBatch;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.SeedNode;
@@ -54,6 +55,8 @@ import com.couchbase.client.core.node.RoundRobinLocator;
 import com.couchbase.client.core.node.ViewLocator;
 import com.couchbase.client.core.service.ServiceScope;
 import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.service.kv.ObserveSeqnoTracker;
+import com.couchbase.client.core.util.LatencyWindow;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -88,11 +91,6 @@ public class Core {
    */
   private static final AtomicLong CORE_IDS = new AtomicLong();
 
-  /**
-   * Locates the right node for the KV service.
-   */
-  private static final KeyValueLocator KEY_VALUE_LOCATOR = new KeyValueLocator();
-
   /**
    * Locates the right node for the manager service.
    */
@@ -171,6 +169,27 @@ public class Core {
 
   private final Set<SeedNode> seedNodes;
 
+  /**
+   * Locates the right node for the KV service (per core, since it caches the partition routing per bucket).
+   */
+  private final KeyValueLocator keyValueLocator = new KeyValueLocator();
+
+  /**
+   * Holds the "not my vbucket" requests waiting for a newer config of their bucket.
+   */
+  private final ConfigWaitingRequests configWaitingRequests =
+    new ConfigWaitingRequests(request -> send(request, false));
+
+  /**
+   * Shares the observe polls of legacy durability waits on the same partitions.
+   */
+  private final ObserveSeqnoTracker observeSeqnoTracker = new ObserveSeqnoTracker();
+
+  /**
+   * Holds a sample of recent latencies of reads from the active partition, used to derive hedging delays.
+   */
+  private final LatencyWindow kvReadLatencies = new LatencyWindow(1024);
+
   /**
    * Creates a new {@link Core} with the given environment.
    *
@@ -203,6 +222,7 @@ public class Core {
     this.configurationProvider.configs().subscribe(c -> {
       currentConfig = c;
       reconfigure();
+      configWaitingRequests.release(c);
     });
     eventBus.publish(new CoreCreatedEvent(coreContext, environment));
   }
@@ -260,6 +280,82 @@ public class Core {
     locator(request.serviceType()).dispatch(request, nodes, currentConfig, context());
   }
 
+  /**
+   * Sends a batch of commands into the core layer and registers each of them with the timeout timer.
+   *
+   * <p>All requests are located and dispatched individually, but writes into pipelined endpoints are
+   * collected and handed to each channel as a single burst once all requests of the batch have been
+   * located (see {@link EndpointWriteBatch}).</p>
+   *
+   * @param requests the requests to dispatch.
+   */
+  @Stability.Internal
+  public void sendBatch(final List<? extends Request<? extends Response>> requests) {
+    EndpointWriteBatch.begin();
+    try {
+      for (Request<? extends Response> request : requests) {
+        send(request, true);
+      }
+    } finally {
+      EndpointWriteBatch.end();
+    }
+  }
+
+  /**
+   * Sends a request again once a config for its bucket newer than the one it was routed with has been applied.
+   *
+   * <p>This is used to retry requests which received a "not my vbucket" response right after the client learned
+   * about the new partition map. If that config has already been applied by the time the response arrives, the
+   * request is sent again right away. If no newer config arrives within the fallback duration, the request is sent
+   * again anyway. Either way, the request is not registered with a timeout again.</p>
+   *
+   * @param request the request to send again.
+   * @param bucket the name of the bucket the request is waiting for.
+   * @param fallback the duration after which the request is sent even without a new config.
+   */
+  @Stability.Internal
+  public void sendOnNewerConfig(final Request<? extends Response> request, final String bucket,
+                                final Duration fallback) {
+    final long routedRevision = request.context().lastDispatchedWithRevision();
+    final long revision = routedRevision >= 0 ? routedRevision : currentRevision(bucket);
+    final ConfigWaitingRequests.Parked parked = configWaitingRequests.park(bucket, revision, request);
+
+    // Checked after parking, so a config applied in between is either seen here or releases the parked request.
+    if (currentRevision(bucket) > revision) {
+      parked.release();
+    } else {
+      timer.schedule(parked::release, fallback);
+    }
+  }
+
+  /**
+   * Returns the revision of the currently applied config for the given bucket, or -1 if there is none.
+   */
+  private long currentRevision(final String bucket) {
+    final BucketConfig config = currentConfig.bucketConfig(bucket);
+    return config == null ? -1 : config.rev();
+  }
+
+  /**
+   * Returns the tracker which shares observe polls across durability waits.
+   *
+   * <p>Internal API, use with care!</p>
+   */
+  @Stability.Internal
+  public ObserveSeqnoTracker observeSeqnoTracker() {
+    return observeSeqnoTracker;
+  }
+
+  /**
+   * Returns a sample of recent latencies of reads from the active partition.
+   *
+   * <p>Internal API, use with care!</p>
+   */
+  @Stability.Internal
+  public LatencyWindow kvReadLatencies() {
+    return kvReadLatencies;
+  }
+
   /**
    * Returns the {@link CoreContext} of this core instance.
    */
@@ -383,6 +479,7 @@ public class Core {
       .switchIfEmpty(Mono.defer(() -> {
         Node node = createNode(identifier, alternateAddress);
         nodes.add(node);
+        keyValueLocator.nodesChanged();
         return Mono.just(node);
       }))
       .flatMap(node -> node.addService(serviceType, port, bucket))
@@ -431,7 +528,10 @@ public class Core {
       }
 
       if ((!stillPresentInBuckets && !stillPresentInGlobal) || !node.hasServicesEnabled()) {
-        return node.disconnect().doOnTerminate(() -> nodes.remove(node));
+        return node.disconnect().doOnTerminate(() -> {
+          nodes.remove(node);
+          keyValueLocator.nodesChanged();
+        });
       }
 
       return Mono.empty();
@@ -736,10 +836,10 @@ public class Core {
    * @param serviceType the service type for which a locator should be returned.
    * @return the locator for the service type, or an exception if unknown.
    */
-  private static Locator locator(final ServiceType serviceType) {
+  private Locator locator(final ServiceType serviceType) {
     switch (serviceType) {
       case KV:
-        return KEY_VALUE_LOCATOR;
+        return keyValueLocator;
       case MANAGER:
         return MANAGER_LOCATOR;
       case QUERY:
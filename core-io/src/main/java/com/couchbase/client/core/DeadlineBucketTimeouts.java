@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core;
+
+import com.couchbase.client.core.deps.org.jctools.queues.MpscUnboundedArrayQueue;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.Request;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks request timeouts by grouping requests into shared buckets based on their deadline.
+ *
+ * <p>Every bucket covers one slot of the configured resolution and is split into stripes, so that threads
+ * registering requests concurrently do not contend on the same queue. A single thread (driven by the
+ * {@link Timer}) periodically expires every slot whose time has passed and cancels all of its requests which are
+ * not completed yet. No timeout object or completion callback is allocated per request.</p>
+ *
+ * <p>A request is not placed into the bucket of its deadline right away, but into the bucket of a checkpoint which
+ * is as far away as the request is old (capped at its deadline). Once drained, completed requests are dropped and
+ * the others are moved on to their next checkpoint. Most requests complete long before their deadline, so this
+ * keeps them (and their payloads) referenced for about as long as they took, and not for their whole timeout,
+ * while a slow request only moves through a logarithmic number of buckets.</p>
+ *
+ * <p>The buckets form a ring, so requests with a checkpoint beyond its horizon are placed into the bucket their
+ * checkpoint maps to and simply re-registered if they are not expired yet once the bucket is drained.</p>
+ *
+ * <p>Expiry runs on the {@link Timer} and not in the KV handler, since requests also need to time out while they
+ * are not written to any channel (for example while they wait to be retried). The KV handler only reaps requests
+ * which completed while they were written, see {@code KeyValueMessageHandler}.</p>
+ *
+ * @since 2.0.0
+ */
+class DeadlineBucketTimeouts {
+
+  /**
+   * The number of slots in the ring, must be a power of two.
+   */
+  static final int DEFAULT_NUM_SLOTS = 256;
+
+  /**
+   * The chunk size of the individual stripe queues.
+   */
+  private static final int QUEUE_CHUNK_SIZE = 32;
+
+  /**
+   * The width of each slot in nanoseconds.
+   */
+  private final long slotNanos;
+
+  /**
+   * Used to map an absolute slot into the ring.
+   */
+  private final int slotMask;
+
+  /**
+   * Used to map the registering thread onto a stripe.
+   */
+  private final int stripeMask;
+
+  /**
+   * The buckets, indexed by slot and then by stripe.
+   */
+  private final Queue<Request<?>>[][] buckets;
+
+  /**
+   * Holds requests which are not expired yet when their slot is drained, only used by the draining thread.
+   */
+  private final List<Request<?>> notExpired = new ArrayList<>();
+
+  /**
+   * The source of the current time in nanoseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * The absolute slot up to which the buckets have been (or are currently being) drained.
+   */
+  private volatile long drainedSlot;
+
+  DeadlineBucketTimeouts(final Duration resolution, final int numSlots, final int numStripes) {
+    this(resolution, numSlots, numStripes, System::nanoTime);
+  }
+
+  @SuppressWarnings("unchecked")
+  DeadlineBucketTimeouts(final Duration resolution, final int numSlots, final int numStripes,
+                         final LongSupplier clock) {
+    if (Integer.bitCount(numSlots) != 1 || Integer.bitCount(numStripes) != 1) {
+      throw new IllegalArgumentException("Number of slots and stripes must be a power of two");
+    }
+    this.slotNanos = resolution.toNanos();
+    this.slotMask = numSlots - 1;
+    this.stripeMask = numStripes - 1;
+    this.buckets = new Queue[numSlots][numStripes];
+    for (int i = 0; i < numSlots; i++) {
+      for (int j = 0; j < numStripes; j++) {
+        buckets[i][j] = new MpscUnboundedArrayQueue<>(QUEUE_CHUNK_SIZE);
+      }
+    }
+    this.clock = clock;
+    this.drainedSlot = slotOf(clock.getAsLong()) - 1;
+  }
+
+  /**
+   * Calculates the number of stripes to use, based on the available processors.
+   */
+  static int defaultNumStripes() {
+    int processors = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+    return Integer.highestOneBit(Math.max(processors, 1));
+  }
+
+  /**
+   * Registers the request to be cancelled once its deadline passed.
+   *
+   * @param request the request to track.
+   */
+  void register(final Request<?> request) {
+    final long now = clock.getAsLong();
+    if (request.absoluteTimeout() - now <= 0) {
+      request.cancel(CancellationReason.TIMEOUT);
+      return;
+    }
+
+    // The slot is drained once the time moved past the full slot of the checkpoint, so that every request
+    // in a drained slot has reached its checkpoint unless it wrapped around the ring.
+    final long age = Math.max(now - request.createdAt(), 0);
+    final long checkpointSlot = slotOf(Math.min(request.absoluteTimeout(), now + age)) + 1;
+    final int stripe = (int) Thread.currentThread().getId() & stripeMask;
+    while (true) {
+      final long target = Math.max(checkpointSlot, drainedSlot + 1);
+      buckets[(int) target & slotMask][stripe].offer(request);
+      if (drainedSlot < target) {
+        return;
+      }
+      // The drainer moved on while we added the request, so it might have missed it. Add it again to a later
+      // slot, a possible duplicate is harmless since completed requests are skipped.
+    }
+  }
+
+  /**
+   * Expires all slots whose time has passed.
+   *
+   * <p>Must only be called from one thread at a time.</p>
+   */
+  void expire() {
+    final long now = clock.getAsLong();
+    final long nowSlot = slotOf(now);
+    long slot = Math.max(drainedSlot + 1, nowSlot - slotMask);
+    for (; slot <= nowSlot; slot++) {
+      // publish the slot before draining, so that concurrent registrations which add to it afterwards
+      // notice and move on to a later slot.
+      drainedSlot = slot;
+      for (Queue<Request<?>> stripe : buckets[(int) slot & slotMask]) {
+        Request<?> request;
+        while ((request = stripe.poll()) != null) {
+          if (request.completed()) {
+            continue;
+          }
+          if (request.absoluteTimeout() - now <= 0) {
+            request.cancel(CancellationReason.TIMEOUT);
+          } else {
+            notExpired.add(request);
+          }
+        }
+      }
+      // Re-registered only after the slot is drained, since a far-away checkpoint might map onto the very
+      // same bucket again.
+      for (Request<?> request : notExpired) {
+        register(request);
+      }
+      notExpired.clear();
+    }
+  }
+
+  /**
+   * Returns the number of requests currently held in the buckets (including duplicates), for testing.
+   */
+  int size() {
+    int size = 0;
+    for (Queue<Request<?>>[] slot : buckets) {
+      for (Queue<Request<?>> stripe : slot) {
+        size += stripe.size();
+      }
+    }
+    return size;
+  }
+
+  private long slotOf(final long nanos) {
+    return Math.floorDiv(nanos, slotNanos);
+  }
+
+}
@@ -17,6 +17,7 @@
 package com.couchbase.client.core;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.env.TimeoutTracking;
 import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
@@ -31,6 +32,10 @@ import java.util.concurrent.TimeUnit;
  * The {@link Timer} acts as the main timing facility for various operations, for
  * example to track and time out requests if they run for too long or for rescheduling needs.
  *
+ * <p>How request timeouts are tracked depends on the {@link TimeoutTracking} mode: either every request
+ * gets its own timeout on the wheel, or requests are grouped into shared deadline buckets which are
+ * expired in bulk on every tick of the wheel.</p>
+ *
  * @since 2.0.0
  */
 @Stability.Internal
@@ -50,6 +55,11 @@ public class Timer {
    */
   private HashedWheelTimer wheelTimer;
 
+  /**
+   * If timeouts are tracked in deadline buckets, holds the buckets (null otherwise).
+   */
+  private final DeadlineBucketTimeouts deadlineBuckets;
+
   /**
    * Set to true once stopped.
    */
@@ -61,7 +71,17 @@ public class Timer {
    * @return the created timer.
    */
   public static Timer create() {
-    return new Timer();
+    return create(TimeoutTracking.WHEEL);
+  }
+
+  /**
+   * Creates a new {@link Timer} which tracks request timeouts with the given mode.
+   *
+   * @param timeoutTracking how request timeouts should be tracked.
+   * @return the created timer.
+   */
+  public static Timer create(final TimeoutTracking timeoutTracking) {
+    return new Timer(timeoutTracking);
   }
 
   /**
@@ -70,7 +90,17 @@ public class Timer {
    * @return the created and started timer.
    */
   public static Timer createAndStart() {
-    Timer timer = create();
+    return createAndStart(TimeoutTracking.WHEEL);
+  }
+
+  /**
+   * Creates and starts a timer which tracks request timeouts with the given mode.
+   *
+   * @param timeoutTracking how request timeouts should be tracked.
+   * @return the created and started timer.
+   */
+  public static Timer createAndStart(final TimeoutTracking timeoutTracking) {
+    Timer timer = create(timeoutTracking);
     timer.start();
     return timer;
   }
@@ -78,12 +108,19 @@ public class Timer {
   /**
    * Internal timer constructor.
    */
-  private Timer() {
+  private Timer(final TimeoutTracking timeoutTracking) {
     wheelTimer = new HashedWheelTimer(
       new DefaultThreadFactory("cb-timer", true),
       DEFAULT_TICK_DURATION.toMillis(),
       TimeUnit.MILLISECONDS
     );
+    deadlineBuckets = timeoutTracking == TimeoutTracking.DEADLINE_BUCKETS
+      ? new DeadlineBucketTimeouts(
+          DEFAULT_TICK_DURATION,
+          DeadlineBucketTimeouts.DEFAULT_NUM_SLOTS,
+          DeadlineBucketTimeouts.defaultNumStripes()
+        )
+      : null;
   }
 
   /**
@@ -107,6 +144,11 @@ public class Timer {
       return;
     }
 
+    if (deadlineBuckets != null) {
+      deadlineBuckets.register(request);
+      return;
+    }
+
     final Timeout registration = wheelTimer.newTimeout(
       timeout -> request.cancel(CancellationReason.TIMEOUT),
       request.timeout().toNanos(),
@@ -120,6 +162,22 @@ public class Timer {
    */
   public void start() {
     wheelTimer.start();
+    if (deadlineBuckets != null) {
+      scheduleBucketExpiry();
+    }
+  }
+
+  /**
+   * Expires the deadline buckets on every tick of the wheel, until the timer is stopped.
+   */
+  private void scheduleBucketExpiry() {
+    schedule(() -> {
+      try {
+        deadlineBuckets.expire();
+      } finally {
+        scheduleBucketExpiry();
+      }
+    }, DEFAULT_TICK_DURATION);
   }
 
   /**
@@ -16,6 +16,7 @@
 
 package com.couchbase.client.core.cnc;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.deps.org.jctools.queues.QueueFactory;
 import com.couchbase.client.core.deps.org.jctools.queues.spec.ConcurrentQueueSpec;
 import reactor.core.publisher.Flux;
@@ -23,18 +24,26 @@ import reactor.core.publisher.Mono;
 
 import java.io.PrintStream;
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
 /**
  * The {@link DefaultEventBus} provides the default and very efficient implementation
  * of the {@link EventBus}.
  *
- * <p>It is built on top of a very fast, bounded MPSC (multi-producer single-consumer)
- * queue which allows to quickly send events into the bus without blocking the sender.</p>
+ * <p>It is built on top of very fast, bounded MPSC (multi-producer single-consumer)
+ * queues which allow to quickly send events into the bus without blocking the sender. Dispatch
+ * threads park when their queue is empty and are unparked by the publisher once new events
+ * arrive, so events are delivered right away instead of in bursts.</p>
+ *
+ * <p>Depending on the {@link DispatchMode}, all subscribers either share one queue and thread
+ * or each subscriber gets its own, so that a slow subscriber cannot hold back the others.</p>
  *
  * <p>Subscribers of this API are considered to be non-blocking and if they have to blocking
  * tasks need to fan them out into their own thread pool.</p>
@@ -51,20 +60,35 @@ public class DefaultEventBus implements EventBus {
   private static final int DEFAULT_QUEUE_CAPACITY = 16384;
 
   /**
-   * If there are no events to process, the event bus will sleep for 100ms before checking the queue
-   * again.
+   * If there are no events to process, a dispatch thread parks for at most 100ms before checking
+   * the queue again (it is usually woken up much earlier by a publisher).
    */
   private static final Duration DEFAULT_IDLE_SLEEP_DURATION = Duration.ofMillis(100);
 
+  /**
+   * By default all subscribers share one queue and dispatch thread.
+   */
+  private static final DispatchMode DEFAULT_DISPATCH_MODE = DispatchMode.SHARED;
+
+  /**
+   * Marker for the minimum severity if nobody is interested in any event.
+   */
+  private static final int NO_INTEREST = Integer.MAX_VALUE;
+
   /**
    * Holds all current event subscribers.
    */
-  private final CopyOnWriteArraySet<Consumer<Event>> subscribers;
+  private final List<Subscriber> subscribers;
 
   /**
-   * Holds the bounded event mpsc queue dealing with all the events.
+   * Holds all the workers which dispatch events to their subscribers.
    */
-  private final Queue<Event> eventQueue;
+  private final List<Worker> workers;
+
+  /**
+   * In {@link DispatchMode#SHARED}, the single worker serving all subscribers.
+   */
+  private final Worker sharedWorker;
 
   /**
    * Contains the state if this event bus is currently running or not.
@@ -83,14 +107,34 @@ public class DefaultEventBus implements EventBus {
   private final String threadName;
 
   /**
-   * The duration to sleep when no events are consumable.
+   * The maximum duration to park when no events are consumable.
    */
-  private final Duration idleSleepDuration;
+  private final long idleParkNanos;
 
   /**
-   * If the event bus is running, this variable holds the thread.
+   * The queue capacity for each worker.
    */
-  private volatile Thread runningThread;
+  private final int queueCapacity;
+
+  /**
+   * How subscribers are mapped onto dispatch threads.
+   */
+  private final DispatchMode dispatchMode;
+
+  /**
+   * Used to give each isolated dispatch thread a unique name.
+   */
+  private final AtomicInteger workerIds;
+
+  /**
+   * The lowest severity ordinal any subscriber is interested in, events below are dropped early.
+   */
+  private volatile int minimumSeverity;
+
+  /**
+   * Snapshot of the workers, so publishing can iterate them without allocating an iterator.
+   */
+  private volatile Worker[] workerSnapshot;
 
   public static DefaultEventBus.Builder builder() {
     return new Builder();
@@ -101,40 +145,110 @@ public class DefaultEventBus implements EventBus {
   }
 
   private DefaultEventBus(final Builder builder) {
-    subscribers = new CopyOnWriteArraySet<>();
+    subscribers = new CopyOnWriteArrayList<>();
+    workers = new CopyOnWriteArrayList<>();
     running = new AtomicBoolean(false);
+    workerIds = new AtomicInteger();
+    minimumSeverity = NO_INTEREST;
 
-    eventQueue = QueueFactory.newQueue(
-      ConcurrentQueueSpec.createBoundedMpsc(builder.queueCapacity)
-    );
     errorLogging = builder.errorLogging.orElse(null);
     threadName = builder.threadName;
-    idleSleepDuration = builder.idleSleepDuration;
+    idleParkNanos = builder.idleSleepDuration.toNanos();
+    queueCapacity = builder.queueCapacity;
+    dispatchMode = builder.dispatchMode;
+
+    if (dispatchMode == DispatchMode.SHARED) {
+      sharedWorker = new Worker(threadName);
+      workers.add(sharedWorker);
+    } else {
+      sharedWorker = null;
+    }
+    refreshSubscribers();
   }
 
   @Override
   public EventSubscription subscribe(final Consumer<Event> consumer) {
-    subscribers.add(consumer);
+    return subscribe(consumer, Event.Severity.VERBOSE);
+  }
+
+  /**
+   * Subscribes a {@link Consumer} which only receives events at or above the given severity.
+   *
+   * <p>Events below the severity of every subscriber are dropped before they are enqueued, so
+   * they do not cost more than the publish call itself.</p>
+   *
+   * @param consumer the consumer which will receive events.
+   * @param minimumSeverity the lowest severity the consumer is interested in.
+   * @return a {@link EventSubscription} that can be used to unsubscribe.
+   */
+  @Override
+  public synchronized EventSubscription subscribe(final Consumer<Event> consumer,
+                                                  final Event.Severity minimumSeverity) {
+    Worker worker;
+    if (dispatchMode == DispatchMode.SHARED) {
+      worker = sharedWorker;
+    } else {
+      worker = new Worker(threadName + "-" + workerIds.incrementAndGet());
+      workers.add(worker);
+    }
+
+    Subscriber subscriber = new Subscriber(consumer, minimumSeverity.ordinal(), worker);
+    subscribers.add(subscriber);
+    worker.subscribers.add(subscriber);
+    worker.refreshSubscribers();
+    refreshSubscribers();
+
+    if (isRunning()) {
+      worker.start();
+    }
     return new EventSubscription(this, consumer);
   }
 
   @Override
-  public void unsubscribe(final EventSubscription subscription) {
-    subscribers.remove(subscription.consumer());
+  public synchronized void unsubscribe(final EventSubscription subscription) {
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.consumer == subscription.consumer()) {
+        subscribers.remove(subscriber);
+        Worker worker = subscriber.worker;
+        worker.subscribers.remove(subscriber);
+        worker.refreshSubscribers();
+        if (worker != sharedWorker) {
+          workers.remove(worker);
+          worker.retire();
+        }
+      }
+    }
+    refreshSubscribers();
+  }
+
+  @Override
+  public boolean isEnabled(final Event.Severity severity) {
+    return severity.ordinal() >= minimumSeverity;
   }
 
   @Override
   public PublishResult publish(final Event event) {
     if (!isRunning()) {
       return PublishResult.SHUTDOWN;
-    } else if (eventQueue.offer(event)) {
+    }
+
+    int severity = severityOf(event);
+    if (severity < minimumSeverity) {
       return PublishResult.SUCCESS;
-    } else {
-      if (errorLogging != null) {
-        errorLogging.println("Could not publish Event because the queue is full. " + event);
+    }
+
+    PublishResult result = PublishResult.SUCCESS;
+    Worker[] workers = workerSnapshot;
+    for (int i = 0; i < workers.length; i++) {
+      Worker worker = workers[i];
+      if (severity >= worker.minimumSeverity && !worker.offer(event)) {
+        if (errorLogging != null) {
+          errorLogging.println("Could not publish Event because the queue is full. " + event);
+        }
+        result = PublishResult.OVERLOADED;
       }
-      return PublishResult.OVERLOADED;
     }
+    return result;
   }
 
   /**
@@ -144,42 +258,9 @@ public class DefaultEventBus implements EventBus {
   public Mono<Void> start() {
     return Mono.defer(() -> {
       if (running.compareAndSet(false, true)) {
-        runningThread = new Thread(() -> {
-          long idleSleepTime = idleSleepDuration.toMillis();
-          while (isRunning() || !eventQueue.isEmpty()) {
-            Event event = eventQueue.poll();
-            while (event != null) {
-              for (Consumer<Event> subscriber : subscribers) {
-                try {
-                  subscriber.accept(event);
-                } catch (Throwable t) {
-                  // any exception thrown in the event consumer is
-                  // ignored, since it would otherwise kill the
-                  // event bus thread!
-                  if (errorLogging != null) {
-                    errorLogging.println("Exception caught in EventBus Consumer: " + t);
-                    t.printStackTrace();
-                  }
-                }
-              }
-              event = eventQueue.poll();
-            }
-
-            try {
-              if (isRunning()) {
-                Thread.sleep(idleSleepTime);
-              }
-            } catch (InterruptedException e) {
-              // If this thread is interrupted, we continue
-              // into the loop early. so if interrupted for
-              // shutdown it completes quickly while sleeping
-            }
-          }
-        });
-
-        runningThread.setDaemon(true);
-        runningThread.setName(threadName);
-        runningThread.start();
+        for (Worker worker : workers) {
+          worker.start();
+        }
       }
       return Mono.empty();
     });
@@ -192,12 +273,14 @@ public class DefaultEventBus implements EventBus {
   public Mono<Void> stop(final Duration timeout) {
     return Mono
       .defer(() -> {
-        if(running.compareAndSet(true, false)) {
-          runningThread.interrupt();
+        if (running.compareAndSet(true, false)) {
+          for (Worker worker : workers) {
+            worker.wakeUp();
+          }
         }
         return Mono.empty();
       })
-      .then(Flux.interval(Duration.ofMillis(10)).takeUntil(i -> !runningThread.isAlive()).then())
+      .then(Flux.interval(Duration.ofMillis(10)).takeUntil(i -> !workersAlive()).then())
       .timeout(timeout);
   }
 
@@ -215,6 +298,194 @@ public class DefaultEventBus implements EventBus {
     return !subscribers.isEmpty();
   }
 
+  /**
+   * True if any of the dispatch threads is still alive.
+   */
+  private boolean workersAlive() {
+    for (Worker worker : workers) {
+      if (worker.alive()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Refreshes the worker snapshot and recomputes the lowest severity any subscriber is interested in.
+   */
+  private void refreshSubscribers() {
+    int min = NO_INTEREST;
+    for (Subscriber subscriber : subscribers) {
+      min = Math.min(min, subscriber.minimumSeverity);
+    }
+    workerSnapshot = workers.toArray(new Worker[0]);
+    minimumSeverity = min;
+  }
+
+  /**
+   * Returns the severity ordinal of the event, events without severity are always delivered.
+   */
+  private static int severityOf(final Event event) {
+    Event.Severity severity = event.severity();
+    return severity == null ? NO_INTEREST - 1 : severity.ordinal();
+  }
+
+  /**
+   * Defines how subscribers are mapped onto dispatch threads.
+   */
+  @Stability.Volatile
+  public enum DispatchMode {
+    /**
+     * All subscribers share one queue and one dispatch thread.
+     */
+    SHARED,
+    /**
+     * Each subscriber gets its own queue and dispatch thread, so a slow subscriber does
+     * not delay events for the others.
+     */
+    ISOLATED
+  }
+
+  /**
+   * A consumer together with the severity it is interested in.
+   */
+  private static class Subscriber {
+
+    private final Consumer<Event> consumer;
+    private final int minimumSeverity;
+    private final Worker worker;
+
+    Subscriber(final Consumer<Event> consumer, final int minimumSeverity, final Worker worker) {
+      this.consumer = consumer;
+      this.minimumSeverity = minimumSeverity;
+      this.worker = worker;
+    }
+  }
+
+  /**
+   * Owns one bounded queue and the thread which drains it into its subscribers.
+   */
+  private class Worker implements Runnable {
+
+    private final String name;
+    private final Queue<Event> queue;
+    private final List<Subscriber> subscribers;
+    private volatile Subscriber[] subscriberSnapshot;
+    private volatile int minimumSeverity;
+    private volatile boolean parked;
+    private volatile boolean retired;
+    private volatile Thread thread;
+
+    Worker(final String name) {
+      this.name = name;
+      this.queue = QueueFactory.newQueue(ConcurrentQueueSpec.createBoundedMpsc(queueCapacity));
+      this.subscribers = new CopyOnWriteArrayList<>();
+      this.subscriberSnapshot = new Subscriber[0];
+      this.minimumSeverity = NO_INTEREST;
+    }
+
+    /**
+     * Enqueues the event and unparks the dispatch thread if it is waiting for work.
+     */
+    boolean offer(final Event event) {
+      if (!queue.offer(event)) {
+        return false;
+      }
+      if (parked) {
+        LockSupport.unpark(thread);
+      }
+      return true;
+    }
+
+    /**
+     * Refreshes the subscriber snapshot used for dispatching and the lowest severity of its subscribers.
+     */
+    void refreshSubscribers() {
+      int min = NO_INTEREST;
+      for (Subscriber subscriber : subscribers) {
+        min = Math.min(min, subscriber.minimumSeverity);
+      }
+      subscriberSnapshot = subscribers.toArray(new Subscriber[0]);
+      minimumSeverity = min;
+    }
+
+    synchronized void start() {
+      if (retired || alive()) {
+        return;
+      }
+      Thread t = new Thread(this);
+      t.setDaemon(true);
+      t.setName(name);
+      thread = t;
+      t.start();
+    }
+
+    /**
+     * Lets the thread drain what is left and then terminate.
+     */
+    void retire() {
+      retired = true;
+      wakeUp();
+    }
+
+    void wakeUp() {
+      Thread t = thread;
+      if (t != null) {
+        LockSupport.unpark(t);
+      }
+    }
+
+    boolean alive() {
+      Thread t = thread;
+      return t != null && t.isAlive();
+    }
+
+    private boolean active() {
+      return isRunning() && !retired;
+    }
+
+    @Override
+    public void run() {
+      while (active() || !queue.isEmpty()) {
+        Event event = queue.poll();
+        if (event != null) {
+          dispatch(event);
+          continue;
+        }
+
+        // Publish the parked state before re-checking the queue, so that a publisher which
+        // enqueued in between either sees the flag and unparks us or we see its event.
+        parked = true;
+        if (queue.isEmpty() && active()) {
+          LockSupport.parkNanos(this, idleParkNanos);
+        }
+        parked = false;
+      }
+    }
+
+    private void dispatch(final Event event) {
+      int severity = severityOf(event);
+      Subscriber[] subscribers = subscriberSnapshot;
+      for (int i = 0; i < subscribers.length; i++) {
+        Subscriber subscriber = subscribers[i];
+        if (severity < subscriber.minimumSeverity) {
+          continue;
+        }
+        try {
+          subscriber.consumer.accept(event);
+        } catch (Throwable t) {
+          // any exception thrown in the event consumer is
+          // ignored, since it would otherwise kill the
+          // event bus thread!
+          if (errorLogging != null) {
+            errorLogging.println("Exception caught in EventBus Consumer: " + t);
+            t.printStackTrace();
+          }
+        }
+      }
+    }
+  }
+
   /**
    * Allows to modify the default configuration of the {@link DefaultEventBus}.
    */
@@ -224,14 +495,19 @@ public class DefaultEventBus implements EventBus {
     Optional<PrintStream> errorLogging;
     String threadName;
     Duration idleSleepDuration;
+    DispatchMode dispatchMode;
 
     Builder() {
       queueCapacity = DEFAULT_QUEUE_CAPACITY;
       errorLogging = Optional.of(System.err);
       threadName = "cb-events";
       idleSleepDuration = DEFAULT_IDLE_SLEEP_DURATION;
+      dispatchMode = DEFAULT_DISPATCH_MODE;
     }
 
+    /**
+     * The capacity of each event queue (one per dispatch thread).
+     */
     public Builder queueCapacity(final int queueCapacity) {
       this.queueCapacity = queueCapacity;
       return this;
@@ -242,16 +518,32 @@ public class DefaultEventBus implements EventBus {
       return this;
     }
 
+    /**
+     * The name of the dispatch thread, in {@link DispatchMode#ISOLATED} used as a prefix.
+     */
     public Builder threadName(final String threadName) {
       this.threadName = threadName;
       return this;
     }
 
+    /**
+     * The maximum time a dispatch thread parks before checking its queue again if it is not
+     * woken up by a publisher.
+     */
     public Builder idleSleepDuration(final Duration idleSleepDuration) {
       this.idleSleepDuration = idleSleepDuration;
       return this;
     }
 
+    /**
+     * Configures how subscribers are mapped onto dispatch threads.
+     */
+    @Stability.Volatile
+    public Builder dispatchMode(final DispatchMode dispatchMode) {
+      this.dispatchMode = dispatchMode;
+      return this;
+    }
+
     public DefaultEventBus build() {
       return new DefaultEventBus(this);
     }
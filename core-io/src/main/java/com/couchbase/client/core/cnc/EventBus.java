@@ -16,6 +16,7 @@
 
 package com.couchbase.client.core.cnc;
 
+import com.couchbase.client.core.annotation.Stability;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -38,6 +39,21 @@ public interface EventBus {
    */
   PublishResult publish(Event event);
 
+  /**
+   * Checks if any subscriber is interested in events of the given severity.
+   *
+   * <p>Hot code paths should call this before constructing the event, so that events nobody
+   * listens to do not cost an allocation. The default implementation assumes that everything
+   * is of interest.</p>
+   *
+   * @param severity the severity of the event which is about to be published.
+   * @return true if an event of this severity would be delivered to at least one subscriber.
+   */
+  @Stability.Volatile
+  default boolean isEnabled(final Event.Severity severity) {
+    return true;
+  }
+
   /**
    * Subscribes a {@link Consumer} to receive {@link Event Events}.
    *
@@ -46,6 +62,26 @@ public interface EventBus {
    */
   EventSubscription subscribe(Consumer<Event> consumer);
 
+  /**
+   * Subscribes a {@link Consumer} to receive only {@link Event Events} at or above the given
+   * severity.
+   *
+   * <p>Implementations are encouraged to drop events nobody is interested in before they are
+   * enqueued, the default implementation only filters them before they reach the consumer.</p>
+   *
+   * @param consumer the consumer which will receive events.
+   * @param minimumSeverity the lowest severity the consumer is interested in.
+   * @return a {@link EventSubscription} that can be used to unsubscribe.
+   */
+  @Stability.Volatile
+  default EventSubscription subscribe(final Consumer<Event> consumer, final Event.Severity minimumSeverity) {
+    return subscribe(event -> {
+      if (event.severity() == null || event.severity().ordinal() >= minimumSeverity.ordinal()) {
+        consumer.accept(event);
+      }
+    });
+  }
+
   /**
    * Unsubscribes the {@link Consumer} from this {@link EventBus}.
    *
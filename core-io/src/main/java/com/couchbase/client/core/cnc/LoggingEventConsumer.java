@@ -90,6 +90,42 @@ public class LoggingEventConsumer implements Consumer<Event> {
     return logger;
   }
 
+  private Logger logger(final String category) {
+    Logger logger = loggers.get(category);
+    if (logger == null) {
+      logger = createLogger(category);
+      loggers.put(category, logger);
+    }
+    return logger;
+  }
+
+  /**
+   * Returns the lowest severity which the logger of at least one category would log right now.
+   *
+   * <p>The levels of the loggers are only checked when this method is called, so this has to happen before
+   * the consumer is subscribed to the event bus. Loggers which are made more verbose later on are not
+   * reflected.</p>
+   *
+   * @return the lowest enabled severity, or {@link Event.Severity#ERROR} if no level is enabled at all.
+   */
+  @Stability.Internal
+  public Event.Severity minimumEnabledSeverity() {
+    Event.Severity minimum = Event.Severity.ERROR;
+    for (Event.Category category : Event.Category.values()) {
+      Logger logger = logger(category.path());
+      if (logger.isTraceEnabled()) {
+        return Event.Severity.VERBOSE;
+      } else if (logger.isDebugEnabled()) {
+        minimum = Event.Severity.DEBUG;
+      } else if (logger.isInfoEnabled() && minimum.ordinal() > Event.Severity.INFO.ordinal()) {
+        minimum = Event.Severity.INFO;
+      } else if (logger.isWarnEnabled() && minimum.ordinal() > Event.Severity.WARN.ordinal()) {
+        minimum = Event.Severity.WARN;
+      }
+    }
+    return minimum;
+  }
+
   @Override
   public void accept(final Event event) {
     if (event.severity() == Event.Severity.TRACING) {
@@ -119,11 +155,7 @@ public class LoggingEventConsumer implements Consumer<Event> {
 
     String logLine = logLineBuilder.toString();
 
-    Logger logger = loggers.get(event.category());
-    if (logger == null) {
-      logger = createLogger(event.category());
-      loggers.put(event.category(), logger);
-    }
+    Logger logger = logger(event.category());
 
     boolean diagnosticContext = loggerConfig.diagnosticContextEnabled() && event.context() instanceof RequestContext;
 
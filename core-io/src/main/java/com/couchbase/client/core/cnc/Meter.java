@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The {@link Meter} describes the metrics abstraction in the SDK.
+ * <p>
+ * The SDK records values (like request latencies) into {@link ValueRecorder ValueRecorders}, which are
+ * identified by their name and a set of tags. Recording happens on the hot path, so implementations must keep
+ * {@link ValueRecorder#recordValue(long)} cheap and lock-free. Callers are expected to hold on to the recorders
+ * they got instead of looking them up for every value.
+ */
+@Stability.Volatile
+public interface Meter {
+
+  /**
+   * The name of the recorder which tracks the latency between writing a request and receiving its response.
+   */
+  String METRIC_DISPATCH_LATENCY = "cb.dispatch_latency";
+
+  /**
+   * The name of the recorder which tracks how many durability waits a single observe poll answered.
+   */
+  String METRIC_OBSERVE_FANOUT = "cb.observe_fanout";
+
+  /**
+   * The tag holding the service identifier (i.e. "kv" or "query").
+   */
+  String TAG_SERVICE = "cb.service";
+
+  /**
+   * The tag holding the name of the operation (i.e. the kv opcode).
+   */
+  String TAG_OPERATION = "cb.operation";
+
+  /**
+   * The tag holding the address of the remote node.
+   */
+  String TAG_REMOTE = "cb.remote";
+
+  /**
+   * The tag holding the name of the bucket, if applicable.
+   */
+  String TAG_BUCKET = "cb.bucket";
+
+  /**
+   * Returns the value recorder for the given name and tags, creating it if needed.
+   *
+   * @param name the name of the recorder.
+   * @param tags the tags which further identify the recorder.
+   * @return the value recorder.
+   */
+  ValueRecorder valueRecorder(String name, Map<String, String> tags);
+
+  /**
+   * Starts the meter if it hasn't been started, might be a noop depending on the implementation.
+   */
+  Mono<Void> start();
+
+  /**
+   * Stops the meter if it has been started previously, might be a noop depending on the implementation.
+   */
+  Mono<Void> stop(Duration timeout);
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.cnc.events.io;
+
+import com.couchbase.client.core.cnc.AbstractEvent;
+import com.couchbase.client.core.io.IoContext;
+
+import java.time.Duration;
+
+/**
+ * This event is raised once the TLS handshake of a channel completed successfully.
+ *
+ * <p>The duration is the time the handshake took. Handshakes which resumed a previous session skip the
+ * key exchange and should be considerably faster than full ones.</p>
+ *
+ * @since 2.0.0
+ */
+public class SecureConnectionEstablishedEvent extends AbstractEvent {
+
+  private final boolean resumed;
+  private final String protocol;
+  private final String cipherSuite;
+
+  public SecureConnectionEstablishedEvent(final Duration duration, final IoContext context, final boolean resumed,
+                                          final String protocol, final String cipherSuite) {
+    super(Severity.DEBUG, Category.IO, duration, context);
+    this.resumed = resumed;
+    this.protocol = protocol;
+    this.cipherSuite = cipherSuite;
+  }
+
+  /**
+   * Returns true if the handshake resumed a previous session instead of performing a full handshake.
+   */
+  public boolean resumed() {
+    return resumed;
+  }
+
+  /**
+   * Returns the negotiated protocol (i.e. TLSv1.2).
+   */
+  public String protocol() {
+    return protocol;
+  }
+
+  /**
+   * Returns the negotiated cipher suite.
+   */
+  public String cipherSuite() {
+    return cipherSuite;
+  }
+
+  @Override
+  public String description() {
+    return (resumed ? "Resumed" : "Established") + " secure connection using " + protocol + " (" + cipherSuite + ")";
+  }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.events.metrics;
+
+import com.couchbase.client.core.cnc.AbstractEvent;
+import com.couchbase.client.core.json.Mapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits the hit ratio and related statistics of the client-side near caches, per collection, over the last interval.
+ */
+public class NearCacheMetricsAggregatedEvent extends AbstractEvent {
+
+  private final List<Map<String, Object>> caches;
+
+  public NearCacheMetricsAggregatedEvent(final Duration duration, final List<Map<String, Object>> caches) {
+    super(Severity.INFO, Category.METRICS, duration, null);
+    this.caches = caches;
+  }
+
+  public List<Map<String, Object>> caches() {
+    return caches;
+  }
+
+  @Override
+  public String description() {
+    return "Aggregated near cache metrics: " + Mapper.encodeAsString(caches);
+  }
+
+}
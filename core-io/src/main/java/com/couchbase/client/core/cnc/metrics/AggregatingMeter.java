@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.LatencyMetricsAggregatedEvent;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The default metrics implementation, which aggregates the recorded values into histograms and emits their
+ * percentiles at configurable intervals on the {@link EventBus}.
+ *
+ * <p>Recorders are tagged with things like the remote host, so a recorder which has not seen a value for a whole
+ * interval is dropped. Otherwise recorders would pile up (and be reported) for nodes long gone.</p>
+ */
+public class AggregatingMeter implements Meter {
+
+  private static final AtomicInteger METER_ID = new AtomicInteger();
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final Map<RecorderIdentifier, AggregatingValueRecorder> recorders = new ConcurrentHashMap<>();
+  private final EventBus eventBus;
+  private final Thread worker;
+  private final long emitIntervalNanos;
+
+  /**
+   * Creates a builder to customize this meter.
+   *
+   * @param eventBus the event bus where the aggregated metrics will be emitted into.
+   * @return the builder to customize.
+   */
+  public static Builder builder(final EventBus eventBus) {
+    return new Builder(eventBus);
+  }
+
+  /**
+   * Short-hand to create the meter with the event bus that needs to be used.
+   *
+   * @param eventBus the event bus where the aggregated metrics will be emitted into.
+   * @return the created meter ready to be used.
+   */
+  public static AggregatingMeter create(final EventBus eventBus) {
+    return builder(eventBus).build();
+  }
+
+  private AggregatingMeter(final Builder builder) {
+    this.eventBus = builder.eventBus;
+    this.emitIntervalNanos = builder.emitInterval.toNanos();
+
+    worker = new Thread(new Worker());
+    worker.setDaemon(true);
+  }
+
+  @Override
+  public ValueRecorder valueRecorder(final String name, final Map<String, String> tags) {
+    return recorders.computeIfAbsent(
+      new RecorderIdentifier(name, tags),
+      id -> new AggregatingValueRecorder(id.name, id.tags, this::reinstate)
+    );
+  }
+
+  /**
+   * Registers a recorder which has been dropped for being idle again, since it is still in use.
+   *
+   * @param recorder the recorder to register.
+   * @return the recorder which is registered for its name and tags now.
+   */
+  private AggregatingValueRecorder reinstate(final AggregatingValueRecorder recorder) {
+    AggregatingValueRecorder existing = recorders.putIfAbsent(
+      new RecorderIdentifier(recorder.name(), recorder.tags()),
+      recorder
+    );
+    return existing == null ? recorder : existing;
+  }
+
+  @Override
+  public Mono<Void> start() {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(false, true)) {
+        worker.start();
+      }
+      return Mono.empty();
+    });
+  }
+
+  @Override
+  public Mono<Void> stop(final Duration timeout) {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(true, false)) {
+        worker.interrupt();
+      }
+      return Mono.empty();
+    });
+  }
+
+  /**
+   * Swaps out the current interval of every recorder and emits the ones which recorded values.
+   *
+   * <p>The intervals are swapped out even if the event is not enabled, so they do not grow without bound.
+   * Recorders without values in the interval are dropped.</p>
+   */
+  void emitIntervals() {
+    List<Map<String, Object>> output = new ArrayList<>();
+    for (Map.Entry<RecorderIdentifier, AggregatingValueRecorder> entry : recorders.entrySet()) {
+      AggregatingValueRecorder recorder = entry.getValue();
+      Map<String, Object> exported = recorder.exportInterval();
+      if (exported != null) {
+        output.add(exported);
+      } else if (recorders.remove(entry.getKey(), recorder)) {
+        recorder.evicted();
+      }
+    }
+    if (!output.isEmpty() && eventBus.isEnabled(Event.Severity.DEBUG)) {
+      eventBus.publish(new LatencyMetricsAggregatedEvent(Duration.ofNanos(emitIntervalNanos), output));
+    }
+  }
+
+  /**
+   * The worker periodically emits the aggregated intervals.
+   */
+  private class Worker implements Runnable {
+
+    @Override
+    public void run() {
+      Thread.currentThread().setName("cb-metrics-" + METER_ID.incrementAndGet());
+
+      while (running.get()) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(emitIntervalNanos);
+          emitIntervals();
+        } catch (final InterruptedException ex) {
+          if (!running.get()) {
+            return;
+          } else {
+            Thread.currentThread().interrupt();
+          }
+        } catch (final Exception ex) {
+          // ignored, the next interval will be emitted regardless.
+        }
+      }
+    }
+  }
+
+  /**
+   * Identifies a recorder by its name and tags.
+   */
+  private static class RecorderIdentifier {
+
+    private final String name;
+    private final Map<String, String> tags;
+
+    RecorderIdentifier(final String name, final Map<String, String> tags) {
+      this.name = name;
+      this.tags = tags == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(tags));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      RecorderIdentifier that = (RecorderIdentifier) o;
+      return name.equals(that.name) && tags.equals(that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, tags);
+    }
+  }
+
+  /**
+   * The builder used to configure the {@link AggregatingMeter}.
+   */
+  public static class Builder {
+
+    private static final Duration DEFAULT_EMIT_INTERVAL = Duration.ofSeconds(10);
+
+    private final EventBus eventBus;
+
+    private Duration emitInterval = DEFAULT_EMIT_INTERVAL;
+
+    Builder(final EventBus eventBus) {
+      this.eventBus = eventBus;
+    }
+
+    public AggregatingMeter build() {
+      return new AggregatingMeter(this);
+    }
+
+    /**
+     * Allows to customize the emit interval.
+     *
+     * @param emitInterval the interval to use.
+     * @return this builder for chaining.
+     */
+    public Builder emitInterval(final Duration emitInterval) {
+      if (emitInterval.isZero()) {
+        throw new IllegalArgumentException("Emit interval needs to be greater than 0");
+      }
+
+      this.emitInterval = emitInterval;
+      return this;
+    }
+
+  }
+
+}
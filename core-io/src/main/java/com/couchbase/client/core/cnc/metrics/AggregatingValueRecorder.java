@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.deps.org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A {@link ValueRecorder} which aggregates its values into a histogram, which is periodically swapped out and
+ * reported by the {@link AggregatingMeter}.
+ *
+ * <p>Recording is wait-free, so it is cheap enough to be done for every request.</p>
+ *
+ * <p>The meter drops recorders which have been idle for an interval, but callers may still hold on to them. Such a
+ * recorder registers itself with the meter again once it records a value, or forwards to the recorder which took
+ * its place in the meantime.</p>
+ */
+class AggregatingValueRecorder implements ValueRecorder {
+
+  /**
+   * The percentiles which are reported for every interval.
+   */
+  private static final double[] PERCENTILES = new double[] { 50.0, 90.0, 99.0, 99.9, 100.0 };
+
+  /**
+   * Two significant digits keep the histograms small while still being within 1% of the actual value.
+   */
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final String name;
+  private final Map<String, String> tags;
+  private final Recorder recorder;
+
+  /**
+   * Registers an evicted recorder with the meter again, returning the recorder registered in its place, if any.
+   */
+  private final Function<AggregatingValueRecorder, AggregatingValueRecorder> reinstate;
+
+  /**
+   * Set once the meter dropped this recorder for being idle, until it records a value again.
+   */
+  private volatile boolean evicted;
+
+  /**
+   * If set, values are recorded there since another recorder took the place of this one while it was evicted.
+   */
+  private volatile AggregatingValueRecorder replacement;
+
+  /**
+   * Holds the last interval histogram, only accessed by the reporting thread so it can be recycled.
+   */
+  private Histogram intervalHistogram;
+
+  AggregatingValueRecorder(final String name, final Map<String, String> tags,
+                           final Function<AggregatingValueRecorder, AggregatingValueRecorder> reinstate) {
+    this.name = name;
+    this.tags = tags;
+    this.reinstate = reinstate;
+    this.recorder = new Recorder(SIGNIFICANT_DIGITS);
+  }
+
+  @Override
+  public void recordValue(final long value) {
+    final AggregatingValueRecorder target = replacement;
+    if (target != null) {
+      target.recordValue(value);
+      return;
+    }
+
+    recorder.recordValue(Math.max(value, 0));
+    if (evicted) {
+      evicted = false;
+      final AggregatingValueRecorder registered = reinstate.apply(this);
+      if (registered != null && registered != this) {
+        replacement = registered;
+        registered.recordValue(value);
+      }
+    }
+  }
+
+  /**
+   * Marks this recorder as dropped by the meter, must be called after it has been removed.
+   */
+  void evicted() {
+    evicted = true;
+  }
+
+  String name() {
+    return name;
+  }
+
+  Map<String, String> tags() {
+    return tags;
+  }
+
+  /**
+   * Swaps out the current interval and exports its values.
+   *
+   * <p>Must only be called from one thread at a time.</p>
+   *
+   * @return the exported interval, or null if no values have been recorded in it.
+   */
+  Map<String, Object> exportInterval() {
+    intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+    long count = intervalHistogram.getTotalCount();
+    if (count == 0) {
+      return null;
+    }
+
+    Map<String, Object> percentiles = new LinkedHashMap<>();
+    for (double percentile : PERCENTILES) {
+      percentiles.put(Double.toString(percentile), intervalHistogram.getValueAtPercentile(percentile));
+    }
+
+    Map<String, Object> output = new LinkedHashMap<>();
+    output.put("name", name);
+    output.put("tags", tags);
+    output.put("count", count);
+    output.put("percentiles", percentiles);
+    return output;
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.msg.RequestContext;
+
+/**
+ * Provides the span implementation for the {@link SamplingRequestTracer}.
+ * <p>
+ * Next to the request context it only keeps the operation name and the time spent encoding the payload, the
+ * dispatch and server durations are taken from the request context once finished.
+ */
+public class SamplingInternalSpan implements InternalSpan {
+
+  private final SamplingRequestTracer tracer;
+  private final String operationName;
+
+  private volatile RequestContext ctx;
+  private long encodeStart;
+  private long encodeLatency;
+
+  SamplingInternalSpan(final SamplingRequestTracer tracer, final String operationName, final RequestSpan parent) {
+    this.tracer = tracer;
+    this.operationName = operationName;
+  }
+
+  @Override
+  public void finish() {
+    tracer.finish(this);
+  }
+
+  @Override
+  public void requestContext(final RequestContext ctx) {
+    this.ctx = ctx;
+  }
+
+  @Override
+  public RequestContext requestContext() {
+    return ctx;
+  }
+
+  String operationName() {
+    return operationName;
+  }
+
+  /**
+   * Returns the time spent encoding the payload in nanoseconds, 0 if not encoded.
+   */
+  long encodeLatency() {
+    return encodeLatency;
+  }
+
+  @Override
+  public void startPayloadEncoding() {
+    encodeStart = System.nanoTime();
+  }
+
+  @Override
+  public void stopPayloadEncoding() {
+    if (encodeStart != 0) {
+      encodeLatency += System.nanoTime() - encodeStart;
+      encodeStart = 0;
+    }
+  }
+
+  @Override
+  public void startDispatch() {
+  }
+
+  @Override
+  public void stopDispatch() {
+  }
+
+}
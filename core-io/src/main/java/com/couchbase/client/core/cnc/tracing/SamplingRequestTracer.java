@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.cnc.events.tracing.RequestsSampledEvent;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.service.ServiceType;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An always-on tracer which aggregates the encode, dispatch and server durations of every request per service
+ * and keeps a random sample of them, emitting both at configurable intervals.
+ * <p>
+ * In contrast to the {@link ThresholdRequestTracer}, finished requests are not queued up for a worker thread.
+ * Their timings are copied into compact fixed-size records right away (see {@link SpanReservoir}), so the memory
+ * used stays bounded and the cost per request stays constant even if the cluster is overloaded and every request
+ * is slow.
+ * <p>
+ * If passed into the environment, the tracer needs to be started and stopped by the caller.
+ */
+public class SamplingRequestTracer implements RequestTracer {
+
+  private static final AtomicInteger REQUEST_TRACER_ID = new AtomicInteger();
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final EventBus eventBus;
+  private final Thread worker;
+  private final long emitIntervalNanos;
+
+  /**
+   * Holds the reservoir per service, indexed by the ordinal of the {@link ServiceType}.
+   */
+  private final SpanReservoir[] reservoirs;
+
+  /**
+   * Creates a builder to customize this tracer.
+   *
+   * @param eventBus the event bus where the sampled requests will be emitted into.
+   * @return the builder to customize.
+   */
+  public static Builder builder(final EventBus eventBus) {
+    return new Builder(eventBus);
+  }
+
+  /**
+   * Short-hand to create the tracer with the event bus that needs to be used.
+   *
+   * @param eventBus the event bus where the sampled requests will be emitted into.
+   * @return the created tracer ready to be used.
+   */
+  public static SamplingRequestTracer create(final EventBus eventBus) {
+    return builder(eventBus).build();
+  }
+
+  private SamplingRequestTracer(final Builder builder) {
+    this.eventBus = builder.eventBus;
+    this.emitIntervalNanos = builder.emitInterval.toNanos();
+
+    reservoirs = new SpanReservoir[ServiceType.values().length];
+    reservoirs[ServiceType.KV.ordinal()] = new SpanReservoir(SERVICE_IDENTIFIER_KV, builder.sampleSize);
+    reservoirs[ServiceType.QUERY.ordinal()] = new SpanReservoir(SERVICE_IDENTIFIER_QUERY, builder.sampleSize);
+    reservoirs[ServiceType.VIEWS.ordinal()] = new SpanReservoir(SERVICE_IDENTIFIER_VIEW, builder.sampleSize);
+    reservoirs[ServiceType.SEARCH.ordinal()] = new SpanReservoir(SERVICE_IDENTIFIER_SEARCH, builder.sampleSize);
+    reservoirs[ServiceType.ANALYTICS.ordinal()] = new SpanReservoir(SERVICE_IDENTIFIER_ANALYTICS, builder.sampleSize);
+
+    worker = new Thread(new Worker());
+    worker.setDaemon(true);
+  }
+
+  @Override
+  public InternalSpan span(final String operationName, final RequestSpan parent) {
+    return new SamplingInternalSpan(this, operationName, parent);
+  }
+
+  /**
+   * Finishes the span by recording its timings into the reservoir of its service.
+   *
+   * @param span the finished internal span from the toplevel request.
+   */
+  void finish(final SamplingInternalSpan span) {
+    final RequestContext ctx = span.requestContext();
+    if (ctx == null) {
+      return;
+    }
+    final SpanReservoir reservoir = reservoirs[ctx.request().serviceType().ordinal()];
+    if (reservoir != null) {
+      reservoir.record(
+        span.operationName(),
+        ctx.logicalRequestLatency(),
+        span.encodeLatency(),
+        ctx.dispatchLatency(),
+        ctx.serverLatency(),
+        ctx.lastDispatchedTo()
+      );
+    }
+  }
+
+  @Override
+  public Mono<Void> start() {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(false, true)) {
+        worker.start();
+      }
+      return Mono.empty();
+    });
+  }
+
+  @Override
+  public Mono<Void> stop(final Duration timeout) {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(true, false)) {
+        worker.interrupt();
+      }
+      return Mono.empty();
+    });
+  }
+
+  /**
+   * Exports the current interval of every service and emits the ones which recorded requests.
+   */
+  void emitIntervals() {
+    List<Map<String, Object>> output = new ArrayList<>();
+    for (SpanReservoir reservoir : reservoirs) {
+      if (reservoir != null) {
+        Map<String, Object> exported = reservoir.exportInterval();
+        if (exported != null) {
+          output.add(exported);
+        }
+      }
+    }
+    if (!output.isEmpty()) {
+      eventBus.publish(new RequestsSampledEvent(Duration.ofNanos(emitIntervalNanos), output));
+    }
+  }
+
+  /**
+   * The worker periodically emits the sampled intervals.
+   */
+  private class Worker implements Runnable {
+
+    @Override
+    public void run() {
+      Thread.currentThread().setName("cb-tracing-" + REQUEST_TRACER_ID.incrementAndGet());
+
+      while (running.get()) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(emitIntervalNanos);
+          emitIntervals();
+        } catch (final InterruptedException ex) {
+          if (!running.get()) {
+            return;
+          } else {
+            Thread.currentThread().interrupt();
+          }
+        } catch (final Exception ex) {
+          // ignored, the next interval will be emitted regardless.
+        }
+      }
+    }
+  }
+
+  /**
+   * The builder used to configure the {@link SamplingRequestTracer}.
+   */
+  public static class Builder {
+
+    private static final Duration DEFAULT_EMIT_INTERVAL = Duration.ofSeconds(10);
+    private static final int DEFAULT_SAMPLE_SIZE = 10;
+
+    private final EventBus eventBus;
+
+    private Duration emitInterval = DEFAULT_EMIT_INTERVAL;
+    private int sampleSize = DEFAULT_SAMPLE_SIZE;
+
+    Builder(final EventBus eventBus) {
+      this.eventBus = eventBus;
+    }
+
+    public SamplingRequestTracer build() {
+      return new SamplingRequestTracer(this);
+    }
+
+    /**
+     * Allows to customize the emit interval.
+     *
+     * @param emitInterval the interval to use.
+     * @return this builder for chaining.
+     */
+    public Builder emitInterval(final Duration emitInterval) {
+      if (emitInterval.isZero()) {
+        throw new IllegalArgumentException("Emit interval needs to be greater than 0");
+      }
+
+      this.emitInterval = emitInterval;
+      return this;
+    }
+
+    /**
+     * Allows to customize the number of requests sampled per service and interval.
+     *
+     * @param sampleSize the sample size to set.
+     * @return this builder for chaining.
+     */
+    public Builder sampleSize(final int sampleSize) {
+      if (sampleSize < 1) {
+        throw new IllegalArgumentException("Sample size needs to be greater than 0");
+      }
+
+      this.sampleSize = sampleSize;
+      return this;
+    }
+
+  }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.util.HostAndPort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.couchbase.client.core.logging.RedactableArgument.redactSystem;
+
+/**
+ * Aggregates the span timings of one service and keeps a uniform random sample of them per interval.
+ *
+ * <p>The sample is stored as fixed-size records in preallocated arrays and filled through reservoir sampling,
+ * so neither the request nor anything it references is retained and the memory is bounded by the sample size
+ * no matter how many requests are recorded. Recording never blocks: the write guard is only acquired once a
+ * request has been picked for the sample, and if another thread is writing a record at the same time, the sample
+ * is skipped but still counted in the aggregates.</p>
+ */
+class SpanReservoir {
+
+  static final String KEY_TOTAL_MICROS = "total_us";
+  static final String KEY_ENCODE_MICROS = "encode_us";
+  static final String KEY_DISPATCH_MICROS = "last_dispatch_us";
+  static final String KEY_SERVER_MICROS = "server_us";
+
+  private final String service;
+  private final int capacity;
+
+  private final String[] operations;
+  private final long[] totals;
+  private final long[] encodes;
+  private final long[] dispatches;
+  private final long[] servers;
+  private final HostAndPort[] remotes;
+
+  /**
+   * Guards the records, held only for the duration of a single write or an export.
+   */
+  private final AtomicBoolean writing = new AtomicBoolean(false);
+
+  /**
+   * The number of requests seen in this interval, which drives the reservoir sampling.
+   *
+   * <p>Concurrent recorders might read the same count, so a slot can be written twice while another one stays
+   * empty. That only makes the sample a little smaller, but keeps the counter free of contention.</p>
+   */
+  private final LongAdder seen = new LongAdder();
+
+  private final Breakdown total = new Breakdown();
+  private final Breakdown encode = new Breakdown();
+  private final Breakdown dispatch = new Breakdown();
+  private final Breakdown server = new Breakdown();
+
+  SpanReservoir(final String service, final int capacity) {
+    this.service = service;
+    this.capacity = capacity;
+    this.operations = new String[capacity];
+    this.totals = new long[capacity];
+    this.encodes = new long[capacity];
+    this.dispatches = new long[capacity];
+    this.servers = new long[capacity];
+    this.remotes = new HostAndPort[capacity];
+  }
+
+  /**
+   * Records the timings of a single finished request, all durations in nanoseconds.
+   */
+  void record(final String operation, final long totalNanos, final long encodeNanos, final long dispatchNanos,
+              final long serverNanos, final HostAndPort remote) {
+    total.record(totalNanos);
+    encode.record(encodeNanos);
+    dispatch.record(dispatchNanos);
+    server.record(serverNanos);
+
+    seen.increment();
+    final long n = seen.sum();
+    final int slot;
+    if (n <= capacity) {
+      slot = (int) (n - 1);
+    } else {
+      final long candidate = ThreadLocalRandom.current().nextLong(n);
+      if (candidate >= capacity) {
+        return;
+      }
+      slot = (int) candidate;
+    }
+
+    if (!writing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      operations[slot] = operation;
+      totals[slot] = totalNanos;
+      encodes[slot] = encodeNanos;
+      dispatches[slot] = dispatchNanos;
+      servers[slot] = serverNanos;
+      remotes[slot] = remote;
+    } finally {
+      writing.set(false);
+    }
+  }
+
+  /**
+   * Exports the aggregates and the sample of the current interval and starts a new one.
+   *
+   * <p>Must only be called from one thread at a time.</p>
+   *
+   * @return the exported interval, or null if no requests have been recorded in it.
+   */
+  Map<String, Object> exportInterval() {
+    final long count = total.count.sumThenReset();
+    if (count == 0) {
+      return null;
+    }
+
+    List<Map<String, Object>> samples = new ArrayList<>(capacity);
+    while (!writing.compareAndSet(false, true)) {
+      Thread.yield();
+    }
+    try {
+      seen.reset();
+      for (int i = 0; i < capacity; i++) {
+        if (operations[i] == null) {
+          continue;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("operation_name", operations[i]);
+        putMicros(entry, KEY_TOTAL_MICROS, totals[i]);
+        putMicros(entry, KEY_ENCODE_MICROS, encodes[i]);
+        putMicros(entry, KEY_DISPATCH_MICROS, dispatches[i]);
+        putMicros(entry, KEY_SERVER_MICROS, servers[i]);
+        if (remotes[i] != null) {
+          entry.put("last_remote_address", redactSystem(remotes[i]).toString());
+        }
+        samples.add(entry);
+        operations[i] = null;
+        remotes[i] = null;
+      }
+    } finally {
+      writing.set(false);
+    }
+    samples.sort((o1, o2) -> Long.compare((Long) o2.get(KEY_TOTAL_MICROS), (Long) o1.get(KEY_TOTAL_MICROS)));
+
+    Map<String, Object> output = new LinkedHashMap<>();
+    output.put("service", service);
+    output.put("count", count);
+    output.put(KEY_TOTAL_MICROS, total.export(count));
+    putBreakdown(output, KEY_ENCODE_MICROS, encode);
+    putBreakdown(output, KEY_DISPATCH_MICROS, dispatch);
+    putBreakdown(output, KEY_SERVER_MICROS, server);
+    output.put("samples", samples);
+    return output;
+  }
+
+  private static void putMicros(final Map<String, Object> entry, final String key, final long nanos) {
+    if (key.equals(KEY_TOTAL_MICROS) || nanos > 0) {
+      entry.put(key, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+  }
+
+  private static void putBreakdown(final Map<String, Object> output, final String key, final Breakdown breakdown) {
+    final long count = breakdown.count.sumThenReset();
+    if (count > 0) {
+      output.put(key, breakdown.export(count));
+    } else {
+      breakdown.reset();
+    }
+  }
+
+  /**
+   * Sums up the positive durations of one span and tracks their maximum.
+   */
+  private static class Breakdown {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(final long nanos) {
+      if (nanos > 0) {
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+      }
+    }
+
+    Map<String, Object> export(final long count) {
+      Map<String, Object> output = new LinkedHashMap<>();
+      output.put("avg", TimeUnit.NANOSECONDS.toMicros(sum.sumThenReset() / count));
+      output.put("max", TimeUnit.NANOSECONDS.toMicros(max.getThenReset()));
+      return output;
+    }
+
+    void reset() {
+      sum.reset();
+      max.reset();
+    }
+
+  }
+
+}
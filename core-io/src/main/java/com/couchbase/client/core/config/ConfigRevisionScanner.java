@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+
+/**
+ * Extracts the revision of a raw bucket config without parsing it.
+ *
+ * <p>The scan walks over the bytes of the config only until it finds the toplevel {@code rev} field (which the
+ * server usually writes at the very beginning), skipping over strings and nested objects and arrays without
+ * allocating anything. This makes it cheap enough to run on the event loop for every config carried in a
+ * response, so that only configs which are actually newer need to be decoded and parsed.</p>
+ *
+ * @since 2.0.0
+ */
+final class ConfigRevisionScanner {
+
+  /**
+   * Returned if the config is not a JSON object or does not carry a toplevel revision.
+   */
+  static final long NO_REVISION = -1;
+
+  private ConfigRevisionScanner() { }
+
+  /**
+   * Checks if the readable bytes, ignoring leading whitespace, start a JSON object.
+   *
+   * @param config the raw config.
+   * @return true if it starts with an opening brace.
+   */
+  static boolean isObject(final ByteBuf config) {
+    final int start = skipWhitespace(config, config.readerIndex(), config.writerIndex());
+    return start < config.writerIndex() && config.getByte(start) == '{';
+  }
+
+  /**
+   * Scans the readable bytes of the raw config for its toplevel revision.
+   *
+   * <p>The reader index of the config is not modified.</p>
+   *
+   * @param config the raw config.
+   * @return the revision, or {@link #NO_REVISION} if none is found.
+   */
+  static long revision(final ByteBuf config) {
+    final int end = config.writerIndex();
+    if (!isObject(config)) {
+      return NO_REVISION;
+    }
+
+    int depth = 0;
+    for (int i = skipWhitespace(config, config.readerIndex(), end); i < end; i++) {
+      final byte b = config.getByte(i);
+      if (b == '"') {
+        final int start = i + 1;
+        i = endOfString(config, start, end);
+        if (i < 0) {
+          return NO_REVISION;
+        }
+        if (depth == 1 && isRev(config, start, i)) {
+          final int colon = skipWhitespace(config, i + 1, end);
+          if (colon < end && config.getByte(colon) == ':') {
+            return number(config, skipWhitespace(config, colon + 1, end), end);
+          }
+        }
+      } else if (b == '{' || b == '[') {
+        depth++;
+      } else if (b == '}' || b == ']') {
+        if (--depth == 0) {
+          return NO_REVISION;
+        }
+      }
+    }
+    return NO_REVISION;
+  }
+
+  private static boolean isRev(final ByteBuf config, final int start, final int end) {
+    return end - start == 3
+      && config.getByte(start) == 'r'
+      && config.getByte(start + 1) == 'e'
+      && config.getByte(start + 2) == 'v';
+  }
+
+  /**
+   * Returns the index of the closing quote of the string starting at the given index, or -1 if not terminated.
+   */
+  private static int endOfString(final ByteBuf config, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      final byte b = config.getByte(i);
+      if (b == '\\') {
+        i++;
+      } else if (b == '"') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static long number(final ByteBuf config, final int start, final int end) {
+    long value = 0;
+    int i = start;
+    for (; i < end; i++) {
+      final byte b = config.getByte(i);
+      if (b < '0' || b > '9') {
+        break;
+      }
+      if (i - start == 18) {
+        return NO_REVISION;
+      }
+      value = value * 10 + (b - '0');
+    }
+    return i == start ? NO_REVISION : value;
+  }
+
+  private static int skipWhitespace(final ByteBuf config, final int start, final int end) {
+    int i = start;
+    while (i < end) {
+      final byte b = config.getByte(i);
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        break;
+      }
+      i++;
+    }
+    return i;
+  }
+
+}
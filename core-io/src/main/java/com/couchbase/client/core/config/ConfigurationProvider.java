@@ -17,6 +17,7 @@
 package com.couchbase.client.core.config;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.io.CollectionMap;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -87,6 +88,36 @@ public interface ConfigurationProvider  {
    */
   void proposeBucketConfig(ProposedBucketConfigContext ctx);
 
+  /**
+   * Allows to propose a raw bucket config carried in a KV response, i.e. "not my vbucket".
+   *
+   * <p>This method is cheap enough to be called on the event loop for every such response: only the revision is
+   * extracted right away, and the config is decoded and parsed asynchronously if it is newer than both the
+   * current config and every other raw config already proposed for the bucket.</p>
+   *
+   * @param bucketName the name of the bucket.
+   * @param config the raw config, which is not retained once this method returns.
+   * @param origin the origin of the config, can be null.
+   */
+  void proposeBucketConfig(String bucketName, ByteBuf config, String origin);
+
+  /**
+   * Signals that a KV channel to the given bucket receives pushed config change notifications.
+   *
+   * <p>As long as at least one such channel is open for a bucket, polling for new configs is only
+   * performed as a fallback.</p>
+   *
+   * @param bucket the name of the bucket.
+   */
+  void configPushChannelActive(String bucket);
+
+  /**
+   * Signals that a KV channel which received pushed config change notifications has been closed.
+   *
+   * @param bucket the name of the bucket.
+   */
+  void configPushChannelInactive(String bucket);
+
   /**
    * Allows to propose a global config to the provider from an external context.
    *
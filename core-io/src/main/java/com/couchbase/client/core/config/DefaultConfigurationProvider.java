@@ -17,6 +17,7 @@
 package com.couchbase.client.core.config;
 
 import com.couchbase.client.core.Core;
+import com.couchbase.client.core.cnc.Event;
 import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.config.CollectionMapDecodingFailedEvent;
 import com.couchbase.client.core.cnc.events.config.CollectionMapRefreshFailedEvent;
@@ -29,6 +30,8 @@ import com.couchbase.client.core.config.loader.KeyValueBucketLoader;
 import com.couchbase.client.core.config.refresher.ClusterManagerBucketRefresher;
 import com.couchbase.client.core.config.refresher.GlobalRefresher;
 import com.couchbase.client.core.config.refresher.KeyValueBucketRefresher;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.env.NetworkResolution;
 import com.couchbase.client.core.env.SeedNode;
 import com.couchbase.client.core.error.AlreadyShutdownException;
@@ -55,11 +58,16 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.couchbase.client.core.config.ConfigRevisionScanner.NO_REVISION;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * The standard {@link ConfigurationProvider} that is used by default.
  *
@@ -117,6 +125,12 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   private volatile boolean globalConfigLoadInProgress = false;
   private volatile boolean bucketConfigLoadInProgress = false;
 
+  /**
+   * Holds the highest revision per bucket of the raw configs proposed from KV responses, so that the same
+   * config carried in many responses is only parsed once.
+   */
+  private final Map<String, AtomicLong> proposedRevisions = new ConcurrentHashMap<>();
+
   /**
    * Stores the current seed nodes used to bootstrap buckets and global configs.
    */
@@ -280,6 +294,60 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     }
   }
 
+  @Override
+  public void proposeBucketConfig(final String bucketName, final ByteBuf config, final String origin) {
+    if (!ConfigRevisionScanner.isObject(config)) {
+      return;
+    }
+
+    final long revision = ConfigRevisionScanner.revision(config);
+    final AtomicLong proposed;
+    if (revision == NO_REVISION) {
+      proposed = null;
+    } else {
+      final BucketConfig current = currentConfig.bucketConfig(bucketName);
+      if (current != null && current.rev() >= revision) {
+        publishOldOrSameRevisionIgnored();
+        return;
+      }
+
+      proposed = proposedRevisions.computeIfAbsent(bucketName, b -> new AtomicLong(NO_REVISION));
+      long highest;
+      do {
+        highest = proposed.get();
+        if (highest >= revision) {
+          return;
+        }
+      } while (!proposed.compareAndSet(highest, revision));
+    }
+
+    final byte[] raw = ByteBufUtil.getBytes(config);
+    core.context().environment().scheduler().schedule(() -> {
+      if (proposed != null && proposed.get() > revision) {
+        // A newer config has been proposed in the meantime, so parsing this one is pointless.
+        return;
+      }
+
+      proposeBucketConfig(new ProposedBucketConfigContext(bucketName, new String(raw, UTF_8).trim(), origin));
+
+      final BucketConfig applied = currentConfig.bucketConfig(bucketName);
+      if (proposed != null && (applied == null || applied.rev() < revision)) {
+        // Not applied (i.e. failed to parse), so the next response carrying this revision may try again.
+        proposed.compareAndSet(revision, NO_REVISION);
+      }
+    });
+  }
+
+  @Override
+  public void configPushChannelActive(final String bucket) {
+    keyValueRefresher.configPushChannelActive(bucket);
+  }
+
+  @Override
+  public void configPushChannelInactive(final String bucket) {
+    keyValueRefresher.configPushChannelInactive(bucket);
+  }
+
   @Override
   public void proposeGlobalConfig(final ProposedGlobalConfigContext ctx) {
     if (!shutdown.get()) {
@@ -327,6 +395,7 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     return Mono
       .defer(() -> {
         currentConfig.deleteBucketConfig(name);
+        proposedRevisions.remove(name);
         pushConfig();
         return Mono.empty();
       })
@@ -442,12 +511,7 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     final BucketConfig oldConfig = currentConfig.bucketConfig(name);
 
     if (newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
-      eventBus.publish(new ConfigIgnoredEvent(
-        core.context(),
-        ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
-        Optional.empty(),
-        Optional.empty()
-      ));
+      publishOldOrSameRevisionIgnored();
       return;
     }
 
@@ -466,6 +530,20 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     pushConfig();
   }
 
+  /**
+   * Signals that a config has been ignored because it is not newer than the current one.
+   */
+  private void publishOldOrSameRevisionIgnored() {
+    if (eventBus.isEnabled(Event.Severity.VERBOSE)) {
+      eventBus.publish(new ConfigIgnoredEvent(
+        core.context(),
+        ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
+        Optional.empty(),
+        Optional.empty()
+      ));
+    }
+  }
+
   /**
    * Analyzes the given config and decides if to apply it (and does so if needed).
    *
@@ -475,12 +553,7 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     final GlobalConfig oldConfig = currentConfig.globalConfig();
 
     if (newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
-      eventBus.publish(new ConfigIgnoredEvent(
-        core.context(),
-        ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
-        Optional.empty(),
-        Optional.empty()
-      ));
+      publishOldOrSameRevisionIgnored();
       return;
     }
 
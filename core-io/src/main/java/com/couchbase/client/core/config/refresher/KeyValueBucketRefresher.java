@@ -58,6 +58,11 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * <p>Once a config is retrieved it is sent to the config manager which then decides if it is going to apply
  * or discard the config.</p>
  *
+ * <p>If the server pushes config change notifications for a bucket on at least one of its KV channels, new
+ * configs arrive without asking for them. Polling for such a bucket is then only performed as a fallback at
+ * the {@link #CONFIG_PUSH_FALLBACK_INTERVAL} (or the config poll interval if larger). While the bucket is
+ * tainted it is still polled on every tick, so a rebalance is tracked closely even if a notification gets lost.</p>
+ *
  * @since 1.0.0
  */
 @Stability.Internal
@@ -77,6 +82,11 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   static final int MAX_PARALLEL_FETCH = 3;
 
+  /**
+   * The minimum interval at which configs are still polled for buckets which receive pushed configs.
+   */
+  static final Duration CONFIG_PUSH_FALLBACK_INTERVAL = Duration.ofSeconds(30);
+
   /**
    * Holds the core as a reference.
    */
@@ -110,11 +120,21 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   private final Set<String> tainted = Collections.synchronizedSet(new HashSet<>());
 
+  /**
+   * Holds the number of open KV channels per bucket which receive pushed config change notifications.
+   */
+  private final Map<String, Integer> configPushChannels = new ConcurrentHashMap<>();
+
   /**
    * Holds the allowable config poll interval in nanoseconds.
    */
   private final long configPollIntervalNanos;
 
+  /**
+   * Holds the fallback poll interval in nanoseconds for buckets which receive pushed configs.
+   */
+  private final long configPushFallbackIntervalNanos;
+
   /**
    * Stores the timeout used for config refresh requests, keeping it in reasonable bounds (between 1 and 5s).
    */
@@ -131,6 +151,7 @@ public class KeyValueBucketRefresher implements BucketRefresher {
     this.eventBus = core.context().environment().eventBus();
     this.provider = provider;
     this.configPollIntervalNanos = core.context().environment().ioConfig().configPollInterval().toNanos();
+    this.configPushFallbackIntervalNanos = Math.max(configPollIntervalNanos, CONFIG_PUSH_FALLBACK_INTERVAL.toNanos());
     this.configRequestTimeout = clampConfigRequestTimeout(configPollIntervalNanos);
 
     pollRegistration = Flux
@@ -182,8 +203,14 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   private Mono<ProposedBucketConfigContext> maybeUpdateBucket(final String name) {
     Long last = registrations.get(name);
-    boolean overInterval = last != null && (System.nanoTime() - last) >= configPollIntervalNanos;
-    boolean allowed = tainted.contains(name) || overInterval;
+    boolean allowed;
+    if (tainted.contains(name)) {
+      allowed = true;
+    } else if (configPushChannels.containsKey(name)) {
+      allowed = last != null && (System.nanoTime() - last) >= configPushFallbackIntervalNanos;
+    } else {
+      allowed = last != null && (System.nanoTime() - last) >= configPollIntervalNanos;
+    }
 
     return allowed
       ? fetchConfigPerNode(name, filterEligibleNodes(name))
@@ -307,6 +334,24 @@ public class KeyValueBucketRefresher implements BucketRefresher {
     });
   }
 
+  /**
+   * Signals that a KV channel to the given bucket receives pushed config change notifications.
+   *
+   * @param name the name of the bucket.
+   */
+  public void configPushChannelActive(final String name) {
+    configPushChannels.merge(name, 1, Integer::sum);
+  }
+
+  /**
+   * Signals that a KV channel which received pushed config change notifications has been closed.
+   *
+   * @param name the name of the bucket.
+   */
+  public void configPushChannelInactive(final String name) {
+    configPushChannels.computeIfPresent(name, (k, v) -> v > 1 ? v - 1 : null);
+  }
+
   @Override
   public void markTainted(final String name) {
     tainted.add(name);
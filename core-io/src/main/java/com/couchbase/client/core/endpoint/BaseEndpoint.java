@@ -32,6 +32,7 @@ import com.couchbase.client.core.deps.io.netty.channel.local.LocalChannel;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.SecurityConfig;
 import com.couchbase.client.core.io.netty.PipelineErrorHandler;
+import com.couchbase.client.core.io.netty.SecureConnectionEventHandler;
 import com.couchbase.client.core.io.netty.SslHandlerFactory;
 import com.couchbase.client.core.io.netty.TrafficCaptureHandler;
 import com.couchbase.client.core.io.netty.kv.ChannelAttributes;
@@ -50,6 +51,7 @@ import com.couchbase.client.core.deps.io.netty.channel.ChannelFuture;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelFutureListener;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelInitializer;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelOption;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelOutboundBuffer;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelPipeline;
 import com.couchbase.client.core.deps.io.netty.channel.EventLoopGroup;
 import com.couchbase.client.core.deps.io.netty.channel.epoll.EpollEventLoopGroup;
@@ -119,13 +121,20 @@ public abstract class BaseEndpoint implements Endpoint {
   private final boolean circuitBreakerEnabled;
 
   /**
-   * If the current endpoint is free or not.
+   * The number of requests sent into this endpoint which are not completed yet.
    *
-   * <p>Note that the value is not tracked if pipelined = true, since we only need it
-   * to check if the endpoint is free or not. And it is always free for pipelined endpoints.</p>
+   * <p>For endpoints which are not pipelined this decides if the endpoint is free or not, pipelined ones
+   * are always free but use it as an indicator of their current load. Pipelined endpoints decrement it as soon
+   * as the request completes, no matter if through its response, a timeout or a cancellation.</p>
    */
   private final AtomicInteger outstandingRequests;
 
+  /**
+   * Incremented every time the outstanding requests are reset, so that pipelined requests which complete after
+   * the channel they have been written to went away do not decrement the count of the next channel.
+   */
+  private final AtomicInteger outstandingGeneration = new AtomicInteger(0);
+
   /**
    * The event loop group used for this endpoint, passed to netty.
    */
@@ -133,6 +142,11 @@ public abstract class BaseEndpoint implements Endpoint {
 
   private final RequestCompletionConsumer requestCompletionConsumer = new RequestCompletionConsumer();
 
+  /**
+   * The completion consumer of pipelined requests, only replaced once the outstanding requests are reset.
+   */
+  private volatile PipelinedCompletion pipelinedCompletion = new PipelinedCompletion(0);
+
   private final ServiceType serviceType;
 
   /**
@@ -279,7 +293,14 @@ public abstract class BaseEndpoint implements Endpoint {
               SecurityConfig config = env.securityConfig();
               if (config.tlsEnabled()) {
                 try {
-                  pipeline.addFirst(SslHandlerFactory.get(ch.alloc(), config, endpointContext.authenticator()));
+                  pipeline.addFirst(SslHandlerFactory.get(
+                    ch.alloc(),
+                    config,
+                    endpointContext.authenticator(),
+                    endpointContext.remoteSocket().hostname(),
+                    endpointContext.remoteSocket().port()
+                  ));
+                  pipeline.addLast(new SecureConnectionEventHandler(endpointContext));
                 } catch (Exception e) {
                   throw new SecurityException("Could not instantiate SSL Handler", e);
                 }
@@ -397,6 +418,7 @@ public abstract class BaseEndpoint implements Endpoint {
    */
   @Stability.Internal
   public void notifyChannelInactive() {
+    pipelinedCompletion = new PipelinedCompletion(outstandingGeneration.incrementAndGet());
     outstandingRequests.set(0);
     if (disconnect.get()) {
       // We don't need to do anything if we've been already instructed to disconnect.
@@ -463,14 +485,18 @@ public abstract class BaseEndpoint implements Endpoint {
         .lastDispatchedTo(ctx.remoteSocket())
         .lastChannelId(ctx.channelId().orElse(null));
 
-      if (!pipelined) {
-        outstandingRequests.incrementAndGet();
-      }
+      outstandingRequests.incrementAndGet();
       if (circuitBreakerEnabled) {
         circuitBreaker.track();
+      }
+      if (pipelined) {
+        request.response().whenComplete(pipelinedCompletion);
+      } else if (circuitBreakerEnabled) {
         request.response().whenComplete(requestCompletionConsumer);
       }
-      channel.writeAndFlush(request);
+      if (!pipelined || !EndpointWriteBatch.enqueue(channel, request)) {
+        channel.writeAndFlush(request);
+      }
     } else {
       RetryOrchestrator.maybeRetry(ctx, request, RetryReason.ENDPOINT_NOT_WRITABLE);
     }
@@ -481,6 +507,21 @@ public abstract class BaseEndpoint implements Endpoint {
     return pipelined || outstandingRequests.get() == 0;
   }
 
+  @Override
+  public int outstandingRequests() {
+    return outstandingRequests.get();
+  }
+
+  @Override
+  public long pendingWriteBytes() {
+    final Channel channel = this.channel;
+    if (channel == null) {
+      return 0;
+    }
+    final ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+    return outboundBuffer == null ? 0 : outboundBuffer.totalPendingWriteBytes();
+  }
+
   @Override
   public long lastResponseReceived() {
     return lastResponseTimestamp;
@@ -490,7 +531,8 @@ public abstract class BaseEndpoint implements Endpoint {
    * Called from the event loop handlers to mark a request as being completed.
    *
    * <p>We need to make this call explicitly from the outside and cannot just listen on the request response
-   * callback because with streaming responses the actual completion might happen much later.</p>
+   * callback because with streaming responses the actual completion might happen much later. Pipelined
+   * endpoints do listen on the response instead, so this only records the response timestamp for them.</p>
    */
   @Stability.Internal
   public void markRequestCompletion() {
@@ -500,6 +542,8 @@ public abstract class BaseEndpoint implements Endpoint {
 
   /**
    * Helper method to decrement outstanding requests, even if they haven't finished yet.
+   *
+   * <p>Has no effect on pipelined endpoints, which decrement once the request completes.</p>
    */
   @Stability.Internal
   public void decrementOutstandingRequests() {
@@ -566,6 +610,32 @@ public abstract class BaseEndpoint implements Endpoint {
     return pipelined;
   }
 
+  /**
+   * Decrements the outstanding requests of a pipelined endpoint once a request written to it completes, unless
+   * the channel it has been written to went away in the meantime, and updates the circuit breaker if enabled.
+   *
+   * <p>One instance is shared by all requests written while the same channel is active, so that a single
+   * completion callback is registered per request.</p>
+   */
+  private class PipelinedCompletion implements BiConsumer<Response, Throwable> {
+
+    private final int generation;
+
+    PipelinedCompletion(final int generation) {
+      this.generation = generation;
+    }
+
+    @Override
+    public void accept(final Response r, final Throwable t) {
+      if (outstandingGeneration.get() == generation) {
+        outstandingRequests.decrementAndGet();
+      }
+      if (circuitBreakerEnabled) {
+        requestCompletionConsumer.accept(r, t);
+      }
+    }
+  }
+
   /**
    * This request completion consumer is cached in the parent class to reuse it
    * across each request and not create garbage each and every time.
@@ -68,6 +68,20 @@ public interface Endpoint extends Stateful<EndpointState> {
    */
   boolean free();
 
+  /**
+   * Returns the number of requests which have been sent into this endpoint and are not completed yet.
+   *
+   * @return the number of outstanding requests.
+   */
+  int outstandingRequests();
+
+  /**
+   * Returns the number of bytes which have been written into this endpoint but not flushed to the network yet.
+   *
+   * @return the pending write bytes, or 0 if not connected.
+   */
+  long pendingWriteBytes();
+
   /**
    * Holds the timestamp of the last response received (or 0 if no request ever sent).
    *
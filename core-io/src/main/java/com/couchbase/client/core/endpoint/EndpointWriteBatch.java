@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.endpoint;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
+import com.couchbase.client.core.msg.Request;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects writes for pipelined endpoints on the dispatching thread and flushes them as one burst per channel.
+ *
+ * <p>Usually every request is written and flushed into its channel individually, which (when called from outside
+ * of the event loop) results in one task submission per request. When many requests are dispatched at once (for
+ * example through a bulk operation), the caller can open a batch through {@link #begin()}. All requests which are
+ * written into pipelined endpoints on this thread are then grouped by their channel and handed to the event loop
+ * in a single task per channel once {@link #end()} is called, followed by a single flush.</p>
+ *
+ * <p>Batches are bound to the calling thread and can be nested, only the outermost {@link #end()} triggers the
+ * actual write.</p>
+ *
+ * @since 2.0.0
+ */
+@Stability.Internal
+public class EndpointWriteBatch {
+
+  /**
+   * Holds the currently open batch for each dispatching thread.
+   */
+  private static final ThreadLocal<EndpointWriteBatch> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Holds the pending writes, grouped by the channel they need to be written into.
+   */
+  private final Map<Channel, List<Request<?>>> pending = new IdentityHashMap<>();
+
+  /**
+   * Tracks nested begin/end calls so only the outermost one flushes.
+   */
+  private int depth;
+
+  private EndpointWriteBatch() { }
+
+  /**
+   * Opens (or joins) the write batch for the current thread.
+   */
+  public static void begin() {
+    EndpointWriteBatch batch = CURRENT.get();
+    if (batch == null) {
+      batch = new EndpointWriteBatch();
+      CURRENT.set(batch);
+    }
+    batch.depth++;
+  }
+
+  /**
+   * Closes the write batch for the current thread and, if it is the outermost one, writes all collected
+   * requests into their channels.
+   */
+  public static void end() {
+    EndpointWriteBatch batch = CURRENT.get();
+    if (batch == null) {
+      return;
+    }
+    if (--batch.depth == 0) {
+      CURRENT.remove();
+      batch.flush();
+    }
+  }
+
+  /**
+   * Adds the request to the write batch of the current thread, if one is open.
+   *
+   * @param channel the channel the request needs to be written into.
+   * @param request the request to write.
+   * @return true if the request has been added to a batch, false if it needs to be written directly.
+   */
+  static boolean enqueue(final Channel channel, final Request<?> request) {
+    EndpointWriteBatch batch = CURRENT.get();
+    if (batch == null) {
+      return false;
+    }
+    batch.pending.computeIfAbsent(channel, c -> new ArrayList<>()).add(request);
+    return true;
+  }
+
+  /**
+   * Writes all collected requests, using one event loop task and one flush per channel.
+   */
+  private void flush() {
+    for (Map.Entry<Channel, List<Request<?>>> entry : pending.entrySet()) {
+      final Channel channel = entry.getKey();
+      final List<Request<?>> requests = entry.getValue();
+      if (channel.eventLoop().inEventLoop()) {
+        writeAll(channel, requests);
+      } else {
+        channel.eventLoop().execute(() -> writeAll(channel, requests));
+      }
+    }
+    pending.clear();
+  }
+
+  private static void writeAll(final Channel channel, final List<Request<?>> requests) {
+    for (Request<?> request : requests) {
+      channel.write(request);
+    }
+    channel.flush();
+  }
+
+}
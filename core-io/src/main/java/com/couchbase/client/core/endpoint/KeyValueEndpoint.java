@@ -101,7 +101,9 @@ public class KeyValueEndpoint extends BaseEndpoint {
         ServerFeature.XERROR,
         ServerFeature.ALT_REQUEST,
         ServerFeature.SYNC_REPLICATION,
-        ServerFeature.COLLECTIONS
+        ServerFeature.COLLECTIONS,
+        ServerFeature.DUPLEX,
+        ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION
       ));
 
       if (ctx.environment().ioConfig().mutationTokensEnabled()) {
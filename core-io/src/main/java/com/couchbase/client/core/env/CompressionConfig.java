@@ -31,6 +31,7 @@ public class CompressionConfig {
   public static final boolean DEFAULT_ENABLED = true;
   public static final int DEFAULT_MIN_SIZE = 32;
   public static final double DEFAULT_MIN_RATIO = 0.83;
+  public static final int DEFAULT_SAMPLE_SIZE = 2048;
 
   /**
    * If compression is enabled or not.
@@ -47,6 +48,11 @@ public class CompressionConfig {
    */
   private final double minRatio;
 
+  /**
+   * The size of the prefix which is compressed first to estimate the ratio of large documents.
+   */
+  private final int sampleSize;
+
   /**
    * Creates a {@link CompressionConfig} with default arguments.
    *
@@ -100,6 +106,20 @@ public class CompressionConfig {
     return builder().minRatio(minRatio);
   }
 
+  /**
+   * The size of the prefix of large documents which is compressed first to estimate the ratio.
+   *
+   * <p>If the sample does not reach the minimum ratio, the document is sent uncompressed without compressing
+   * it completely. The default is 2048 bytes, 0 disables sampling.</p>
+   *
+   * @param sampleSize the sample size in bytes.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  @Stability.Volatile
+  public static Builder sampleSize(int sampleSize) {
+    return builder().sampleSize(sampleSize);
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -109,6 +129,7 @@ public class CompressionConfig {
     export.put("enabled", enabled);
     export.put("minRatio", minRatio);
     export.put("minSize", minSize);
+    export.put("sampleSize", sampleSize);
     return export;
   }
 
@@ -121,6 +142,7 @@ public class CompressionConfig {
     this.enabled = builder.enabled;
     this.minRatio = builder.minRatio;
     this.minSize = builder.minSize;
+    this.sampleSize = builder.sampleSize;
   }
 
   /**
@@ -141,6 +163,16 @@ public class CompressionConfig {
     return minRatio;
   }
 
+  /**
+   * Returns the size of the prefix which is compressed first to estimate the ratio.
+   *
+   * @return the sample size in bytes, 0 if disabled.
+   */
+  @Stability.Volatile
+  public int sampleSize() {
+    return sampleSize;
+  }
+
   /**
    * True if compression should be enabled, false otherwise.
    *
@@ -158,6 +190,7 @@ public class CompressionConfig {
     private boolean enabled = DEFAULT_ENABLED;
     private int minSize = DEFAULT_MIN_SIZE;
     private double minRatio = DEFAULT_MIN_RATIO;
+    private int sampleSize = DEFAULT_SAMPLE_SIZE;
 
     public CompressionConfig build() {
       return new CompressionConfig(this);
@@ -197,6 +230,21 @@ public class CompressionConfig {
       return this;
     }
 
+    /**
+     * The size of the prefix of large documents which is compressed first to estimate the ratio.
+     *
+     * <p>If the sample does not reach the minimum ratio, the document is sent uncompressed without compressing
+     * it completely. Set to 0 to disable sampling.</p>
+     *
+     * @param sampleSize the sample size in bytes.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder sampleSize(int sampleSize) {
+      this.sampleSize = sampleSize;
+      return this;
+    }
+
   }
 
 }
@@ -23,7 +23,9 @@ import com.couchbase.client.core.cnc.DefaultEventBus;
 import com.couchbase.client.core.cnc.DiagnosticsMonitor;
 import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.LoggingEventConsumer;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.cnc.metrics.AggregatingMeter;
 import com.couchbase.client.core.cnc.tracing.ThresholdRequestTracer;
 import com.couchbase.client.core.retry.BestEffortRetryStrategy;
 import com.couchbase.client.core.retry.RetryStrategy;
@@ -99,6 +101,7 @@ public class CoreEnvironment {
   private final TimeoutConfig timeoutConfig;
   private final DiagnosticsConfig diagnosticsConfig;
   private final Supplier<RequestTracer> requestTracer;
+  private final Supplier<Meter> meter;
 
   private final LoggerConfig loggerConfig;
   private final DiagnosticsMonitor diagnosticsMonitor;
@@ -123,7 +126,6 @@ public class CoreEnvironment {
     this.eventBus = Optional
       .ofNullable(builder.eventBus)
       .orElse(new OwnedSupplier<>(DefaultEventBus.create()));
-    this.timer = Timer.createAndStart();
     this.scheduler = Optional
       .ofNullable(builder.scheduler)
       .orElse(new OwnedSupplier<>(
@@ -134,6 +136,7 @@ public class CoreEnvironment {
 
     this.ioEnvironment = builder.ioEnvironment.build();
     this.ioConfig = builder.ioConfig.build();
+    this.timer = Timer.createAndStart(ioConfig.timeoutTracking());
     this.compressionConfig = builder.compressionConfig.build();
     this.timeoutConfig = builder.timeoutConfig.build();
     this.retryStrategy = Optional.ofNullable(builder.retryStrategy).orElse(DEFAULT_RETRY_STRATEGY);
@@ -143,7 +146,11 @@ public class CoreEnvironment {
     if (eventBus instanceof OwnedSupplier) {
       eventBus.get().start().block();
     }
-    eventBus.get().subscribe(LoggingEventConsumer.create(loggerConfig()));
+    LoggingEventConsumer loggingEventConsumer = LoggingEventConsumer.create(loggerConfig());
+    eventBus.get().subscribe(
+      loggingEventConsumer,
+      Optional.ofNullable(loggerConfig.minimumSeverity()).orElseGet(loggingEventConsumer::minimumEnabledSeverity)
+    );
 
     diagnosticsMonitor = DiagnosticsMonitor.create(eventBus.get(), diagnosticsConfig);
     diagnosticsMonitor.start().block();
@@ -155,6 +162,14 @@ public class CoreEnvironment {
     if (requestTracer instanceof OwnedSupplier) {
       requestTracer.get().start().block();
     }
+
+    this.meter = Optional.ofNullable(builder.meter).orElse(new OwnedSupplier<Meter>(
+      AggregatingMeter.create(eventBus.get())
+    ));
+
+    if (meter instanceof OwnedSupplier) {
+      meter.get().start().block();
+    }
   }
 
   /**
@@ -281,6 +296,15 @@ public class CoreEnvironment {
     return requestTracer.get();
   }
 
+  /**
+   * Returns the meter which records metrics like the request latencies.
+   *
+   * @return the meter used.
+   */
+  public Meter meter() {
+    return meter.get();
+  }
+
   /**
    * Holds the timer which is used to schedule tasks and trigger their callback,
    * for example to time out requests.
@@ -355,6 +379,12 @@ public class CoreEnvironment {
         }
         return Mono.empty();
       }))
+      .then(Mono.defer(() -> {
+        if (meter instanceof OwnedSupplier) {
+          return meter.get().stop(timeout);
+        }
+        return Mono.empty();
+      }))
       .timeout(timeout);
   }
 
@@ -406,6 +436,7 @@ public class CoreEnvironment {
 
     input.put("retryStrategy", retryStrategy.getClass().getSimpleName());
     input.put("requestTracer", requestTracer.getClass().getSimpleName());
+    input.put("meter", meter.get().getClass().getSimpleName());
 
     return format.apply(input);
   }
@@ -427,6 +458,7 @@ public class CoreEnvironment {
     private Supplier<EventBus> eventBus = null;
     private Supplier<Scheduler> scheduler = null;
     private Supplier<RequestTracer> requestTracer = null;
+    private Supplier<Meter> meter = null;
 
     private RetryStrategy retryStrategy;
 
@@ -524,6 +556,18 @@ public class CoreEnvironment {
       return self();
     }
 
+    /**
+     * Allows to customize the meter which records metrics like the request latencies.
+     *
+     * @param meter the meter to use.
+     * @return this builder for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF meter(final Meter meter) {
+      this.meter = new ExternalSupplier<>(meter);
+      return self();
+    }
+
     public CoreEnvironment build() {
       return new CoreEnvironment(this);
     }
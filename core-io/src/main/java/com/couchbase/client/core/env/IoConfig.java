@@ -20,17 +20,21 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.endpoint.CircuitBreaker;
 import com.couchbase.client.core.endpoint.CircuitBreakerConfig;
 import com.couchbase.client.core.service.AbstractPooledEndpointServiceConfig;
+import com.couchbase.client.core.service.PooledEndpointSelection;
 import com.couchbase.client.core.service.ServiceType;
 
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static java.util.Objects.requireNonNull;
+
 public class IoConfig {
 
   public static final boolean DEFAULT_MUTATION_TOKENS_ENABLED = true;
@@ -42,6 +46,10 @@ public class IoConfig {
   public static final int DEFAULT_NUM_KV_CONNECTIONS = 1;
   public static final int DEFAULT_MAX_HTTP_CONNECTIONS = AbstractPooledEndpointServiceConfig.DEFAULT_MAX_ENDPOINTS;
   public static final Duration DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT = AbstractPooledEndpointServiceConfig.DEFAULT_IDLE_TIME;
+  public static final TimeoutTracking DEFAULT_TIMEOUT_TRACKING = TimeoutTracking.WHEEL;
+  public static final NotMyVbucketRetry DEFAULT_NOT_MY_VBUCKET_RETRY = NotMyVbucketRetry.BACKOFF;
+  public static final PooledEndpointSelection DEFAULT_HTTP_ENDPOINT_SELECTION =
+    AbstractPooledEndpointServiceConfig.DEFAULT_ENDPOINT_SELECTION;
 
   private final boolean mutationTokensEnabled;
   private final Duration configPollInterval;
@@ -59,6 +67,10 @@ public class IoConfig {
   private final int numKvConnections;
   private final int maxHttpConnections;
   private final Duration idleHttpConnectionTimeout;
+  private final TimeoutTracking timeoutTracking;
+  private final PooledEndpointSelection httpEndpointSelection;
+  private final Map<ServiceType, PooledEndpointSelection> httpEndpointSelectionOverrides;
+  private final NotMyVbucketRetry notMyVbucketRetry;
 
   private IoConfig(Builder builder) {
     mutationTokensEnabled = builder.mutationTokensEnabled;
@@ -81,6 +93,10 @@ public class IoConfig {
     numKvConnections = builder.numKvConnections;
     maxHttpConnections = builder.maxHttpConnections;
     idleHttpConnectionTimeout = builder.idleHttpConnectionTimeout;
+    timeoutTracking = builder.timeoutTracking;
+    httpEndpointSelection = builder.httpEndpointSelection;
+    httpEndpointSelectionOverrides = Collections.unmodifiableMap(new EnumMap<>(builder.httpEndpointSelectionOverrides));
+    notMyVbucketRetry = builder.notMyVbucketRetry;
   }
 
   public static IoConfig create() {
@@ -155,6 +171,21 @@ public class IoConfig {
     return builder().idleHttpConnectionTimeout(idleHttpConnectionTimeout);
   }
 
+  @Stability.Volatile
+  public static Builder timeoutTracking(TimeoutTracking timeoutTracking) {
+    return builder().timeoutTracking(timeoutTracking);
+  }
+
+  @Stability.Volatile
+  public static Builder httpEndpointSelection(PooledEndpointSelection httpEndpointSelection) {
+    return builder().httpEndpointSelection(httpEndpointSelection);
+  }
+
+  @Stability.Volatile
+  public static Builder notMyVbucketRetry(NotMyVbucketRetry notMyVbucketRetry) {
+    return builder().notMyVbucketRetry(notMyVbucketRetry);
+  }
+
   public CircuitBreakerConfig kvCircuitBreakerConfig() {
     return kvCircuitBreakerConfig;
   }
@@ -219,6 +250,33 @@ public class IoConfig {
     return idleHttpConnectionTimeout;
   }
 
+  @Stability.Volatile
+  public TimeoutTracking timeoutTracking() {
+    return timeoutTracking;
+  }
+
+  @Stability.Volatile
+  public PooledEndpointSelection httpEndpointSelection() {
+    return httpEndpointSelection;
+  }
+
+  /**
+   * Returns the endpoint selection for the given pooled http service, which is the one configured for this
+   * service if present and {@link #httpEndpointSelection()} otherwise.
+   *
+   * @param serviceType the type of the pooled http service.
+   * @return the endpoint selection to use for the service.
+   */
+  @Stability.Volatile
+  public PooledEndpointSelection httpEndpointSelection(final ServiceType serviceType) {
+    return httpEndpointSelectionOverrides.getOrDefault(serviceType, httpEndpointSelection);
+  }
+
+  @Stability.Volatile
+  public NotMyVbucketRetry notMyVbucketRetry() {
+    return notMyVbucketRetry;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -241,6 +299,14 @@ public class IoConfig {
     export.put("numKvConnections", numKvConnections);
     export.put("maxHttpConnections", maxHttpConnections);
     export.put("idleHttpConnectionTimeout", idleHttpConnectionTimeout);
+    export.put("timeoutTracking", timeoutTracking.name());
+    export.put("httpEndpointSelection", httpEndpointSelection.name());
+    if (!httpEndpointSelectionOverrides.isEmpty()) {
+      Map<String, String> overrides = new LinkedHashMap<>();
+      httpEndpointSelectionOverrides.forEach((type, selection) -> overrides.put(type.ident(), selection.name()));
+      export.put("httpEndpointSelectionOverrides", overrides);
+    }
+    export.put("notMyVbucketRetry", notMyVbucketRetry.name());
     return export;
   }
 
@@ -262,6 +328,11 @@ public class IoConfig {
     private int numKvConnections = DEFAULT_NUM_KV_CONNECTIONS;
     private int maxHttpConnections = DEFAULT_MAX_HTTP_CONNECTIONS;
     private Duration idleHttpConnectionTimeout = DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT;
+    private TimeoutTracking timeoutTracking = DEFAULT_TIMEOUT_TRACKING;
+    private PooledEndpointSelection httpEndpointSelection = DEFAULT_HTTP_ENDPOINT_SELECTION;
+    private final Map<ServiceType, PooledEndpointSelection> httpEndpointSelectionOverrides =
+      new EnumMap<>(ServiceType.class);
+    private NotMyVbucketRetry notMyVbucketRetry = DEFAULT_NOT_MY_VBUCKET_RETRY;
 
     public IoConfig build() {
       return new IoConfig(this);
@@ -417,5 +488,75 @@ public class IoConfig {
       this.idleHttpConnectionTimeout = idleHttpConnectionTimeout;
       return this;
     }
+
+    /**
+     * Configures how the timer keeps track of request timeouts.
+     * <p>
+     * By default ({@link TimeoutTracking#WHEEL}) every request registers its own timeout, while
+     * {@link TimeoutTracking#DEADLINE_BUCKETS} groups requests into shared buckets by their deadline which
+     * avoids per-request allocations at high request rates.
+     *
+     * @param timeoutTracking the mode to use.
+     * @return this, for chaining
+     */
+    @Stability.Volatile
+    public Builder timeoutTracking(TimeoutTracking timeoutTracking) {
+      this.timeoutTracking = requireNonNull(timeoutTracking);
+      return this;
+    }
+
+    /**
+     * Configures how the pooled http services (query, analytics, search and views) pick the endpoint for
+     * a request.
+     * <p>
+     * By default ({@link PooledEndpointSelection#ROUND_ROBIN}) the free endpoints are cycled through, while
+     * {@link PooledEndpointSelection#ADAPTIVE} prefers endpoints with a lower expected wait based on their
+     * recent latency and utilization. Individual services can override this through
+     * {@link #httpEndpointSelection(ServiceType, PooledEndpointSelection)}.
+     *
+     * @param httpEndpointSelection the selection to use.
+     * @return this, for chaining
+     */
+    @Stability.Volatile
+    public Builder httpEndpointSelection(PooledEndpointSelection httpEndpointSelection) {
+      this.httpEndpointSelection = requireNonNull(httpEndpointSelection);
+      return this;
+    }
+
+    /**
+     * Configures how a single pooled http service picks the endpoint for a request, overriding
+     * {@link #httpEndpointSelection(PooledEndpointSelection)} for this service.
+     *
+     * @param serviceType the pooled http service (query, analytics, search or views).
+     * @param httpEndpointSelection the selection to use for this service.
+     * @return this, for chaining
+     */
+    @Stability.Volatile
+    public Builder httpEndpointSelection(ServiceType serviceType, PooledEndpointSelection httpEndpointSelection) {
+      requireNonNull(serviceType);
+      if (serviceType != ServiceType.QUERY && serviceType != ServiceType.ANALYTICS
+        && serviceType != ServiceType.SEARCH && serviceType != ServiceType.VIEWS) {
+        throw new IllegalArgumentException("The endpoint selection can only be configured for pooled http "
+          + "services, not for " + serviceType);
+      }
+      this.httpEndpointSelectionOverrides.put(serviceType, requireNonNull(httpEndpointSelection));
+      return this;
+    }
+
+    /**
+     * Configures how KV requests which received a "not my vbucket" response are retried.
+     * <p>
+     * By default ({@link NotMyVbucketRetry#BACKOFF}) they are retried after a short backoff, while
+     * {@link NotMyVbucketRetry#AWAIT_CONFIG} parks them until a newer config for the bucket has been applied,
+     * with the backoff only as a fallback.
+     *
+     * @param notMyVbucketRetry the mode to use.
+     * @return this, for chaining
+     */
+    @Stability.Volatile
+    public Builder notMyVbucketRetry(NotMyVbucketRetry notMyVbucketRetry) {
+      this.notMyVbucketRetry = requireNonNull(notMyVbucketRetry);
+      return this;
+    }
   }
 }
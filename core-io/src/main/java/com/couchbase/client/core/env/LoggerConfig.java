@@ -17,6 +17,7 @@
 package com.couchbase.client.core.env;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Event;
 import com.couchbase.client.core.cnc.LoggingEventConsumer;
 
 import java.util.LinkedHashMap;
@@ -29,6 +30,7 @@ public class LoggerConfig {
   private final boolean disableSlf4J;
   private final String loggerName;
   private final boolean diagnosticContextEnabled;
+  private final Event.Severity minimumSeverity;
 
   private LoggerConfig(final Builder builder) {
     customLogger = builder.customLogger;
@@ -36,6 +38,7 @@ public class LoggerConfig {
     loggerName = builder.loggerName;
     fallbackToConsole = builder.fallbackToConsole;
     diagnosticContextEnabled = builder.diagnosticContextEnabled;
+    minimumSeverity = builder.minimumSeverity;
   }
 
   public static Builder builder() {
@@ -66,6 +69,11 @@ public class LoggerConfig {
     return builder().customLogger(customLogger);
   }
 
+  @Stability.Volatile
+  public static Builder minimumSeverity(Event.Severity minimumSeverity) {
+    return builder().minimumSeverity(minimumSeverity);
+  }
+
   public LoggingEventConsumer.Logger customLogger() {
     return customLogger;
   }
@@ -86,6 +94,11 @@ public class LoggerConfig {
     return diagnosticContextEnabled;
   }
 
+  @Stability.Volatile
+  public Event.Severity minimumSeverity() {
+    return minimumSeverity;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -97,6 +110,7 @@ public class LoggerConfig {
     export.put("disableSlf4j", disableSlf4J);
     export.put("loggerName", loggerName);
     export.put("diagnosticContextEnabled", diagnosticContextEnabled);
+    export.put("minimumSeverity", minimumSeverity);
     return export;
   }
 
@@ -107,6 +121,7 @@ public class LoggerConfig {
     private boolean disableSlf4J = false;
     private String loggerName = "CouchbaseLogger";
     private boolean diagnosticContextEnabled = false;
+    private Event.Severity minimumSeverity = null;
 
     /**
      * Allows to specify a custom logger. This is used for testing only.
@@ -140,6 +155,22 @@ public class LoggerConfig {
       return this;
     }
 
+    /**
+     * Events below this severity are not handed to the logger at all, which allows the event bus
+     * to drop them before they are queued.
+     *
+     * <p>If not set, the lowest severity the loggers have enabled when the environment is created is
+     * used. Set it to {@link Event.Severity#VERBOSE} if the log levels are going to be lowered at runtime.</p>
+     *
+     * @param minimumSeverity the lowest severity that should be logged, or null to derive it from the loggers.
+     * @return the Builder for chaining purposes
+     */
+    @Stability.Volatile
+    public Builder minimumSeverity(Event.Severity minimumSeverity) {
+      this.minimumSeverity = minimumSeverity;
+      return this;
+    }
+
     public LoggerConfig build() {
       return new LoggerConfig(this);
     }
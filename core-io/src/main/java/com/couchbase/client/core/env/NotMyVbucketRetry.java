@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Describes how KV requests which received a "not my vbucket" response are retried.
+ *
+ * @since 2.0.0
+ */
+@Stability.Volatile
+public enum NotMyVbucketRetry {
+
+  /**
+   * The request is retried after a short, increasing backoff, regardless of whether a new config has been
+   * applied in the meantime.
+   *
+   * <p>This is the default mode.</p>
+   */
+  BACKOFF,
+
+  /**
+   * The request is parked until a newer config for its bucket has been applied and dispatched right away
+   * afterwards, with the backoff only used as a fallback if no new config arrives in time.
+   *
+   * <p>During a rebalance this avoids sending requests to the wrong node again before the client learned about
+   * the new partition map, so that the retry typically only costs a single config round trip.</p>
+   */
+  AWAIT_CONFIG
+
+}
@@ -41,9 +41,11 @@ import static com.couchbase.client.core.util.Validators.notNull;
 public class SecurityConfig {
 
   private static final boolean DEFAULT_NATIVE_TLS_ENABLED = true;
+  private static final boolean DEFAULT_HOSTNAME_VERIFICATION_ENABLED = false;
 
   private final boolean nativeTlsEnabled;
   private final boolean tlsEnabled;
+  private final boolean hostnameVerificationEnabled;
   private final List<X509Certificate> trustCertificates;
   private final TrustManagerFactory trustManagerFactory;
 
@@ -64,6 +66,10 @@ public class SecurityConfig {
     return builder().enableNativeTls(nativeTlsEnabled);
   }
 
+  public static Builder enableHostnameVerification(boolean hostnameVerificationEnabled) {
+    return builder().enableHostnameVerification(hostnameVerificationEnabled);
+  }
+
   public static Builder trustCertificates(final List<X509Certificate> certificates) {
     return builder().trustCertificates(certificates);
   }
@@ -79,6 +85,7 @@ public class SecurityConfig {
   private SecurityConfig(final Builder builder) {
     tlsEnabled = builder.tlsEnabled;
     nativeTlsEnabled = builder.nativeTlsEnabled;
+    hostnameVerificationEnabled = builder.hostnameVerificationEnabled;
     trustCertificates = builder.trustCertificates;
     trustManagerFactory = builder.trustManagerFactory;
 
@@ -111,6 +118,13 @@ public class SecurityConfig {
     return nativeTlsEnabled;
   }
 
+  /**
+   * Returns true if the hostname of the remote peer is checked against its certificate during the TLS handshake.
+   */
+  public boolean hostnameVerificationEnabled() {
+    return hostnameVerificationEnabled;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -119,6 +133,7 @@ public class SecurityConfig {
     Map<String, Object> export = new LinkedHashMap<>();
     export.put("tlsEnabled", tlsEnabled);
     export.put("nativeTlsEnabled", nativeTlsEnabled);
+    export.put("hostnameVerificationEnabled", hostnameVerificationEnabled);
     export.put("hasTrustCertificates", trustCertificates != null && !trustCertificates.isEmpty());
     export.put("trustManagerFactory", trustManagerFactory != null ? trustManagerFactory.getClass().getSimpleName() : null);
     return export;
@@ -128,6 +143,7 @@ public class SecurityConfig {
 
     private boolean tlsEnabled = false;
     private boolean nativeTlsEnabled = DEFAULT_NATIVE_TLS_ENABLED;
+    private boolean hostnameVerificationEnabled = DEFAULT_HOSTNAME_VERIFICATION_ENABLED;
     private List<X509Certificate> trustCertificates = null;
     private TrustManagerFactory trustManagerFactory = null;
 
@@ -145,6 +161,20 @@ public class SecurityConfig {
       return this;
     }
 
+    /**
+     * Enables checking the hostname of the remote peer against its certificate during the TLS handshake.
+     * <p>
+     * This is disabled by default, since the nodes are usually addressed by the names or IP addresses from the
+     * cluster configuration which the certificates do not necessarily cover.
+     *
+     * @param hostnameVerificationEnabled true if the hostname should be verified, false is the default.
+     * @return this builder for chaining purposes.
+     */
+    public Builder enableHostnameVerification(boolean hostnameVerificationEnabled) {
+      this.hostnameVerificationEnabled = hostnameVerificationEnabled;
+      return this;
+    }
+
     public Builder trustCertificates(final List<X509Certificate> certificates) {
       this.trustCertificates = certificates;
       return this;
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Describes how the {@link com.couchbase.client.core.Timer} keeps track of request timeouts.
+ *
+ * @since 2.0.0
+ */
+@Stability.Volatile
+public enum TimeoutTracking {
+
+  /**
+   * Every request gets its own timeout registered on the hashed wheel timer, which is cancelled once
+   * the request completes.
+   *
+   * <p>This is the default mode.</p>
+   */
+  WHEEL,
+
+  /**
+   * Requests are grouped into shared buckets by their deadline and whole buckets are expired at once.
+   *
+   * <p>No timer object or completion callback is allocated per request, which reduces garbage and contention at
+   * high request rates. The tradeoff is that completed requests stay referenced by their bucket until their
+   * deadline passed.</p>
+   */
+  DEADLINE_BUCKETS
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.cnc.events.io.SecureConnectionEstablishedEvent;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelInboundHandlerAdapter;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandler;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandshakeCompletionEvent;
+import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.io.IoContext;
+
+import javax.net.ssl.SSLSession;
+import java.time.Duration;
+
+/**
+ * Reports the outcome of a successful TLS handshake on the event bus and removes itself afterwards.
+ *
+ * <p>This handler needs to be placed right after the {@link SslHandler}, failed handshakes are reported by the
+ * {@link PipelineErrorHandler} instead.</p>
+ *
+ * @since 2.0.0
+ */
+public class SecureConnectionEventHandler extends ChannelInboundHandlerAdapter {
+
+  private final EndpointContext endpointContext;
+
+  /**
+   * When the handshake started, in nanoseconds for the duration.
+   */
+  private long handshakeStart;
+
+  /**
+   * When the handshake started, in milliseconds to compare against the session creation time.
+   */
+  private long handshakeStartMillis;
+
+  public SecureConnectionEventHandler(final EndpointContext endpointContext) {
+    this.endpointContext = endpointContext;
+  }
+
+  @Override
+  public void channelActive(final ChannelHandlerContext ctx) {
+    handshakeStart = System.nanoTime();
+    handshakeStartMillis = System.currentTimeMillis();
+    ctx.fireChannelActive();
+  }
+
+  @Override
+  public void userEventTriggered(final ChannelHandlerContext ctx, final Object evt) {
+    if (evt instanceof SslHandshakeCompletionEvent) {
+      if (((SslHandshakeCompletionEvent) evt).isSuccess()) {
+        publishEstablished(ctx);
+      }
+      ctx.pipeline().remove(this);
+    }
+    ctx.fireUserEventTriggered(evt);
+  }
+
+  private void publishEstablished(final ChannelHandlerContext ctx) {
+    SslHandler sslHandler = ctx.pipeline().get(SslHandler.class);
+    if (sslHandler == null) {
+      return;
+    }
+
+    SSLSession session = sslHandler.engine().getSession();
+    // A resumed session keeps the creation time of the handshake which originally established it.
+    boolean resumed = session.getCreationTime() < handshakeStartMillis;
+    IoContext ioContext = new IoContext(
+      endpointContext,
+      ctx.channel().localAddress(),
+      ctx.channel().remoteAddress(),
+      endpointContext.bucket()
+    );
+    endpointContext.environment().eventBus().publish(new SecureConnectionEstablishedEvent(
+      Duration.ofNanos(System.nanoTime() - handshakeStart),
+      ioContext,
+      resumed,
+      session.getProtocol(),
+      session.getCipherSuite()
+    ));
+  }
+
+}
@@ -20,6 +20,7 @@ import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.SecurityConfig;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.OpenSsl;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslContext;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.SslContextBuilder;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandler;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.SslProvider;
@@ -27,10 +28,17 @@ import com.couchbase.client.core.deps.io.netty.handler.ssl.SslProvider;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLParameters;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * This factory creates {@link SslHandler} based on a given configuration.
  *
+ * <p>The {@link SslContext} is built once per security config and authenticator and then shared by all
+ * channels. Next to not parsing the trust and key material over and over again, this keeps the client side
+ * session cache of the context alive, so that reconnects to the same host and port can resume their previous
+ * TLS session through an abbreviated handshake.</p>
+ *
  * @since 2.0.0
  */
 public class SslHandlerFactory {
@@ -40,7 +48,79 @@ public class SslHandlerFactory {
    */
   private static final boolean OPENSSL_AVAILABLE = OpenSsl.isAvailable();
 
-  public static SslHandler get(final ByteBufAllocator allocator, final SecurityConfig config, final Authenticator authenticator)
+  /**
+   * Holds the shared contexts, weakly keyed by the config and the authenticator they have been built from.
+   */
+  private static final Map<SecurityConfig, Map<Authenticator, SslContext>> CONTEXTS = new WeakHashMap<>();
+
+  /**
+   * Creates a new handler which is not bound to a peer, so its TLS sessions cannot be resumed.
+   *
+   * @param allocator the allocator to use for the engine.
+   * @param config the security config of the environment.
+   * @param authenticator the authenticator which might contribute key material.
+   * @return the created handler.
+   * @throws Exception if the ssl context could not be built.
+   * @deprecated use {@link #get(ByteBufAllocator, SecurityConfig, Authenticator, String, int)} instead.
+   */
+  @Deprecated
+  public static SslHandler get(final ByteBufAllocator allocator, final SecurityConfig config,
+                               final Authenticator authenticator) throws Exception {
+    SslHandler sslHandler = context(config, authenticator).newHandler(allocator);
+
+    SSLEngine sslEngine = sslHandler.engine();
+    SSLParameters sslParameters = sslEngine.getSSLParameters();
+    sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+    sslEngine.setSSLParameters(sslParameters);
+
+    return sslHandler;
+  }
+
+  /**
+   * Creates a new handler for a connection to the given host and port.
+   * <p>
+   * The hostname is only verified against the certificate of the peer if enabled through
+   * {@link SecurityConfig#hostnameVerificationEnabled()}.
+   *
+   * @param allocator the allocator to use for the engine.
+   * @param config the security config of the environment.
+   * @param authenticator the authenticator which might contribute key material.
+   * @param peerHost the hostname of the remote peer.
+   * @param peerPort the port of the remote peer.
+   * @return the created handler.
+   * @throws Exception if the ssl context could not be built.
+   */
+  public static SslHandler get(final ByteBufAllocator allocator, final SecurityConfig config,
+                               final Authenticator authenticator, final String peerHost, final int peerPort)
+    throws Exception {
+    SslHandler sslHandler = context(config, authenticator).newHandler(allocator, peerHost, peerPort);
+
+    if (config.hostnameVerificationEnabled()) {
+      SSLEngine sslEngine = sslHandler.engine();
+      SSLParameters sslParameters = sslEngine.getSSLParameters();
+      sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+      sslEngine.setSSLParameters(sslParameters);
+    }
+
+    return sslHandler;
+  }
+
+  /**
+   * Returns the shared context for the config and authenticator, building it on first use.
+   */
+  static SslContext context(final SecurityConfig config, final Authenticator authenticator) throws Exception {
+    synchronized (CONTEXTS) {
+      Map<Authenticator, SslContext> contexts = CONTEXTS.computeIfAbsent(config, c -> new WeakHashMap<>());
+      SslContext context = contexts.get(authenticator);
+      if (context == null) {
+        context = buildContext(config, authenticator);
+        contexts.put(authenticator, context);
+      }
+      return context;
+    }
+  }
+
+  private static SslContext buildContext(final SecurityConfig config, final Authenticator authenticator)
     throws Exception {
     SslProvider provider =  OPENSSL_AVAILABLE && config.nativeTlsEnabled() ? SslProvider.OPENSSL : SslProvider.JDK;
 
@@ -54,14 +134,7 @@ public class SslHandlerFactory {
 
     authenticator.applyTlsProperties(context);
 
-    SslHandler sslHandler = context.build().newHandler(allocator);
-
-    SSLEngine sslEngine = sslHandler.engine();
-    SSLParameters sslParameters = sslEngine.getSSLParameters();
-    sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
-    sslEngine.setSSLParameters(sslParameters);
-
-    return sslHandler;
+    return context.build();
   }
 
 }
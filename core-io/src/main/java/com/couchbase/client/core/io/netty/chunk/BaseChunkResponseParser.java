@@ -21,7 +21,7 @@ import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelConfig;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponse;
 import com.couchbase.client.core.error.DecodingFailedException;
-import com.couchbase.client.core.json.stream.CopyingStreamWindow;
+import com.couchbase.client.core.json.stream.CompositeStreamWindow;
 import com.couchbase.client.core.json.stream.JsonStreamParser;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
@@ -167,7 +167,7 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
   @Override
   public void initialize(final ChannelConfig channelConfig) {
     cleanup();
-    parser = parserBuilder().build(scratchBuffer, new CopyingStreamWindow(channelConfig.getAllocator()));
+    parser = parserBuilder().build(scratchBuffer, new CompositeStreamWindow(channelConfig.getAllocator()));
     this.channelConfig = channelConfig;
     this.trailer = MonoProcessor.create();
     this.requested.set(0);
@@ -239,6 +239,25 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
     }
   }
 
+  /**
+   * Returns true if the subscriber of the row flux has cancelled, so further rows are dropped.
+   */
+  protected boolean isRowsCancelled() {
+    return rowSink.isCancelled();
+  }
+
+  /**
+   * Registers a callback which runs once the subscriber of the current row flux cancels.
+   * <p>
+   * Rows which have been emitted but not yet delivered are dropped silently on cancellation, so this allows
+   * subclasses to clean up after them. If the rows are already cancelled, the callback runs right away.
+   *
+   * @param callback the callback to run on cancellation.
+   */
+  protected void onRowsCancelled(final Runnable callback) {
+    rowSink.onCancel(callback::run);
+  }
+
   /**
    * Fails the row flux with the given message.
    *
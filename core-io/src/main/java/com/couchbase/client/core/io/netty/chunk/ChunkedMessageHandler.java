@@ -16,6 +16,8 @@
 
 package com.couchbase.client.core.io.netty.chunk;
 
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.cnc.events.io.ChannelClosedProactivelyEvent;
 import com.couchbase.client.core.cnc.events.io.UnsupportedResponseTypeReceivedEvent;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
@@ -42,6 +44,10 @@ import com.couchbase.client.core.msg.chunk.ChunkedResponse;
 import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import static com.couchbase.client.core.io.netty.HandlerUtils.closeChannelWithReason;
 import static com.couchbase.client.core.io.netty.HttpProtocol.remoteHttpHost;
 
@@ -106,6 +112,16 @@ public abstract class ChunkedMessageHandler
    */
   private ResponseStatus convertedResponseStatus;
 
+  /**
+   * The time when the current request has been written, in nanoseconds.
+   */
+  private long currentDispatchTime;
+
+  /**
+   * Records the dispatch latencies on this channel, created on first use.
+   */
+  private ValueRecorder dispatchLatencyRecorder;
+
   /**
    * Creates a new {@link ChunkedMessageHandler}.
    *
@@ -145,6 +161,7 @@ public abstract class ChunkedMessageHandler
       encoded.headers().set(HttpHeaderNames.HOST, remoteHost);
       encoded.headers().set(HttpHeaderNames.USER_AGENT, endpointContext.environment().userAgent().formattedLong());
       chunkResponseParser.updateRequestContext(currentRequest.context());
+      currentDispatchTime = System.nanoTime();
       ctx.write(encoded, promise);
     } catch (Throwable t) {
       currentRequest.response().completeExceptionally(t);
@@ -175,6 +192,7 @@ public abstract class ChunkedMessageHandler
         ((HttpContent) msg).retain(); // Parser takes ownership; counteract the release in 'finally' block.
         handleHttpContent((HttpContent) msg);
         if (msg instanceof LastHttpContent) {
+          recordDispatchLatency();
           chunkResponseParser.endOfInput();
           if (!isSuccess()) {
             completeResponseWithFailure();
@@ -241,6 +259,26 @@ public abstract class ChunkedMessageHandler
     currentRequest.fail(cause);
   }
 
+  /**
+   * Records the time from writing the current request until its response has been fully received.
+   */
+  private void recordDispatchLatency() {
+    if (currentRequest == null) {
+      return;
+    }
+    if (dispatchLatencyRecorder == null) {
+      Map<String, String> tags = new HashMap<>();
+      tags.put(Meter.TAG_SERVICE, currentRequest.serviceType().ident());
+      tags.put(Meter.TAG_REMOTE, remoteHost);
+      endpointContext.bucket().ifPresent(b -> tags.put(Meter.TAG_BUCKET, b));
+      dispatchLatencyRecorder = endpointContext.environment().meter().valueRecorder(
+        Meter.METRIC_DISPATCH_LATENCY,
+        tags
+      );
+    }
+    dispatchLatencyRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - currentDispatchTime));
+  }
+
   private void cleanupState() {
     chunkResponseParser.cleanup();
     currentResponse = null;
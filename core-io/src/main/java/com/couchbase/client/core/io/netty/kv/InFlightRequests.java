@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+
+/**
+ * Tracks the requests written on a KV channel which are still waiting for their response.
+ *
+ * <p>Requests are stored in an open-addressed table keyed by their opaque, together with the primitive
+ * timestamp of when they have been dispatched, so that tracking a round trip neither boxes nor allocates
+ * entries. Next to the table, the opaques are kept in a ring in the order they have been added, which allows
+ * to scan the requests from the oldest to the newest dispatch.</p>
+ *
+ * <p>This class is not thread safe and must only be used from the event loop of its channel.</p>
+ *
+ * @since 2.0.0
+ */
+class InFlightRequests {
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private static final float MAX_LOAD_FACTOR = 0.5f;
+
+  /**
+   * The ring is compacted once it holds this many times more opaques than there are requests in flight.
+   */
+  private static final int COMPACTION_FACTOR = 4;
+
+  private int[] opaques;
+  private KeyValueRequest<Response>[] requests;
+  private long[] dispatchTimes;
+  private int mask;
+  private int size;
+  private int resizeThreshold;
+
+  /**
+   * The opaques in the order they have been added, may contain opaques which are not in flight anymore.
+   */
+  private int[] order;
+  private int orderHead;
+  private int orderSize;
+
+  /**
+   * The highest opaque which has been reaped, only valid if {@link #anyReaped} is set.
+   */
+  private int reapedWatermark;
+  private boolean anyReaped;
+
+  InFlightRequests() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  InFlightRequests(final int initialCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+    allocateTable(capacity);
+    this.order = new int[capacity];
+  }
+
+  @SuppressWarnings("unchecked")
+  private void allocateTable(final int capacity) {
+    opaques = new int[capacity];
+    requests = new KeyValueRequest[capacity];
+    dispatchTimes = new long[capacity];
+    mask = capacity - 1;
+    resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+  }
+
+  /**
+   * Returns the number of requests in flight.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds a dispatched request, replacing the previous request with the same opaque if present.
+   *
+   * @param opaque the opaque of the request.
+   * @param request the request itself.
+   * @param dispatchTime the time of the dispatch, in nanoseconds.
+   */
+  void put(final int opaque, final KeyValueRequest<Response> request, final long dispatchTime) {
+    int slot = hash(opaque) & mask;
+    while (requests[slot] != null && opaques[slot] != opaque) {
+      slot = (slot + 1) & mask;
+    }
+    if (requests[slot] == null) {
+      opaques[slot] = opaque;
+      size++;
+    }
+    requests[slot] = request;
+    dispatchTimes[slot] = dispatchTime;
+    appendToOrder(opaque);
+
+    if (size > resizeThreshold) {
+      rehash(opaques.length << 1);
+    }
+  }
+
+  /**
+   * Returns the slot which holds the given opaque.
+   *
+   * @param opaque the opaque to look up.
+   * @return the slot, or -1 if the opaque is not in flight.
+   */
+  int slotOf(final int opaque) {
+    int slot = hash(opaque) & mask;
+    while (requests[slot] != null) {
+      if (opaques[slot] == opaque) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the request stored at the given slot.
+   */
+  KeyValueRequest<Response> requestAt(final int slot) {
+    return requests[slot];
+  }
+
+  /**
+   * Returns the dispatch time in nanoseconds of the request stored at the given slot.
+   */
+  long dispatchTimeAt(final int slot) {
+    return dispatchTimes[slot];
+  }
+
+  /**
+   * Removes the request stored at the given slot.
+   *
+   * <p>Note that slots of other requests might change as a result, so slots must not be held on to across
+   * removals.</p>
+   *
+   * @param slot the slot to clear.
+   */
+  void removeAt(final int slot) {
+    size--;
+    requests[slot] = null;
+
+    // Shift following entries of the same probe sequence back, so that lookups never need tombstones.
+    int free = slot;
+    int current = (slot + 1) & mask;
+    while (requests[current] != null) {
+      int ideal = hash(opaques[current]) & mask;
+      if (((current - ideal) & mask) >= ((current - free) & mask)) {
+        opaques[free] = opaques[current];
+        requests[free] = requests[current];
+        dispatchTimes[free] = dispatchTimes[current];
+        requests[current] = null;
+        free = current;
+      }
+      current = (current + 1) & mask;
+    }
+  }
+
+  /**
+   * Removes and returns the request for the given opaque.
+   *
+   * @param opaque the opaque to remove.
+   * @return the request if it has been in flight, null otherwise.
+   */
+  KeyValueRequest<Response> remove(final int opaque) {
+    int slot = slotOf(opaque);
+    if (slot < 0) {
+      return null;
+    }
+    KeyValueRequest<Response> request = requests[slot];
+    removeAt(slot);
+    return request;
+  }
+
+  /**
+   * Returns the slot of the request which has been added the longest time ago.
+   *
+   * @return the slot, or -1 if no request is in flight.
+   */
+  int oldestSlot() {
+    while (orderSize > 0) {
+      int slot = slotOf(order[orderHead]);
+      if (slot >= 0) {
+        return slot;
+      }
+      // Completed in the meantime, so drop it from the ring.
+      orderHead = (orderHead + 1) & (order.length - 1);
+      orderSize--;
+    }
+    return -1;
+  }
+
+  /**
+   * Removes and returns the request which has been added the longest time ago.
+   *
+   * @return the oldest request, or null if no request is in flight.
+   */
+  KeyValueRequest<Response> pollOldest() {
+    int slot = oldestSlot();
+    if (slot < 0) {
+      return null;
+    }
+    KeyValueRequest<Response> request = requests[slot];
+    removeAt(slot);
+    return request;
+  }
+
+  /**
+   * Removes the requests which have been dispatched before the cutoff and completed in the meantime without
+   * a response (i.e. because they timed out).
+   *
+   * <p>Requests still waiting for their response are skipped over, so a single long-pending request does not
+   * hold back the ones dispatched after it. The scan stops at the first request which is too recent.</p>
+   *
+   * @param cutoff the dispatch time in nanoseconds before which completed requests are removed.
+   * @return the number of requests removed.
+   */
+  int reapCompleted(final long cutoff) {
+    int ringMask = order.length - 1;
+    int reaped = 0;
+    for (int i = 0; i < orderSize; i++) {
+      int opaque = order[(orderHead + i) & ringMask];
+      int slot = slotOf(opaque);
+      if (slot < 0) {
+        continue;
+      }
+      if (dispatchTimes[slot] - cutoff > 0) {
+        break;
+      }
+      if (requests[slot].completed()) {
+        removeAt(slot);
+        if (!anyReaped || opaque - reapedWatermark > 0) {
+          reapedWatermark = opaque;
+          anyReaped = true;
+        }
+        reaped++;
+      }
+    }
+    // Drops the opaques from the head of the ring which are not in flight anymore.
+    oldestSlot();
+    return reaped;
+  }
+
+  /**
+   * Checks if the opaque is not newer than the ones which have been reaped.
+   *
+   * <p>Opaques only grow over the lifetime of a channel, so a response for an opaque which is not in flight
+   * anymore but at or below this watermark is most likely just late for a request which has been reaped.</p>
+   *
+   * @param opaque the opaque of a response which did not match a request in flight.
+   * @return true if it might belong to a reaped request.
+   */
+  boolean mayHaveBeenReaped(final int opaque) {
+    return anyReaped && opaque - reapedWatermark <= 0;
+  }
+
+  private void appendToOrder(final int opaque) {
+    if (orderSize == order.length) {
+      if (orderSize >= size * COMPACTION_FACTOR) {
+        compactOrder();
+      }
+      if (orderSize == order.length) {
+        growOrder();
+      }
+    }
+    order[(orderHead + orderSize) & (order.length - 1)] = opaque;
+    orderSize++;
+  }
+
+  /**
+   * Drops all opaques from the ring which are not in flight anymore, keeping their relative order.
+   */
+  private void compactOrder() {
+    int ringMask = order.length - 1;
+    int kept = 0;
+    for (int i = 0; i < orderSize; i++) {
+      int opaque = order[(orderHead + i) & ringMask];
+      if (slotOf(opaque) >= 0) {
+        order[(orderHead + kept) & ringMask] = opaque;
+        kept++;
+      }
+    }
+    orderSize = kept;
+  }
+
+  private void growOrder() {
+    int[] grown = new int[order.length << 1];
+    int ringMask = order.length - 1;
+    for (int i = 0; i < orderSize; i++) {
+      grown[i] = order[(orderHead + i) & ringMask];
+    }
+    order = grown;
+    orderHead = 0;
+  }
+
+  private void rehash(final int capacity) {
+    int[] oldOpaques = opaques;
+    KeyValueRequest<Response>[] oldRequests = requests;
+    long[] oldDispatchTimes = dispatchTimes;
+    allocateTable(capacity);
+
+    for (int i = 0; i < oldOpaques.length; i++) {
+      if (oldRequests[i] != null) {
+        int opaque = oldOpaques[i];
+        int slot = hash(opaque) & mask;
+        while (requests[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        opaques[slot] = opaque;
+        requests[slot] = oldRequests[i];
+        dispatchTimes[slot] = oldDispatchTimes[i];
+      }
+    }
+  }
+
+  /**
+   * Spreads the mostly sequential opaques across the table.
+   */
+  private static int hash(final int opaque) {
+    int h = opaque * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+}
@@ -17,7 +17,10 @@
 package com.couchbase.client.core.io.netty.kv;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.Event;
 import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.cnc.events.config.CollectionMapRefreshFailedEvent;
 import com.couchbase.client.core.cnc.events.io.ChannelClosedProactivelyEvent;
 import com.couchbase.client.core.cnc.events.io.InvalidRequestDetectedEvent;
@@ -25,14 +28,13 @@ import com.couchbase.client.core.cnc.events.io.KeyValueErrorMapCodeHandledEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseStatusReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnsupportedResponseTypeReceivedEvent;
-import com.couchbase.client.core.config.ProposedBucketConfigContext;
+import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelPromise;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectHashMap;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectMap;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.ScheduledFuture;
 import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CompressionConfig;
@@ -48,10 +50,14 @@ import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.ServiceType;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static com.couchbase.client.core.io.netty.HandlerUtils.closeChannelWithReason;
+import static com.couchbase.client.core.io.netty.HttpProtocol.remoteHttpHost;
 import static com.couchbase.client.core.io.netty.kv.ErrorMap.ErrorAttribute.AUTH;
 import static com.couchbase.client.core.io.netty.kv.ErrorMap.ErrorAttribute.CONN_STATE_INVALIDATED;
 import static com.couchbase.client.core.io.netty.kv.ErrorMap.ErrorAttribute.ITEM_LOCKED;
@@ -70,19 +76,25 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
   /**
-   * Stores the {@link CoreContext} for use.
+   * How often the outstanding requests are checked for ones which can be reaped.
    */
-  private final EndpointContext endpointContext;
+  static final Duration REAP_INTERVAL = Duration.ofSeconds(1);
 
   /**
-   * Holds all outstanding requests based on their opaque.
+   * Requests which have been completed elsewhere (i.e. timed out) are only reaped once they have been dispatched
+   * at least this long ago, so that responses which are just late still find their request.
    */
-  private final IntObjectMap<KeyValueRequest<Response>> writtenRequests;
+  static final Duration REAP_AFTER = Duration.ofSeconds(30);
 
   /**
-   * Holds the start timestamps for the outstanding dispatched requests.
+   * Stores the {@link CoreContext} for use.
    */
-  private final IntObjectMap<Long> writtenRequestDispatchTimings;
+  private final EndpointContext endpointContext;
+
+  /**
+   * Holds all outstanding requests and their dispatch timestamps based on their opaque.
+   */
+  private final InFlightRequests writtenRequests;
 
   /**
    * The compression config used for this handler.
@@ -119,6 +131,21 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    */
   private ErrorMap errorMap;
 
+  /**
+   * The dispatch latency recorders, indexed by the unsigned opcode and created on first use.
+   */
+  private final ValueRecorder[] dispatchLatencyRecorders = new ValueRecorder[256];
+
+  /**
+   * Periodically reaps outstanding requests which completed without a response.
+   */
+  private ScheduledFuture<?> reaper;
+
+  /**
+   * Set if this channel receives pushed config change notifications and has been registered as such.
+   */
+  private boolean configPushRegistered;
+
   /**
    * Creates a new {@link KeyValueMessageHandler}.
    *
@@ -128,8 +155,7 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
                                 final Optional<String> bucketName) {
     this.endpoint = endpoint;
     this.endpointContext = endpointContext;
-    this.writtenRequests = new IntObjectHashMap<>();
-    this.writtenRequestDispatchTimings = new IntObjectHashMap<>();
+    this.writtenRequests = new InFlightRequests();
     this.compressionConfig = endpointContext.environment().compressionConfig();
     this.eventBus = endpointContext.environment().eventBus();
     this.bucketName = bucketName;
@@ -161,6 +187,7 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     boolean mutationTokens = features != null && features.contains(ServerFeature.MUTATION_SEQNO);
     boolean syncReplication = features != null && features.contains(ServerFeature.SYNC_REPLICATION);
     boolean altRequest = features != null && features.contains(ServerFeature.ALT_REQUEST);
+    boolean configPush = features != null && features.contains(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION);
 
     if (syncReplication && !altRequest) {
       throw new IllegalStateException("If Synchronous Replication is enabled, the server also " +
@@ -177,6 +204,18 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       ioContext.core().configurationProvider().collectionMap()
     );
 
+    if (configPush && bucketName.isPresent()) {
+      ioContext.core().configurationProvider().configPushChannelActive(bucketName.get());
+      configPushRegistered = true;
+    }
+
+    reaper = ctx.executor().scheduleAtFixedRate(
+      this::reapCompletedRequests,
+      REAP_INTERVAL.toNanos(),
+      REAP_INTERVAL.toNanos(),
+      TimeUnit.NANOSECONDS
+    );
+
     ctx.fireChannelActive();
   }
 
@@ -187,10 +226,10 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       KeyValueRequest<Response> request = (KeyValueRequest<Response>) msg;
 
       int opaque = request.opaque();
-      writtenRequests.put(opaque, request);
       try {
-        ctx.write(request.encode(ctx.alloc(), opaque, channelContext), promise);
-        writtenRequestDispatchTimings.put(opaque, (Long) System.nanoTime());
+        ByteBuf encoded = request.encode(ctx.alloc(), opaque, channelContext);
+        writtenRequests.put(opaque, request, System.nanoTime());
+        ctx.write(encoded, promise);
         if (request.internalSpan() != null) {
           request.internalSpan().startDispatch();
         }
@@ -219,21 +258,37 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
         closeChannelWithReason(ioContext, ctx, ChannelClosedProactivelyEvent.Reason.INVALID_RESPONSE_FORMAT_DETECTED);
       }
     } finally {
-      if (endpoint != null) {
-        endpoint.markRequestCompletion();
-      }
       ReferenceCountUtil.release(msg);
     }
   }
 
   @Override
   public void channelInactive(final ChannelHandlerContext ctx) {
-    for (KeyValueRequest<Response> request : writtenRequests.values()) {
+    if (reaper != null) {
+      reaper.cancel(false);
+    }
+    if (configPushRegistered) {
+      configPushRegistered = false;
+      ioContext.core().configurationProvider().configPushChannelInactive(bucketName.get());
+    }
+    KeyValueRequest<Response> request;
+    while ((request = writtenRequests.pollOldest()) != null) {
       RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT);
     }
     ctx.fireChannelInactive();
   }
 
+  /**
+   * Removes requests which have been completed without a response (i.e. because they timed out) and have been
+   * dispatched long enough ago.
+   *
+   * <p>Requests which are still waiting for their response are skipped over. A response which arrives after
+   * its request has been reaped is dropped instead of being treated as an unknown opaque.</p>
+   */
+  void reapCompletedRequests() {
+    writtenRequests.reapCompleted(System.nanoTime() - REAP_AFTER.toNanos());
+  }
+
   /**
    * Main method to start dispatching the decode.
    *
@@ -241,14 +296,28 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    * @param response the response to decode and handle.
    */
   private void decode(final ChannelHandlerContext ctx, final ByteBuf response) {
-    int opaque = MemcacheProtocol.opaque(response);
-    KeyValueRequest<Response> request = writtenRequests.remove(opaque);
+    if (response.getByte(MemcacheProtocol.MAGIC_OFFSET) == MemcacheProtocol.Magic.SERVER_REQUEST.magic()) {
+      handleServerRequest(response);
+      return;
+    }
 
-    if (request == null) {
-      handleUnknownResponseReceived(ctx, response);
+    int opaque = MemcacheProtocol.opaque(response);
+    int slot = writtenRequests.slotOf(opaque);
+    if (slot < 0) {
+      if (!writtenRequests.mayHaveBeenReaped(opaque)) {
+        handleUnknownResponseReceived(ctx, response);
+      }
       return;
     }
 
+    KeyValueRequest<Response> request = writtenRequests.requestAt(slot);
+    long start = writtenRequests.dispatchTimeAt(slot);
+    writtenRequests.removeAt(slot);
+    if (endpoint != null) {
+      endpoint.markRequestCompletion();
+    }
+    long dispatchLatency = System.nanoTime() - start;
+
     long serverTime = MemcacheProtocol.parseServerDurationFromResponse(response);
     request.context().serverLatency(serverTime);
 
@@ -256,20 +325,24 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       request.internalSpan().stopDispatch();
     }
 
-    long start = writtenRequestDispatchTimings.remove(opaque);
-    request.context().dispatchLatency(System.nanoTime() - start);
+    request.context().dispatchLatency(dispatchLatency);
+    dispatchLatencyRecorder(MemcacheProtocol.opcode(response)).recordValue(
+      TimeUnit.NANOSECONDS.toMicros(dispatchLatency)
+    );
 
     short statusCode = MemcacheProtocol.status(response);
     ResponseStatus status = MemcacheProtocol.decodeStatus(statusCode);
     ErrorMap.ErrorCode errorCode = status == ResponseStatus.UNKNOWN ? decodeErrorCode(statusCode) : null;
 
     if (errorCode != null) {
-      ioContext.environment().eventBus().publish(new KeyValueErrorMapCodeHandledEvent(ioContext, errorCode));
+      if (eventBus.isEnabled(Event.Severity.DEBUG)) {
+        eventBus.publish(new KeyValueErrorMapCodeHandledEvent(ioContext, errorCode));
+      }
       status = handleErrorCode(ctx, errorCode);
     }
 
-    if (status == ResponseStatus.UNKNOWN) {
-      ioContext.environment().eventBus().publish(new UnknownResponseStatusReceivedEvent(ioContext, statusCode));
+    if (status == ResponseStatus.UNKNOWN && eventBus.isEnabled(Event.Severity.INFO)) {
+      eventBus.publish(new UnknownResponseStatusReceivedEvent(ioContext, statusCode));
     }
 
     if (status == ResponseStatus.NOT_MY_VBUCKET) {
@@ -295,6 +368,39 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     }
   }
 
+  /**
+   * Returns the dispatch latency recorder for the given opcode, creating it on first use.
+   *
+   * @param opcode the opcode of the response.
+   * @return the recorder for the opcode on this channel.
+   */
+  private ValueRecorder dispatchLatencyRecorder(final byte opcode) {
+    final int index = opcode & 0xFF;
+    ValueRecorder recorder = dispatchLatencyRecorders[index];
+    if (recorder == null) {
+      Map<String, String> tags = new HashMap<>();
+      tags.put(Meter.TAG_SERVICE, ServiceType.KV.ident());
+      tags.put(Meter.TAG_OPERATION, opcodeName(opcode));
+      tags.put(Meter.TAG_REMOTE, remoteHttpHost(ioContext.remoteSocket()));
+      bucketName.ifPresent(b -> tags.put(Meter.TAG_BUCKET, b));
+      recorder = ioContext.environment().meter().valueRecorder(Meter.METRIC_DISPATCH_LATENCY, tags);
+      dispatchLatencyRecorders[index] = recorder;
+    }
+    return recorder;
+  }
+
+  /**
+   * Helper method to turn the opcode into a readable name for the metrics.
+   */
+  private static String opcodeName(final byte opcode) {
+    for (MemcacheProtocol.Opcode candidate : MemcacheProtocol.Opcode.values()) {
+      if (candidate.opcode() == opcode) {
+        return candidate.name().toLowerCase();
+      }
+    }
+    return "0x" + Integer.toHexString(opcode & 0xFF);
+  }
+
   /**
    * If certain status codes are returned from the server, there is a clear indication that the channel is
    * invalid and needs to be closed in order to avoid any further trouble.
@@ -409,12 +515,39 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     final String origin = request.context().lastDispatchedTo() != null ? request.context().lastDispatchedTo().hostname() : null;
     RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.KV_NOT_MY_VBUCKET);
 
-    body(response)
-      .map(b -> b.toString(UTF_8).trim())
-      .filter(c -> c.startsWith("{"))
-      .ifPresent(c -> ioContext.core().configurationProvider().proposeBucketConfig(
-        new ProposedBucketConfigContext(request.bucket(), c, origin)
-      ));
+    body(response).ifPresent(c -> ioContext.core().configurationProvider().proposeBucketConfig(
+      request.bucket(), c, origin
+    ));
+  }
+
+  /**
+   * Handles a request initiated by the server on this duplex connection.
+   *
+   * <p>The only one negotiated right now is the cluster map change notification, which carries the bucket name
+   * as key, the revision as extras and the new config as body. The config is only proposed if it is newer than
+   * the one currently applied, so that the notifications arriving from every node do not all get parsed.</p>
+   *
+   * @param request the server request.
+   */
+  private void handleServerRequest(final ByteBuf request) {
+    if (MemcacheProtocol.opcode(request) != MemcacheProtocol.ServerOpcode.CLUSTERMAP_CHANGE_NOTIFICATION.opcode()) {
+      return;
+    }
+
+    final String bucket = MemcacheProtocol.key(request).map(k -> k.toString(UTF_8)).orElse(null);
+    if (bucket == null || bucket.isEmpty()) {
+      return;
+    }
+
+    final long revision = MemcacheProtocol.extras(request).map(e -> e.getUnsignedInt(0)).orElse(-1L);
+    final BucketConfig current = ioContext.core().configurationProvider().config().bucketConfig(bucket);
+    if (current != null && revision >= 0 && current.rev() >= revision) {
+      return;
+    }
+
+    body(request).ifPresent(c -> ioContext.core().configurationProvider().proposeBucketConfig(
+      bucket, c, endpointContext.remoteSocket().hostname()
+    ));
   }
 
   /**
@@ -27,6 +27,8 @@ import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
 
@@ -103,6 +105,13 @@ public enum MemcacheProtocol {
    */
   public static final byte FRAMING_EXTRAS_TRACING = 0x00;
 
+  /**
+   * Bodies of at least this size are not copied into the request frame by the zero-copy encoders.
+   *
+   * <p>For smaller bodies a single contiguous buffer is cheaper than the composite bookkeeping.</p>
+   */
+  static final int ZERO_COPY_MIN_BODY_SIZE = 4096;
+
   /**
    * Create a flexible memcached protocol request with all fields necessary.
    */
@@ -157,6 +166,90 @@ public enum MemcacheProtocol {
       .writeBytes(body);
   }
 
+  /**
+   * Create a flexible memcached protocol request without copying the body into the request frame.
+   *
+   * <p>The header, framing extras, extras and key are written into one buffer which is followed by the body in a
+   * {@link CompositeByteBuf}. The body is retained, so the caller still owns (and has to release) its reference.
+   * Small bodies are copied as in {@link #flexibleRequest(ByteBufAllocator, Opcode, byte, short, int, long, ByteBuf,
+   * ByteBuf, ByteBuf, ByteBuf)}.</p>
+   */
+  public static ByteBuf flexibleZeroCopyRequest(final ByteBufAllocator alloc, final Opcode opcode,
+                                                final byte datatype, final short partition, final int opaque,
+                                                final long cas, final ByteBuf framingExtras, final ByteBuf extras,
+                                                final ByteBuf key, final ByteBuf body) {
+    int bodySize = body.readableBytes();
+    if (bodySize < ZERO_COPY_MIN_BODY_SIZE) {
+      return flexibleRequest(alloc, opcode, datatype, partition, opaque, cas, framingExtras, extras, key, body);
+    }
+
+    int keySize = key.readableBytes();
+    int extrasSize = extras.readableBytes();
+    int framingExtrasSize = framingExtras.readableBytes();
+    int headerAndKeySize = HEADER_SIZE + framingExtrasSize + extrasSize + keySize;
+    ByteBuf header = alloc
+      .buffer(headerAndKeySize)
+      .writeByte(Magic.FLEXIBLE_REQUEST.magic())
+      .writeByte(opcode.opcode())
+      .writeByte(framingExtrasSize)
+      .writeByte(keySize)
+      .writeByte(extrasSize)
+      .writeByte(datatype)
+      .writeShort(partition)
+      .writeInt(headerAndKeySize - HEADER_SIZE + bodySize)
+      .writeInt(opaque)
+      .writeLong(cas)
+      .writeBytes(framingExtras)
+      .writeBytes(extras)
+      .writeBytes(key);
+    return withBody(alloc, header, body);
+  }
+
+  /**
+   * Create a regular, non-flexible memcached protocol request without copying the body into the request frame.
+   *
+   * <p>The header, extras and key are written into one buffer which is followed by the body in a
+   * {@link CompositeByteBuf}. The body is retained, so the caller still owns (and has to release) its reference.
+   * Small bodies are copied as in {@link #request(ByteBufAllocator, Opcode, byte, short, int, long, ByteBuf,
+   * ByteBuf, ByteBuf)}.</p>
+   */
+  public static ByteBuf zeroCopyRequest(final ByteBufAllocator alloc, final Opcode opcode, final byte datatype,
+                                        final short partition, final int opaque, final long cas,
+                                        final ByteBuf extras, final ByteBuf key, final ByteBuf body) {
+    int bodySize = body.readableBytes();
+    if (bodySize < ZERO_COPY_MIN_BODY_SIZE) {
+      return request(alloc, opcode, datatype, partition, opaque, cas, extras, key, body);
+    }
+
+    int keySize = key.readableBytes();
+    int extrasSize = extras.readableBytes();
+    int headerAndKeySize = HEADER_SIZE + extrasSize + keySize;
+    ByteBuf header = alloc
+      .buffer(headerAndKeySize)
+      .writeByte(Magic.REQUEST.magic())
+      .writeByte(opcode.opcode())
+      .writeShort(keySize)
+      .writeByte(extrasSize)
+      .writeByte(datatype)
+      .writeShort(partition)
+      .writeInt(headerAndKeySize - HEADER_SIZE + bodySize)
+      .writeInt(opaque)
+      .writeLong(cas)
+      .writeBytes(extras)
+      .writeBytes(key);
+    return withBody(alloc, header, body);
+  }
+
+  /**
+   * Combines the already encoded header with the (retained) body into one composite buffer.
+   */
+  private static ByteBuf withBody(final ByteBufAllocator alloc, final ByteBuf header, final ByteBuf body) {
+    CompositeByteBuf request = alloc.compositeBuffer(2);
+    request.addComponent(true, header);
+    request.addComponent(true, body.retain());
+    return request;
+  }
+
   /**
    * Create a regular, non-flexible memcached protocol response with all fields necessary.
    *
@@ -272,6 +365,28 @@ public enum MemcacheProtocol {
     }
   }
 
+  /**
+   * Returns the key of the message if available.
+   *
+   * @param message the message to extract the key from.
+   * @return an optional either containing the key of the message or none.
+   */
+  public static Optional<ByteBuf> key(final ByteBuf message) {
+    boolean flexible = message.getByte(0) == Magic.FLEXIBLE_RESPONSE.magic();
+    int keyLength = flexible ? message.getByte(3) : message.getShort(2);
+    int flexibleExtrasLength = flexible ? message.getByte(2) : 0;
+    byte extrasLength = message.getByte(4);
+
+    if (keyLength > 0) {
+      return Optional.of(message.slice(
+        MemcacheProtocol.HEADER_SIZE + flexibleExtrasLength + extrasLength,
+        keyLength
+      ));
+    } else {
+      return Optional.empty();
+    }
+  }
+
   public static Optional<ByteBuf> extras(final ByteBuf message) {
     boolean flexible = message.getByte(0) == Magic.FLEXIBLE_RESPONSE.magic();
     byte extrasLength = message.getByte(4);
@@ -325,7 +440,8 @@ public enum MemcacheProtocol {
    * Performs simple sanity checking of a key/value response.
    *
    * It checks the magic byte and if the total readable bytes match
-   * up with the total length of the packet.
+   * up with the total length of the packet. Requests initiated by the
+   * server on duplex connections are accepted as well.
    *
    * @param response the response to check.
    * @return true if verified, false otherwise.
@@ -339,7 +455,8 @@ public enum MemcacheProtocol {
     int bodyPlusHeader = response.getInt(TOTAL_LENGTH_OFFSET) + MemcacheProtocol.HEADER_SIZE;
 
     return
-      (magic == Magic.RESPONSE.magic() || magic == Magic.FLEXIBLE_RESPONSE.magic())
+      (magic == Magic.RESPONSE.magic() || magic == Magic.FLEXIBLE_RESPONSE.magic()
+        || magic == Magic.SERVER_REQUEST.magic())
       && readableBytes == bodyPlusHeader;
   }
 
@@ -673,6 +790,23 @@ public enum MemcacheProtocol {
     return input;
   }
 
+  /**
+   * Copies the input into a byte array, decompressing it on the way if the datatype has the snappy flag enabled.
+   *
+   * <p>Compared to copying the body first and then decompressing the copy, this saves one intermediate array
+   * for compressed content.</p>
+   *
+   * @param input the input buffer, its reader index is not modified.
+   * @param datatype the datatype for the response.
+   * @return the byte array, either decoded or a copy of the input straight.
+   */
+  public static byte[] tryDecompression(final ByteBuf input, final byte datatype) {
+    if ((datatype & Datatype.SNAPPY.datatype()) == Datatype.SNAPPY.datatype()) {
+      return SnappyCodec.decompressToArray(input);
+    }
+    return ByteBufUtil.getBytes(input);
+  }
+
   /**
    * Helper method during development and debugging to dump the raw message as a
    * verbose string.
@@ -733,7 +867,11 @@ public enum MemcacheProtocol {
     REQUEST((byte) 0x80),
     RESPONSE((byte) 0x81),
     FLEXIBLE_REQUEST((byte) 0x08),
-    FLEXIBLE_RESPONSE((byte) 0x18);
+    FLEXIBLE_RESPONSE((byte) 0x18),
+    /**
+     * A request initiated by the server, only sent on duplex connections.
+     */
+    SERVER_REQUEST((byte) 0x82);
 
     private final byte magic;
 
@@ -760,6 +898,8 @@ public enum MemcacheProtocol {
           return Magic.FLEXIBLE_REQUEST;
         case 0x18:
           return Magic.FLEXIBLE_RESPONSE;
+        case (byte) 0x82:
+          return Magic.SERVER_REQUEST;
       }
       return null;
     }
@@ -916,6 +1056,31 @@ public enum MemcacheProtocol {
     }
   }
 
+  /**
+   * Contains all known opcodes of requests initiated by the server.
+   */
+  public enum ServerOpcode {
+    /**
+     * Notifies the client that the cluster map changed, carrying the new config.
+     */
+    CLUSTERMAP_CHANGE_NOTIFICATION((byte) 0x01);
+
+    private final byte opcode;
+
+    ServerOpcode(byte opcode) {
+      this.opcode = opcode;
+    }
+
+    /**
+     * Returns the opcode for the given server request.
+     *
+     * @return the opcode for the server request.
+     */
+    public byte opcode() {
+      return opcode;
+    }
+  }
+
   public enum Status {
     /**
      * Successful message.
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.FastThreadLocal;
+import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
+import com.couchbase.client.core.env.CompressionConfig;
+
+/**
+ * Compresses and decompresses KV document bodies with snappy, working on {@link ByteBuf ByteBufs}.
+ *
+ * <p>Compressed and decompressed output is written into pooled buffers from the given allocator. Input which is
+ * not backed by an array (like direct network buffers) is copied into thread-local scratch space first, which
+ * is reused across calls on the same (event loop) thread.</p>
+ *
+ * <p>Before compressing a large input completely, only a sample prefix of it is compressed into scratch space.
+ * If already the prefix does not reach the minimum ratio, the input is assumed to be incompressible and no
+ * output buffer is allocated at all.</p>
+ *
+ * @since 2.0.0
+ */
+@Stability.Internal
+public enum SnappyCodec {
+  ;
+
+  /**
+   * The input needs to be at least this many times larger than the sample to make sampling worthwhile.
+   */
+  static final int SAMPLE_THRESHOLD_FACTOR = 8;
+
+  /**
+   * Scratch arrays larger than this are not kept around after use.
+   */
+  static final int MAX_RETAINED_SCRATCH_SIZE = 1024 * 1024;
+
+  /**
+   * The decompressor may write a few bytes past the end of the uncompressed output, so this much extra capacity
+   * is reserved to keep it from touching memory of other pooled buffers sharing the same array.
+   */
+  static final int DECOMPRESSION_SLOP = 32;
+
+  /**
+   * Holds the scratch space per thread.
+   */
+  private static final FastThreadLocal<Scratch> SCRATCH = new FastThreadLocal<Scratch>() {
+    @Override
+    protected Scratch initialValue() {
+      return new Scratch();
+    }
+  };
+
+  /**
+   * Tries to compress the input, returning null if the result would not reach the configured minimum ratio.
+   *
+   * @param alloc the allocator for the compressed output.
+   * @param input the uncompressed input.
+   * @param config the compression config with ratio and sample size.
+   * @return a buffer with the compressed content (owned by the caller), or null if not worth compressing.
+   */
+  public static ByteBuf tryCompress(final ByteBufAllocator alloc, final byte[] input, final CompressionConfig config) {
+    return tryCompress(alloc, input, 0, input.length, config);
+  }
+
+  /**
+   * Tries to compress the readable bytes of the input, returning null if the result would not reach the
+   * configured minimum ratio.
+   *
+   * <p>The reader index of the input is not modified.</p>
+   *
+   * @param alloc the allocator for the compressed output.
+   * @param input the uncompressed input.
+   * @param config the compression config with ratio and sample size.
+   * @return a buffer with the compressed content (owned by the caller), or null if not worth compressing.
+   */
+  public static ByteBuf tryCompress(final ByteBufAllocator alloc, final ByteBuf input, final CompressionConfig config) {
+    final int length = input.readableBytes();
+    if (input.hasArray()) {
+      return tryCompress(alloc, input.array(), input.arrayOffset() + input.readerIndex(), length, config);
+    }
+    final Scratch scratch = SCRATCH.get();
+    final byte[] array = scratch.input(length);
+    input.getBytes(input.readerIndex(), array, 0, length);
+    try {
+      return tryCompress(alloc, array, 0, length, config);
+    } finally {
+      scratch.trim();
+    }
+  }
+
+  private static ByteBuf tryCompress(final ByteBufAllocator alloc, final byte[] input, final int offset,
+                                     final int length, final CompressionConfig config) {
+    if (length == 0) {
+      return null;
+    }
+
+    final double minRatio = config.minRatio();
+    final int sampleSize = config.sampleSize();
+    if (sampleSize > 0 && length >= sampleSize * SAMPLE_THRESHOLD_FACTOR) {
+      final byte[] sampleOutput = SCRATCH.get().sample(Snappy.maxCompressedLength(sampleSize));
+      final int compressedSample = Snappy.compress(input, offset, sampleSize, sampleOutput, 0);
+      if (((double) compressedSample / sampleSize) > minRatio) {
+        return null;
+      }
+    }
+
+    final ByteBuf output = alloc.heapBuffer(Snappy.maxCompressedLength(length));
+    try {
+      final int compressed = Snappy.compress(input, offset, length, output.array(), output.arrayOffset());
+      if (((double) compressed / length) > minRatio) {
+        output.release();
+        return null;
+      }
+      return output.writerIndex(compressed);
+    } catch (RuntimeException ex) {
+      output.release();
+      throw ex;
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of the input into a new buffer.
+   *
+   * <p>The reader index of the input is not modified.</p>
+   *
+   * @param alloc the allocator for the decompressed output.
+   * @param input the compressed input.
+   * @return a buffer with the decompressed content, owned by the caller.
+   */
+  public static ByteBuf decompress(final ByteBufAllocator alloc, final ByteBuf input) {
+    final int length = input.readableBytes();
+    final Scratch scratch = SCRATCH.get();
+    final byte[] array;
+    final int offset;
+    if (input.hasArray()) {
+      array = input.array();
+      offset = input.arrayOffset() + input.readerIndex();
+    } else {
+      array = scratch.input(length);
+      offset = 0;
+      input.getBytes(input.readerIndex(), array, 0, length);
+    }
+
+    try {
+      final int uncompressedLength = Snappy.getUncompressedLength(array, offset);
+      final ByteBuf output = alloc.heapBuffer(uncompressedLength + DECOMPRESSION_SLOP);
+      try {
+        Snappy.uncompress(array, offset, length, output.array(), output.arrayOffset());
+        return output.writerIndex(uncompressedLength);
+      } catch (RuntimeException ex) {
+        output.release();
+        throw ex;
+      }
+    } finally {
+      scratch.trim();
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of the input into a new, exactly sized array.
+   *
+   * <p>The reader index of the input is not modified.</p>
+   *
+   * @param input the compressed input.
+   * @return the decompressed content.
+   */
+  public static byte[] decompressToArray(final ByteBuf input) {
+    final int length = input.readableBytes();
+    if (input.hasArray()) {
+      return Snappy.uncompress(input.array(), input.arrayOffset() + input.readerIndex(), length);
+    }
+
+    final Scratch scratch = SCRATCH.get();
+    final byte[] array = scratch.input(length);
+    input.getBytes(input.readerIndex(), array, 0, length);
+    try {
+      return Snappy.uncompress(array, 0, length);
+    } finally {
+      scratch.trim();
+    }
+  }
+
+  /**
+   * Thread-local scratch arrays, grown on demand.
+   */
+  private static class Scratch {
+
+    private byte[] input = new byte[0];
+    private byte[] sample = new byte[0];
+
+    byte[] input(final int size) {
+      if (input.length < size) {
+        input = new byte[size];
+      }
+      return input;
+    }
+
+    byte[] sample(final int size) {
+      if (sample.length < size) {
+        sample = new byte[size];
+      }
+      return sample;
+    }
+
+    /**
+     * Drops an input array which grew too large to be kept around for the next call.
+     */
+    void trim() {
+      if (input.length > MAX_RETAINED_SCRATCH_SIZE) {
+        input = new byte[0];
+      }
+    }
+
+  }
+
+}
@@ -30,10 +30,13 @@ import com.couchbase.client.core.error.QueryIndexExistsException;
 import com.couchbase.client.core.error.QueryIndexNotFoundException;
 import com.couchbase.client.core.io.netty.chunk.BaseChunkResponseParser;
 import com.couchbase.client.core.json.stream.JsonStreamParser;
+import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.query.QueryChunkHeader;
 import com.couchbase.client.core.msg.query.QueryChunkRow;
 import com.couchbase.client.core.msg.query.QueryChunkTrailer;
+import com.couchbase.client.core.msg.query.QueryRequest;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -58,6 +61,11 @@ public class QueryChunkResponseParser
   private byte[] errors;
   private byte[] profile;
 
+  /**
+   * Retained rows of the current response which have been emitted, but might not have been delivered yet.
+   */
+  private ArrayDeque<QueryChunkRow> retainedRows;
+
   @Override
   protected void doCleanup() {
     requestId = null;
@@ -70,6 +78,7 @@ public class QueryChunkResponseParser
     warnings = null;
     errors = null;
     profile = null;
+    retainedRows = null;
   }
 
   private final JsonStreamParser.Builder parserBuilder = JsonStreamParser.builder()
@@ -79,7 +88,11 @@ public class QueryChunkResponseParser
     .doOnValue("/prepared", v -> prepared = Optional.of(v.readString()))
     .doOnValue("/results/-", v -> {
       markHeaderComplete();
-      emitRow(new QueryChunkRow(v.readBytes()));
+      if (retainRows()) {
+        emitRetainedRow(new QueryChunkRow(v.readRetainedSlice()));
+      } else {
+        emitRow(new QueryChunkRow(v.readBytes()));
+      }
     })
     .doOnValue("/status", v -> {
       markHeaderComplete();
@@ -93,6 +106,52 @@ public class QueryChunkResponseParser
     })
     .doOnValue("/warnings", v -> warnings = v.readBytes());
 
+  /**
+   * Returns true if the current request wants its rows as retained slices instead of copies.
+   * <p>
+   * Once the rows have been cancelled they are dropped, so there is no point in holding on to the network buffers.
+   */
+  private boolean retainRows() {
+    if (isRowsCancelled()) {
+      return false;
+    }
+    final RequestContext ctx = requestContext();
+    return ctx != null && ctx.request() instanceof QueryRequest && ((QueryRequest) ctx.request()).retainRows();
+  }
+
+  /**
+   * Emits a retained row and keeps track of it until it has been decoded or released.
+   * <p>
+   * The row flux drops rows which are still queued when its subscriber cancels, without handing them to a discard
+   * hook. So the rows which still hold their content are released here once the rows are cancelled.
+   */
+  private void emitRetainedRow(final QueryChunkRow row) {
+    if (retainedRows == null) {
+      final ArrayDeque<QueryChunkRow> emitted = new ArrayDeque<>();
+      retainedRows = emitted;
+      onRowsCancelled(() -> releaseRows(emitted));
+    }
+    synchronized (retainedRows) {
+      while (!retainedRows.isEmpty() && !retainedRows.peekFirst().isRetained()) {
+        retainedRows.pollFirst();
+      }
+      retainedRows.addLast(row);
+    }
+    emitRow(row);
+    if (isRowsCancelled()) {
+      releaseRows(retainedRows);
+    }
+  }
+
+  private static void releaseRows(final ArrayDeque<QueryChunkRow> rows) {
+    synchronized (rows) {
+      QueryChunkRow row;
+      while ((row = rows.pollFirst()) != null) {
+        row.release();
+      }
+    }
+  }
+
   @Override
   protected JsonStreamParser.Builder parserBuilder() {
     return parserBuilder;
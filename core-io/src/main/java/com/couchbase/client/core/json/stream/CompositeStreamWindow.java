@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.json.stream;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A stream window implementation that keeps the input buffers as components of a composite buffer
+ * instead of copying them.
+ * <p>
+ * Input buffers are retained until the window moves past them. A matched value is either copied out
+ * of the window, or handed out as retained slices of the input buffers which outlive the window.
+ */
+public class CompositeStreamWindow implements StreamWindow {
+  private final CompositeByteBuf window;
+
+  /**
+   * Offset from the beginning of the stream to the end of the window.
+   */
+  private long streamOffset;
+
+  public CompositeStreamWindow(ByteBufAllocator allocator) {
+    // Never consolidate, since that would copy all the components into a single buffer.
+    this.window = allocator.compositeBuffer(Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void add(ByteBuf buf) {
+    if (!buf.isReadable()) {
+      buf.release();
+      return;
+    }
+    streamOffset += buf.readableBytes();
+    window.addComponent(true, buf);
+  }
+
+  @Override
+  public void releaseBefore(long releaseStreamOffset) {
+    if (releaseStreamOffset <= 0) {
+      return;
+    }
+
+    int localOffset = toLocalOffset(releaseStreamOffset);
+    window.skipBytes(localOffset);
+    window.discardReadComponents();
+  }
+
+  @Override
+  public byte[] getBytes(long startStreamOffset, long endStreamOffset) {
+    final int localStartOffset = toLocalOffset(startStreamOffset);
+    final int localEndOffset = toLocalOffset(endStreamOffset);
+    final byte[] result = new byte[localEndOffset - localStartOffset];
+    window.getBytes(window.readerIndex() + localStartOffset, result);
+    return result;
+  }
+
+  @Override
+  public ByteBuf getRetainedSlice(long startStreamOffset, long endStreamOffset) {
+    final int localStartOffset = toLocalOffset(startStreamOffset);
+    final int localEndOffset = toLocalOffset(endStreamOffset);
+
+    // Slice the components instead of the composite, since discarding a component releases it
+    // no matter how many slices of the composite are still around.
+    final List<ByteBuf> slices = window.decompose(window.readerIndex() + localStartOffset,
+      localEndOffset - localStartOffset);
+    if (slices.size() == 1) {
+      return slices.get(0).retain();
+    }
+    slices.forEach(ByteBuf::retain);
+    return Unpooled.wrappedBuffer(slices.toArray(new ByteBuf[0]));
+  }
+
+  /**
+   * @param streamOffset offset from the beginning of the stream
+   * @return corresponding offset from window's reader index
+   */
+  private int toLocalOffset(long streamOffset) {
+    return (int) (streamOffset - this.streamOffset + window.readableBytes());
+  }
+
+  @Override
+  public void close() {
+    if (window.refCnt() > 0) {
+      window.release();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return window + ", streamOffset=" + streamOffset + ", content=`" + window.toString(UTF_8) + "`";
+  }
+}
@@ -208,8 +208,7 @@ public class JsonStreamParser implements Closeable {
   }
 
   void emitCapturedValue(String jsonPointer, Consumer<MatchedValue> consumer) {
-    final byte[] capturedValue = window.getBytes(captureStartOffset, tokenEndOffset());
-    consumer.accept(new MatchedValue(jsonPointer, capturedValue));
+    consumer.accept(new MatchedValue(jsonPointer, window, captureStartOffset, tokenEndOffset()));
   }
 
   /**
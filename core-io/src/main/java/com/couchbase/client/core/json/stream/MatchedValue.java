@@ -17,32 +17,63 @@
 package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JsonNode;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.error.DecodingFailedException;
 import com.couchbase.client.core.json.Mapper;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A value matched by the {@link JsonStreamParser}.
+ * <p>
+ * The value is read out of the parser's stream window on demand, so it is only valid during
+ * the callback it was passed to.
+ */
 public class MatchedValue {
   private final String jsonPointer;
-  private final byte[] json;
+  private final StreamWindow window;
+  private final long startOffset;
+  private final long endOffset;
+  private byte[] json;
 
-  MatchedValue(String jsonPointer, byte[] json) {
+  MatchedValue(String jsonPointer, StreamWindow window, long startOffset, long endOffset) {
     this.jsonPointer = jsonPointer;
-    this.json = requireNonNull(json);
+    this.window = requireNonNull(window);
+    this.startOffset = startOffset;
+    this.endOffset = endOffset;
+  }
+
+  private byte[] json() {
+    if (json == null) {
+      json = window.getBytes(startOffset, endOffset);
+    }
+    return json;
   }
 
   public boolean isNull() {
-    return json[0] == 'n';
+    return json()[0] == 'n';
   }
 
   public byte[] readBytes() {
-    return json;
+    return json();
+  }
+
+  /**
+   * Returns the value as a buffer which outlives the parser's stream window.
+   * <p>
+   * Depending on the window this is a retained slice of the network buffers rather than a copy,
+   * so holding on to it also holds on to the buffers it spans.
+   *
+   * @return a buffer owned by the caller, which must release it.
+   */
+  public ByteBuf readRetainedSlice() {
+    return window.getRetainedSlice(startOffset, endOffset);
   }
 
   public JsonNode readTree() {
     try {
-      return requireNonNull(Mapper.decodeIntoTree(json));
+      return requireNonNull(Mapper.decodeIntoTree(json()));
     } catch (Exception shouldNeverHappen) {
       throw new AssertionError("Value at " + jsonPointer + " is not JSON.", shouldNeverHappen);
     }
@@ -66,7 +97,7 @@ public class MatchedValue {
 
   private <T> T read(Class<T> type) {
     try {
-      return requireNonNull(Mapper.decodeInto(json, type));
+      return requireNonNull(Mapper.decodeInto(json(), type));
     } catch (Exception e) {
       throw new DecodingFailedException("Value at " + jsonPointer + " is not a " + type.getSimpleName(), e);
     }
@@ -76,7 +107,7 @@ public class MatchedValue {
   public String toString() {
     return "JsonValue{" +
       "jsonPointer='" + jsonPointer + '\'' +
-      ", json=" + new String(json, UTF_8) +
+      ", json=" + new String(json(), UTF_8) +
       '}';
   }
 }
@@ -17,6 +17,7 @@
 package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 
 import java.io.Closeable;
 
@@ -49,6 +50,21 @@ public interface StreamWindow extends Closeable {
    */
   byte[] getBytes(long startOffset, long endOffset);
 
+  /**
+   * Returns a region of the stream as a buffer which stays valid after the window moves past it.
+   * <p>
+   * The default implementation copies the region. Implementations which never overwrite their input
+   * buffers may hand out retained slices of them instead.
+   *
+   * @param startOffset region start offset relative to beginning of stream.
+   * @param endOffset region end offset relative to beginning of stream.
+   * @return a buffer owned by the caller, which must release it.
+   * @throws IndexOutOfBoundsException if the window does not contain all of the requested region
+   */
+  default ByteBuf getRetainedSlice(long startOffset, long endOffset) {
+    return Unpooled.wrappedBuffer(getBytes(startOffset, endOffset));
+  }
+
   /**
    * Releases all buffers owned by the window.
    */
@@ -86,6 +86,11 @@ public class RequestContext extends CoreContext {
    */
   private volatile HostAndPort lastDispatchedFrom;
 
+  /**
+   * The revision of the bucket config the request has last been routed with, or -1 if unknown.
+   */
+  private volatile long lastDispatchedWithRevision = -1;
+
   /**
    * Holds a set of retry reasons.
    */
@@ -249,6 +254,20 @@ public class RequestContext extends CoreContext {
     return this;
   }
 
+  /**
+   * Returns the revision of the bucket config the request has last been routed with, or -1 if unknown.
+   */
+  @Stability.Internal
+  public long lastDispatchedWithRevision() {
+    return lastDispatchedWithRevision;
+  }
+
+  @Stability.Internal
+  public RequestContext lastDispatchedWithRevision(final long lastDispatchedWithRevision) {
+    this.lastDispatchedWithRevision = lastDispatchedWithRevision;
+    return this;
+  }
+
   /**
    * Returns the custom user payload of this request.
    *
@@ -24,6 +24,7 @@ import com.couchbase.client.core.error.KeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.netty.kv.ChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
@@ -61,7 +62,7 @@ public class AppendRequest extends BaseKeyValueRequest<AppendResponse> implement
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
       if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+        ByteBuf maybeCompressed = SnappyCodec.tryCompress(alloc, this.content, config);
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
@@ -76,14 +77,14 @@ public class AppendRequest extends BaseKeyValueRequest<AppendResponse> implement
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.APPEND, datatype, partition(),
-            opaque, cas, flexibleExtras, noExtras(), key, content);
+          request = MemcacheProtocol.flexibleZeroCopyRequest(alloc, MemcacheProtocol.Opcode.APPEND, datatype,
+            partition(), opaque, cas, flexibleExtras, noExtras(), key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.APPEND, datatype, partition(),
+        request = MemcacheProtocol.zeroCopyRequest(alloc, MemcacheProtocol.Opcode.APPEND, datatype, partition(),
           opaque, cas, noExtras(), key, content);
       }
 
@@ -20,6 +20,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.cnc.InternalSpan;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.error.CollectionDoesNotExistException;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.netty.kv.ChannelContext;
@@ -110,6 +111,8 @@ public abstract class BaseKeyValueRequest<R extends Response>
    * This method with return an encoded key with or without the collection prefix, depending on the
    * context provided.
    *
+   * <p>The key is wrapped rather than copied, since it is written into the request frame anyway.</p>
+   *
    * @param alloc the buffer allocator to use.
    * @param ctx the channel context.
    * @return the encoded ID, maybe with the collection prefix in place.
@@ -123,14 +126,9 @@ public abstract class BaseKeyValueRequest<R extends Response>
           + collectionIdentifier.scope() + "\" does not exist.");
       }
 
-      return alloc
-        .buffer(key.length + collection.length)
-        .writeBytes(collection)
-        .writeBytes(key);
+      return Unpooled.wrappedBuffer(collection, key);
     } else {
-      return alloc
-        .buffer(key.length)
-        .writeBytes(key);
+      return Unpooled.wrappedBuffer(key);
     }
   }
 
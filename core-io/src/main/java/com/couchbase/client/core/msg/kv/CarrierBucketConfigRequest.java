@@ -25,7 +25,6 @@ import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
-import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.util.Bytes;
 
 import java.time.Duration;
@@ -51,8 +50,7 @@ public class CarrierBucketConfigRequest extends BaseKeyValueRequest<CarrierBucke
   @Override
   public CarrierBucketConfigResponse decode(final ByteBuf response, ChannelContext ctx) {
     byte[] content = body(response)
-      .map(ByteBufUtil::getBytes)
-      .map(bytes -> tryDecompression(bytes, datatype(response)))
+      .map(b -> tryDecompression(b, datatype(response)))
       .orElse(Bytes.EMPTY_BYTE_ARRAY);
     return new CarrierBucketConfigResponse(decodeStatus(response), content);
   }
@@ -19,7 +19,6 @@ package com.couchbase.client.core.msg.kv;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
-import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.io.netty.kv.ChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
 import com.couchbase.client.core.msg.TargetedRequest;
@@ -73,8 +72,7 @@ public class CarrierGlobalConfigRequest
   @Override
   public CarrierGlobalConfigResponse decode(final ByteBuf response, final ChannelContext ctx) {
     byte[] content = body(response)
-      .map(ByteBufUtil::getBytes)
-      .map(bytes -> tryDecompression(bytes, datatype(response)))
+      .map(b -> tryDecompression(b, datatype(response)))
       .orElse(Bytes.EMPTY_BYTE_ARRAY);
     return new CarrierGlobalConfigResponse(decodeStatus(response), content);
   }
@@ -101,7 +101,7 @@ public class DeleteWithMetaRequest extends BaseKeyValueRequest<DeleteWithMetaRes
       extras.writeLong(casToSet);
       extras.writeInt(options);
 
-      return MemcacheProtocol.request(alloc, Opcode.DELETE_WITH_META, datatype, partition(),
+      return MemcacheProtocol.zeroCopyRequest(alloc, Opcode.DELETE_WITH_META, datatype, partition(),
           opaque, cas, extras, key, content);
     } finally {
       ReferenceCountUtil.release(key);
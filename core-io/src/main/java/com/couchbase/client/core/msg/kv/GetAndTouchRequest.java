@@ -25,7 +25,6 @@ import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
-import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.util.Bytes;
 
@@ -73,8 +72,7 @@ public class GetAndTouchRequest extends BaseKeyValueRequest<GetAndTouchResponse>
     long cas = cas(response);
     if (status.success()) {
       byte[] content = body(response)
-        .map(ByteBufUtil::getBytes)
-        .map(bytes -> tryDecompression(bytes, datatype(response)))
+        .map(b -> tryDecompression(b, datatype(response)))
         .orElse(Bytes.EMPTY_BYTE_ARRAY);
       int flags = extras(response).map(x -> x.getInt(0)).orElse(0);
       return new GetAndTouchResponse(status, content, cas, flags);
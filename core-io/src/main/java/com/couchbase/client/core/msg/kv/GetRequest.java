@@ -17,19 +17,22 @@
 package com.couchbase.client.core.msg.kv;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.InternalSpan;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.netty.kv.ChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
-import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.util.Bytes;
 
 import java.time.Duration;
+import java.util.Optional;
 
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.body;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.cas;
@@ -49,6 +52,8 @@ import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.tryDecompre
  */
 public class GetRequest extends BaseKeyValueRequest<GetResponse> {
 
+  private final boolean retainContent;
+
   public GetRequest(final String key, final Duration timeout, final CoreContext ctx,
                     final CollectionIdentifier collectionIdentifier, final RetryStrategy retryStrategy) {
     this(key, timeout, ctx, collectionIdentifier, retryStrategy, null /*TODO REMOVE ME */);
@@ -56,7 +61,22 @@ public class GetRequest extends BaseKeyValueRequest<GetResponse> {
 
   public GetRequest(final String key, final Duration timeout, final CoreContext ctx,
                     final CollectionIdentifier collectionIdentifier, final RetryStrategy retryStrategy, final InternalSpan span) {
+    this(key, timeout, ctx, collectionIdentifier, retryStrategy, span, false);
+  }
+
+  /**
+   * Creates a new {@link GetRequest}.
+   *
+   * <p>If the content is retained, it is exposed through {@link GetResponse#contentBuffer()} as a slice of the
+   * network buffer instead of being copied into a byte array, and the consumer of the response has to
+   * release it.</p>
+   */
+  @Stability.Volatile
+  public GetRequest(final String key, final Duration timeout, final CoreContext ctx,
+                    final CollectionIdentifier collectionIdentifier, final RetryStrategy retryStrategy,
+                    final InternalSpan span, final boolean retainContent) {
     super(timeout, ctx, retryStrategy, key, collectionIdentifier, span);
+    this.retainContent = retainContent;
   }
 
   @Override
@@ -77,14 +97,60 @@ public class GetRequest extends BaseKeyValueRequest<GetResponse> {
     long cas = cas(response);
 
     if (status.success()) {
+      int flags = extras(response).map(x -> x.getInt(0)).orElse(0);
+      if (retainContent) {
+        return new GetResponse(status, retainedContent(response), cas, flags);
+      }
       byte[] content = body(response)
-        .map(ByteBufUtil::getBytes)
-        .map(bytes -> tryDecompression(bytes, datatype(response)))
+        .map(b -> tryDecompression(b, datatype(response)))
         .orElse(Bytes.EMPTY_BYTE_ARRAY);
-      int flags = extras(response).map(x -> x.getInt(0)).orElse(0);
       return new GetResponse(status, content, cas, flags);
     } else {
-      return new GetResponse(status, null, cas, 0);
+      return new GetResponse(status, (byte[]) null, cas, 0);
+    }
+  }
+
+  /**
+   * Returns the body of the response as a retained slice, or decompressed into a new buffer if it is compressed.
+   *
+   * <p>A slice keeps its whole underlying buffer alive, which can hold many more frames read off the socket in one
+   * go. If the body only makes up a small part of it, it is copied into a pooled buffer of its own instead.</p>
+   */
+  private static ByteBuf retainedContent(final ByteBuf response) {
+    Optional<ByteBuf> body = body(response);
+    if (!body.isPresent()) {
+      return Unpooled.EMPTY_BUFFER;
+    }
+    final ByteBuf content = body.get();
+    if ((datatype(response) & MemcacheProtocol.Datatype.SNAPPY.datatype()) != 0) {
+      return SnappyCodec.decompress(response.alloc(), content);
+    }
+    if (rootCapacity(content) > 2 * content.readableBytes()) {
+      return response.alloc().buffer(content.readableBytes()).writeBytes(content);
+    }
+    return content.retain();
+  }
+
+  /**
+   * Returns the capacity of the buffer the given (possibly derived) buffer shares its memory with.
+   */
+  private static int rootCapacity(final ByteBuf buffer) {
+    ByteBuf root = buffer;
+    while (root.unwrap() != null) {
+      root = root.unwrap();
+    }
+    return root.capacity();
+  }
+
+  /**
+   * Makes sure a retained content buffer does not leak if the request has been completed otherwise in the
+   * meantime, for example because it timed out.
+   */
+  @Override
+  public void succeed(final GetResponse result) {
+    super.succeed(result);
+    if (!succeeded()) {
+      ReferenceCountUtil.release(result.contentBuffer());
     }
   }
 
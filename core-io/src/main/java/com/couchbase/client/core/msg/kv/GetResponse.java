@@ -16,34 +16,68 @@
 
 package com.couchbase.client.core.msg.kv;
 
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.msg.BaseResponse;
 import com.couchbase.client.core.msg.ResponseStatus;
 
 /**
  * Represents the response of a {@link GetRequest}.
  *
+ * <p>If the request asked to retain its content, the body is not copied into a byte array but held as a
+ * reference counted buffer instead, see {@link #contentBuffer()}.</p>
+ *
  * @since 2.0.0
  */
 public class GetResponse extends BaseResponse {
 
   private final byte[] content;
+  private final ByteBuf contentBuffer;
   private final long cas;
   private final int flags;
 
   GetResponse(final ResponseStatus status, final byte[] content, final long cas, final int flags) {
+    this(status, content, null, cas, flags);
+  }
+
+  GetResponse(final ResponseStatus status, final ByteBuf contentBuffer, final long cas, final int flags) {
+    this(status, null, contentBuffer, cas, flags);
+  }
+
+  private GetResponse(final ResponseStatus status, final byte[] content, final ByteBuf contentBuffer,
+                      final long cas, final int flags) {
     super(status);
     this.content = content;
+    this.contentBuffer = contentBuffer;
     this.cas = cas;
     this.flags = flags;
   }
 
   /**
    * Returns the content, but might be empty or null.
+   *
+   * <p>If the content has been retained as a buffer, this copies it into a new array every time it is
+   * called (without releasing the buffer), so {@link #contentBuffer()} should be used instead.</p>
    */
   public byte[] content() {
+    if (contentBuffer != null) {
+      return ByteBufUtil.getBytes(contentBuffer);
+    }
     return content;
   }
 
+  /**
+   * Returns the retained content buffer if the request asked to retain it, null otherwise.
+   *
+   * <p>The buffer is reference counted and whoever consumes this response is responsible for releasing it
+   * once the content has been decoded.</p>
+   */
+  @Stability.Volatile
+  public ByteBuf contentBuffer() {
+    return contentBuffer;
+  }
+
   /**
    * Returns the CAS value of the document at the time of the fetch.
    */
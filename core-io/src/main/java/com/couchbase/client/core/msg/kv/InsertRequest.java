@@ -24,6 +24,7 @@ import com.couchbase.client.core.error.KeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.netty.kv.ChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
@@ -73,7 +74,7 @@ public class InsertRequest extends BaseKeyValueRequest<InsertResponse> implement
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
       if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+        ByteBuf maybeCompressed = SnappyCodec.tryCompress(alloc, this.content, config);
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
@@ -92,14 +93,14 @@ public class InsertRequest extends BaseKeyValueRequest<InsertResponse> implement
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.ADD, datatype,
+          request = MemcacheProtocol.flexibleZeroCopyRequest(alloc, MemcacheProtocol.Opcode.ADD, datatype,
             partition(), opaque, noCas(), flexibleExtras, extras, key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.ADD, datatype, partition(),
+        request = MemcacheProtocol.zeroCopyRequest(alloc, MemcacheProtocol.Opcode.ADD, datatype, partition(),
           opaque, noCas(), extras, key, content);
       }
 
@@ -24,6 +24,7 @@ import com.couchbase.client.core.error.KeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.netty.kv.ChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
@@ -75,7 +76,7 @@ public class ReplaceRequest extends BaseKeyValueRequest<ReplaceResponse> impleme
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
       if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+        ByteBuf maybeCompressed = SnappyCodec.tryCompress(alloc, this.content, config);
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
@@ -94,14 +95,14 @@ public class ReplaceRequest extends BaseKeyValueRequest<ReplaceResponse> impleme
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.REPLACE, datatype, partition(),
-            opaque, cas, flexibleExtras, extras, key, content);
+          request = MemcacheProtocol.flexibleZeroCopyRequest(alloc, MemcacheProtocol.Opcode.REPLACE, datatype,
+            partition(), opaque, cas, flexibleExtras, extras, key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.REPLACE, datatype, partition(),
+        request = MemcacheProtocol.zeroCopyRequest(alloc, MemcacheProtocol.Opcode.REPLACE, datatype, partition(),
           opaque, cas, extras, key, content);
       }
       return request;
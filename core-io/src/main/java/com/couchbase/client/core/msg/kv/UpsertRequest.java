@@ -25,6 +25,7 @@ import com.couchbase.client.core.error.KeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.netty.kv.ChannelContext;
 import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
@@ -85,7 +86,7 @@ public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implement
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
       if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+        ByteBuf maybeCompressed = SnappyCodec.tryCompress(alloc, this.content, config);
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
@@ -104,14 +105,14 @@ public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implement
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.SET, datatype,
+          request = MemcacheProtocol.flexibleZeroCopyRequest(alloc, MemcacheProtocol.Opcode.SET, datatype,
             partition(), opaque, noCas(), flexibleExtras, extras, key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.SET, datatype, partition(),
+        request = MemcacheProtocol.zeroCopyRequest(alloc, MemcacheProtocol.Opcode.SET, datatype, partition(),
           opaque, noCas(), extras, key, content);
       }
       return request;
@@ -16,26 +16,113 @@
 
 package com.couchbase.client.core.msg.query;
 
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.msg.chunk.ChunkRow;
+import com.couchbase.client.core.util.RetainedBuffer;
 
 import java.nio.charset.StandardCharsets;
 
 import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
 
+/**
+ * A single row of a query response.
+ * <p>
+ * Rows are usually copied into a byte array. If the request asked for retained rows (see
+ * {@link QueryRequest#retainRows()}), the row holds a retained slice of the network buffers instead,
+ * which must be taken with {@link #takeContent()}, copied with {@link #data()} or released with {@link #release()}.
+ */
 public class QueryChunkRow implements ChunkRow {
 
   private final byte[] data;
 
+  private final RetainedBuffer retained;
+
+  /**
+   * The retained content once it has been copied by {@link #data()}.
+   */
+  private byte[] copied;
+
   public QueryChunkRow(byte[] data) {
     this.data = data;
+    this.retained = null;
   }
 
+  /**
+   * Creates a row which holds on to the given buffer instead of copying it.
+   *
+   * @param content the retained content, now owned by the row.
+   */
+  @Stability.Internal
+  public QueryChunkRow(ByteBuf content) {
+    this.data = null;
+    this.retained = new RetainedBuffer(content);
+  }
+
+  /**
+   * Returns the row content as a byte array.
+   * <p>
+   * Retained content is copied into a byte array and released on the first call, later calls return the same array.
+   *
+   * @throws IllegalStateException if the content is retained and has already been taken or released.
+   */
   public byte[] data() {
-    return data;
+    if (retained == null) {
+      return data;
+    }
+    synchronized (this) {
+      if (copied == null) {
+        final ByteBuf content = retained.take();
+        if (content == null) {
+          throw new IllegalStateException("The retained row has already been taken or released.");
+        }
+        try {
+          copied = ByteBufUtil.getBytes(content);
+        } finally {
+          content.release();
+        }
+      }
+      return copied;
+    }
+  }
+
+  /**
+   * Takes ownership of the retained row content, which can only happen once.
+   *
+   * @return the buffer which must be released by the caller, or null if the row does not hold on to a buffer (anymore),
+   *   in which case the content has to be read through {@link #data()}.
+   */
+  @Stability.Internal
+  public ByteBuf takeContent() {
+    return retained == null ? null : retained.take();
+  }
+
+  /**
+   * Returns true if the row still holds on to retained content which has neither been taken nor released.
+   */
+  @Stability.Internal
+  public boolean isRetained() {
+    return retained != null && retained.available();
+  }
+
+  /**
+   * Releases the retained row content, if any and not taken yet.
+   */
+  @Stability.Internal
+  public void release() {
+    if (retained != null) {
+      retained.release();
+    }
   }
 
   @Override
   public String toString() {
+    if (retained != null) {
+      return "QueryChunkRow{" +
+        "data=<retained " + retained.length() + " bytes" + (retained.available() ? "" : ", released") + ">" +
+        '}';
+    }
     return "QueryChunkRow{" +
       "data=" + redactUser(new String(data, StandardCharsets.UTF_8)) +
       '}';
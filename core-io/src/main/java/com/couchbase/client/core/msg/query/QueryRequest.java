@@ -51,16 +51,24 @@ public class QueryRequest
   private final boolean idempotent;
   private final Authenticator authenticator;
   private final String contextId;
+  private final boolean retainRows;
 
   public QueryRequest(Duration timeout, CoreContext ctx, RetryStrategy retryStrategy,
                       final Authenticator authenticator, final String statement, final byte[] query, boolean idempotent,
                       final String contextId) {
+    this(timeout, ctx, retryStrategy, authenticator, statement, query, idempotent, contextId, false);
+  }
+
+  public QueryRequest(Duration timeout, CoreContext ctx, RetryStrategy retryStrategy,
+                      final Authenticator authenticator, final String statement, final byte[] query, boolean idempotent,
+                      final String contextId, final boolean retainRows) {
     super(timeout, ctx, retryStrategy);
     this.query = query;
     this.statement = statement;
     this.authenticator = authenticator;
     this.idempotent = idempotent;
     this.contextId = contextId;
+    this.retainRows = retainRows;
   }
 
   @Override
@@ -108,6 +116,15 @@ public class QueryRequest
     return idempotent;
   }
 
+  /**
+   * Returns true if the rows of the response hold retained slices of the network buffers instead of copies.
+   *
+   * @see QueryChunkRow#takeContent()
+   */
+  public boolean retainRows() {
+    return retainRows;
+  }
+
   @Override
   public Map<String, Object> serviceContext() {
     Map<String, Object> ctx = new TreeMap<>();
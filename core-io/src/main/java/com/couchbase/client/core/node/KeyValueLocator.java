@@ -24,6 +24,7 @@ import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
 import com.couchbase.client.core.config.MemcachedBucketConfig;
 import com.couchbase.client.core.config.NodeInfo;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.FastThreadLocal;
 import com.couchbase.client.core.error.FeatureNotAvailableException;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
@@ -37,7 +38,10 @@ import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.CRC32;
 
 /**
@@ -51,6 +55,35 @@ import java.util.zip.CRC32;
  */
 public class KeyValueLocator implements Locator {
 
+  /**
+   * Holds a reusable checksum per thread, so that calculating the partition does not allocate.
+   */
+  private static final FastThreadLocal<CRC32> CHECKSUM = new FastThreadLocal<CRC32>() {
+    @Override
+    protected CRC32 initialValue() {
+      return new CRC32();
+    }
+  };
+
+  /**
+   * Caches the partition routing table per couchbase bucket, rebuilt once the config or the nodes change.
+   */
+  private final Map<String, PartitionRoutingTable> routingTables = new ConcurrentHashMap<>();
+
+  /**
+   * The generation of the managed nodes, bumped every time a node is added or removed.
+   */
+  private final AtomicLong nodesGeneration = new AtomicLong();
+
+  /**
+   * Signals that a node has been added to or removed from the list of managed nodes.
+   *
+   * <p>Must be called after the list has been modified, so that routing tables built from the old list are rebuilt.</p>
+   */
+  public void nodesChanged() {
+    nodesGeneration.incrementAndGet();
+  }
+
   @Override
   public void dispatch(final Request<? extends Response> request, final List<Node> nodes,
                        final ClusterConfig config, final CoreContext ctx) {
@@ -62,6 +95,7 @@ public class KeyValueLocator implements Locator {
       BucketConfig bucketConfig = config.bucketConfig(bucket);
 
       if (bucketConfig == null) {
+        routingTables.remove(bucket);
         // Since a bucket is opened lazily, it might not be available yet (or for some
         // other reason the config is gone) - send it into retry!
         RetryOrchestrator.maybeRetry(ctx, request, ctx.core().configurationProvider().bucketConfigLoadInProgress()
@@ -69,6 +103,8 @@ public class KeyValueLocator implements Locator {
           : RetryReason.BUCKET_NOT_AVAILABLE);
         return;
       }
+      // remembered so that a "not my vbucket" retry only waits for a config newer than this one
+      r.context().lastDispatchedWithRevision(bucketConfig.rev());
 
       if (bucketConfig instanceof CouchbaseBucketConfig) {
         couchbaseBucket(r, nodes, (CouchbaseBucketConfig) bucketConfig, ctx);
@@ -97,8 +133,8 @@ public class KeyValueLocator implements Locator {
     RetryOrchestrator.maybeRetry(ctx, (Request) request, RetryReason.NODE_NOT_AVAILABLE);
   }
 
-  private static void couchbaseBucket(final KeyValueRequest<?> request, final List<Node> nodes,
-                                      final CouchbaseBucketConfig config, CoreContext ctx) {
+  private void couchbaseBucket(final KeyValueRequest<?> request, final List<Node> nodes,
+                               final CouchbaseBucketConfig config, CoreContext ctx) {
     if(!precheckCouchbaseBucket(request, config)) {
       return;
     }
@@ -106,6 +142,15 @@ public class KeyValueLocator implements Locator {
     int partitionId = partitionForKey(request.key(), config.numberOfPartitions());
     request.partition((short) partitionId);
 
+    // The routing table only reflects the regular map, retried requests might need the fast forward map.
+    if (request.context().retryAttempts() == 0 || !config.hasFastForwardMap()) {
+      Node node = routingTable(request.bucket(), nodes, config).node(partitionId, replicaIndex(request));
+      if (node != null && !node.disconnected()) {
+        node.send(request);
+        return;
+      }
+    }
+
     int nodeId = calculateNodeId(partitionId, request, config);
     if (nodeId < 0) {
       RetryOrchestrator.maybeRetry(ctx, request, RetryReason.NODE_NOT_AVAILABLE);
@@ -132,6 +177,26 @@ public class KeyValueLocator implements Locator {
     }
   }
 
+  /**
+   * Returns the routing table for the bucket, building a new one if the cached one is outdated.
+   *
+   * @param bucket the name of the bucket.
+   * @param nodes the managed nodes.
+   * @param config the current bucket configuration.
+   * @return the routing table for the current config and nodes.
+   */
+  private PartitionRoutingTable routingTable(final String bucket, final List<Node> nodes,
+                                             final CouchbaseBucketConfig config) {
+    // read before the nodes, so a change while the table is built makes it outdated right away
+    final long generation = nodesGeneration.get();
+    PartitionRoutingTable table = routingTables.get(bucket);
+    if (table == null || !table.validFor(config, generation)) {
+      table = new PartitionRoutingTable(config, nodes, generation);
+      routingTables.put(bucket, table);
+    }
+    return table;
+  }
+
   private static boolean precheckCouchbaseBucket(final KeyValueRequest<?> request, final CouchbaseBucketConfig config) {
     if (request instanceof SyncDurabilityRequest) {
       Optional<DurabilityLevel> level = ((SyncDurabilityRequest) request).durabilityLevel();
@@ -156,12 +221,25 @@ public class KeyValueLocator implements Locator {
   private static int calculateNodeId(int partitionId, final KeyValueRequest<?> request,
                                      final CouchbaseBucketConfig config) {
     boolean useFastForward = request.context().retryAttempts() > 0 && config.hasFastForwardMap();
+    int replica = replicaIndex(request);
+    return replica < 0
+      ? config.nodeIndexForMaster(partitionId, useFastForward)
+      : config.nodeIndexForReplica(partitionId, replica, useFastForward);
+  }
+
+  /**
+   * Helper method to determine which copy of the partition the request targets.
+   *
+   * @param request the request used.
+   * @return the replica index, or -1 if it targets the active partition.
+   */
+  private static int replicaIndex(final KeyValueRequest<?> request) {
     if (request instanceof ReplicaGetRequest) {
-      return config.nodeIndexForReplica(partitionId, ((ReplicaGetRequest) request).replica() - 1, useFastForward);
+      return ((ReplicaGetRequest) request).replica() - 1;
     } else if (request instanceof ObserveViaSeqnoRequest && ((ObserveViaSeqnoRequest) request).replica() > 0) {
-      return config.nodeIndexForReplica(partitionId, ((ObserveViaSeqnoRequest) request).replica() - 1, useFastForward);
+      return ((ObserveViaSeqnoRequest) request).replica() - 1;
     } else {
-      return config.nodeIndexForMaster(partitionId, useFastForward);
+      return -1;
     }
   }
 
@@ -235,7 +313,8 @@ public class KeyValueLocator implements Locator {
    * @return the calculated partition.
    */
   private static int partitionForKey(final byte[] id, final int numPartitions) {
-    CRC32 crc32 = new CRC32();
+    CRC32 crc32 = CHECKSUM.get();
+    crc32.reset();
     crc32.update(id, 0, id.length);
     long rv = (crc32.getValue() >> 16) & 0x7fff;
     return (int) rv &numPartitions - 1;
@@ -369,6 +369,13 @@ public class Node implements Stateful<NodeState> {
     return identifier;
   }
 
+  /**
+   * Returns true if this node has been instructed to disconnect.
+   */
+  boolean disconnected() {
+    return disconnect.get();
+  }
+
   /**
    * If a given {@link ServiceType} is enabled on this node.
    *
@@ -406,6 +413,7 @@ public class Node implements Stateful<NodeState> {
         return new QueryService(QueryServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .endpointSelection(env.ioConfig().httpEndpointSelection(ServiceType.QUERY))
           .build(),
           ctx, address, port
         );
@@ -413,18 +421,21 @@ public class Node implements Stateful<NodeState> {
         return new ViewService(ViewServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .endpointSelection(env.ioConfig().httpEndpointSelection(ServiceType.VIEWS))
           .build(),
           ctx, address, port);
       case SEARCH:
         return new SearchService(SearchServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .endpointSelection(env.ioConfig().httpEndpointSelection(ServiceType.SEARCH))
           .build(),
           ctx, address, port);
       case ANALYTICS:
         return new AnalyticsService(AnalyticsServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .endpointSelection(env.ioConfig().httpEndpointSelection(ServiceType.ANALYTICS))
           .build(),
           ctx, address, port);
       default:
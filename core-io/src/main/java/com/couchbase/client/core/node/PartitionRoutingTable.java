@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.config.NodeInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot which maps every partition of a couchbase bucket straight to the {@link Node} owning its
+ * active copy and its replicas.
+ *
+ * <p>The table is built once per bucket config and set of managed nodes, so that dispatching a request boils down
+ * to two array lookups instead of scanning the node list and comparing identifiers. Whether it is still valid is
+ * keyed on the config revision and the generation of the node list, so checking it does not scan the nodes
+ * either.</p>
+ *
+ * @since 2.0.0
+ */
+class PartitionRoutingTable {
+
+  /**
+   * The config this table has been built from.
+   */
+  private final CouchbaseBucketConfig config;
+
+  /**
+   * The generation of the managed nodes this table has been built from.
+   */
+  private final long nodesGeneration;
+
+  /**
+   * The node of the active partition, indexed by partition (null if not available).
+   */
+  private final Node[] masters;
+
+  /**
+   * The node of every replica partition, indexed by replica and then by partition (null if not available).
+   */
+  private final Node[][] replicas;
+
+  /**
+   * Creates a new table.
+   *
+   * @param config the current bucket config.
+   * @param nodes the currently managed nodes.
+   * @param nodesGeneration the generation of the nodes, which must be read before the nodes are.
+   */
+  PartitionRoutingTable(final CouchbaseBucketConfig config, final List<Node> nodes, final long nodesGeneration) {
+    this.config = config;
+    this.nodesGeneration = nodesGeneration;
+
+    final Map<Short, Node> nodesByIndex = new HashMap<>();
+    final int numPartitions = config.numberOfPartitions();
+    final int numReplicas = config.numberOfReplicas();
+    this.masters = new Node[numPartitions];
+    this.replicas = new Node[numReplicas][numPartitions];
+    for (int partition = 0; partition < numPartitions; partition++) {
+      masters[partition] = nodeForIndex(config.nodeIndexForMaster(partition, false), nodes, nodesByIndex);
+      for (int replica = 0; replica < numReplicas; replica++) {
+        replicas[replica][partition] = nodeForIndex(
+          config.nodeIndexForReplica(partition, replica, false),
+          nodes,
+          nodesByIndex
+        );
+      }
+    }
+  }
+
+  private Node nodeForIndex(final short nodeIndex, final List<Node> nodes, final Map<Short, Node> nodesByIndex) {
+    if (nodeIndex < 0) {
+      return null;
+    }
+    if (nodesByIndex.containsKey(nodeIndex)) {
+      return nodesByIndex.get(nodeIndex);
+    }
+
+    Node found = null;
+    NodeInfo nodeInfo = config.nodeAtIndex(nodeIndex);
+    if (nodeInfo != null) {
+      for (Node node : nodes) {
+        if (node.identifier().equals(nodeInfo.identifier())) {
+          found = node;
+          break;
+        }
+      }
+    }
+    nodesByIndex.put(nodeIndex, found);
+    return found;
+  }
+
+  /**
+   * Checks if this table still reflects the given config and node list generation.
+   *
+   * <p>Configs without a revision are only considered the same if they are the same instance.</p>
+   *
+   * @param config the current bucket config.
+   * @param nodesGeneration the current generation of the managed nodes.
+   * @return true if it can still be used.
+   */
+  boolean validFor(final CouchbaseBucketConfig config, final long nodesGeneration) {
+    if (this.nodesGeneration != nodesGeneration) {
+      return false;
+    }
+    return this.config == config || (config.rev() > 0 && config.rev() == this.config.rev());
+  }
+
+  /**
+   * Returns the node for the given partition.
+   *
+   * @param partition the partition.
+   * @param replica the replica, or -1 for the active partition.
+   * @return the node if known, null otherwise.
+   */
+  Node node(final int partition, final int replica) {
+    if (replica < 0) {
+      return partition < masters.length ? masters[partition] : null;
+    }
+    return replica < replicas.length && partition < replicas[replica].length ? replicas[replica][partition] : null;
+  }
+
+}
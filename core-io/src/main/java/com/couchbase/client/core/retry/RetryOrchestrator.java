@@ -18,11 +18,15 @@ package com.couchbase.client.core.retry;
 
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.request.RequestNotRetriedEvent;
 import com.couchbase.client.core.cnc.events.request.RequestRetryScheduledEvent;
+import com.couchbase.client.core.env.NotMyVbucketRetry;
 import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.ScopedRequest;
 
 import java.time.Duration;
 import java.util.Optional;
@@ -39,6 +43,12 @@ import java.util.Optional;
 @Stability.Internal
 public class RetryOrchestrator {
 
+  /**
+   * Requests waiting for a new config are only sent without one after this long, since the first steps of the
+   * controlled backoff are usually shorter than it takes for the new config to arrive.
+   */
+  private static final Duration MIN_AWAIT_CONFIG_FALLBACK = Duration.ofMillis(100);
+
   /**
    * Retry or cancel the given request, depending on its state and the configured {@link RetryStrategy}.
    *
@@ -59,9 +69,10 @@ public class RetryOrchestrator {
 
     request.retryStrategy().shouldRetry(request, reason).whenComplete((retryAction, throwable) -> {
       if (throwable != null) {
-        ctx.environment().eventBus().publish(
-          new RequestNotRetriedEvent(request.getClass(), request.context(), reason, throwable)
-        );
+        EventBus eventBus = ctx.environment().eventBus();
+        if (eventBus.isEnabled(Event.Severity.INFO)) {
+          eventBus.publish(new RequestNotRetriedEvent(request.getClass(), request.context(), reason, throwable));
+        }
       }
 
       Optional<Duration> duration = retryAction.duration();
@@ -69,9 +80,10 @@ public class RetryOrchestrator {
         final Duration cappedDuration = capDuration(duration.get(), request);
         retryWithDuration(ctx, request, cappedDuration, reason);
       } else {
-        ctx.environment().eventBus().publish(
-          new RequestNotRetriedEvent(request.getClass(), request.context(), reason, null)
-        );
+        EventBus eventBus = ctx.environment().eventBus();
+        if (eventBus.isEnabled(Event.Severity.INFO)) {
+          eventBus.publish(new RequestNotRetriedEvent(request.getClass(), request.context(), reason, null));
+        }
         request.cancel(CancellationReason.noMoreRetries(reason));
       }
     });
@@ -129,22 +141,36 @@ public class RetryOrchestrator {
    *
    * @param ctx the core context into which timer the request is submitted.
    * @param request the request in question.
-   * @param duration the duration when to retry.
+   * @param duration the duration when to retry (or, if waiting for a new config, the fallback).
    * @param reason the reason why the request is being retried.
    */
   private static void retryWithDuration(final CoreContext ctx, final Request<? extends Response> request,
                                         final Duration duration, final RetryReason reason) {
-    ctx.environment().eventBus().publish(
-      new RequestRetryScheduledEvent(duration, request.context(), request.getClass(), reason)
-    );
-    request.context().incrementRetryAttempts(duration, reason);
+    final boolean awaitConfig = reason == RetryReason.KV_NOT_MY_VBUCKET
+      && request instanceof ScopedRequest
+      && ctx.environment().ioConfig().notMyVbucketRetry() == NotMyVbucketRetry.AWAIT_CONFIG;
+    final Duration retryAfter = awaitConfig && duration.compareTo(MIN_AWAIT_CONFIG_FALLBACK) < 0
+      ? MIN_AWAIT_CONFIG_FALLBACK
+      : duration;
+
+    EventBus eventBus = ctx.environment().eventBus();
+    if (eventBus.isEnabled(Event.Severity.DEBUG)) {
+      eventBus.publish(new RequestRetryScheduledEvent(retryAfter, request.context(), request.getClass(), reason));
+    }
+    request.context().incrementRetryAttempts(retryAfter, reason);
+
+    if (awaitConfig) {
+      ctx.core().sendOnNewerConfig(request, ((ScopedRequest) request).bucket(), retryAfter);
+      return;
+    }
+
     ctx.environment().timer().schedule(
       () -> {
         if (!request.completed()) {
           ctx.core().send(request, false);
         }
       },
-      duration
+      retryAfter
     );
   }
 
@@ -25,15 +25,18 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
   public static final int DEFAULT_MAX_ENDPOINTS = 12;
   public static final int DEFAULT_MIN_ENDPOINTS = 0;
   public static final Duration DEFAULT_IDLE_TIME = Duration.ofMinutes(5);
+  public static final PooledEndpointSelection DEFAULT_ENDPOINT_SELECTION = PooledEndpointSelection.ROUND_ROBIN;
 
   private final int minEndpoints;
   private final int maxEndpoints;
   private final Duration idleTime;
+  private final PooledEndpointSelection endpointSelection;
 
   AbstractPooledEndpointServiceConfig(Builder builder) {
     this.minEndpoints = builder.minEndpoints;
     this.maxEndpoints = builder.maxEndpoints;
     this.idleTime = requireNonNull(builder.idleTime);
+    this.endpointSelection = requireNonNull(builder.endpointSelection);
   }
 
   @Override
@@ -56,11 +59,19 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
     return false;
   }
 
+  /**
+   * Returns how the service picks the endpoint for a request.
+   */
+  public PooledEndpointSelection endpointSelection() {
+    return endpointSelection;
+  }
+
   // public so methods can be invoked via reflection without requiring Method.setAccessible(true)
   public abstract static class Builder<SELF extends Builder> {
     private int minEndpoints;
     private int maxEndpoints;
     private Duration idleTime;
+    private PooledEndpointSelection endpointSelection = DEFAULT_ENDPOINT_SELECTION;
 
     public SELF minEndpoints(int minEndpoints) {
       if (minEndpoints < 0) {
@@ -88,6 +99,11 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       return self();
     }
 
+    public SELF endpointSelection(PooledEndpointSelection endpointSelection) {
+      this.endpointSelection = requireNonNull(endpointSelection);
+      return self();
+    }
+
     @SuppressWarnings("unchecked")
     private SELF self() {
       return (SELF) this;
@@ -100,6 +116,7 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       "minEndpoints=" + minEndpoints +
       ", maxEndpoints=" + maxEndpoints +
       ", idleTime=" + idleTime +
+      ", endpointSelection=" + endpointSelection +
       '}';
   }
 }
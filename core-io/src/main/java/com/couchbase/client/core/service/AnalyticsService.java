@@ -19,7 +19,6 @@ package com.couchbase.client.core.service;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.endpoint.AnalyticsEndpoint;
 import com.couchbase.client.core.endpoint.Endpoint;
-import com.couchbase.client.core.service.strategy.RoundRobinSelectionStrategy;
 
 import java.util.Optional;
 
@@ -27,12 +26,14 @@ public class AnalyticsService extends PooledService {
 
   private final String hostname;
   private final int port;
+  private final EndpointSelectionStrategy selectionStrategy;
 
   public AnalyticsService(final AnalyticsServiceConfig config, final CoreContext context,
                           final String hostname, final int port) {
     super(config, new ServiceContext(context, hostname, port, ServiceType.ANALYTICS, Optional.empty()));
     this.hostname = hostname;
     this.port = port;
+    this.selectionStrategy = config.endpointSelection().createStrategy();
   }
 
   @Override
@@ -42,7 +43,7 @@ public class AnalyticsService extends PooledService {
 
   @Override
   protected EndpointSelectionStrategy selectionStrategy() {
-    return new RoundRobinSelectionStrategy();
+    return selectionStrategy;
   }
 
   @Override
@@ -39,6 +39,10 @@ public class AnalyticsServiceConfig extends AbstractPooledEndpointServiceConfig
     return builder().idleTime(idleTime);
   }
 
+  public static Builder endpointSelection(PooledEndpointSelection endpointSelection) {
+    return builder().endpointSelection(endpointSelection);
+  }
+
   private AnalyticsServiceConfig(Builder builder) {
     super(builder);
   }
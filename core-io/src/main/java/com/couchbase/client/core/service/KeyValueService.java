@@ -20,7 +20,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.endpoint.Endpoint;
 import com.couchbase.client.core.endpoint.KeyValueEndpoint;
 import com.couchbase.client.core.env.Authenticator;
-import com.couchbase.client.core.service.strategy.PartitionSelectionStrategy;
+import com.couchbase.client.core.service.strategy.LoadAwarePartitionSelectionStrategy;
 
 import java.util.Optional;
 
@@ -29,7 +29,7 @@ import java.util.Optional;
  */
 public class KeyValueService extends PooledService {
 
-  private static final EndpointSelectionStrategy STRATEGY = new PartitionSelectionStrategy();
+  private static final EndpointSelectionStrategy STRATEGY = new LoadAwarePartitionSelectionStrategy();
 
   private final String hostname;
   private final int port;
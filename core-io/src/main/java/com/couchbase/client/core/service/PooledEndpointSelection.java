@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.service.strategy.AdaptiveSelectionStrategy;
+import com.couchbase.client.core.service.strategy.RoundRobinSelectionStrategy;
+
+/**
+ * Describes how a pooled service picks the endpoint for a request.
+ *
+ * @since 2.0.0
+ */
+@Stability.Volatile
+public enum PooledEndpointSelection {
+
+  /**
+   * Cycles through the free endpoints.
+   */
+  ROUND_ROBIN {
+    @Override
+    EndpointSelectionStrategy createStrategy() {
+      return new RoundRobinSelectionStrategy();
+    }
+  },
+
+  /**
+   * Picks the free endpoint with the lower expected wait out of two random ones, based on their recent latency
+   * and utilization.
+   *
+   * @see AdaptiveSelectionStrategy
+   */
+  ADAPTIVE {
+    @Override
+    EndpointSelectionStrategy createStrategy() {
+      return new AdaptiveSelectionStrategy();
+    }
+  };
+
+  /**
+   * Creates a new strategy instance, which must not be shared between services since it might hold state.
+   */
+  abstract EndpointSelectionStrategy createStrategy();
+
+}
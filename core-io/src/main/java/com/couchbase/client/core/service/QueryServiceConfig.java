@@ -39,6 +39,10 @@ public class QueryServiceConfig extends AbstractPooledEndpointServiceConfig {
     return builder().idleTime(idleTime);
   }
 
+  public static Builder endpointSelection(PooledEndpointSelection endpointSelection) {
+    return builder().endpointSelection(endpointSelection);
+  }
+
   private QueryServiceConfig(Builder builder) {
     super(builder);
   }
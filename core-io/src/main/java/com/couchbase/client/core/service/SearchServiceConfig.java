@@ -39,6 +39,10 @@ public class SearchServiceConfig extends AbstractPooledEndpointServiceConfig {
     return builder().idleTime(idleTime);
   }
 
+  public static Builder endpointSelection(PooledEndpointSelection endpointSelection) {
+    return builder().endpointSelection(endpointSelection);
+  }
+
   private SearchServiceConfig(Builder builder) {
     super(builder);
   }
@@ -39,6 +39,10 @@ public class ViewServiceConfig extends AbstractPooledEndpointServiceConfig {
     return builder().idleTime(idleTime);
   }
 
+  public static Builder endpointSelection(PooledEndpointSelection endpointSelection) {
+    return builder().endpointSelection(endpointSelection);
+  }
+
   private ViewServiceConfig(Builder builder) {
     super(builder);
   }
@@ -16,15 +16,13 @@
 
 package com.couchbase.client.core.service.kv;
 
-import com.couchbase.client.core.Reactor;
 import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
 import com.couchbase.client.core.error.FeatureNotAvailableException;
 import com.couchbase.client.core.error.ReplicaNotConfiguredException;
 import com.couchbase.client.core.error.ServiceNotAvailableException;
 import com.couchbase.client.core.msg.kv.MutationToken;
-import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
-import com.couchbase.client.core.retry.RetryStrategy;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
 import com.couchbase.client.core.retry.reactor.Repeat;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -65,31 +63,22 @@ public class Observe {
       throw new IllegalStateException("MutationToken is not present, this is a bug!");
     }
 
-    Duration timeout = ctx.timeout();
-    RetryStrategy retryStrategy = ctx.retryStrategy();
     MutationToken mutationToken = ctx.mutationToken().get();
-    String id = ctx.key();
+    ObserveSeqnoTracker tracker = ctx.core().observeSeqnoTracker();
 
-    List<ObserveViaSeqnoRequest> requests = new ArrayList<>();
+    List<Mono<ObserveViaSeqnoResponse>> observations = new ArrayList<>();
     if (ctx.persistTo() != ObservePersistTo.NONE) {
-      requests.add(new ObserveViaSeqnoRequest(timeout, ctx, ctx.collectionIdentifier(), retryStrategy, 0, true,
-        mutationToken.partitionUUID(), id));
+      observations.add(tracker.observe(ctx, 0, true, mutationToken));
     }
 
     if (ctx.persistTo().touchesReplica() || ctx.replicateTo().touchesReplica()) {
       for (short i = 1; i <= bucketReplicas; i++) {
-        requests.add(new ObserveViaSeqnoRequest(timeout, ctx, ctx.collectionIdentifier(), retryStrategy, i, false,
-          mutationToken.partitionUUID(), id));
+        observations.add(tracker.observe(ctx, i, false, mutationToken));
       }
     }
 
-    return Flux.fromIterable(requests)
-      .flatMap(request -> {
-        ctx.core().send(request);
-        return Reactor
-          .wrap(request, request.response(), true)
-          .onErrorResume(t-> Mono.empty());
-      })
+    return Flux.fromIterable(observations)
+      .flatMap(observation -> observation.onErrorResume(t -> Mono.empty()))
       .map(response -> ObserveItem.fromMutationToken(mutationToken, response));
   }
 
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Reactor;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.msg.kv.MutationToken;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
+import com.couchbase.client.core.service.ServiceType;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the observe polls of all outstanding durability waits on the same partition copy.
+ * <p>
+ * An observe via sequence number only depends on the partition and its uuid, not on the document. So instead of
+ * sending one request per key and replica on every poll, the tracker keeps one slot per bucket, partition and replica
+ * which remembers the highest sequence numbers observed so far and the poll currently in flight. A wait whose mutation
+ * is already covered by the remembered state is answered right away, and all others join the poll in flight if there
+ * is one. Only if neither applies a new request is sent.
+ * <p>
+ * Which node holds a partition copy depends on the bucket config, so the remembered state is only used while the
+ * revision of the bucket config it was observed under is still the current one. Once a new config has been applied
+ * (for example during a rebalance), the slot starts over with a fresh poll.
+ * <p>
+ * The number of waits answered by each poll is recorded under {@link Meter#METRIC_OBSERVE_FANOUT} once the poll
+ * completes, so everything above one is a request which did not have to be sent. Waits answered from the remembered
+ * state count towards the next poll, or are recorded when the slot starts over.
+ */
+@Stability.Internal
+public class ObserveSeqnoTracker {
+
+  private final Map<SlotKey, Slot> slots = new ConcurrentHashMap<>();
+
+  private final Map<String, ValueRecorder> fanoutRecorders = new ConcurrentHashMap<>();
+
+  /**
+   * Observes the partition copy which holds the mutation of the given token.
+   *
+   * @param ctx the observe context of the waiting operation.
+   * @param replica the replica index, 0 for the active partition.
+   * @param active true if the active partition should be observed.
+   * @param token the mutation token of the waiting operation.
+   * @return a mono completing with the (possibly shared) observe response, nothing happens until subscribed.
+   */
+  public Mono<ObserveViaSeqnoResponse> observe(final ObserveContext ctx, final int replica, final boolean active,
+                                               final MutationToken token) {
+    return Mono.defer(() -> observeNow(ctx, replica, active, token));
+  }
+
+  private Mono<ObserveViaSeqnoResponse> observeNow(final ObserveContext ctx, final int replica, final boolean active,
+                                                   final MutationToken token) {
+    final String bucket = ctx.collectionIdentifier().bucket();
+    final Slot slot = slots.computeIfAbsent(
+      new SlotKey(bucket, token.partitionID(), replica),
+      k -> new Slot(fanoutRecorder(ctx, bucket))
+    );
+    final long revision = configRevision(ctx, bucket);
+
+    final ObserveViaSeqnoRequest request;
+    synchronized (slot) {
+      if (slot.partitionUUID != token.partitionUUID() || slot.revision != revision) {
+        slot.reset(token.partitionUUID(), revision);
+      }
+
+      if (slot.latest != null && slot.latest.lastPersistedSeqNo() >= token.sequenceNumber()) {
+        slot.answered++;
+        return Mono.just(slot.latest);
+      }
+      if (slot.inFlight != null) {
+        slot.answered++;
+        return Reactor.wrap(slot.inFlight, slot.inFlight.response(), false);
+      }
+
+      request = new ObserveViaSeqnoRequest(ctx.timeout(), ctx, ctx.collectionIdentifier(), ctx.retryStrategy(),
+        replica, active, token.partitionUUID(), ctx.key());
+      slot.inFlight = request;
+      slot.answered++;
+    }
+
+    request.response().whenComplete((response, throwable) -> {
+      synchronized (slot) {
+        if (slot.inFlight == request) {
+          slot.inFlight = null;
+          if (response != null) {
+            slot.merge(response);
+          }
+          slot.recordFanout();
+        }
+      }
+    });
+    ctx.core().send(request);
+    return Reactor.wrap(request, request.response(), false);
+  }
+
+  /**
+   * Returns the number of partition copies currently tracked, for testing.
+   */
+  int size() {
+    return slots.size();
+  }
+
+  /**
+   * Returns the revision of the currently applied config of the bucket, or -1 if there is none.
+   */
+  private static long configRevision(final ObserveContext ctx, final String bucket) {
+    final ClusterConfig clusterConfig = ctx.core().clusterConfig();
+    final BucketConfig bucketConfig = clusterConfig == null ? null : clusterConfig.bucketConfig(bucket);
+    return bucketConfig == null ? -1 : bucketConfig.rev();
+  }
+
+  private ValueRecorder fanoutRecorder(final ObserveContext ctx, final String bucket) {
+    return fanoutRecorders.computeIfAbsent(bucket, b -> {
+      Map<String, String> tags = new HashMap<>();
+      tags.put(Meter.TAG_SERVICE, ServiceType.KV.ident());
+      tags.put(Meter.TAG_BUCKET, b);
+      return ctx.environment().meter().valueRecorder(Meter.METRIC_OBSERVE_FANOUT, tags);
+    });
+  }
+
+  /**
+   * The state kept for a single partition copy, guarded by its own monitor.
+   */
+  private static class Slot {
+
+    private final ValueRecorder fanout;
+    private long partitionUUID;
+    private long revision = -1;
+    private ObserveViaSeqnoResponse latest;
+    private ObserveViaSeqnoRequest inFlight;
+    private int answered;
+
+    Slot(final ValueRecorder fanout) {
+      this.fanout = fanout;
+    }
+
+    /**
+     * Starts over for a new partition uuid or bucket config, a poll still in flight is no longer joined.
+     */
+    void reset(final long partitionUUID, final long revision) {
+      recordFanout();
+      this.partitionUUID = partitionUUID;
+      this.revision = revision;
+      this.latest = null;
+      this.inFlight = null;
+    }
+
+    /**
+     * Records the number of waits answered since the last recording, if any.
+     */
+    void recordFanout() {
+      if (answered > 0) {
+        fanout.recordValue(answered);
+        answered = 0;
+      }
+    }
+
+    /**
+     * Folds a response into the remembered state, sequence numbers only move forward within the same uuid.
+     */
+    void merge(final ObserveViaSeqnoResponse response) {
+      if (!response.status().success() || response.vbucketUUID() != partitionUUID) {
+        return;
+      }
+      if (latest == null) {
+        latest = response;
+      } else if (response.currentSeqNo() > latest.currentSeqNo()
+        || response.lastPersistedSeqNo() > latest.lastPersistedSeqNo()) {
+        latest = new ObserveViaSeqnoResponse(
+          response.status(),
+          response.active(),
+          response.vbucketID(),
+          response.vbucketUUID(),
+          Math.max(response.lastPersistedSeqNo(), latest.lastPersistedSeqNo()),
+          Math.max(response.currentSeqNo(), latest.currentSeqNo()),
+          response.oldVbucketUUID(),
+          response.lastSeqNoReceived()
+        );
+      }
+    }
+  }
+
+  private static class SlotKey {
+
+    private final String bucket;
+    private final short partition;
+    private final int replica;
+
+    SlotKey(final String bucket, final short partition, final int replica) {
+      this.bucket = bucket;
+      this.partition = partition;
+      this.replica = replica;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      SlotKey slotKey = (SlotKey) o;
+      return partition == slotKey.partition && replica == slotKey.replica && bucket.equals(slotKey.bucket);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(bucket, partition, replica);
+    }
+  }
+
+}
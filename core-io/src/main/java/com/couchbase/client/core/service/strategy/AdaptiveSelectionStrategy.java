@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects endpoints based on their expected wait, which is derived from the latency they showed recently and how
+ * busy they have been.
+ *
+ * <p>For every selection two random endpoints are compared and the one with the lower expected wait is picked
+ * ("power of two choices"), which avoids the herding of always picking the globally best endpoint while still
+ * steering traffic away from endpoints which are slow or constantly busy.</p>
+ *
+ * <p>The latency of an endpoint is tracked as an exponentially weighted moving average of the time between
+ * selecting it and its next response. Since the pooled http endpoints this strategy serves only take one request
+ * at a time, only free endpoints are candidates and their number of outstanding requests is always zero. Their
+ * load is therefore tracked as their utilization instead: the moving average of the share of time between two
+ * selections they spent waiting for the response. Since an endpoint which is avoided does not produce new
+ * samples, both averages are halved for every {@link #DECAY_INTERVAL} without a sample so it gets a chance
+ * again.</p>
+ */
+public class AdaptiveSelectionStrategy implements EndpointSelectionStrategy {
+
+  /**
+   * The weight of a new latency sample in the moving average.
+   */
+  static final double ALPHA = 0.3;
+
+  /**
+   * The tracked latency is halved every time this interval passed without a new sample.
+   */
+  static final Duration DECAY_INTERVAL = Duration.ofSeconds(1);
+
+  private static final long DECAY_INTERVAL_NANOS = DECAY_INTERVAL.toNanos();
+
+  private final Map<Endpoint, EndpointStats> stats = new ConcurrentHashMap<>();
+
+  @Override
+  public <R extends Request<? extends Response>> Endpoint select(final R request, final List<Endpoint> endpoints) {
+    final int size = endpoints.size();
+    if (size == 0) {
+      return null;
+    }
+
+    final long now = System.nanoTime();
+    final Endpoint selected;
+    if (size == 1) {
+      selected = eligible(endpoints.get(0)) ? endpoints.get(0) : null;
+    } else {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      final int first = random.nextInt(size);
+      final int second = (first + 1 + random.nextInt(size - 1)) % size;
+      final Endpoint a = endpoints.get(first);
+      final Endpoint b = endpoints.get(second);
+      final boolean aEligible = eligible(a);
+      final boolean bEligible = eligible(b);
+
+      if (aEligible && bEligible) {
+        selected = expectedWait(b, now) < expectedWait(a, now) ? b : a;
+      } else if (aEligible) {
+        selected = a;
+      } else if (bEligible) {
+        selected = b;
+      } else {
+        selected = scan(endpoints, first);
+      }
+    }
+
+    if (selected != null) {
+      statsFor(selected).selected(selected.lastResponseReceived(), now);
+      if (stats.size() > size * 2) {
+        pruneStats(endpoints);
+      }
+    }
+    return selected;
+  }
+
+  private static boolean eligible(final Endpoint endpoint) {
+    return endpoint.state() == EndpointState.CONNECTED && endpoint.free();
+  }
+
+  /**
+   * Falls back to the first eligible endpoint, starting at the given offset.
+   */
+  private static Endpoint scan(final List<Endpoint> endpoints, final int offset) {
+    final int size = endpoints.size();
+    for (int i = 0; i < size; i++) {
+      Endpoint endpoint = endpoints.get((offset + i) % size);
+      if (eligible(endpoint)) {
+        return endpoint;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Calculates the expected wait for a new request on the endpoint.
+   *
+   * <p>The latency is weighted by the utilization, so an endpoint which has been busy all the time counts up to
+   * twice as slow as an idle one with the same latency.</p>
+   */
+  long expectedWait(final Endpoint endpoint, final long now) {
+    final EndpointStats endpointStats = statsFor(endpoint);
+    final long latency = endpointStats.latency(endpoint.lastResponseReceived(), now);
+    return (long) (latency * (1 + endpointStats.utilization(now)));
+  }
+
+  private EndpointStats statsFor(final Endpoint endpoint) {
+    return stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+  }
+
+  /**
+   * Drops the stats of endpoints which are not part of the pool anymore.
+   */
+  private void pruneStats(final List<Endpoint> endpoints) {
+    final Map<Endpoint, Boolean> current = new IdentityHashMap<>();
+    for (Endpoint endpoint : endpoints) {
+      current.put(endpoint, Boolean.TRUE);
+    }
+    stats.keySet().removeIf(endpoint -> !current.containsKey(endpoint));
+  }
+
+  /**
+   * Holds the latency statistics for a single endpoint.
+   */
+  static class EndpointStats {
+
+    private long selectedAt;
+    private long lastSampleAt;
+    private long lastObservedResponse;
+    private double averageLatency;
+    private double averageUtilization;
+
+    /**
+     * Marks the endpoint as selected, taking a sample of the previous selection first if possible.
+     *
+     * @param lastResponse the timestamp of the last response of the endpoint.
+     * @param now the current timestamp.
+     */
+    synchronized void selected(final long lastResponse, final long now) {
+      sample(lastResponse);
+      final long period = now - selectedAt;
+      if (selectedAt != 0 && period > 0 && lastResponse - selectedAt > 0) {
+        final double utilization = Math.min(1.0, (lastResponse - selectedAt) / (double) period);
+        averageUtilization = averageUtilization + ALPHA * (utilization - averageUtilization);
+      }
+      selectedAt = now;
+    }
+
+    /**
+     * Returns the decayed share of time the endpoint recently spent waiting for responses.
+     *
+     * @param now the current timestamp.
+     * @return the utilization between 0 and 1.
+     */
+    synchronized double utilization(final long now) {
+      if (selectedAt == 0) {
+        return 0;
+      }
+      final long halvings = (now - selectedAt) / DECAY_INTERVAL_NANOS;
+      return halvings >= 63 ? 0 : averageUtilization / (1L << halvings);
+    }
+
+    /**
+     * Takes a new sample if the endpoint responded since it has been selected and returns the decayed average.
+     *
+     * @param lastResponse the timestamp of the last response of the endpoint.
+     * @param now the current timestamp.
+     * @return the average latency in nanoseconds.
+     */
+    synchronized long latency(final long lastResponse, final long now) {
+      sample(lastResponse);
+      if (lastSampleAt == 0) {
+        return 0;
+      }
+      final long halvings = (now - lastSampleAt) / DECAY_INTERVAL_NANOS;
+      return halvings >= 63 ? 0 : ((long) averageLatency) >> halvings;
+    }
+
+    private void sample(final long lastResponse) {
+      if (lastResponse != lastObservedResponse && selectedAt != 0 && lastResponse - selectedAt > 0) {
+        final long sample = lastResponse - selectedAt;
+        averageLatency = lastSampleAt == 0 ? sample : averageLatency + ALPHA * (sample - averageLatency);
+        lastSampleAt = lastResponse;
+        lastObservedResponse = lastResponse;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+
+import java.util.List;
+
+/**
+ * Selects a KV endpoint based on the partition of the request and the current load of the endpoints.
+ *
+ * <p>Requests which are not idempotent stay pinned to the endpoint of their partition, so that mutations
+ * against the same partition are written in the order they have been issued. Idempotent requests have no such
+ * constraint and are sent to the endpoint with the least outstanding requests (and then pending write bytes),
+ * which lets reads against a hot partition use all the connections to the node.</p>
+ *
+ * <p>If the pinned endpoint is not connected, the request falls back to the least loaded sibling instead
+ * of waiting for a retry. In-flight requests of a disconnected endpoint are retried anyway, so no ordering
+ * is lost which would have been kept otherwise.</p>
+ *
+ * @since 2.0.0
+ */
+public class LoadAwarePartitionSelectionStrategy implements EndpointSelectionStrategy {
+
+  @Override
+  public <R extends Request<? extends Response>> Endpoint select(final R request, final List<Endpoint> endpoints) {
+    final int size = endpoints.size();
+    if (size == 0) {
+      return null;
+    }
+    if (size == 1) {
+      final Endpoint endpoint = endpoints.get(0);
+      return eligible(endpoint) ? endpoint : null;
+    }
+
+    final int pinned = ((KeyValueRequest<?>) request).partition() % size;
+    if (!request.idempotent()) {
+      final Endpoint endpoint = endpoints.get(pinned);
+      if (eligible(endpoint)) {
+        return endpoint;
+      }
+    }
+    return leastLoaded(endpoints, pinned);
+  }
+
+  /**
+   * Returns the eligible endpoint with the least load, preferring the one at the offset if loads are equal.
+   */
+  private static Endpoint leastLoaded(final List<Endpoint> endpoints, final int offset) {
+    final int size = endpoints.size();
+    Endpoint selected = null;
+    int selectedRequests = 0;
+    long selectedBytes = 0;
+    for (int i = 0; i < size; i++) {
+      final Endpoint endpoint = endpoints.get((offset + i) % size);
+      if (!eligible(endpoint)) {
+        continue;
+      }
+      final int requests = endpoint.outstandingRequests();
+      if (selected != null && requests > selectedRequests) {
+        continue;
+      }
+      final long bytes = endpoint.pendingWriteBytes();
+      if (selected == null || requests < selectedRequests || bytes < selectedBytes) {
+        selected = endpoint;
+        selectedRequests = requests;
+        selectedBytes = bytes;
+      }
+    }
+    return selected;
+  }
+
+  private static boolean eligible(final Endpoint endpoint) {
+    return endpoint != null && endpoint.state() == EndpointState.CONNECTED && endpoint.free();
+  }
+
+}
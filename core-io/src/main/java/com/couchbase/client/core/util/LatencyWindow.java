@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a fixed-size sample of recently observed latencies to estimate their percentiles.
+ * <p>
+ * Recording is meant for the hot path: every value overwrites a random slot once the window is full, so there is no
+ * shared counter to contend on. Concurrent writers may lose the occasional sample, which is fine for an estimate.
+ * Percentiles are computed over a sorted copy and cached for a short while, so frequent readers do not sort on
+ * every call.
+ */
+@Stability.Internal
+public class LatencyWindow {
+
+  /**
+   * The minimum number of samples before a percentile is reported.
+   */
+  static final int MIN_SAMPLES = 32;
+
+  /**
+   * How long a computed percentile is reused before the samples are sorted again.
+   */
+  private static final long RECOMPUTE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final long[] samples;
+
+  private volatile int filled;
+
+  private volatile Estimate estimate;
+
+  /**
+   * Creates a new window which holds the given number of samples.
+   *
+   * @param capacity the number of samples kept.
+   */
+  public LatencyWindow(final int capacity) {
+    if (capacity < MIN_SAMPLES) {
+      throw new IllegalArgumentException("The capacity must be at least " + MIN_SAMPLES);
+    }
+    this.samples = new long[capacity];
+  }
+
+  /**
+   * Records a single latency.
+   *
+   * @param latencyNanos the latency in nanoseconds.
+   */
+  public void record(final long latencyNanos) {
+    int current = filled;
+    if (current < samples.length) {
+      samples[current] = latencyNanos;
+      filled = current + 1;
+    } else {
+      samples[ThreadLocalRandom.current().nextInt(samples.length)] = latencyNanos;
+    }
+  }
+
+  /**
+   * Returns the estimated percentile of the recorded latencies.
+   *
+   * @param percentile the percentile, between 0 (exclusive) and 100 (inclusive).
+   * @return the estimate, or empty if not enough latencies have been recorded yet.
+   */
+  public Optional<Duration> percentile(final double percentile) {
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException("The percentile must be in (0, 100], but is " + percentile);
+    }
+
+    final int count = Math.min(filled, samples.length);
+    if (count < MIN_SAMPLES) {
+      return Optional.empty();
+    }
+
+    final long now = System.nanoTime();
+    Estimate current = estimate;
+    if (current == null || now - current.computedAt > RECOMPUTE_INTERVAL_NANOS) {
+      long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      current = new Estimate(sorted, now);
+      estimate = current;
+    }
+
+    final long[] sorted = current.sorted;
+    final int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100 * sorted.length) - 1);
+    return Optional.of(Duration.ofNanos(sorted[Math.max(0, index)]));
+  }
+
+  private static class Estimate {
+
+    private final long[] sorted;
+    private final long computedAt;
+
+    Estimate(final long[] sorted, final long computedAt) {
+      this.sorted = sorted;
+      this.computedAt = computedAt;
+    }
+  }
+
+}
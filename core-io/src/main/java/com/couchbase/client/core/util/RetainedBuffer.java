@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Holds a retained buffer on behalf of a result object until it is taken for decoding or released.
+ * <p>
+ * Ownership is explicit: whoever holds the result must either take the buffer (and release it once done) or
+ * release the holder. Pooled buffers are not returned to their pool by the garbage collector, so a holder which is
+ * dropped without either leaks its buffer (and is reported by the netty leak detector).
+ */
+@Stability.Internal
+public final class RetainedBuffer {
+
+  private static final AtomicReferenceFieldUpdater<RetainedBuffer, ByteBuf> BUFFER_UPDATER =
+    AtomicReferenceFieldUpdater.newUpdater(RetainedBuffer.class, ByteBuf.class, "buffer");
+
+  private volatile ByteBuf buffer;
+
+  private final int length;
+
+  /**
+   * Creates a holder which owns the given buffer.
+   *
+   * @param buffer the retained buffer, now owned by the holder.
+   */
+  public RetainedBuffer(final ByteBuf buffer) {
+    this.buffer = buffer;
+    this.length = buffer.readableBytes();
+  }
+
+  /**
+   * Takes ownership of the buffer, which succeeds only once.
+   *
+   * @return the buffer, or null if it has already been taken or released.
+   */
+  public ByteBuf take() {
+    return BUFFER_UPDATER.getAndSet(this, null);
+  }
+
+  /**
+   * Releases the buffer if it has not been taken or released yet.
+   */
+  public void release() {
+    ReferenceCountUtil.release(take());
+  }
+
+  /**
+   * Returns true if the buffer has neither been taken nor released.
+   */
+  public boolean available() {
+    return buffer != null;
+  }
+
+  /**
+   * Returns the number of content bytes held, even after the buffer has been taken.
+   */
+  public int length() {
+    return length;
+  }
+
+}
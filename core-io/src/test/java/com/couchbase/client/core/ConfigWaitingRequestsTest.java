@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core;
+
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.kv.NoopRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link ConfigWaitingRequests}.
+ */
+class ConfigWaitingRequestsTest {
+
+  private static final CoreContext CTX = mock(CoreContext.class);
+
+  @Test
+  void releasesOnlyOnNewerConfigOfSameBucket() {
+    List<Request<?>> dispatched = new ArrayList<>();
+    ConfigWaitingRequests waiting = new ConfigWaitingRequests(dispatched::add);
+
+    NoopRequest first = noopRequest();
+    NoopRequest second = noopRequest();
+    NoopRequest other = noopRequest();
+    waiting.park("a", 5, first);
+    waiting.park("a", 5, second);
+    waiting.park("b", 5, other);
+
+    waiting.release(clusterConfig("a", 5));
+    assertTrue(dispatched.isEmpty());
+    assertEquals(2, waiting.size("a"));
+
+    waiting.release(clusterConfig("a", 6));
+    assertEquals(Arrays.asList(first, second), dispatched);
+    assertEquals(0, waiting.size("a"));
+    assertEquals(1, waiting.size("b"));
+  }
+
+  @Test
+  void releasesEveryRequestOnlyOnce() {
+    List<Request<?>> dispatched = new ArrayList<>();
+    ConfigWaitingRequests waiting = new ConfigWaitingRequests(dispatched::add);
+
+    NoopRequest request = noopRequest();
+    ConfigWaitingRequests.Parked parked = waiting.park("a", -1, request);
+    parked.release();
+    assertEquals(0, waiting.size("a"));
+    waiting.release(clusterConfig("a", 1));
+    parked.release();
+
+    assertEquals(Collections.singletonList(request), dispatched);
+    assertEquals(0, waiting.size("a"));
+  }
+
+  @Test
+  void doesNotDispatchCompletedRequests() {
+    List<Request<?>> dispatched = new ArrayList<>();
+    ConfigWaitingRequests waiting = new ConfigWaitingRequests(dispatched::add);
+
+    NoopRequest request = noopRequest();
+    ConfigWaitingRequests.Parked parked = waiting.park("a", 1, request);
+    request.cancel(CancellationReason.TIMEOUT);
+    assertEquals(0, waiting.size("a"));
+
+    waiting.release(clusterConfig("a", 2));
+    parked.release();
+    assertTrue(dispatched.isEmpty());
+  }
+
+  @Test
+  void removesRequestsReleasedByTheirFallback() {
+    List<Request<?>> dispatched = new ArrayList<>();
+    ConfigWaitingRequests waiting = new ConfigWaitingRequests(dispatched::add);
+
+    NoopRequest first = noopRequest();
+    NoopRequest second = noopRequest();
+    ConfigWaitingRequests.Parked parked = waiting.park("a", 1, first);
+    waiting.park("a", 1, second);
+
+    parked.release();
+    assertEquals(Collections.singletonList(first), dispatched);
+    assertEquals(1, waiting.size("a"));
+
+    waiting.release(clusterConfig("a", 2));
+    assertEquals(Arrays.asList(first, second), dispatched);
+    assertEquals(0, waiting.size("a"));
+  }
+
+  private static ClusterConfig clusterConfig(final String bucket, final long revision) {
+    BucketConfig bucketConfig = mock(BucketConfig.class);
+    when(bucketConfig.name()).thenReturn(bucket);
+    when(bucketConfig.rev()).thenReturn(revision);
+    ClusterConfig config = new ClusterConfig();
+    config.setBucketConfig(bucketConfig);
+    return config;
+  }
+
+  private static NoopRequest noopRequest() {
+    return new NoopRequest(Duration.ofSeconds(1), CTX, BestEffortRetryStrategy.INSTANCE, null);
+  }
+
+}
@@ -28,8 +28,12 @@ import com.couchbase.client.core.env.PasswordAuthenticator;
 import com.couchbase.client.core.env.SeedNode;
 import com.couchbase.client.core.error.GlobalConfigNotFoundException;
 import com.couchbase.client.core.error.UnsupportedConfigMechanismException;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.NoopRequest;
 import com.couchbase.client.core.node.Node;
 import com.couchbase.client.core.node.NodeIdentifier;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
 import com.couchbase.client.core.service.ServiceType;
 import com.couchbase.client.util.SimpleEventBus;
 import org.junit.jupiter.api.AfterAll;
@@ -39,7 +43,11 @@ import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -512,6 +520,42 @@ class CoreTest {
       .addService(ServiceType.KV, 12002, Optional.of("default"));
   }
 
+  @Test
+  void resendsNotMyVbucketRightAwayIfConfigIsAlreadyNewer() {
+    BucketConfig bucketConfig = mock(BucketConfig.class);
+    when(bucketConfig.name()).thenReturn("bucket");
+    when(bucketConfig.rev()).thenReturn(5L);
+    ClusterConfig clusterConfig = new ClusterConfig();
+    clusterConfig.setBucketConfig(bucketConfig);
+
+    final ConfigurationProvider configProvider = mock(ConfigurationProvider.class);
+    when(configProvider.configs()).thenReturn(Flux.empty());
+    when(configProvider.config()).thenReturn(clusterConfig);
+
+    final List<Request<?>> sent = new ArrayList<>();
+    Core core = new Core(ENV, AUTHENTICATOR, SeedNode.DEFAULT) {
+      @Override
+      public ConfigurationProvider createConfigurationProvider() {
+        return configProvider;
+      }
+
+      @Override
+      public <R extends Response> void send(final Request<R> request, final boolean registerForTimeout) {
+        sent.add(request);
+      }
+    };
+
+    NoopRequest outdated = new NoopRequest(Duration.ofSeconds(1), core.context(), BestEffortRetryStrategy.INSTANCE, null);
+    outdated.context().lastDispatchedWithRevision(4);
+    core.sendOnNewerConfig(outdated, "bucket", Duration.ofMinutes(1));
+    assertEquals(Collections.singletonList(outdated), sent);
+
+    NoopRequest current = new NoopRequest(Duration.ofSeconds(1), core.context(), BestEffortRetryStrategy.INSTANCE, null);
+    current.context().lastDispatchedWithRevision(5);
+    core.sendOnNewerConfig(current, "bucket", Duration.ofMinutes(1));
+    assertEquals(Collections.singletonList(outdated), sent);
+  }
+
   @Test
   void ignoresFailedGlobalConfigInitAttempt() {
     final ConfigurationProvider configProvider = mock(ConfigurationProvider.class);
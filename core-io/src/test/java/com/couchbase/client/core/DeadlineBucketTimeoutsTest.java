@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core;
+
+import com.couchbase.client.core.env.TimeoutTracking;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.NoopRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.couchbase.client.test.Util.waitUntilCondition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of the {@link DeadlineBucketTimeouts}.
+ */
+class DeadlineBucketTimeoutsTest {
+
+  private static final CoreContext CTX = mock(CoreContext.class);
+
+  /**
+   * The time seen by the timeouts, only moved forward by the tests.
+   */
+  private final AtomicLong clock = new AtomicLong(System.nanoTime());
+
+  @Test
+  void cancelsExpiredRequests() {
+    DeadlineBucketTimeouts timeouts = timeouts(64, 2);
+    NoopRequest request = noopRequest(Duration.ofMillis(5));
+    timeouts.register(request);
+
+    advance(Duration.ofMillis(3));
+    timeouts.expire();
+    assertFalse(request.completed());
+
+    advance(Duration.ofMillis(5));
+    timeouts.expire();
+    assertTrue(request.completed());
+    assertEquals(CancellationReason.TIMEOUT, request.cancellationReason());
+  }
+
+  @Test
+  void ignoresCompletedRequests() {
+    DeadlineBucketTimeouts timeouts = timeouts(64, 2);
+    NoopRequest request = noopRequest(Duration.ofMillis(5));
+    timeouts.register(request);
+    request.cancel(CancellationReason.STOPPED_LISTENING);
+
+    advance(Duration.ofMillis(10));
+    timeouts.expire();
+    assertEquals(CancellationReason.STOPPED_LISTENING, request.cancellationReason());
+  }
+
+  @Test
+  void dropsCompletedRequestsLongBeforeTheirDeadline() {
+    DeadlineBucketTimeouts timeouts = timeouts(64, 2);
+    NoopRequest request = noopRequest(Duration.ofSeconds(2));
+    timeouts.register(request);
+    assertEquals(1, timeouts.size());
+
+    advance(Duration.ofMillis(2));
+    timeouts.expire();
+    assertEquals(1, timeouts.size());
+    assertFalse(request.completed());
+
+    request.cancel(CancellationReason.STOPPED_LISTENING);
+    advance(Duration.ofMillis(10));
+    timeouts.expire();
+    assertEquals(0, timeouts.size());
+  }
+
+  @Test
+  void keepsRequestsBeyondTheHorizon() {
+    DeadlineBucketTimeouts timeouts = timeouts(4, 1);
+    NoopRequest request = noopRequest(Duration.ofMillis(30));
+    timeouts.register(request);
+
+    advance(Duration.ofMillis(10));
+    timeouts.expire();
+    assertFalse(request.completed());
+    assertNull(request.cancellationReason());
+
+    for (int i = 0; i < 25; i++) {
+      advance(Duration.ofMillis(1));
+      timeouts.expire();
+    }
+    assertEquals(CancellationReason.TIMEOUT, request.cancellationReason());
+  }
+
+  @Test
+  void cancelsAlreadyElapsedRequestOnRegistration() {
+    DeadlineBucketTimeouts timeouts = timeouts(64, 2);
+    NoopRequest request = noopRequest(Duration.ofMillis(1));
+    advance(Duration.ofMillis(5));
+    timeouts.register(request);
+    assertEquals(CancellationReason.TIMEOUT, request.cancellationReason());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void timerExpiresBucketsOnEveryTick() {
+    Timer timer = Timer.createAndStart(TimeoutTracking.DEADLINE_BUCKETS);
+    try {
+      NoopRequest request = noopRequest(Duration.ofMillis(50));
+      timer.register((Request<Response>) (Request<?>) request);
+      waitUntilCondition(request::completed);
+      assertEquals(CancellationReason.TIMEOUT, request.cancellationReason());
+    } finally {
+      timer.stop();
+    }
+  }
+
+  private DeadlineBucketTimeouts timeouts(final int numSlots, final int numStripes) {
+    return new DeadlineBucketTimeouts(Duration.ofMillis(1), numSlots, numStripes, clock::get);
+  }
+
+  private void advance(final Duration duration) {
+    clock.addAndGet(duration.toNanos());
+  }
+
+  /**
+   * Creates a request and moves the clock up to its creation time, so its deadline is relative to the clock.
+   */
+  private NoopRequest noopRequest(final Duration timeout) {
+    NoopRequest request = new NoopRequest(timeout, CTX, BestEffortRetryStrategy.INSTANCE, null);
+    clock.accumulateAndGet(request.createdAt(), Math::max);
+    return request;
+  }
+
+}
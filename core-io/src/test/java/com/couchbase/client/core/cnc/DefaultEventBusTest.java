@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.couchbase.client.test.Util.threadRunning;
@@ -30,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Verifies the functionality of the {@link DefaultEventBus}.
@@ -105,4 +107,99 @@ class DefaultEventBusTest {
     assertEquals(eventsReceived.get(), eventsSent);
   }
 
+
+  @Test
+  void dropsEventsBelowSubscribedSeverity() {
+    DefaultEventBus eventBus = DefaultEventBus.create();
+
+    AtomicInteger verboseReceived = new AtomicInteger();
+    AtomicInteger warnReceived = new AtomicInteger();
+    eventBus.subscribe(event -> verboseReceived.incrementAndGet());
+    eventBus.subscribe(event -> warnReceived.incrementAndGet(), Event.Severity.WARN);
+
+    eventBus.start().block();
+
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(eventWithSeverity(Event.Severity.DEBUG)));
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(eventWithSeverity(Event.Severity.WARN)));
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(eventWithSeverity(Event.Severity.ERROR)));
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+    assertEquals(3, verboseReceived.get());
+    assertEquals(2, warnReceived.get());
+  }
+
+  @Test
+  void doesNotEnqueueIfNobodyIsInterested() {
+    DefaultEventBus eventBus = DefaultEventBus.builder().queueCapacity(1).build();
+
+    AtomicInteger eventsReceived = new AtomicInteger();
+    eventBus.subscribe(event -> eventsReceived.incrementAndGet(), Event.Severity.ERROR);
+    eventBus.start().block();
+
+    Event event = eventWithSeverity(Event.Severity.DEBUG);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(event));
+    }
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+    assertEquals(0, eventsReceived.get());
+  }
+
+  @Test
+  void reportsEnabledSeverities() {
+    DefaultEventBus eventBus = DefaultEventBus.create();
+    assertFalse(eventBus.isEnabled(Event.Severity.ERROR));
+
+    EventSubscription subscription = eventBus.subscribe(event -> { }, Event.Severity.INFO);
+    assertFalse(eventBus.isEnabled(Event.Severity.DEBUG));
+    assertTrue(eventBus.isEnabled(Event.Severity.INFO));
+    assertTrue(eventBus.isEnabled(Event.Severity.ERROR));
+
+    subscription.unsubscribe();
+    assertFalse(eventBus.isEnabled(Event.Severity.ERROR));
+  }
+
+  @Test
+  void isolatedSubscribersAreNotBlockedByEachOther() throws Exception {
+    final String threadName = UUID.randomUUID().toString();
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder()
+      .threadName(threadName)
+      .dispatchMode(DefaultEventBus.DispatchMode.ISOLATED)
+      .build();
+
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger fastReceived = new AtomicInteger();
+    eventBus.subscribe(event -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    EventSubscription fast = eventBus.subscribe(event -> fastReceived.incrementAndGet());
+
+    eventBus.start().block();
+    assertThreadRunning(threadName + "-1");
+    assertThreadRunning(threadName + "-2");
+
+    for (int i = 0; i < 10; i++) {
+      eventBus.publish(mock(Event.class));
+    }
+    waitUntilCondition(() -> fastReceived.get() == 10);
+
+    fast.unsubscribe();
+    waitUntilCondition(() -> !threadRunning(threadName + "-2"));
+
+    release.countDown();
+    eventBus.stop(Duration.ofSeconds(5)).block();
+    assertThreadNotRunning(threadName + "-1");
+  }
+
+  private static Event eventWithSeverity(final Event.Severity severity) {
+    Event event = mock(Event.class);
+    when(event.severity()).thenReturn(severity);
+    return event;
+  }
+
 }
@@ -16,6 +16,9 @@
 
 package com.couchbase.client.core.cnc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -23,6 +26,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.couchbase.client.core.cnc.events.request.RequestRetryScheduledEvent;
+import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.LoggerConfig;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.kv.GetRequest;
@@ -120,6 +124,32 @@ class LoggingEventConsumerTest {
     verify(logger, never()).attachContext(userContext);
   }
 
+  @Test
+  void derivesMinimumSeverityFromEnabledLevels() {
+    assertEquals(Event.Severity.ERROR, loggingEventConsumer.minimumEnabledSeverity());
+
+    when(logger.isInfoEnabled()).thenReturn(true);
+    assertEquals(Event.Severity.INFO, loggingEventConsumer.minimumEnabledSeverity());
+
+    when(logger.isDebugEnabled()).thenReturn(true);
+    assertEquals(Event.Severity.DEBUG, loggingEventConsumer.minimumEnabledSeverity());
+
+    when(logger.isTraceEnabled()).thenReturn(true);
+    assertEquals(Event.Severity.VERBOSE, loggingEventConsumer.minimumEnabledSeverity());
+  }
+
+  @Test
+  void environmentDropsEventsBelowEnabledLevels() {
+    when(logger.isInfoEnabled()).thenReturn(true);
+    CoreEnvironment env = CoreEnvironment.builder().loggerConfig(LoggerConfig.customLogger(logger)).build();
+    try {
+      assertFalse(env.eventBus().isEnabled(Event.Severity.DEBUG));
+      assertTrue(env.eventBus().isEnabled(Event.Severity.INFO));
+    } finally {
+      env.shutdown();
+    }
+  }
+
   static class MyEvent extends AbstractEvent {
     MyEvent(Severity severity, Category category, Duration duration, Context context) {
       super(severity, category, duration, context);
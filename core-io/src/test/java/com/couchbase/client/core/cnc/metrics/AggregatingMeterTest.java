@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.LatencyMetricsAggregatedEvent;
+import com.couchbase.client.util.SimpleEventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link AggregatingMeter}.
+ */
+class AggregatingMeterTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void emitsPercentilesPerRecorder() {
+    SimpleEventBus eventBus = new SimpleEventBus(true);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus);
+
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Meter.TAG_SERVICE, "kv");
+    tags.put(Meter.TAG_OPERATION, "get");
+    ValueRecorder recorder = meter.valueRecorder(Meter.METRIC_DISPATCH_LATENCY, tags);
+    assertSame(recorder, meter.valueRecorder(Meter.METRIC_DISPATCH_LATENCY, new HashMap<>(tags)));
+
+    for (int i = 1; i <= 1000; i++) {
+      recorder.recordValue(i);
+    }
+    meter.emitIntervals();
+
+    LatencyMetricsAggregatedEvent event = (LatencyMetricsAggregatedEvent) eventBus.publishedEvents().get(0);
+    assertEquals(Event.Severity.DEBUG, event.severity());
+    List<Map<String, Object>> latencies = event.latencies();
+    assertEquals(1, latencies.size());
+    Map<String, Object> exported = latencies.get(0);
+    assertEquals(Meter.METRIC_DISPATCH_LATENCY, exported.get("name"));
+    assertEquals(tags, exported.get("tags"));
+    assertEquals(1000L, exported.get("count"));
+
+    Map<String, Object> percentiles = (Map<String, Object>) exported.get("percentiles");
+    long p50 = (Long) percentiles.get("50.0");
+    long max = (Long) percentiles.get("100.0");
+    assertTrue(p50 >= 495 && p50 <= 505, "p50 was " + p50);
+    assertTrue(max >= 995 && max <= 1005, "max was " + max);
+  }
+
+  @Test
+  void onlyEmitsRecordersWithValuesInTheInterval() {
+    SimpleEventBus eventBus = new SimpleEventBus(true);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus);
+    ValueRecorder recorder = meter.valueRecorder(Meter.METRIC_DISPATCH_LATENCY, new HashMap<>());
+
+    meter.emitIntervals();
+    assertTrue(eventBus.publishedEvents().isEmpty());
+
+    recorder.recordValue(10);
+    meter.emitIntervals();
+    meter.emitIntervals();
+    assertEquals(1, eventBus.publishedEvents().size());
+  }
+
+  @Test
+  void dropsIdleRecordersButKeepsReportingHeldOnes() {
+    SimpleEventBus eventBus = new SimpleEventBus(true);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus);
+    ValueRecorder held = meter.valueRecorder(Meter.METRIC_DISPATCH_LATENCY, new HashMap<>());
+
+    meter.emitIntervals();
+    ValueRecorder created = meter.valueRecorder(Meter.METRIC_DISPATCH_LATENCY, new HashMap<>());
+    assertNotSame(held, created);
+
+    held.recordValue(10);
+    created.recordValue(20);
+    meter.emitIntervals();
+
+    List<Map<String, Object>> latencies =
+      ((LatencyMetricsAggregatedEvent) eventBus.publishedEvents().get(0)).latencies();
+    assertEquals(1, latencies.size());
+    assertEquals(2L, latencies.get(0).get("count"));
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.cnc.events.tracing.RequestsSampledEvent;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.retry.RetryStrategy;
+import com.couchbase.client.core.util.HostAndPort;
+import com.couchbase.client.util.SimpleEventBus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of the {@link SamplingRequestTracer}.
+ */
+class SamplingRequestTracerTest {
+
+  private static final CoreContext CTX = mock(CoreContext.class);
+  private static final RetryStrategy RETRY = mock(RetryStrategy.class);
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void aggregatesAndSamplesPerService() {
+    SimpleEventBus eventBus = new SimpleEventBus(true);
+    SamplingRequestTracer tracer = SamplingRequestTracer.builder(eventBus).sampleSize(5).build();
+
+    for (int i = 1; i <= 100; i++) {
+      complete(tracer, TimeUnit.MICROSECONDS.toNanos(i));
+    }
+    tracer.emitIntervals();
+
+    List<Map<String, Object>> sampled = ((RequestsSampledEvent) eventBus.publishedEvents().get(0)).sampled();
+    assertEquals(1, sampled.size());
+    Map<String, Object> kv = sampled.get(0);
+    assertEquals(RequestTracer.SERVICE_IDENTIFIER_KV, kv.get("service"));
+    assertEquals(100L, kv.get("count"));
+
+    Map<String, Object> dispatch = (Map<String, Object>) kv.get("last_dispatch_us");
+    assertEquals(50L, dispatch.get("avg"));
+    assertEquals(100L, dispatch.get("max"));
+    assertEquals(100L, ((Map<String, Object>) kv.get("server_us")).get("max"));
+
+    List<Map<String, Object>> samples = (List<Map<String, Object>>) kv.get("samples");
+    assertEquals(5, samples.size());
+    for (Map<String, Object> sample : samples) {
+      assertEquals("get", sample.get("operation_name"));
+      assertEquals("127.0.0.1:11210", sample.get("last_remote_address"));
+    }
+  }
+
+  @Test
+  void keepsTheSampleBoundedAndStartsOverEveryInterval() {
+    SimpleEventBus eventBus = new SimpleEventBus(true);
+    SamplingRequestTracer tracer = SamplingRequestTracer.builder(eventBus).sampleSize(3).build();
+
+    tracer.emitIntervals();
+    assertTrue(eventBus.publishedEvents().isEmpty());
+
+    for (int i = 1; i <= 10000; i++) {
+      complete(tracer, i);
+    }
+    tracer.emitIntervals();
+    complete(tracer, 1);
+    tracer.emitIntervals();
+    tracer.emitIntervals();
+
+    assertEquals(2, eventBus.publishedEvents().size());
+    assertEquals(3, samples(eventBus, 0).size());
+    assertEquals(1, samples(eventBus, 1).size());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> samples(final SimpleEventBus eventBus, final int event) {
+    RequestsSampledEvent sampled = (RequestsSampledEvent) eventBus.publishedEvents().get(event);
+    return (List<Map<String, Object>>) sampled.sampled().get(0).get("samples");
+  }
+
+  private static void complete(final SamplingRequestTracer tracer, final long dispatchNanos) {
+    InternalSpan span = tracer.span("get", null);
+    GetRequest request = new GetRequest("key", Duration.ofSeconds(1), CTX,
+      CollectionIdentifier.fromDefault("bucket"), RETRY, span);
+    request.context()
+      .dispatchLatency(dispatchNanos)
+      .serverLatency(dispatchNanos)
+      .lastDispatchedTo(new HostAndPort("127.0.0.1", 11210))
+      .logicallyComplete();
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static com.couchbase.client.core.config.ConfigRevisionScanner.NO_REVISION;
+import static com.couchbase.client.test.Util.readResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link ConfigRevisionScanner}.
+ */
+class ConfigRevisionScannerTest {
+
+  @Test
+  void scansRevisionOfFullConfig() {
+    ByteBuf config = buffer(readResource("config_with_external.json", ConfigRevisionScannerTest.class));
+    assertTrue(ConfigRevisionScanner.isObject(config));
+    assertEquals(1073, ConfigRevisionScanner.revision(config));
+    assertEquals(0, config.readerIndex());
+  }
+
+  @Test
+  void onlyConsidersToplevelRevisionField() {
+    assertEquals(7, revision(" {\"nodes\":[{\"rev\":1}],\"name\":\"rev\",\"x\":{\"rev\":2},\n\"rev\" : 7}"));
+    assertEquals(3, revision("{\"a\":\"\\\"rev\\\":5\",\"rev\":3}"));
+    assertEquals(4, revision("{\"a\":\"}]\",\"rev\":4}"));
+  }
+
+  @Test
+  void returnsNoRevisionIfAbsentOrInvalid() {
+    assertEquals(NO_REVISION, revision("{\"name\":\"default\",\"x\":{\"rev\":2}}"));
+    assertEquals(NO_REVISION, revision("{\"rev\":\"12\"}"));
+    assertEquals(NO_REVISION, revision("{\"rev\":-1}"));
+    assertEquals(NO_REVISION, revision("{\"rev\":12345678901234567890}"));
+    assertEquals(NO_REVISION, revision("{\"name\":\"unterminated"));
+    assertEquals(NO_REVISION, revision(""));
+    assertEquals(NO_REVISION, revision("not my vbucket"));
+    assertFalse(ConfigRevisionScanner.isObject(buffer("[{\"rev\":1}]")));
+  }
+
+  @Test
+  void scansOnlyReadableBytes() {
+    ByteBuf config = buffer("{\"rev\":1}{\"rev\":2}");
+    config.readerIndex(9);
+    assertEquals(2, ConfigRevisionScanner.revision(config));
+    config.writerIndex(16);
+    assertEquals(NO_REVISION, ConfigRevisionScanner.revision(config));
+  }
+
+  private static long revision(final String config) {
+    return ConfigRevisionScanner.revision(buffer(config));
+  }
+
+  private static ByteBuf buffer(final String config) {
+    return Unpooled.copiedBuffer(config, UTF_8);
+  }
+
+}
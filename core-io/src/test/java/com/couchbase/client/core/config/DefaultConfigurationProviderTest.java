@@ -18,6 +18,8 @@ package com.couchbase.client.core.config;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.IoConfig;
@@ -27,18 +29,23 @@ import com.couchbase.client.core.env.SeedNode;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.couchbase.client.test.Util.readResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 /**
@@ -154,6 +161,53 @@ class DefaultConfigurationProviderTest {
     assertEquals(1888, provider.config().bucketConfig("default").rev());
   }
 
+  /**
+   * Raw configs carried in KV responses should only be parsed (off the calling thread) once per revision, and
+   * only if they are newer than both the current config and every other one proposed in the meantime.
+   */
+  @Test
+  void coalescesRawConfigsAndOnlyParsesNewerOnes() {
+    List<Runnable> scheduled = new ArrayList<>();
+    CoreEnvironment environment = spy(ENVIRONMENT);
+    when(environment.scheduler()).thenReturn(Schedulers.fromExecutor(scheduled::add));
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(new CoreContext(core, 1, environment, mock(Authenticator.class)));
+
+    DefaultConfigurationProvider provider = new DefaultConfigurationProvider(core, SeedNode.DEFAULT);
+
+    final AtomicInteger configsPushed = new AtomicInteger(0);
+    provider.configs().subscribe((c) -> configsPushed.incrementAndGet());
+
+    String bucket = "default";
+    ByteBuf config = Unpooled.copiedBuffer(
+      readResource("config_with_external.json", DefaultConfigurationProviderTest.class),
+      UTF_8
+    );
+    ByteBuf newConfig = Unpooled.copiedBuffer(
+      readResource("config_with_external_higher_rev.json", DefaultConfigurationProviderTest.class),
+      UTF_8
+    );
+
+    for (int i = 0; i < 3; i++) {
+      provider.proposeBucketConfig(bucket, config, ORIGIN);
+    }
+    assertEquals(1, scheduled.size());
+    assertEquals(0, config.readerIndex());
+
+    provider.proposeBucketConfig(bucket, newConfig, ORIGIN);
+    provider.proposeBucketConfig(bucket, config, ORIGIN);
+    assertEquals(2, scheduled.size());
+
+    scheduled.forEach(Runnable::run);
+    scheduled.clear();
+    assertEquals(1, configsPushed.get());
+    assertEquals(1888, provider.config().bucketConfig("default").rev());
+
+    provider.proposeBucketConfig(bucket, newConfig, ORIGIN);
+    provider.proposeBucketConfig(bucket, Unpooled.copiedBuffer("not my vbucket", UTF_8), ORIGIN);
+    assertTrue(scheduled.isEmpty());
+  }
+
   @Test
   void ignoreProposedConfigOnceShutdown() {
     Core core = mock(Core.class);
@@ -366,6 +366,50 @@ class BaseEndpointTest {
     assertTrue(endpoint.free());
   }
 
+  /**
+   * Pipelined endpoints count requests as outstanding until they complete, no matter if through a response
+   * or a timeout, but not beyond the lifetime of the channel they have been written to.
+   */
+  @Test
+  @SuppressWarnings({"unchecked"})
+  void pipelinedEndpointCountsOutstandingUntilCompletion() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    InstrumentedEndpoint endpoint = connectSuccessfully(channel, true);
+
+    Request<Response> answered = mock(Request.class);
+    CompletableFuture<Response> answeredResponse = new CompletableFuture<>();
+    when(answered.response()).thenReturn(answeredResponse);
+    when(answered.context()).thenReturn(new RequestContext(ctx, answered));
+
+    Request<Response> timedOut = mock(Request.class);
+    CompletableFuture<Response> timedOutResponse = new CompletableFuture<>();
+    when(timedOut.response()).thenReturn(timedOutResponse);
+    when(timedOut.context()).thenReturn(new RequestContext(ctx, timedOut));
+
+    endpoint.send(answered);
+    endpoint.send(timedOut);
+    assertEquals(2, endpoint.outstandingRequests());
+    assertTrue(endpoint.free());
+
+    endpoint.markRequestCompletion();
+    assertEquals(2, endpoint.outstandingRequests());
+    answeredResponse.complete(mock(Response.class));
+    assertEquals(1, endpoint.outstandingRequests());
+    timedOutResponse.completeExceptionally(new RuntimeException("timed out"));
+    assertEquals(0, endpoint.outstandingRequests());
+
+    Request<Response> orphaned = mock(Request.class);
+    CompletableFuture<Response> orphanedResponse = new CompletableFuture<>();
+    when(orphaned.response()).thenReturn(orphanedResponse);
+    when(orphaned.context()).thenReturn(new RequestContext(ctx, orphaned));
+    endpoint.send(orphaned);
+    assertEquals(1, endpoint.outstandingRequests());
+    endpoint.notifyChannelInactive();
+    assertEquals(0, endpoint.outstandingRequests());
+    orphanedResponse.complete(mock(Response.class));
+    assertEquals(0, endpoint.outstandingRequests());
+  }
+
   /**
    * Helper method to DRY up the case where we just need to connect properly.
    *
@@ -373,12 +417,17 @@ class BaseEndpointTest {
    * @return the connected endpoint.
    */
   private InstrumentedEndpoint connectSuccessfully(final Channel channel) {
+    return connectSuccessfully(channel, false);
+  }
+
+  private InstrumentedEndpoint connectSuccessfully(final Channel channel, final boolean pipelined) {
     final CompletableFuture<Channel> cf = new CompletableFuture<>();
 
     InstrumentedEndpoint endpoint = InstrumentedEndpoint.create(
       eventLoopGroup,
       ctx,
-      () -> Mono.fromFuture(cf)
+      () -> Mono.fromFuture(cf),
+      pipelined
     );
 
     endpoint.connect();
@@ -396,12 +445,17 @@ class BaseEndpointTest {
 
     static InstrumentedEndpoint create(EventLoopGroup eventLoopGroup, ServiceContext ctx,
                                        Supplier<Mono<Channel>> channelSupplier) {
-      return new InstrumentedEndpoint(LOCALHOST, PORT, eventLoopGroup, ctx, channelSupplier);
+      return create(eventLoopGroup, ctx, channelSupplier, false);
+    }
+
+    static InstrumentedEndpoint create(EventLoopGroup eventLoopGroup, ServiceContext ctx,
+                                       Supplier<Mono<Channel>> channelSupplier, boolean pipelined) {
+      return new InstrumentedEndpoint(LOCALHOST, PORT, eventLoopGroup, ctx, channelSupplier, pipelined);
     }
 
     InstrumentedEndpoint(String hostname, int port, EventLoopGroup eventLoopGroup,
-                         ServiceContext ctx, Supplier<Mono<Channel>> channelSupplier) {
-      super(hostname, port, eventLoopGroup, ctx, CircuitBreakerConfig.disabled(), ServiceType.KV, false);
+                         ServiceContext ctx, Supplier<Mono<Channel>> channelSupplier, boolean pipelined) {
+      super(hostname, port, eventLoopGroup, ctx, CircuitBreakerConfig.disabled(), ServiceType.KV, pipelined);
       this.channelSupplier = channelSupplier;
     }
 
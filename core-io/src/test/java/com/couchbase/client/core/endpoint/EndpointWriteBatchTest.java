@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.endpoint;
+
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.msg.Request;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of the {@link EndpointWriteBatch}.
+ */
+class EndpointWriteBatchTest {
+
+  @Test
+  void doesNotEnqueueWithoutOpenBatch() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    assertFalse(EndpointWriteBatch.enqueue(channel, mock(Request.class)));
+    assertTrue(channel.outboundMessages().isEmpty());
+  }
+
+  @Test
+  void writesAllRequestsWhenBatchEnds() {
+    EmbeddedChannel channel1 = new EmbeddedChannel();
+    EmbeddedChannel channel2 = new EmbeddedChannel();
+    Request<?> request1 = mock(Request.class);
+    Request<?> request2 = mock(Request.class);
+    Request<?> request3 = mock(Request.class);
+
+    EndpointWriteBatch.begin();
+    assertTrue(EndpointWriteBatch.enqueue(channel1, request1));
+    assertTrue(EndpointWriteBatch.enqueue(channel2, request2));
+    assertTrue(EndpointWriteBatch.enqueue(channel1, request3));
+    assertTrue(channel1.outboundMessages().isEmpty());
+    assertTrue(channel2.outboundMessages().isEmpty());
+    EndpointWriteBatch.end();
+
+    assertEquals(2, channel1.outboundMessages().size());
+    assertSame(request1, channel1.readOutbound());
+    assertSame(request3, channel1.readOutbound());
+    assertEquals(1, channel2.outboundMessages().size());
+    assertSame(request2, channel2.readOutbound());
+
+    assertFalse(EndpointWriteBatch.enqueue(channel1, request1));
+  }
+
+  @Test
+  void onlyOutermostEndWrites() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+
+    EndpointWriteBatch.begin();
+    EndpointWriteBatch.begin();
+    assertTrue(EndpointWriteBatch.enqueue(channel, mock(Request.class)));
+    EndpointWriteBatch.end();
+    assertTrue(channel.outboundMessages().isEmpty());
+    EndpointWriteBatch.end();
+
+    assertEquals(1, channel.outboundMessages().size());
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslContext;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandler;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.env.SecurityConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifies the functionality of the {@link SslHandlerFactory}.
+ */
+class SslHandlerFactoryTest {
+
+  @Test
+  void sharesContextPerConfigAndAuthenticator() throws Exception {
+    SecurityConfig config = secureConfig();
+    Authenticator authenticator = PasswordAuthenticator.create("user", "pass");
+
+    SslContext context = SslHandlerFactory.context(config, authenticator);
+    assertSame(context, SslHandlerFactory.context(config, authenticator));
+    assertNotSame(context, SslHandlerFactory.context(config, PasswordAuthenticator.create("user", "pass")));
+    assertNotSame(context, SslHandlerFactory.context(secureConfig(), authenticator));
+  }
+
+  @Test
+  void createsHandlersForPeer() throws Exception {
+    SecurityConfig config = secureConfig();
+    Authenticator authenticator = PasswordAuthenticator.create("user", "pass");
+
+    SslHandler handler = SslHandlerFactory.get(ByteBufAllocator.DEFAULT, config, authenticator, "127.0.0.1", 11207);
+    assertEquals("127.0.0.1", handler.engine().getPeerHost());
+    assertEquals(11207, handler.engine().getPeerPort());
+    assertNull(handler.engine().getSSLParameters().getEndpointIdentificationAlgorithm());
+  }
+
+  @Test
+  void verifiesHostnameIfEnabled() throws Exception {
+    SecurityConfig config = SecurityConfig
+      .enableTls(true)
+      .enableHostnameVerification(true)
+      .trustManagerFactory(InsecureTrustManagerFactory.INSTANCE)
+      .build();
+    Authenticator authenticator = PasswordAuthenticator.create("user", "pass");
+
+    SslHandler handler = SslHandlerFactory.get(ByteBufAllocator.DEFAULT, config, authenticator, "127.0.0.1", 11207);
+    assertEquals("HTTPS", handler.engine().getSSLParameters().getEndpointIdentificationAlgorithm());
+  }
+
+  private static SecurityConfig secureConfig() {
+    return SecurityConfig.enableTls(true).trustManagerFactory(InsecureTrustManagerFactory.INSTANCE).build();
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link InFlightRequests}.
+ */
+class InFlightRequestsTest {
+
+  @Test
+  void storesRequestsWithDispatchTime() {
+    InFlightRequests inFlight = new InFlightRequests(4);
+    KeyValueRequest<Response> first = request();
+    KeyValueRequest<Response> second = request();
+
+    inFlight.put(0, first, 10);
+    inFlight.put(1, second, 20);
+    assertEquals(2, inFlight.size());
+
+    int slot = inFlight.slotOf(1);
+    assertSame(second, inFlight.requestAt(slot));
+    assertEquals(20, inFlight.dispatchTimeAt(slot));
+
+    assertSame(first, inFlight.remove(0));
+    assertNull(inFlight.remove(0));
+    assertEquals(-1, inFlight.slotOf(0));
+    assertEquals(1, inFlight.size());
+  }
+
+  @Test
+  void matchesReferenceMapUnderRandomOperations() {
+    InFlightRequests inFlight = new InFlightRequests(2);
+    Map<Integer, KeyValueRequest<Response>> reference = new HashMap<>();
+    Random random = new Random(42);
+    List<KeyValueRequest<Response>> pool = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      pool.add(request());
+    }
+
+    for (int i = 0; i < 100_000; i++) {
+      int opaque = random.nextInt(512) - 256;
+      if (random.nextBoolean()) {
+        KeyValueRequest<Response> request = pool.get(random.nextInt(pool.size()));
+        inFlight.put(opaque, request, i);
+        reference.put(opaque, request);
+      } else {
+        assertSame(reference.remove(opaque), inFlight.remove(opaque));
+      }
+      assertEquals(reference.size(), inFlight.size());
+    }
+
+    for (Map.Entry<Integer, KeyValueRequest<Response>> entry : reference.entrySet()) {
+      assertSame(entry.getValue(), inFlight.requestAt(inFlight.slotOf(entry.getKey())));
+    }
+  }
+
+  @Test
+  void scansInDispatchOrder() {
+    InFlightRequests inFlight = new InFlightRequests(2);
+    List<KeyValueRequest<Response>> requests = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      KeyValueRequest<Response> request = request();
+      requests.add(request);
+      inFlight.put(i, request, i);
+      if (i % 3 == 0) {
+        inFlight.remove(i);
+      }
+    }
+
+    int slot = inFlight.oldestSlot();
+    assertEquals(1, inFlight.dispatchTimeAt(slot));
+
+    for (int i = 0; i < 1000; i++) {
+      if (i % 3 != 0) {
+        assertSame(requests.get(i), inFlight.pollOldest());
+      }
+    }
+    assertNull(inFlight.pollOldest());
+    assertEquals(-1, inFlight.oldestSlot());
+    assertEquals(0, inFlight.size());
+  }
+
+  @Test
+  void keepsOrderWhenMostRequestsCompleteOutOfOrder() {
+    InFlightRequests inFlight = new InFlightRequests(2);
+    KeyValueRequest<Response> longRunning = request();
+    inFlight.put(-1, longRunning, 0);
+
+    KeyValueRequest<Response> shortRunning = request();
+    for (int i = 0; i < 10_000; i++) {
+      inFlight.put(i, shortRunning, i + 1);
+      inFlight.remove(i);
+    }
+
+    assertEquals(1, inFlight.size());
+    assertSame(longRunning, inFlight.requestAt(inFlight.oldestSlot()));
+    assertEquals(0, inFlight.dispatchTimeAt(inFlight.oldestSlot()));
+  }
+
+  @Test
+  void reapsCompletedRequestsBehindPendingOnes() {
+    InFlightRequests inFlight = new InFlightRequests(2);
+    KeyValueRequest<Response> pending = request();
+    KeyValueRequest<Response> completed = request();
+    when(completed.completed()).thenReturn(true);
+
+    inFlight.put(1, pending, 10);
+    inFlight.put(2, completed, 20);
+    inFlight.put(3, completed, 30);
+    inFlight.put(4, completed, 100);
+
+    assertFalse(inFlight.mayHaveBeenReaped(1));
+    assertEquals(2, inFlight.reapCompleted(50));
+    assertEquals(2, inFlight.size());
+    assertSame(pending, inFlight.requestAt(inFlight.slotOf(1)));
+    assertSame(completed, inFlight.requestAt(inFlight.slotOf(4)));
+
+    assertTrue(inFlight.mayHaveBeenReaped(2));
+    assertTrue(inFlight.mayHaveBeenReaped(3));
+    assertFalse(inFlight.mayHaveBeenReaped(5));
+
+    assertSame(pending, inFlight.pollOldest());
+    assertSame(completed, inFlight.pollOldest());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static KeyValueRequest<Response> request() {
+    return mock(KeyValueRequest.class);
+  }
+
+}
@@ -18,6 +18,8 @@ package com.couchbase.client.core.io.netty.kv;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
@@ -42,7 +44,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -52,11 +56,16 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -263,4 +272,74 @@ class KeyValueMessageHandlerTest {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * Config change notifications pushed by the server should be proposed if they are newer than the current
+   * config, and the channel should register itself as receiving pushed configs.
+   */
+  @Test
+  void proposesPushedConfigIfNewer() throws Exception {
+    Core core = mock(Core.class);
+    CoreContext coreContext = new CoreContext(core, 1, ENV, PasswordAuthenticator.create("foo", "bar"));
+    ConfigurationProvider configurationProvider = mock(ConfigurationProvider.class);
+    when(configurationProvider.collectionMap()).thenReturn(new CollectionMap());
+    ClusterConfig clusterConfig = new ClusterConfig();
+    BucketConfig bucketConfig = mock(BucketConfig.class);
+    when(bucketConfig.name()).thenReturn(BUCKET);
+    when(bucketConfig.rev()).thenReturn(5L);
+    clusterConfig.setBucketConfig(bucketConfig);
+    when(configurationProvider.config()).thenReturn(clusterConfig);
+    when(core.configurationProvider()).thenReturn(configurationProvider);
+    EndpointContext ctx = new EndpointContext(coreContext, new HostAndPort("127.0.0.1", 1234),
+      null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.empty());
+
+    EmbeddedChannel channel = new EmbeddedChannel(false, false);
+    channel.attr(ChannelAttributes.SERVER_FEATURE_KEY).set(Arrays.asList(
+      ServerFeature.DUPLEX,
+      ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION
+    ));
+    channel.pipeline().addLast(new KeyValueMessageHandler(null, ctx, Optional.of(BUCKET)));
+    channel.register();
+
+    try {
+      verify(configurationProvider).configPushChannelActive(BUCKET);
+
+      List<String> proposed = new ArrayList<>();
+      doAnswer(invocation -> proposed.add(invocation.<ByteBuf>getArgument(1).toString(UTF_8)))
+        .when(configurationProvider).proposeBucketConfig(eq(BUCKET), any(ByteBuf.class), eq("127.0.0.1"));
+
+      ByteBuf outdated = clustermapChangeNotification(channel, 5, "{\"rev\":5}");
+      channel.writeInbound(outdated);
+      assertTrue(proposed.isEmpty());
+      assertEquals(0, outdated.refCnt());
+
+      channel.writeInbound(clustermapChangeNotification(channel, 6, "{\"rev\":6}"));
+      assertEquals(Collections.singletonList("{\"rev\":6}"), proposed);
+      assertTrue(channel.isActive());
+
+      channel.close();
+      verify(configurationProvider).configPushChannelInactive(BUCKET);
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  private static ByteBuf clustermapChangeNotification(final EmbeddedChannel channel, final int revision,
+                                                      final String config) {
+    byte[] key = BUCKET.getBytes(UTF_8);
+    byte[] body = config.getBytes(UTF_8);
+    return channel.alloc().buffer()
+      .writeByte(MemcacheProtocol.Magic.SERVER_REQUEST.magic())
+      .writeByte(MemcacheProtocol.ServerOpcode.CLUSTERMAP_CHANGE_NOTIFICATION.opcode())
+      .writeShort(key.length)
+      .writeByte(4)
+      .writeByte(0)
+      .writeShort(0)
+      .writeInt(4 + key.length + body.length)
+      .writeInt(0)
+      .writeLong(0)
+      .writeInt(revision)
+      .writeBytes(key)
+      .writeBytes(body);
+  }
+
+}
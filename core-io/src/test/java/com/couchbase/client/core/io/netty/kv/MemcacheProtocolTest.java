@@ -22,6 +22,8 @@ import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.io.DurabilityTimeoutCoercedEvent;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.env.Authenticator;
@@ -33,7 +35,10 @@ import org.junit.jupiter.api.Test;
 import java.sql.Ref;
 import java.time.Duration;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -124,5 +129,62 @@ class MemcacheProtocolTest {
     ReferenceCountUtil.release(result);
   }
 
+  @Test
+  void zeroCopyRequestDoesNotCopyLargeBody() {
+    byte[] content = new byte[MemcacheProtocol.ZERO_COPY_MIN_BODY_SIZE];
+    ByteBuf body = Unpooled.wrappedBuffer(content);
+
+    ByteBuf copied = MemcacheProtocol.request(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0, (short) 1, 2, 3,
+      Unpooled.buffer().writeInt(1), Unpooled.copiedBuffer("key", UTF_8), Unpooled.wrappedBuffer(content));
+    ByteBuf zeroCopy = MemcacheProtocol.zeroCopyRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0, (short) 1, 2,
+      3, Unpooled.buffer().writeInt(1), Unpooled.copiedBuffer("key", UTF_8), body);
+
+    assertTrue(zeroCopy instanceof CompositeByteBuf);
+    assertEquals(copied, zeroCopy);
+    assertTrue(MemcacheProtocol.verifyRequest(zeroCopy));
+    assertEquals(2, body.refCnt());
+
+    ReferenceCountUtil.release(zeroCopy);
+    assertEquals(1, body.refCnt());
+    ReferenceCountUtil.release(copied);
+  }
+
+  @Test
+  void flexibleZeroCopyRequestDoesNotCopyLargeBody() {
+    byte[] content = new byte[MemcacheProtocol.ZERO_COPY_MIN_BODY_SIZE * 2];
+
+    ByteBuf copied = MemcacheProtocol.flexibleRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0, (short) 1, 2,
+      3, syncReplicationExtras(), MemcacheProtocol.noExtras(), Unpooled.copiedBuffer("key", UTF_8),
+      Unpooled.wrappedBuffer(content));
+    ByteBuf zeroCopy = MemcacheProtocol.flexibleZeroCopyRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0,
+      (short) 1, 2, 3, syncReplicationExtras(), MemcacheProtocol.noExtras(), Unpooled.copiedBuffer("key", UTF_8),
+      Unpooled.wrappedBuffer(content));
+
+    assertTrue(zeroCopy instanceof CompositeByteBuf);
+    assertEquals(copied, zeroCopy);
+    assertTrue(MemcacheProtocol.verifyRequest(zeroCopy));
+
+    ReferenceCountUtil.release(zeroCopy);
+    ReferenceCountUtil.release(copied);
+  }
+
+  @Test
+  void zeroCopyRequestCopiesSmallBody() {
+    ByteBuf body = Unpooled.copiedBuffer("body", UTF_8);
+
+    ByteBuf request = MemcacheProtocol.zeroCopyRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0, (short) 1, 2,
+      3, MemcacheProtocol.noExtras(), Unpooled.copiedBuffer("key", UTF_8), body);
+
+    assertFalse(request instanceof CompositeByteBuf);
+    assertEquals(1, body.refCnt());
+    assertEquals(Unpooled.copiedBuffer("body", UTF_8), MemcacheProtocol.body(request).get());
+
+    ReferenceCountUtil.release(request);
+    ReferenceCountUtil.release(body);
+  }
+
+  private ByteBuf syncReplicationExtras() {
+    return MemcacheProtocol.flexibleSyncReplication(ALLOC, DurabilityLevel.MAJORITY, Duration.ofSeconds(3), context);
+  }
 
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
+import com.couchbase.client.core.env.CompressionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link SnappyCodec}.
+ */
+class SnappyCodecTest {
+
+  private static final ByteBufAllocator ALLOC = PooledByteBufAllocator.DEFAULT;
+  private static final CompressionConfig CONFIG = CompressionConfig.create();
+
+  @Test
+  void compressesAndDecompressesHeapInput() {
+    byte[] input = compressible(64 * 1024);
+
+    ByteBuf compressed = SnappyCodec.tryCompress(ALLOC, input, CONFIG);
+    assertNotNull(compressed);
+    assertTrue(compressed.readableBytes() < input.length);
+    assertArrayEquals(input, Snappy.uncompress(ByteBufUtil.getBytes(compressed), 0, compressed.readableBytes()));
+
+    ByteBuf decompressed = SnappyCodec.decompress(ALLOC, compressed);
+    assertArrayEquals(input, ByteBufUtil.getBytes(decompressed));
+    assertArrayEquals(input, SnappyCodec.decompressToArray(compressed));
+
+    compressed.release();
+    decompressed.release();
+  }
+
+  @Test
+  void compressesAndDecompressesDirectInput() {
+    byte[] input = compressible(64 * 1024);
+    ByteBuf direct = ALLOC.directBuffer().writeBytes(input);
+
+    ByteBuf compressed = SnappyCodec.tryCompress(ALLOC, direct, CONFIG);
+    assertNotNull(compressed);
+    assertEquals(input.length, direct.readableBytes());
+
+    ByteBuf directCompressed = ALLOC.directBuffer().writeBytes(compressed);
+    ByteBuf decompressed = SnappyCodec.decompress(ALLOC, directCompressed);
+    assertArrayEquals(input, ByteBufUtil.getBytes(decompressed));
+    assertArrayEquals(input, SnappyCodec.decompressToArray(directCompressed));
+
+    direct.release();
+    compressed.release();
+    directCompressed.release();
+    decompressed.release();
+  }
+
+  @Test
+  void doesNotCompressIncompressibleInput() {
+    byte[] input = new byte[64 * 1024];
+    new Random(1).nextBytes(input);
+
+    assertNull(SnappyCodec.tryCompress(ALLOC, input, CONFIG));
+    assertNull(SnappyCodec.tryCompress(ALLOC, input, CompressionConfig.sampleSize(0).build()));
+  }
+
+  @Test
+  void skipsCompressionIfSampleIsIncompressible() {
+    CompressionConfig config = CompressionConfig.create();
+    byte[] input = compressible(64 * 1024);
+    byte[] randomPrefix = new byte[config.sampleSize()];
+    new Random(1).nextBytes(randomPrefix);
+    System.arraycopy(randomPrefix, 0, input, 0, randomPrefix.length);
+
+    assertNull(SnappyCodec.tryCompress(ALLOC, input, config));
+
+    ByteBuf compressed = SnappyCodec.tryCompress(ALLOC, input, CompressionConfig.sampleSize(0).build());
+    assertNotNull(compressed);
+    compressed.release();
+  }
+
+  private static byte[] compressible(final int size) {
+    byte[] input = new byte[size];
+    byte[] pattern = "{\"name\":\"couchbase\",\"type\":\"document\"}".getBytes(UTF_8);
+    for (int i = 0; i < size; i++) {
+      input[i] = pattern[i % pattern.length];
+    }
+    return input;
+  }
+
+}
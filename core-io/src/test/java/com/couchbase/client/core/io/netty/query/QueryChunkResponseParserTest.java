@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.io.netty.query;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.msg.query.QueryChunkRow;
+import com.couchbase.client.core.msg.query.QueryRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the handling of retained rows in the {@link QueryChunkResponseParser}.
+ */
+class QueryChunkResponseParserTest {
+
+  private EmbeddedChannel channel;
+  private QueryChunkResponseParser parser;
+
+  @BeforeEach
+  void beforeEach() {
+    channel = new EmbeddedChannel();
+    parser = new QueryChunkResponseParser();
+    parser.initialize(channel.config());
+    QueryRequest request = new QueryRequest(Duration.ofSeconds(1), mock(CoreContext.class),
+      BestEffortRetryStrategy.INSTANCE, null, "select 1=1", new byte[0], true, null, true);
+    parser.updateRequestContext(request.context());
+  }
+
+  @AfterEach
+  void afterEach() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void releasesQueuedRowsOnCancellation() {
+    List<String> received = new ArrayList<>();
+    BaseSubscriber<QueryChunkRow> subscriber = new BaseSubscriber<QueryChunkRow>() {
+      @Override
+      protected void hookOnSubscribe(Subscription subscription) {
+        request(1);
+      }
+
+      @Override
+      protected void hookOnNext(QueryChunkRow row) {
+        received.add(new String(row.data(), UTF_8));
+      }
+    };
+    parser.rows().subscribe(subscriber);
+
+    ByteBuf input = Unpooled.copiedBuffer("{\"results\":[{\"foo\":1},{\"bar\":1},{\"baz\":1}", UTF_8);
+    parser.feed(input);
+    subscriber.dispose();
+
+    assertEquals(Collections.singletonList("{\"foo\":1}"), received);
+
+    parser.cleanup();
+    assertEquals(0, input.refCnt());
+  }
+
+}
@@ -2,6 +2,7 @@ package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
 import org.junit.jupiter.api.Test;
 
@@ -218,6 +219,7 @@ class JsonStreamParserTest {
       private final String jsonPointer;
       private final List<String> expected;
       private final List<String> actual = new ArrayList<>();
+      private final List<ByteBuf> retained = new ArrayList<>();
 
       public ListenerCheck(String jsonPointer, List<String> expected) {
         this.jsonPointer = jsonPointer;
@@ -228,8 +230,16 @@ class JsonStreamParserTest {
         actual.add(value);
       }
 
+      void addRetained(ByteBuf value) {
+        retained.add(value);
+      }
+
       void checkResult() {
         assertEquals(expected, actual, jsonPointer);
+        // retained slices must still be readable after the parser released its window
+        assertEquals(expected, retained.stream().map(b -> b.toString(UTF_8)).collect(toList()), jsonPointer);
+        retained.forEach(ByteBuf::release);
+        retained.clear();
       }
     }
 
@@ -247,7 +257,10 @@ class JsonStreamParserTest {
         .collect(toList());
 
       ResultChecker.ListenerCheck check = new ResultChecker.ListenerCheck(jsonPointer, expected);
-      builder.doOnValue(jsonPointer, value -> check.addActual(new String(value.readBytes(), UTF_8)));
+      builder.doOnValue(jsonPointer, value -> {
+        check.addActual(new String(value.readBytes(), UTF_8));
+        check.addRetained(value.readRetainedSlice());
+      });
       checks.add(check);
       return this;
     }
@@ -265,10 +278,16 @@ class JsonStreamParserTest {
     }
 
     void checkWithChunkSizeAndStreamWindow(final int chunkSize) throws IOException {
+      checkWithChunkSizeAndStreamWindow(chunkSize, new CopyingStreamWindow(UnpooledByteBufAllocator.DEFAULT));
+      checkWithChunkSizeAndStreamWindow(chunkSize, new CompositeStreamWindow(UnpooledByteBufAllocator.DEFAULT));
+    }
+
+    void checkWithChunkSizeAndStreamWindow(final int chunkSize, final StreamWindow window) throws IOException {
       //System.out.println("testing with chunk size " + chunkSize);
       checks.forEach(c -> c.actual.clear()); // reset
 
-      try (JsonStreamParser parser = builder.build()) {
+      List<ByteBuf> chunks = new ArrayList<>();
+      try (JsonStreamParser parser = builder.build(Unpooled.buffer(), window)) {
         ByteBuf buf = Unpooled.wrappedBuffer(json);
 
         parser.feed(Unpooled.buffer()); // make sure empty chunk doesn't break anything
@@ -279,12 +298,14 @@ class JsonStreamParserTest {
           chunk.writeBytes(buf, min(chunkSize, buf.readableBytes()));
 //          System.out.println("feeding (offset " + offset + ") : `" + chunk.toString(UTF_8) + "`");
           offset += chunkSize;
+          chunks.add(chunk);
           parser.feed(chunk);
         }
         parser.endOfInput();
       }
 
       checks.forEach(ResultChecker.ListenerCheck::checkResult);
+      chunks.forEach(chunk -> assertEquals(0, chunk.refCnt(), "stream window leaked " + window.getClass()));
     }
   }
 }
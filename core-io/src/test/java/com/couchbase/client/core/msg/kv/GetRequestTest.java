@@ -20,6 +20,8 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
@@ -78,4 +80,55 @@ class GetRequestTest {
     assertEquals(0, decoded.flags());
   }
 
+  @Test
+  void decodeSuccessfulResponseWithRetainedContent() {
+    ByteBuf response = decodeHexDump(readResource(
+      "get_response_success.txt",
+      GetRequestTest.class
+    ));
+
+    GetRequest request = new GetRequest(null, TIMEOUT, CTX, null, RETRY, null, true);
+    GetResponse decoded = request.decode(response, null);
+    response.release();
+
+    byte[] expected = ("{\"callsign\":\"AIRCALIN\",\"country\":\"France\","
+      + "\"iata\":\"SB\",\"icao\":\"ACI\",\"id\":139,"
+      + "\"name\":\"Air Caledonie International\",\"type\":\"airline\"}"
+    ).getBytes(UTF_8);
+
+    assertEquals(ResponseStatus.SUCCESS, decoded.status());
+    assertEquals(1, decoded.contentBuffer().refCnt());
+    assertArrayEquals(expected, ByteBufUtil.getBytes(decoded.contentBuffer()));
+    assertArrayEquals(expected, decoded.content());
+    assertEquals("2000000", Integer.toHexString(decoded.flags()));
+
+    decoded.contentBuffer().release();
+    assertEquals(0, response.refCnt());
+  }
+
+  @Test
+  void copiesRetainedContentOutOfLargerBuffer() {
+    ByteBuf response = decodeHexDump(readResource(
+      "get_response_success.txt",
+      GetRequestTest.class
+    ));
+    ByteBuf read = Unpooled.buffer(64 * 1024).writeBytes(response, response.readerIndex(), response.readableBytes());
+    ByteBuf frame = read.retainedSlice(0, response.readableBytes());
+    read.release();
+
+    GetRequest request = new GetRequest(null, TIMEOUT, CTX, null, RETRY, null, true);
+    GetResponse decoded = request.decode(frame, null);
+    frame.release();
+
+    byte[] expected = ("{\"callsign\":\"AIRCALIN\",\"country\":\"France\","
+      + "\"iata\":\"SB\",\"icao\":\"ACI\",\"id\":139,"
+      + "\"name\":\"Air Caledonie International\",\"type\":\"airline\"}"
+    ).getBytes(UTF_8);
+
+    assertEquals(0, read.refCnt());
+    assertArrayEquals(expected, ByteBufUtil.getBytes(decoded.contentBuffer()));
+    decoded.contentBuffer().release();
+    response.release();
+  }
+
 }
@@ -25,6 +25,7 @@ import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -190,4 +191,97 @@ class KeyValueLocatorTest {
     verify(node2Mock, never()).send(getRequest);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void rebuildsRoutingOnConfigChangeAndRoutesReplicas() {
+    Locator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    // Partition 656 is active on node 0 and replicated to node 1
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.numberOfReplicas()).thenReturn(1);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(bucketMock.nodeIndexForMaster(656, false)).thenReturn((short) 0);
+    when(bucketMock.nodeIndexForReplica(656, 0, false)).thenReturn((short) 1);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    RequestContext requestCtx = mock(RequestContext.class);
+    when(getRequest.context()).thenReturn(requestCtx);
+
+    ReplicaGetRequest replicaRequest = mock(ReplicaGetRequest.class);
+    when(replicaRequest.bucket()).thenReturn("bucket");
+    when(replicaRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(replicaRequest.replica()).thenReturn((short) 1);
+    when(replicaRequest.context()).thenReturn(requestCtx);
+
+    locator.dispatch(getRequest, nodes, configMock, null);
+    locator.dispatch(replicaRequest, nodes, configMock, null);
+    verify(node1Mock, times(1)).send(getRequest);
+    verify(node2Mock, times(1)).send(replicaRequest);
+
+    // A new config moves the active partition to node 1
+    CouchbaseBucketConfig newBucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(newBucketMock);
+    when(newBucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(newBucketMock.numberOfPartitions()).thenReturn(1024);
+    when(newBucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(newBucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(newBucketMock.nodeIndexForMaster(656, false)).thenReturn((short) 1);
+
+    locator.dispatch(getRequest, nodes, configMock, null);
+    verify(node1Mock, times(1)).send(getRequest);
+    verify(node2Mock, times(1)).send(getRequest);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void rebuildsRoutingWhenNodeIsSwapped() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    Node oldNodeMock = mock(Node.class);
+    when(oldNodeMock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(bucketMock.nodes()).thenReturn(Collections.singletonList(nodeInfo1));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeIndexForMaster(656, false)).thenReturn((short) 0);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(getRequest.context()).thenReturn(mock(RequestContext.class));
+
+    locator.dispatch(getRequest, Collections.singletonList(oldNodeMock), configMock, null);
+    verify(oldNodeMock, times(1)).send(getRequest);
+
+    // The node is replaced by a new instance for the same address while the config stays the same
+    Node newNodeMock = mock(Node.class);
+    when(newNodeMock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    locator.nodesChanged();
+    locator.dispatch(getRequest, Collections.singletonList(newNodeMock), configMock, null);
+    verify(oldNodeMock, times(1)).send(getRequest);
+    verify(newNodeMock, times(1)).send(getRequest);
+  }
+
 }
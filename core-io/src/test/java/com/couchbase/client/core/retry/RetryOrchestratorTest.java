@@ -20,13 +20,17 @@ import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.Timer;
 import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.request.RequestNotRetriedEvent;
 import com.couchbase.client.core.cnc.events.request.RequestRetryScheduledEvent;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.IoConfig;
+import com.couchbase.client.core.env.NotMyVbucketRetry;
 import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.kv.GetRequest;
 import com.couchbase.client.util.SimpleEventBus;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -139,6 +143,59 @@ class RetryOrchestratorTest {
     assertEquals(RetryReason.UNKNOWN, retryEvent.retryReason());
   }
 
+  @Test
+  @SuppressWarnings({"unchecked"})
+  void skipsEventIfSeverityDisabled() {
+    Timer timer = Timer.createAndStart();
+
+    RetryStrategy retryStrategy = mock(RetryStrategy.class);
+    when(retryStrategy.shouldRetry(any(Request.class), any(RetryReason.class))).thenReturn(
+      CompletableFuture.completedFuture(RetryAction.withDuration(Duration.ofMillis(10)))
+    );
+    Request<?> request = mock(Request.class);
+    RequestContext requestContext = mock(RequestContext.class);
+    when(request.completed()).thenReturn(false);
+    when(request.context()).thenReturn(requestContext);
+    when(request.retryStrategy()).thenReturn(retryStrategy);
+    when(request.absoluteTimeout()).thenReturn(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2500));
+
+    Core core = mock(Core.class);
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    EventBus eventBus = mock(EventBus.class);
+    when(eventBus.isEnabled(any(Event.Severity.class))).thenReturn(false);
+    when(env.timer()).thenReturn(timer);
+    when(env.eventBus()).thenReturn(eventBus);
+
+    CoreContext ctx = new CoreContext(core, 1, env, mock(Authenticator.class));
+    RetryOrchestrator.maybeRetry(ctx, request, RetryReason.UNKNOWN);
+
+    waitUntilCondition(() -> !Mockito.mockingDetails(core).getInvocations().isEmpty());
+    verify(core, times(1)).send(request, false);
+    verify(eventBus, never()).publish(any(Event.class));
+    timer.stop();
+  }
+
+  @Test
+  void parksNotMyVbucketUntilNewerConfigIfConfigured() {
+    GetRequest request = mock(GetRequest.class);
+    RequestContext requestContext = mock(RequestContext.class);
+    when(request.completed()).thenReturn(false);
+    when(request.context()).thenReturn(requestContext);
+    when(request.bucket()).thenReturn("bucket");
+
+    Core core = mock(Core.class);
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(env.eventBus()).thenReturn(new SimpleEventBus(true));
+    when(env.ioConfig()).thenReturn(IoConfig.notMyVbucketRetry(NotMyVbucketRetry.AWAIT_CONFIG).build());
+
+    CoreContext ctx = new CoreContext(core, 1, env, mock(Authenticator.class));
+    RetryOrchestrator.maybeRetry(ctx, request, RetryReason.KV_NOT_MY_VBUCKET);
+
+    verify(core, times(1)).sendOnNewerConfig(request, "bucket", Duration.ofMillis(100));
+    verify(core, never()).send(request, false);
+    verify(requestContext, times(1)).incrementRetryAttempts(Duration.ofMillis(100), RetryReason.KV_NOT_MY_VBUCKET);
+  }
+
   @Test
   @SuppressWarnings({"unchecked"})
   void capsRetryDelay() {
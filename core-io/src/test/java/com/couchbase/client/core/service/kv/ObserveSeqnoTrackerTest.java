@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.MutationToken;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
+import com.couchbase.client.core.msg.kv.ObserveViaSeqnoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link ObserveSeqnoTracker}.
+ */
+class ObserveSeqnoTrackerTest {
+
+  private static final long UUID = 1234;
+
+  private final List<ObserveViaSeqnoRequest> sent = new ArrayList<>();
+  private ValueRecorder recorder;
+  private CoreContext coreContext;
+
+  @BeforeEach
+  void setup() {
+    sent.clear();
+    Core core = mock(Core.class);
+    doAnswer(i -> sent.add(i.getArgument(0))).when(core).send(any(ObserveViaSeqnoRequest.class));
+
+    recorder = mock(ValueRecorder.class);
+    Meter meter = mock(Meter.class);
+    when(meter.valueRecorder(eq(Meter.METRIC_OBSERVE_FANOUT), anyMap())).thenReturn(recorder);
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(env.meter()).thenReturn(meter);
+
+    coreContext = mock(CoreContext.class);
+    when(coreContext.core()).thenReturn(core);
+    when(coreContext.environment()).thenReturn(env);
+  }
+
+  @Test
+  void sharesPollInFlightAcrossKeys() {
+    ObserveSeqnoTracker tracker = new ObserveSeqnoTracker();
+
+    Mono<ObserveViaSeqnoResponse> first = tracker.observe(context("a"), 0, true, token(UUID, 5));
+    Mono<ObserveViaSeqnoResponse> second = tracker.observe(context("b"), 0, true, token(UUID, 7));
+    assertEquals(0, sent.size());
+
+    List<ObserveViaSeqnoResponse> received = new ArrayList<>();
+    first.subscribe(received::add);
+    second.subscribe(received::add);
+    assertEquals(1, sent.size());
+
+    ObserveViaSeqnoResponse response = response(UUID, 10, 10);
+    sent.get(0).succeed(response);
+    assertEquals(2, received.size());
+    assertSame(response, received.get(0));
+    assertSame(response, received.get(1));
+  }
+
+  @Test
+  void answersCoveredWaitsFromLastPoll() {
+    ObserveSeqnoTracker tracker = new ObserveSeqnoTracker();
+
+    tracker.observe(context("a"), 1, false, token(UUID, 5)).subscribe();
+    sent.get(0).succeed(response(UUID, 8, 10));
+    verify(recorder).recordValue(1);
+
+    ObserveViaSeqnoResponse cached = tracker.observe(context("b"), 1, false, token(UUID, 8)).block();
+    assertEquals(8, cached.lastPersistedSeqNo());
+    assertEquals(1, sent.size());
+
+    tracker.observe(context("c"), 1, false, token(UUID, 9)).subscribe();
+    assertEquals(2, sent.size());
+
+    sent.get(1).succeed(response(UUID, 6, 12));
+    verify(recorder).recordValue(2);
+    ObserveViaSeqnoResponse merged = tracker.observe(context("d"), 1, false, token(UUID, 8)).block();
+    assertEquals(8, merged.lastPersistedSeqNo());
+    assertEquals(12, merged.currentSeqNo());
+    assertEquals(2, sent.size());
+    assertEquals(1, tracker.size());
+  }
+
+  @Test
+  void forgetsStateOnNewPartitionUuid() {
+    ObserveSeqnoTracker tracker = new ObserveSeqnoTracker();
+
+    tracker.observe(context("a"), 0, true, token(UUID, 5)).subscribe();
+    sent.get(0).succeed(response(UUID, 10, 10));
+
+    tracker.observe(context("a"), 0, true, token(UUID + 1, 5)).subscribe();
+    assertEquals(2, sent.size());
+  }
+
+  @Test
+  void forgetsStateOnNewBucketConfig() {
+    ObserveSeqnoTracker tracker = new ObserveSeqnoTracker();
+    applyConfig(1);
+
+    tracker.observe(context("a"), 1, false, token(UUID, 5)).subscribe();
+    tracker.observe(context("b"), 1, false, token(UUID, 5)).subscribe();
+    sent.get(0).succeed(response(UUID, 10, 10));
+    verify(recorder).recordValue(2);
+
+    tracker.observe(context("c"), 1, false, token(UUID, 5)).subscribe();
+    assertEquals(1, sent.size());
+
+    // the replica may live on another node now, so neither the cached state nor the poll in flight is used
+    applyConfig(2);
+    tracker.observe(context("d"), 1, false, token(UUID, 5)).subscribe();
+    verify(recorder).recordValue(1);
+    assertEquals(2, sent.size());
+    tracker.observe(context("e"), 1, false, token(UUID, 5)).subscribe();
+    assertEquals(2, sent.size());
+  }
+
+  private void applyConfig(final long revision) {
+    BucketConfig bucketConfig = mock(BucketConfig.class);
+    when(bucketConfig.name()).thenReturn("bucket");
+    when(bucketConfig.rev()).thenReturn(revision);
+    ClusterConfig clusterConfig = new ClusterConfig();
+    clusterConfig.setBucketConfig(bucketConfig);
+    when(coreContext.core().clusterConfig()).thenReturn(clusterConfig);
+  }
+
+  private ObserveContext context(final String key) {
+    return new ObserveContext(coreContext, Observe.ObservePersistTo.ONE, Observe.ObserveReplicateTo.NONE,
+      Optional.empty(), 0, new CollectionIdentifier("bucket", Optional.empty(), Optional.empty()), key,
+      false, Duration.ofSeconds(1));
+  }
+
+  private static MutationToken token(final long uuid, final long seqno) {
+    return new MutationToken((short) 42, uuid, seqno, "bucket");
+  }
+
+  private static ObserveViaSeqnoResponse response(final long uuid, final long persisted, final long current) {
+    return new ObserveViaSeqnoResponse(ResponseStatus.SUCCESS, true, (short) 42, uuid, persisted, current,
+      Optional.empty(), Optional.empty());
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.Request;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link AdaptiveSelectionStrategy}.
+ */
+class AdaptiveSelectionStrategyTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void selectsOnlyConnectedAndFreeEndpoints() {
+    AdaptiveSelectionStrategy strategy = new AdaptiveSelectionStrategy();
+    Request request = mock(Request.class);
+
+    Endpoint connecting = endpoint(EndpointState.CONNECTING, true);
+    Endpoint busy = endpoint(EndpointState.CONNECTED, false);
+    Endpoint ready = endpoint(EndpointState.CONNECTED, true);
+
+    assertNull(strategy.select(request, Collections.emptyList()));
+    assertNull(strategy.select(request, Arrays.asList(connecting, busy)));
+    for (int i = 0; i < 100; i++) {
+      assertSame(ready, strategy.select(request, Arrays.asList(connecting, busy, ready)));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void prefersEndpointWithLowerLatency() {
+    AdaptiveSelectionStrategy strategy = new AdaptiveSelectionStrategy();
+    Request request = mock(Request.class);
+
+    Endpoint slow = endpoint(EndpointState.CONNECTED, true);
+    Endpoint fast = endpoint(EndpointState.CONNECTED, true);
+
+    assertSame(slow, strategy.select(request, Collections.singletonList(slow)));
+    when(slow.lastResponseReceived()).thenReturn(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500));
+    assertSame(fast, strategy.select(request, Collections.singletonList(fast)));
+    when(fast.lastResponseReceived()).thenReturn(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1));
+
+    List<Endpoint> endpoints = Arrays.asList(slow, fast);
+    for (int i = 0; i < 100; i++) {
+      assertSame(fast, strategy.select(request, endpoints));
+    }
+  }
+
+  @Test
+  void tracksUtilizationOfFreeEndpoints() {
+    AdaptiveSelectionStrategy.EndpointStats stats = new AdaptiveSelectionStrategy.EndpointStats();
+    long interval = AdaptiveSelectionStrategy.DECAY_INTERVAL.toNanos();
+    assertEquals(0, stats.utilization(1000), 0.0001);
+
+    // busy for 900 of the 1000 nanoseconds between the two selections
+    stats.selected(0, 1000);
+    stats.selected(1900, 2000);
+    assertEquals(0.9 * AdaptiveSelectionStrategy.ALPHA, stats.utilization(2000), 0.0001);
+    assertEquals(0.9 * AdaptiveSelectionStrategy.ALPHA / 2, stats.utilization(2000 + interval), 0.0001);
+
+    // the same latency with an idle endpoint leads to a lower utilization
+    AdaptiveSelectionStrategy.EndpointStats idle = new AdaptiveSelectionStrategy.EndpointStats();
+    idle.selected(0, 1000);
+    idle.selected(1900, 10000);
+    assertTrue(idle.utilization(10000) < stats.utilization(2000));
+    assertEquals(stats.latency(1900, 2000), idle.latency(1900, 10000));
+  }
+
+  private static Endpoint endpoint(final EndpointState state, final boolean free) {
+    Endpoint endpoint = mock(Endpoint.class);
+    when(endpoint.state()).thenReturn(state);
+    when(endpoint.free()).thenReturn(free);
+    return endpoint;
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link LoadAwarePartitionSelectionStrategy}.
+ */
+class LoadAwarePartitionSelectionStrategyTest {
+
+  private final EndpointSelectionStrategy strategy = new LoadAwarePartitionSelectionStrategy();
+
+  @Test
+  void pinsNonIdempotentRequestsToPartition() {
+    Endpoint endpoint1 = endpoint(EndpointState.CONNECTED, 100, 0);
+    Endpoint endpoint2 = endpoint(EndpointState.CONNECTED, 0, 0);
+    Endpoint endpoint3 = endpoint(EndpointState.CONNECTED, 0, 0);
+    List<Endpoint> endpoints = Arrays.asList(endpoint1, endpoint2, endpoint3);
+
+    UpsertRequest request = mock(UpsertRequest.class);
+    when(request.partition()).thenReturn((short) 12);
+
+    for (int i = 0; i < 100; i++) {
+      assertSame(endpoint1, strategy.select(request, endpoints));
+    }
+  }
+
+  @Test
+  void spreadsIdempotentRequestsByLoad() {
+    Endpoint endpoint1 = endpoint(EndpointState.CONNECTED, 100, 0);
+    Endpoint endpoint2 = endpoint(EndpointState.CONNECTED, 5, 4096);
+    Endpoint endpoint3 = endpoint(EndpointState.CONNECTED, 5, 128);
+    List<Endpoint> endpoints = Arrays.asList(endpoint1, endpoint2, endpoint3);
+
+    GetRequest request = mock(GetRequest.class);
+    when(request.partition()).thenReturn((short) 12);
+    when(request.idempotent()).thenReturn(true);
+
+    assertSame(endpoint3, strategy.select(request, endpoints));
+
+    when(endpoint1.outstandingRequests()).thenReturn(5);
+    when(endpoint1.pendingWriteBytes()).thenReturn(128L);
+    assertSame(endpoint1, strategy.select(request, endpoints));
+  }
+
+  @Test
+  void fallsBackToSiblingIfPinnedIsNotConnected() {
+    Endpoint endpoint1 = endpoint(EndpointState.DISCONNECTED, 0, 0);
+    Endpoint endpoint2 = endpoint(EndpointState.CONNECTED, 3, 0);
+    Endpoint endpoint3 = endpoint(EndpointState.CONNECTED, 1, 0);
+    List<Endpoint> endpoints = Arrays.asList(endpoint1, endpoint2, endpoint3);
+
+    UpsertRequest request = mock(UpsertRequest.class);
+    when(request.partition()).thenReturn((short) 12);
+
+    assertSame(endpoint3, strategy.select(request, endpoints));
+  }
+
+  @Test
+  void returnsNullIfNoEndpointIsConnected() {
+    GetRequest request = mock(GetRequest.class);
+    when(request.partition()).thenReturn((short) 12);
+
+    assertNull(strategy.select(request, Collections.emptyList()));
+    assertNull(strategy.select(request, Collections.singletonList(endpoint(EndpointState.CONNECTING, 0, 0))));
+    assertNull(strategy.select(request, Arrays.asList(
+      endpoint(EndpointState.DISCONNECTED, 0, 0),
+      endpoint(EndpointState.CONNECTING, 0, 0)
+    )));
+  }
+
+  private static Endpoint endpoint(final EndpointState state, final int outstanding, final long pendingBytes) {
+    Endpoint endpoint = mock(Endpoint.class);
+    when(endpoint.state()).thenReturn(state);
+    when(endpoint.free()).thenReturn(true);
+    when(endpoint.outstandingRequests()).thenReturn(outstanding);
+    when(endpoint.pendingWriteBytes()).thenReturn(pendingBytes);
+    return endpoint;
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies the functionality of the {@link LatencyWindow}.
+ */
+class LatencyWindowTest {
+
+  @Test
+  void reportsNothingWithoutEnoughSamples() {
+    LatencyWindow window = new LatencyWindow(64);
+    for (int i = 1; i < LatencyWindow.MIN_SAMPLES; i++) {
+      window.record(i);
+    }
+    assertFalse(window.percentile(50).isPresent());
+  }
+
+  @Test
+  void estimatesPercentiles() {
+    LatencyWindow window = new LatencyWindow(100);
+    for (int i = 100; i >= 1; i--) {
+      window.record(Duration.ofMillis(i).toNanos());
+    }
+
+    assertEquals(Optional.of(Duration.ofMillis(50)), window.percentile(50));
+    assertEquals(Optional.of(Duration.ofMillis(95)), window.percentile(95));
+    assertEquals(Optional.of(Duration.ofMillis(100)), window.percentile(100));
+  }
+
+  @Test
+  void keepsCapacityWhenFull() {
+    LatencyWindow window = new LatencyWindow(LatencyWindow.MIN_SAMPLES);
+    for (int i = 0; i < 1000; i++) {
+      window.record(7);
+    }
+    assertEquals(Optional.of(Duration.ofNanos(7)), window.percentile(99.9));
+  }
+
+  @Test
+  void rejectsInvalidPercentiles() {
+    LatencyWindow window = new LatencyWindow(LatencyWindow.MIN_SAMPLES);
+    assertThrows(IllegalArgumentException.class, () -> window.percentile(0));
+    assertThrows(IllegalArgumentException.class, () -> window.percentile(101));
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifies the ownership handling of the {@link RetainedBuffer}.
+ */
+class RetainedBufferTest {
+
+  @Test
+  void handsOutBufferOnlyOnce() {
+    ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer().writeLong(1);
+    RetainedBuffer retained = new RetainedBuffer(buffer);
+
+    assertSame(buffer, retained.take());
+    assertNull(retained.take());
+    assertFalse(retained.available());
+    assertEquals(8, retained.length());
+    retained.release();
+    assertEquals(1, buffer.refCnt());
+    buffer.release();
+  }
+
+  @Test
+  void releasesBufferOnlyOnce() {
+    ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer().writeLong(1);
+    RetainedBuffer retained = new RetainedBuffer(buffer);
+
+    retained.release();
+    assertEquals(0, buffer.refCnt());
+    retained.release();
+    assertNull(retained.take());
+  }
+
+}
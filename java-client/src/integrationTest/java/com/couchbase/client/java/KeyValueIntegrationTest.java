@@ -19,6 +19,7 @@ package com.couchbase.client.java;
 import com.couchbase.client.core.error.CasMismatchException;
 import com.couchbase.client.core.error.DocumentExistsException;
 import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.error.TimeoutException;
 import com.couchbase.client.core.error.ValueTooLargeException;
 import com.couchbase.client.core.retry.RetryReason;
@@ -95,6 +96,18 @@ class KeyValueIntegrationTest extends JavaIntegrationTest {
     assertFalse(getResult.expiry().isPresent());
   }
 
+  @Test
+  void getWithRetainedContent() {
+    String id = UUID.randomUUID().toString();
+    JsonObject content = JsonObject.create().put("foo", "bar");
+    collection.upsert(id, content);
+
+    GetResult getResult = collection.get(id, getOptions().retainContent(true));
+    assertTrue(getResult.cas() != 0);
+    assertEquals(content, getResult.contentAsObject());
+    assertThrows(IllegalStateException.class, getResult::contentAsObject);
+  }
+
   /**
    * Mock does not support Get Meta, so we need to ignore it there.
    */
@@ -658,4 +671,45 @@ class KeyValueIntegrationTest extends JavaIntegrationTest {
     assertThrows(ValueTooLargeException.class, () -> collection.upsert(id, content));
   }
 
+  @Test
+  void upsertGetAndRemoveMulti() {
+    Map<String, JsonObject> documents = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      documents.put(UUID.randomUUID().toString(), JsonObject.create().put("index", i));
+    }
+
+    MultiResult<MutationResult> upserted = collection.upsertMulti(documents);
+    assertTrue(upserted.allSucceeded());
+    assertEquals(documents.size(), upserted.size());
+
+    List<String> ids = new ArrayList<>(documents.keySet());
+    String missingId = UUID.randomUUID().toString();
+    ids.add(missingId);
+
+    MultiResult<GetResult> fetched = collection.getMulti(ids);
+    assertEquals(ids.size(), fetched.size());
+    assertEquals(documents.size(), fetched.successes().size());
+    for (Map.Entry<String, JsonObject> document : documents.entrySet()) {
+      GetResult result = fetched.get(document.getKey());
+      assertEquals(upserted.get(document.getKey()).cas(), result.cas());
+      assertEquals(document.getValue(), result.contentAsObject());
+    }
+    assertTrue(fetched.failures().get(missingId) instanceof DocumentNotFoundException);
+    assertThrows(DocumentNotFoundException.class, () -> fetched.get(missingId));
+
+    MultiResult<MutationResult> removed = collection.removeMulti(documents.keySet());
+    assertTrue(removed.allSucceeded());
+    assertTrue(collection.getMulti(documents.keySet()).successes().isEmpty());
+  }
+
+  @Test
+  void reportsInvalidIdsPerDocumentInMulti() {
+    String id = UUID.randomUUID().toString();
+    collection.upsert(id, "Hello, World");
+
+    MultiResult<GetResult> fetched = collection.getMulti(Arrays.asList(id, ""));
+    assertEquals("Hello, World", fetched.get(id).contentAs(String.class));
+    assertTrue(fetched.failures().get("") instanceof InvalidArgumentException);
+  }
+
 }
@@ -21,6 +21,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.error.ReducedKeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.kv.AppendRequest;
 import com.couchbase.client.core.msg.kv.DecrementRequest;
 import com.couchbase.client.core.msg.kv.IncrementRequest;
@@ -33,6 +34,7 @@ import com.couchbase.client.java.kv.CounterResult;
 import com.couchbase.client.java.kv.DecrementOptions;
 import com.couchbase.client.java.kv.IncrementOptions;
 import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.NearCache;
 import com.couchbase.client.java.kv.PrependAccessor;
 import com.couchbase.client.java.kv.PrependOptions;
 
@@ -53,12 +55,15 @@ public class AsyncBinaryCollection {
   private final CoreContext coreContext;
   private final CoreEnvironment environment;
   private final CollectionIdentifier collectionIdentifier;
+  private final NearCache nearCache;
 
-  AsyncBinaryCollection(final Core core, final CoreEnvironment environment, final CollectionIdentifier collectionIdentifier) {
+  AsyncBinaryCollection(final Core core, final CoreEnvironment environment, final CollectionIdentifier collectionIdentifier,
+                        final NearCache nearCache) {
     this.core = core;
     this.coreContext = core.context();
     this.environment = environment;
     this.collectionIdentifier = collectionIdentifier;
+    this.nearCache = nearCache;
   }
 
   public CompletableFuture<MutationResult> append(final String id, final byte[] content) {
@@ -80,7 +85,7 @@ public class AsyncBinaryCollection {
     AppendRequest request = new AppendRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, content,
       opts.cas(), opts.durabilityLevel());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   public CompletableFuture<MutationResult> prepend(final String id, final byte[] content) {
@@ -102,7 +107,7 @@ public class AsyncBinaryCollection {
     PrependRequest request = new PrependRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, content,
       opts.cas(), opts.durabilityLevel());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   public CompletableFuture<CounterResult> increment(final String id) {
@@ -122,7 +127,7 @@ public class AsyncBinaryCollection {
     IncrementRequest request = new IncrementRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, opts.cas(),
       opts.delta(), opts.initial(), opts.expiry(), opts.durabilityLevel());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   public CompletableFuture<CounterResult> decrement(final String id) {
@@ -142,7 +147,14 @@ public class AsyncBinaryCollection {
     DecrementRequest request = new DecrementRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, opts.cas(),
       opts.delta(), opts.initial(), opts.expiry(), opts.durabilityLevel());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
+  }
+
+  /**
+   * Helper method to invalidate the near cached document, if any, for a request which mutates it.
+   */
+  private <R extends Request<?>> R invalidatesNearCache(final String id, final R request) {
+    return nearCache == null ? request : nearCache.invalidateOn(id, request);
   }
 
   CollectionIdentifier collectionIdentifier() {
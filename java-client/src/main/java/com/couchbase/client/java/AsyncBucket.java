@@ -31,6 +31,7 @@ import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.java.diagnostics.PingOptions;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.kv.NearCaches;
 import com.couchbase.client.java.manager.collection.AsyncCollectionManager;
 import com.couchbase.client.java.manager.view.AsyncViewIndexManager;
 import com.couchbase.client.java.view.ViewAccessor;
@@ -75,15 +76,23 @@ public class AsyncBucket {
 
   private final Authenticator authenticator;
 
+  /**
+   * Holds the near caches of the cluster to pass on.
+   */
+  private final NearCaches nearCaches;
+
   /**
    * Creates a new {@link AsyncBucket}.
    *
    * @param name the name of the bucket.
    * @param core the underlying core.
    * @param environment the attached environment.
+   * @param nearCaches the near caches of the cluster.
    */
-  AsyncBucket(final String name, final Core core, final ClusterEnvironment environment) {
+  AsyncBucket(final String name, final Core core, final ClusterEnvironment environment,
+              final NearCaches nearCaches) {
     this.core = core;
+    this.nearCaches = nearCaches;
     this.environment = environment;
     this.name = name;
     this.collectionManager = new AsyncCollectionManager(core, name);
@@ -133,7 +142,7 @@ public class AsyncBucket {
    */
   @Stability.Volatile
   public AsyncScope scope(final String name) {
-    return new AsyncScope(name, this.name, core, environment);
+    return new AsyncScope(name, this.name, core, environment, nearCaches);
   }
 
   /**
@@ -143,7 +152,7 @@ public class AsyncBucket {
    */
   @Stability.Volatile
   public AsyncScope defaultScope() {
-    return new AsyncScope(CollectionIdentifier.DEFAULT_SCOPE, name, core, environment);
+    return new AsyncScope(CollectionIdentifier.DEFAULT_SCOPE, name, core, environment, nearCaches);
   }
 
   /**
@@ -38,23 +38,29 @@ import com.couchbase.client.java.analytics.AnalyticsResult;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.diagnostics.DiagnosticsOptions;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.NearCaches;
 import com.couchbase.client.java.manager.analytics.AsyncAnalyticsIndexManager;
 import com.couchbase.client.java.manager.bucket.AsyncBucketManager;
 import com.couchbase.client.java.manager.query.AsyncQueryIndexManager;
 import com.couchbase.client.java.manager.search.AsyncSearchIndexManager;
 import com.couchbase.client.java.manager.user.AsyncUserManager;
+import com.couchbase.client.java.query.PreparedStatementCache;
 import com.couchbase.client.java.query.QueryAccessor;
 import com.couchbase.client.java.query.QueryOptions;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.QueryTemplate;
 import com.couchbase.client.java.search.SearchAccessor;
 import com.couchbase.client.java.search.SearchOptions;
 import com.couchbase.client.java.search.SearchQuery;
 import com.couchbase.client.java.search.result.SearchResult;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -103,6 +109,8 @@ public class AsyncCluster {
 
   private final Authenticator authenticator;
 
+  private final NearCaches nearCaches;
+
   /**
    * Connect to a Couchbase cluster with a username and a password as credentials.
    *
@@ -161,12 +169,13 @@ public class AsyncCluster {
     this.environment = environment;
     this.core = Core.create(environment.get(), authenticator, seedNodes);
     this.searchIndexManager = new AsyncSearchIndexManager(core);
-    this.queryAccessor = new QueryAccessor(core);
+    this.queryAccessor = new QueryAccessor(core, environment.get().preparedStatementCacheSize());
     this.userManager = new AsyncUserManager(core);
     this.bucketManager = new AsyncBucketManager(core);
     this.queryIndexManager = new AsyncQueryIndexManager(this);
     this.analyticsIndexManager = new AsyncAnalyticsIndexManager(this);
     this.authenticator = authenticator;
+    this.nearCaches = new NearCaches(environment.get());
 
     core.initGlobalConfig();
   }
@@ -252,6 +261,107 @@ public class AsyncCluster {
     return queryAccessor.queryAsync(queryRequest(statement, opts), opts, serializer);
   }
 
+  /**
+   * Creates a {@link QueryTemplate} for a N1QL statement which is executed repeatedly with changing
+   * parameters, using default {@link QueryOptions}.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @return the template, to be executed with {@link #query(QueryTemplate, JsonArray)} or
+   *   {@link #query(QueryTemplate, JsonObject)}.
+   */
+  @Stability.Volatile
+  public QueryTemplate queryTemplate(final String statement) {
+    return queryTemplate(statement, DEFAULT_QUERY_OPTIONS);
+  }
+
+  /**
+   * Creates a {@link QueryTemplate} for a N1QL statement which is executed repeatedly with changing
+   * parameters.
+   *
+   * <p>The request body is encoded once from the statement and the options, every execution only encodes
+   * its parameters. The options must therefore not contain any parameters.</p>
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for all executions of this template.
+   * @return the template, to be executed with {@link #query(QueryTemplate, JsonArray)} or
+   *   {@link #query(QueryTemplate, JsonObject)}.
+   */
+  @Stability.Volatile
+  public QueryTemplate queryTemplate(final String statement, final QueryOptions options) {
+    notNull(options, "QueryOptions", () -> new ReducedQueryErrorContext(statement));
+    notNullOrEmpty(statement, "Statement", () -> new ReducedQueryErrorContext(statement));
+    final QueryOptions.Built opts = options.build();
+    JsonSerializer serializer = opts.serializer() == null ? environment.get().jsonSerializer() : opts.serializer();
+    Duration timeout = opts.timeout().orElse(environment.get().timeoutConfig().queryTimeout());
+    RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.get().retryStrategy());
+    return new QueryTemplate(statement, opts, timeout, retryStrategy, core.context(), authenticator, serializer);
+  }
+
+  /**
+   * Executes a {@link QueryTemplate} with positional parameters.
+   *
+   * @param template the template created through {@link #queryTemplate(String, QueryOptions)}.
+   * @param positionalParameters the positional parameters for this execution.
+   * @return the {@link QueryResult} once the response arrives successfully.
+   */
+  @Stability.Volatile
+  public CompletableFuture<QueryResult> query(final QueryTemplate template, final JsonArray positionalParameters) {
+    notNull(template, "QueryTemplate");
+    notNull(positionalParameters, "Positional Parameters");
+    return queryAccessor.queryAsync(template, positionalParameters);
+  }
+
+  /**
+   * Executes a {@link QueryTemplate} with named parameters.
+   *
+   * @param template the template created through {@link #queryTemplate(String, QueryOptions)}.
+   * @param namedParameters the named parameters for this execution.
+   * @return the {@link QueryResult} once the response arrives successfully.
+   */
+  @Stability.Volatile
+  public CompletableFuture<QueryResult> query(final QueryTemplate template, final JsonObject namedParameters) {
+    notNull(template, "QueryTemplate");
+    notNull(namedParameters, "Named Parameters");
+    return queryAccessor.queryAsync(template, namedParameters);
+  }
+
+  /**
+   * Prepares the given N1QL statements and keeps them in the prepared statement cache.
+   *
+   * <p>Non-adhoc queries for these statements can then execute right away, without preparing them
+   * first. This is useful at application startup for a known set of statements.</p>
+   *
+   * @param statements the N1QL statements to prepare.
+   * @return a future which completes once all statements are prepared.
+   */
+  @Stability.Volatile
+  public CompletableFuture<Void> warmUpPreparedStatements(final Collection<String> statements) {
+    return warmUpPreparedStatementsInternal(statements).toFuture();
+  }
+
+  /**
+   * Helper method to prepare the statements, shared with the reactive API.
+   *
+   * @param statements the N1QL statements to prepare.
+   * @return a mono which completes once all statements are prepared.
+   */
+  Mono<Void> warmUpPreparedStatementsInternal(final Collection<String> statements) {
+    notNull(statements, "Statements");
+    final QueryOptions.Built opts = DEFAULT_QUERY_OPTIONS.build();
+    return queryAccessor.warmUp(
+      Flux.fromIterable(statements).map(s -> queryRequest(s, opts)),
+      environment.get().jsonSerializer()
+    );
+  }
+
+  /**
+   * Provides access to the prepared statement cache and its metrics.
+   */
+  @Stability.Volatile
+  public PreparedStatementCache preparedStatementCache() {
+    return queryAccessor.preparedStatementCache();
+  }
+
   /**
    * Helper method to construct the query request.
    *
@@ -260,6 +370,18 @@ public class AsyncCluster {
    * @return the constructed query request.
    */
   QueryRequest queryRequest(final String statement, final QueryOptions.Built options) {
+    return queryRequest(statement, options, false);
+  }
+
+  /**
+   * Helper method to construct the query request.
+   *
+   * @param statement the statement of the query.
+   * @param options the options.
+   * @param retainRows if the rows should hold on to the network buffers, only honored by the reactive API.
+   * @return the constructed query request.
+   */
+  QueryRequest queryRequest(final String statement, final QueryOptions.Built options, final boolean retainRows) {
     notNullOrEmpty(statement, "Statement", () -> new ReducedQueryErrorContext(statement));
     Duration timeout = options.timeout().orElse(environment.get().timeoutConfig().queryTimeout());
     RetryStrategy retryStrategy = options.retryStrategy().orElse(environment.get().retryStrategy());
@@ -272,7 +394,7 @@ public class AsyncCluster {
     final byte[] queryBytes = query.toString().getBytes(StandardCharsets.UTF_8);
     final String clientContextId = query.getString("client_context_id");
     QueryRequest request = new QueryRequest(timeout, core.context(), retryStrategy, authenticator, statement,
-     queryBytes, options.readonly(), clientContextId);
+     queryBytes, options.readonly(), clientContextId, retainRows);
     request.context().clientContext(options.clientContext());
     return request;
   }
@@ -376,7 +498,7 @@ public class AsyncCluster {
   public AsyncBucket bucket(final String bucketName) {
     notNullOrEmpty(bucketName, "Name");
     core.openBucket(bucketName);
-    return new AsyncBucket(bucketName, core, environment.get());
+    return new AsyncBucket(bucketName, core, environment.get(), nearCaches);
   }
 
   /**
@@ -402,6 +524,7 @@ public class AsyncCluster {
    * @return a mono once complete.
    */
   Mono<Void> disconnectInternal(final Duration timeout) {
+    nearCaches.stop();
     return core.shutdown(timeout).flatMap(ignore -> {
       if (environment instanceof OwnedSupplier) {
         return environment.get().shutdownReactive(timeout);
@@ -31,6 +31,7 @@ import com.couchbase.client.core.error.ErrorContext;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.error.ReducedKeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.msg.kv.GetAndLockRequest;
 import com.couchbase.client.core.msg.kv.GetAndTouchRequest;
@@ -62,17 +63,22 @@ import com.couchbase.client.java.kv.GetAnyReplicaOptions;
 import com.couchbase.client.java.kv.GetOptions;
 import com.couchbase.client.java.kv.GetReplicaResult;
 import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.HedgedRead;
 import com.couchbase.client.java.kv.InsertAccessor;
 import com.couchbase.client.java.kv.InsertOptions;
 import com.couchbase.client.java.kv.LookupInAccessor;
 import com.couchbase.client.java.kv.LookupInOptions;
 import com.couchbase.client.java.kv.LookupInResult;
 import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MultiAccessor;
+import com.couchbase.client.java.kv.MultiResult;
 import com.couchbase.client.java.kv.MutateInAccessor;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
 import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.NearCache;
+import com.couchbase.client.java.kv.NearCaches;
 import com.couchbase.client.java.kv.PersistTo;
 import com.couchbase.client.java.kv.RemoveAccessor;
 import com.couchbase.client.java.kv.RemoveOptions;
@@ -91,7 +97,10 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -174,6 +183,11 @@ public class AsyncCollection {
    */
   private final CollectionIdentifier collectionIdentifier;
 
+  /**
+   * Holds the near cache of this collection, null if disabled.
+   */
+  private final NearCache nearCache;
+
   /**
    * Creates a new {@link AsyncCollection}.
    *
@@ -181,9 +195,10 @@ public class AsyncCollection {
    * @param scopeName the name of the scope associated.
    * @param core the core into which ops are dispatched.
    * @param environment the surrounding environment for config options.
+   * @param nearCaches the near caches of the cluster.
    */
   AsyncCollection(final String name, final String scopeName, final String bucket,
-                  final Core core, final ClusterEnvironment environment) {
+                  final Core core, final ClusterEnvironment environment, final NearCaches nearCaches) {
     this.name = name;
     this.scopeName = scopeName;
     this.core = core;
@@ -191,7 +206,8 @@ public class AsyncCollection {
     this.environment = environment;
     this.bucket = bucket;
     this.collectionIdentifier = new CollectionIdentifier(bucket, Optional.of(scopeName), Optional.of(name));
-    this.asyncBinaryCollection = new AsyncBinaryCollection(core, environment, collectionIdentifier);
+    this.nearCache = nearCaches.forCollection(collectionIdentifier);
+    this.asyncBinaryCollection = new AsyncBinaryCollection(core, environment, collectionIdentifier, nearCache);
   }
 
   /**
@@ -264,12 +280,103 @@ public class AsyncCollection {
 
     final Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
     if (opts.projections().isEmpty() && !opts.withExpiry()) {
+      if (opts.hedged()) {
+        if (opts.retainContent()) {
+          throw new InvalidArgumentException("Retaining the content is not supported for hedged reads", null,
+            ReducedKeyValueErrorContext.create(id, collectionIdentifier));
+        }
+        GetAllReplicasOptions replicaOpts = GetAllReplicasOptions.getAllReplicasOptions()
+          .clientContext(opts.clientContext())
+          .transcoder(transcoder);
+        opts.timeout().ifPresent(replicaOpts::timeout);
+        opts.retryStrategy().ifPresent(replicaOpts::retryStrategy);
+        Duration delay = HedgedRead.delay(core, opts.hedgeAfter(), opts.hedgeAfterPercentile());
+        return hedgedRead(id, replicaOpts.build(), delay, true).thenApply(result -> result);
+      }
+      if (nearCached(opts)) {
+        return nearCachedGet(id, opts, transcoder);
+      }
       return GetAccessor.get(core, fullGetRequest(id, opts), transcoder);
     } else {
       return GetAccessor.subdocGet(core, id, subdocGetRequest(id, opts), transcoder);
     }
   }
 
+  /**
+   * Checks if a get with the given options is answered through the near cache.
+   *
+   * @param opts the options of the get.
+   * @return true if the near cache is enabled and applies to the get.
+   */
+  @Stability.Internal
+  boolean nearCached(final GetOptions.Built opts) {
+    return nearCache != null && !opts.retainContent() && opts.projections().isEmpty() && !opts.withExpiry();
+  }
+
+  /**
+   * Helper method to perform a full doc fetch through the near cache.
+   *
+   * <p>A live entry is returned right away, or after its CAS has been confirmed with a metadata lookup if hits
+   * are revalidated. Otherwise the document is fetched and cached.</p>
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param opts custom options to change the default behavior.
+   * @param transcoder the transcoder used to decode the result.
+   * @return a {@link CompletableFuture} completing once loaded or failed.
+   */
+  private CompletableFuture<GetResult> nearCachedGet(final String id, final GetOptions.Built opts,
+                                                     final Transcoder transcoder) {
+    notNullOrEmpty(id, "Id", () -> ReducedKeyValueErrorContext.create(id, collectionIdentifier));
+    final NearCache.Entry entry = nearCache.lookup(id);
+    if (entry == null) {
+      return fetchIntoNearCache(id, opts, transcoder);
+    }
+    if (!nearCache.revalidate()) {
+      nearCache.recordHit();
+      return CompletableFuture.completedFuture(entry.toResult(transcoder));
+    }
+
+    Duration timeout = opts.timeout().orElse(environment.timeoutConfig().kvTimeout());
+    RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
+    GetMetaRequest request = new GetMetaRequest(id, timeout, coreContext, collectionIdentifier, retryStrategy);
+    request.context().clientContext(opts.clientContext());
+    core.send(request);
+    return request
+      .response()
+      .whenComplete((response, throwable) -> request.context().logicallyComplete())
+      .thenCompose(response -> {
+        if (response.status().success() && response.cas() == entry.cas()) {
+          nearCache.recordHit();
+          return CompletableFuture.completedFuture(entry.toResult(transcoder));
+        }
+        nearCache.recordStale(id);
+        return fetchIntoNearCache(id, opts, transcoder);
+      });
+  }
+
+  /**
+   * Helper method to fetch a full doc and cache it, unless it has been mutated locally in the meantime.
+   */
+  private CompletableFuture<GetResult> fetchIntoNearCache(final String id, final GetOptions.Built opts,
+                                                          final Transcoder transcoder) {
+    final long stamp = nearCache.stamp(id);
+    return GetAccessor.get(core, fullGetRequest(id, opts), transcoder).thenApply(result -> {
+      nearCache.put(id, result, stamp);
+      return result;
+    });
+  }
+
+  /**
+   * Helper method to invalidate the near cached document, if any, for a request which mutates it.
+   *
+   * @param id the document id which is mutated.
+   * @param request the mutation request.
+   * @return the same request.
+   */
+  private <R extends Request<?>> R invalidatesNearCache(final String id, final R request) {
+    return nearCache == null ? request : nearCache.invalidateOn(id, request);
+  }
+
   /**
    * Helper method to create a get request for a full doc fetch.
    *
@@ -284,7 +391,8 @@ public class AsyncCollection {
     RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
 
     InternalSpan span = environment.requestTracer().span("get", opts.parentSpan().orElse(null));
-    GetRequest request = new GetRequest(id, timeout, coreContext, collectionIdentifier, retryStrategy, span);
+    GetRequest request = new GetRequest(id, timeout, coreContext, collectionIdentifier, retryStrategy, span,
+      opts.retainContent());
     request.context().clientContext(opts.clientContext());
     return request;
   }
@@ -361,6 +469,64 @@ public class AsyncCollection {
     return request;
   }
 
+  /**
+   * Fetches multiple full documents from a collection with default options.
+   *
+   * <p>All documents are fetched in one batch and the returned future completes once every individual
+   * fetch has completed, so check the returned {@link MultiResult} for individual failures.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @return a {@link CompletableFuture} completing once all documents are loaded or failed.
+   */
+  public CompletableFuture<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids) {
+    return getMulti(ids, DEFAULT_GET_OPTIONS);
+  }
+
+  /**
+   * Fetches multiple full documents (or a projection of them) from a collection with custom options.
+   *
+   * <p>All documents are fetched in one batch and the returned future completes once every individual
+   * fetch has completed, so check the returned {@link MultiResult} for individual failures.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @param options custom options to change the default behavior, applied to every document.
+   * @return a {@link CompletableFuture} completing once all documents are loaded or failed.
+   */
+  public CompletableFuture<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids,
+                                                            final GetOptions options) {
+    notNull(ids, "Ids");
+    notNull(options, "GetOptions");
+    final GetOptions.Built opts = options.build();
+    final Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
+    final List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+    final List<String> dispatchedIds = new ArrayList<>(uniqueIds.size());
+    final Map<String, Throwable> failed = new HashMap<>();
+
+    if (opts.projections().isEmpty() && !opts.withExpiry()) {
+      final List<GetRequest> requests = new ArrayList<>(uniqueIds.size());
+      for (String id : uniqueIds) {
+        try {
+          requests.add(fullGetRequest(id, opts));
+          dispatchedIds.add(id);
+        } catch (Exception ex) {
+          failed.put(id, ex);
+        }
+      }
+      return MultiAccessor.get(core, dispatchedIds, requests, failed, transcoder);
+    } else {
+      final List<SubdocGetRequest> requests = new ArrayList<>(uniqueIds.size());
+      for (String id : uniqueIds) {
+        try {
+          requests.add(subdocGetRequest(id, opts));
+          dispatchedIds.add(id);
+        } catch (Exception ex) {
+          failed.put(id, ex);
+        }
+      }
+      return MultiAccessor.subdocGet(core, dispatchedIds, requests, failed, transcoder);
+    }
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration with default options.
    *
@@ -410,7 +576,7 @@ public class AsyncCollection {
       id, timeout, coreContext, collectionIdentifier, retryStrategy, lockTime
     );
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -461,7 +627,7 @@ public class AsyncCollection {
       id, timeout, coreContext, collectionIdentifier, retryStrategy, expiry
     );
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -524,6 +690,11 @@ public class AsyncCollection {
       opts.transcoder(built.transcoder());
     }
 
+    if (built.hedged()) {
+      Duration delay = HedgedRead.delay(core, built.hedgeAfter(), built.hedgeAfterPercentile());
+      return hedgedRead(id, opts.build(), delay, false);
+    }
+
     CompletableFuture<List<CompletableFuture<GetReplicaResult>>> listOfFutures = getAllReplicas(id, opts);
 
     // Aggregating the futures here will discard the individual errors, which we don't need
@@ -555,6 +726,24 @@ public class AsyncCollection {
     return anyReplicaFuture;
   }
 
+  /**
+   * Helper method to read from the active first and from the replicas only after the given delay.
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param opts custom options to change the default behavior.
+   * @param delay the delay after which the replicas are read as well.
+   * @param activeAuthoritative if a failure from the active should fail the read.
+   * @return a future completing with the first successful result.
+   */
+  CompletableFuture<GetReplicaResult> hedgedRead(final String id, final GetAllReplicasOptions.Built opts,
+                                                 final Duration delay, final boolean activeAuthoritative) {
+    Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
+    Duration timeout = opts.timeout().orElse(environment.timeoutConfig().kvTimeout());
+    return getAllReplicasRequests(id, opts, timeout).thenCompose(requests -> HedgedRead.read(
+      core, requests.collect(Collectors.toList()), transcoder, delay, activeAuthoritative
+    ));
+  }
+
   /**
    * Helper method to assemble a stream of requests either to the active or to the replica.
    *
@@ -672,6 +861,54 @@ public class AsyncCollection {
     return RemoveAccessor.remove(core, removeRequest(id, opts), id, opts.persistTo(), opts.replicateTo());
   }
 
+  /**
+   * Removes multiple documents from a collection with default options.
+   *
+   * <p>All documents are removed in one batch and the returned future completes once every individual
+   * removal has completed, so check the returned {@link MultiResult} for individual failures.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @return a {@link CompletableFuture} completing once all documents are removed or failed.
+   */
+  public CompletableFuture<MultiResult<MutationResult>> removeMulti(final java.util.Collection<String> ids) {
+    return removeMulti(ids, DEFAULT_REMOVE_OPTIONS);
+  }
+
+  /**
+   * Removes multiple documents from a collection with custom options.
+   *
+   * <p>All documents are removed in one batch and the returned future completes once every individual
+   * removal has completed, so check the returned {@link MultiResult} for individual failures. Since the
+   * options are applied to every document, a CAS value cannot be provided.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @param options custom options to change the default behavior, applied to every document.
+   * @return a {@link CompletableFuture} completing once all documents are removed or failed.
+   */
+  public CompletableFuture<MultiResult<MutationResult>> removeMulti(final java.util.Collection<String> ids,
+                                                                    final RemoveOptions options) {
+    notNull(ids, "Ids");
+    notNull(options, "RemoveOptions");
+    final RemoveOptions.Built opts = options.build();
+    if (opts.cas() != 0) {
+      throw new InvalidArgumentException("A CAS value cannot be applied to a multi-document remove", null, null);
+    }
+
+    final List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+    final List<String> dispatchedIds = new ArrayList<>(uniqueIds.size());
+    final List<RemoveRequest> requests = new ArrayList<>(uniqueIds.size());
+    final Map<String, Throwable> failed = new HashMap<>();
+    for (String id : uniqueIds) {
+      try {
+        requests.add(removeRequest(id, opts));
+        dispatchedIds.add(id);
+      } catch (Exception ex) {
+        failed.put(id, ex);
+      }
+    }
+    return MultiAccessor.remove(core, dispatchedIds, requests, failed, opts.persistTo(), opts.replicateTo());
+  }
+
   /**
    * Helper method to create the remove request.
    *
@@ -686,7 +923,7 @@ public class AsyncCollection {
     RemoveRequest request = new RemoveRequest(id, opts.cas(), timeout,
       coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -734,7 +971,7 @@ public class AsyncCollection {
     InsertRequest request = new InsertRequest(id, encoded.encoded(), opts.expiry().getSeconds(), encoded.flags(),
       timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -762,6 +999,49 @@ public class AsyncCollection {
     return UpsertAccessor.upsert(core, upsertRequest(id, content, opts), id, opts.persistTo(), opts.replicateTo());
   }
 
+  /**
+   * Upserts multiple full documents which might or might not exist yet with default options.
+   *
+   * <p>All documents are upserted in one batch and the returned future completes once every individual
+   * upsert has completed, so check the returned {@link MultiResult} for individual failures.</p>
+   *
+   * @param documents the document contents to upsert, indexed by their document id.
+   * @return a {@link CompletableFuture} completing once all documents are upserted or failed.
+   */
+  public CompletableFuture<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents) {
+    return upsertMulti(documents, DEFAULT_UPSERT_OPTIONS);
+  }
+
+  /**
+   * Upserts multiple full documents which might or might not exist yet with custom options.
+   *
+   * <p>All documents are upserted in one batch and the returned future completes once every individual
+   * upsert has completed, so check the returned {@link MultiResult} for individual failures.</p>
+   *
+   * @param documents the document contents to upsert, indexed by their document id.
+   * @param options custom options to customize the upsert behavior, applied to every document.
+   * @return a {@link CompletableFuture} completing once all documents are upserted or failed.
+   */
+  public CompletableFuture<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents,
+                                                                    final UpsertOptions options) {
+    notNull(documents, "Documents");
+    notNull(options, "UpsertOptions");
+    final UpsertOptions.Built opts = options.build();
+
+    final List<String> dispatchedIds = new ArrayList<>(documents.size());
+    final List<UpsertRequest> requests = new ArrayList<>(documents.size());
+    final Map<String, Throwable> failed = new HashMap<>();
+    for (Map.Entry<String, ?> document : documents.entrySet()) {
+      try {
+        requests.add(upsertRequest(document.getKey(), document.getValue(), opts));
+        dispatchedIds.add(document.getKey());
+      } catch (Exception ex) {
+        failed.put(document.getKey(), ex);
+      }
+    }
+    return MultiAccessor.upsert(core, dispatchedIds, requests, failed, opts.persistTo(), opts.replicateTo());
+  }
+
   /**
    * Helper method to generate the upsert request.
    *
@@ -795,7 +1075,7 @@ public class AsyncCollection {
     request.context()
       .clientContext(opts.clientContext())
       .encodeLatency(end - start);
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -843,7 +1123,7 @@ public class AsyncCollection {
     ReplaceRequest request = new ReplaceRequest(id, encoded.encoded(), opts.expiry().getSeconds(), encoded.flags(),
       timeout, opts.cas(), coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -888,7 +1168,7 @@ public class AsyncCollection {
     TouchRequest request = new TouchRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id,
       expiry.getSeconds());
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -934,7 +1214,7 @@ public class AsyncCollection {
     RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
     UnlockRequest request = new UnlockRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, cas);
     request.context().clientContext(opts.clientContext());
-    return request;
+    return invalidatesNearCache(id, request);
   }
 
   /**
@@ -1072,7 +1352,7 @@ public class AsyncCollection {
         opts.durabilityLevel()
       );
       request.context().clientContext(opts.clientContext());
-      return request;
+      return invalidatesNearCache(id, request);
     }
   }
 
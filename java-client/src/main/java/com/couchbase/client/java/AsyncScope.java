@@ -20,6 +20,7 @@ import com.couchbase.client.core.Core;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.kv.NearCaches;
 import reactor.core.publisher.Mono;
 
 import java.util.concurrent.CompletableFuture;
@@ -56,6 +57,11 @@ public class AsyncScope {
    */
   private final ClusterEnvironment environment;
 
+  /**
+   * Holds the near caches of the cluster to pass on.
+   */
+  private final NearCaches nearCaches;
+
   /**
    * Creates a new {@link AsyncScope}.
    *
@@ -63,13 +69,15 @@ public class AsyncScope {
    * @param bucketName the name of the bucket.
    * @param core the attached core.
    * @param environment the attached environment.
+   * @param nearCaches the near caches of the cluster.
    */
   AsyncScope(final String scopeName, final String bucketName, final Core core,
-             final ClusterEnvironment environment) {
+             final ClusterEnvironment environment, final NearCaches nearCaches) {
     this.scopeName = scopeName;
     this.bucketName = bucketName;
     this.core = core;
     this.environment = environment;
+    this.nearCaches = nearCaches;
   }
 
   /**
@@ -111,7 +119,8 @@ public class AsyncScope {
    * @return the default collection once opened.
    */
   AsyncCollection defaultCollection() {
-    return new AsyncCollection(CollectionIdentifier.DEFAULT_COLLECTION, scopeName, bucketName, core, environment);
+    return new AsyncCollection(CollectionIdentifier.DEFAULT_COLLECTION, scopeName, bucketName, core, environment,
+      nearCaches);
   }
 
   /**
@@ -123,7 +132,7 @@ public class AsyncScope {
   @Stability.Volatile
   public AsyncCollection collection(final String collectionName) {
     core.configurationProvider().refreshCollectionMap(bucketName, false);
-    return new AsyncCollection(collectionName, scopeName, bucketName, core, environment);
+    return new AsyncCollection(collectionName, scopeName, bucketName, core, environment, nearCaches);
   }
 
 }
@@ -29,18 +29,23 @@ import com.couchbase.client.java.analytics.AnalyticsOptions;
 import com.couchbase.client.java.analytics.AnalyticsResult;
 import com.couchbase.client.java.diagnostics.DiagnosticsOptions;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.java.manager.analytics.AnalyticsIndexManager;
 import com.couchbase.client.java.manager.bucket.BucketManager;
 import com.couchbase.client.java.manager.query.QueryIndexManager;
 import com.couchbase.client.java.manager.search.SearchIndexManager;
 import com.couchbase.client.java.manager.user.UserManager;
+import com.couchbase.client.java.query.PreparedStatementCache;
 import com.couchbase.client.java.query.QueryOptions;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.QueryTemplate;
 import com.couchbase.client.java.search.SearchOptions;
 import com.couchbase.client.java.search.SearchQuery;
 import com.couchbase.client.java.search.result.SearchResult;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -225,6 +230,87 @@ public class Cluster {
     return block(async().query(statement, options));
   }
 
+  /**
+   * Creates a {@link QueryTemplate} for a N1QL statement which is executed repeatedly with changing
+   * parameters, using default {@link QueryOptions}.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @return the template, to be executed with {@link #query(QueryTemplate, JsonArray)} or
+   *   {@link #query(QueryTemplate, JsonObject)}.
+   */
+  @Stability.Volatile
+  public QueryTemplate queryTemplate(final String statement) {
+    return async().queryTemplate(statement);
+  }
+
+  /**
+   * Creates a {@link QueryTemplate} for a N1QL statement which is executed repeatedly with changing
+   * parameters.
+   *
+   * <p>The request body is encoded once from the statement and the options, every execution only encodes
+   * its parameters. The options must therefore not contain any parameters.</p>
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for all executions of this template.
+   * @return the template, to be executed with {@link #query(QueryTemplate, JsonArray)} or
+   *   {@link #query(QueryTemplate, JsonObject)}.
+   */
+  @Stability.Volatile
+  public QueryTemplate queryTemplate(final String statement, final QueryOptions options) {
+    return async().queryTemplate(statement, options);
+  }
+
+  /**
+   * Executes a {@link QueryTemplate} with positional parameters.
+   *
+   * @param template the template created through {@link #queryTemplate(String, QueryOptions)}.
+   * @param positionalParameters the positional parameters for this execution.
+   * @return the {@link QueryResult} once the response arrives successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public QueryResult query(final QueryTemplate template, final JsonArray positionalParameters) {
+    return block(async().query(template, positionalParameters));
+  }
+
+  /**
+   * Executes a {@link QueryTemplate} with named parameters.
+   *
+   * @param template the template created through {@link #queryTemplate(String, QueryOptions)}.
+   * @param namedParameters the named parameters for this execution.
+   * @return the {@link QueryResult} once the response arrives successfully.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public QueryResult query(final QueryTemplate template, final JsonObject namedParameters) {
+    return block(async().query(template, namedParameters));
+  }
+
+  /**
+   * Prepares the given N1QL statements and keeps them in the prepared statement cache.
+   *
+   * <p>Non-adhoc queries for these statements can then execute right away, without preparing them
+   * first. This is useful at application startup for a known set of statements.</p>
+   *
+   * @param statements the N1QL statements to prepare.
+   * @throws TimeoutException if preparing a statement times out.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public void warmUpPreparedStatements(final Collection<String> statements) {
+    block(async().warmUpPreparedStatements(statements));
+  }
+
+  /**
+   * Provides access to the prepared statement cache and its metrics.
+   */
+  @Stability.Volatile
+  public PreparedStatementCache preparedStatementCache() {
+    return async().preparedStatementCache();
+  }
+
   /**
    * Performs an analytics query with default {@link AnalyticsOptions}.
    *
@@ -46,6 +46,7 @@ import com.couchbase.client.java.kv.LookupInOptions;
 import com.couchbase.client.java.kv.LookupInResult;
 import com.couchbase.client.java.kv.LookupInSpec;
 import com.couchbase.client.java.kv.MapOptions;
+import com.couchbase.client.java.kv.MultiResult;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
@@ -199,6 +200,33 @@ public class Collection {
     return block(async().get(id, options));
   }
 
+  /**
+   * Fetches multiple full documents from this collection with default options.
+   *
+   * <p>Note that an individual failure does not fail the whole operation, use {@link MultiResult#failures()}
+   * or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @return a {@link MultiResult} once all documents have been loaded or failed.
+   */
+  public MultiResult<GetResult> getMulti(final java.util.Collection<String> ids) {
+    return block(async().getMulti(ids));
+  }
+
+  /**
+   * Fetches multiple full documents from this collection with custom options.
+   *
+   * <p>Note that an individual failure does not fail the whole operation, use {@link MultiResult#failures()}
+   * or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @param options options to customize the get requests, applied to every document.
+   * @return a {@link MultiResult} once all documents have been loaded or failed.
+   */
+  public MultiResult<GetResult> getMulti(final java.util.Collection<String> ids, final GetOptions options) {
+    return block(async().getMulti(ids, options));
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration.
    *
@@ -368,6 +396,33 @@ public class Collection {
     return block(async().remove(id, options));
   }
 
+  /**
+   * Removes multiple documents from a collection with default options.
+   *
+   * <p>Note that an individual failure does not fail the whole operation, use {@link MultiResult#failures()}
+   * or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @return a {@link MultiResult} once all documents have been removed or failed.
+   */
+  public MultiResult<MutationResult> removeMulti(final java.util.Collection<String> ids) {
+    return block(async().removeMulti(ids));
+  }
+
+  /**
+   * Removes multiple documents from a collection with custom options.
+   *
+   * <p>Note that an individual failure does not fail the whole operation, use {@link MultiResult#failures()}
+   * or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @param options custom options to change the default behavior, applied to every document.
+   * @return a {@link MultiResult} once all documents have been removed or failed.
+   */
+  public MultiResult<MutationResult> removeMulti(final java.util.Collection<String> ids, final RemoveOptions options) {
+    return block(async().removeMulti(ids, options));
+  }
+
   /**
    * Inserts a full document which does not exist yet.
    *
@@ -424,6 +479,33 @@ public class Collection {
     return block(async().upsert(id, content, options));
   }
 
+  /**
+   * Upserts multiple full documents which might or might not exist yet with default options.
+   *
+   * <p>Note that an individual failure does not fail the whole operation, use {@link MultiResult#failures()}
+   * or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param documents the document contents to upsert, indexed by their document id.
+   * @return a {@link MultiResult} once all documents have been upserted or failed.
+   */
+  public MultiResult<MutationResult> upsertMulti(final Map<String, ?> documents) {
+    return block(async().upsertMulti(documents));
+  }
+
+  /**
+   * Upserts multiple full documents which might or might not exist yet with custom options.
+   *
+   * <p>Note that an individual failure does not fail the whole operation, use {@link MultiResult#failures()}
+   * or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param documents the document contents to upsert, indexed by their document id.
+   * @param options custom options to customize the upsert behavior, applied to every document.
+   * @return a {@link MultiResult} once all documents have been upserted or failed.
+   */
+  public MultiResult<MutationResult> upsertMulti(final Map<String, ?> documents, final UpsertOptions options) {
+    return block(async().upsertMulti(documents, options));
+  }
+
   /**
    * Replaces a full document which already exists.
    *
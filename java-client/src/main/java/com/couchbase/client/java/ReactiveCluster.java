@@ -31,12 +31,16 @@ import com.couchbase.client.java.analytics.ReactiveAnalyticsResult;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.diagnostics.DiagnosticsOptions;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.java.manager.analytics.ReactiveAnalyticsIndexManager;
 import com.couchbase.client.java.manager.bucket.ReactiveBucketManager;
 import com.couchbase.client.java.manager.query.AsyncQueryIndexManager;
 import com.couchbase.client.java.manager.query.ReactiveQueryIndexManager;
 import com.couchbase.client.java.manager.user.ReactiveUserManager;
+import com.couchbase.client.java.query.PreparedStatementCache;
 import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryTemplate;
 import com.couchbase.client.java.query.ReactiveQueryResult;
 import com.couchbase.client.java.search.SearchAccessor;
 import com.couchbase.client.java.search.SearchOptions;
@@ -45,6 +49,7 @@ import com.couchbase.client.java.search.result.ReactiveSearchResult;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -199,12 +204,86 @@ public class ReactiveCluster {
     final QueryOptions.Built opts = options.build();
     JsonSerializer serializer = opts.serializer() == null ? environment().jsonSerializer() : opts.serializer();
     return asyncCluster.queryAccessor().queryReactive(
-      asyncCluster.queryRequest(statement, opts),
+      asyncCluster.queryRequest(statement, opts, opts.retainRows()),
       opts,
       serializer
     );
   }
 
+  /**
+   * Creates a {@link QueryTemplate} for a N1QL statement which is executed repeatedly with changing
+   * parameters, using default {@link QueryOptions}.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @return the template, to be executed with {@link #query(QueryTemplate, JsonArray)} or
+   *   {@link #query(QueryTemplate, JsonObject)}.
+   */
+  @Stability.Volatile
+  public QueryTemplate queryTemplate(final String statement) {
+    return asyncCluster.queryTemplate(statement);
+  }
+
+  /**
+   * Creates a {@link QueryTemplate} for a N1QL statement which is executed repeatedly with changing
+   * parameters.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for all executions of this template.
+   * @return the template, to be executed with {@link #query(QueryTemplate, JsonArray)} or
+   *   {@link #query(QueryTemplate, JsonObject)}.
+   */
+  @Stability.Volatile
+  public QueryTemplate queryTemplate(final String statement, final QueryOptions options) {
+    return asyncCluster.queryTemplate(statement, options);
+  }
+
+  /**
+   * Executes a {@link QueryTemplate} with positional parameters.
+   *
+   * @param template the template created through {@link #queryTemplate(String, QueryOptions)}.
+   * @param positionalParameters the positional parameters for this execution.
+   * @return the {@link ReactiveQueryResult} once the response arrives successfully.
+   */
+  @Stability.Volatile
+  public Mono<ReactiveQueryResult> query(final QueryTemplate template, final JsonArray positionalParameters) {
+    notNull(template, "QueryTemplate");
+    notNull(positionalParameters, "Positional Parameters");
+    return asyncCluster.queryAccessor().queryReactive(template, positionalParameters);
+  }
+
+  /**
+   * Executes a {@link QueryTemplate} with named parameters.
+   *
+   * @param template the template created through {@link #queryTemplate(String, QueryOptions)}.
+   * @param namedParameters the named parameters for this execution.
+   * @return the {@link ReactiveQueryResult} once the response arrives successfully.
+   */
+  @Stability.Volatile
+  public Mono<ReactiveQueryResult> query(final QueryTemplate template, final JsonObject namedParameters) {
+    notNull(template, "QueryTemplate");
+    notNull(namedParameters, "Named Parameters");
+    return asyncCluster.queryAccessor().queryReactive(template, namedParameters);
+  }
+
+  /**
+   * Prepares the given N1QL statements and keeps them in the prepared statement cache.
+   *
+   * @param statements the N1QL statements to prepare.
+   * @return a {@link Mono} which completes once all statements are prepared.
+   */
+  @Stability.Volatile
+  public Mono<Void> warmUpPreparedStatements(final Collection<String> statements) {
+    return Mono.defer(() -> asyncCluster.warmUpPreparedStatementsInternal(statements));
+  }
+
+  /**
+   * Provides access to the prepared statement cache and its metrics.
+   */
+  @Stability.Volatile
+  public PreparedStatementCache preparedStatementCache() {
+    return asyncCluster.preparedStatementCache();
+  }
+
   /**
    * Performs an Analytics query with default {@link AnalyticsOptions}.
    *
@@ -21,6 +21,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.Reactor;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.events.request.IndividualReplicaGetFailedEvent;
+import com.couchbase.client.core.error.DocumentUnretrievableException;
 import com.couchbase.client.core.error.ReducedKeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.msg.kv.GetAndLockRequest;
@@ -57,6 +58,7 @@ import com.couchbase.client.java.kv.LookupInAccessor;
 import com.couchbase.client.java.kv.LookupInOptions;
 import com.couchbase.client.java.kv.LookupInResult;
 import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MultiResult;
 import com.couchbase.client.java.kv.MutateInAccessor;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
@@ -79,6 +81,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -233,8 +236,12 @@ public class ReactiveCollection {
       final Transcoder transcoder = opts.transcoder() == null ? environment().transcoder() : opts.transcoder();
 
       if (opts.projections().isEmpty() && !opts.withExpiry()) {
+        if (opts.hedged() || asyncCollection.nearCached(opts)) {
+          return Reactor.toMono(() -> asyncCollection.get(id, options));
+        }
         GetRequest request = asyncCollection.fullGetRequest(id, opts);
-        return Reactor.wrap(request, GetAccessor.get(core, request, transcoder), true);
+        Mono<GetResult> result = Reactor.wrap(request, GetAccessor.get(core, request, transcoder), true);
+        return opts.retainContent() ? result.doOnDiscard(GetResult.class, GetResult::release) : result;
       } else {
         SubdocGetRequest request = asyncCollection.subdocGetRequest(id, opts);
         return Reactor.wrap(request, GetAccessor.subdocGet(core, id, request, transcoder), true);
@@ -242,6 +249,33 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Fetches multiple full documents from a collection with default options.
+   *
+   * <p>Note that an individual failure does not fail the returned {@link Mono}, use
+   * {@link MultiResult#failures()} or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @return a {@link Mono} completing once all documents are loaded or failed.
+   */
+  public Mono<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids) {
+    return getMulti(ids, DEFAULT_GET_OPTIONS);
+  }
+
+  /**
+   * Fetches multiple full documents (or a projection of them) from a collection with custom options.
+   *
+   * <p>Note that an individual failure does not fail the returned {@link Mono}, use
+   * {@link MultiResult#failures()} or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @param options custom options to change the default behavior, applied to every document.
+   * @return a {@link Mono} completing once all documents are loaded or failed.
+   */
+  public Mono<MultiResult<GetResult>> getMulti(final java.util.Collection<String> ids, final GetOptions options) {
+    return Reactor.toMono(() -> asyncCollection.getMulti(ids, options));
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration with default options.
    *
@@ -373,6 +407,11 @@ public class ReactiveCollection {
       opts.transcoder(built.transcoder());
     }
 
+    if (built.hedged()) {
+      return Reactor
+        .toMono(() -> asyncCollection.getAnyReplica(id, options))
+        .onErrorResume(DocumentUnretrievableException.class, e -> Mono.empty());
+    }
     return getAllReplicas(id, opts).next();
   }
 
@@ -431,6 +470,34 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Removes multiple documents from a collection with default options.
+   *
+   * <p>Note that an individual failure does not fail the returned {@link Mono}, use
+   * {@link MultiResult#failures()} or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @return a {@link Mono} completing once all documents are removed or failed.
+   */
+  public Mono<MultiResult<MutationResult>> removeMulti(final java.util.Collection<String> ids) {
+    return removeMulti(ids, DEFAULT_REMOVE_OPTIONS);
+  }
+
+  /**
+   * Removes multiple documents from a collection with custom options.
+   *
+   * <p>Note that an individual failure does not fail the returned {@link Mono}, use
+   * {@link MultiResult#failures()} or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @param options custom options to change the default behavior, applied to every document.
+   * @return a {@link Mono} completing once all documents are removed or failed.
+   */
+  public Mono<MultiResult<MutationResult>> removeMulti(final java.util.Collection<String> ids,
+                                                       final RemoveOptions options) {
+    return Reactor.toMono(() -> asyncCollection.removeMulti(ids, options));
+  }
+
   /**
    * Inserts a full document which does not exist yet with default options.
    *
@@ -495,6 +562,33 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Upserts multiple full documents which might or might not exist yet with default options.
+   *
+   * <p>Note that an individual failure does not fail the returned {@link Mono}, use
+   * {@link MultiResult#failures()} or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param documents the document contents to upsert, indexed by their document id.
+   * @return a {@link Mono} completing once all documents are upserted or failed.
+   */
+  public Mono<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents) {
+    return upsertMulti(documents, DEFAULT_UPSERT_OPTIONS);
+  }
+
+  /**
+   * Upserts multiple full documents which might or might not exist yet with custom options.
+   *
+   * <p>Note that an individual failure does not fail the returned {@link Mono}, use
+   * {@link MultiResult#failures()} or {@link MultiResult#get(String)} to check the outcome per document id.</p>
+   *
+   * @param documents the document contents to upsert, indexed by their document id.
+   * @param options custom options to customize the upsert behavior, applied to every document.
+   * @return a {@link Mono} completing once all documents are upserted or failed.
+   */
+  public Mono<MultiResult<MutationResult>> upsertMulti(final Map<String, ?> documents, final UpsertOptions options) {
+    return Reactor.toMono(() -> asyncCollection.upsertMulti(documents, options));
+  }
+
   /**
    * Replaces a full document which already exists with default options.
    *
@@ -18,10 +18,15 @@ package com.couchbase.client.java.codec;
 
 import com.couchbase.client.core.error.DecodingFailedException;
 import com.couchbase.client.core.error.EncodingFailedException;
+import com.couchbase.client.core.util.Bytes;
 import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.java.json.JsonValueModule;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -108,4 +113,40 @@ public class JacksonJsonSerializer implements JsonSerializer {
           + " failed; encoded = " + redactUser(new String(input, UTF_8)), e);
     }
   }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T deserialize(final Class<T> target, final ByteBuffer input) {
+    if (target.isAssignableFrom(byte[].class)) {
+      return (T) Bytes.toByteArray(input);
+    }
+
+    try {
+      return read(mapper.getTypeFactory().constructType(target), input);
+    } catch (Throwable e) {
+      throw new DecodingFailedException("Deserialization of content into target " + target
+          + " failed; encoded = " + redactUser(UTF_8.decode(input.duplicate()).toString()), e);
+    }
+  }
+
+  @Override
+  public <T> T deserialize(final TypeRef<T> target, final ByteBuffer input) {
+    try {
+      return read(mapper.getTypeFactory().constructType(target.type()), input);
+    } catch (Throwable e) {
+      throw new DecodingFailedException("Deserialization of content into target " + target
+          + " failed; encoded = " + redactUser(UTF_8.decode(input.duplicate()).toString()), e);
+    }
+  }
+
+  /**
+   * Reads straight from the backing array if there is one, and streams from the buffer otherwise.
+   */
+  private <T> T read(final JavaType type, final ByteBuffer input) throws IOException {
+    if (input.hasArray()) {
+      return mapper.readValue(input.array(), input.arrayOffset() + input.position(), input.remaining(), type);
+    }
+    return mapper.readValue(new ByteBufferBackedInputStream(input.duplicate()), type);
+  }
+
 }
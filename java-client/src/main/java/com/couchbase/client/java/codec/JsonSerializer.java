@@ -16,7 +16,11 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.error.DecodingFailedException;
+import com.couchbase.client.core.util.Bytes;
+
+import java.nio.ByteBuffer;
 
 /**
  * The {@link JsonSerializer} handles the serialization and deserialization of raw json data into java objects.
@@ -51,4 +55,33 @@ public interface JsonSerializer {
    */
   <T> T deserialize(TypeRef<T> target, byte[] input);
 
+  /**
+   * Deserializes raw input, held in a buffer, into the target class.
+   *
+   * <p>The default implementation copies the buffer, serializers should override it when they can read from
+   * the buffer directly.</p>
+   *
+   * @param target the target class.
+   * @param input the raw input.
+   * @param <T> the generic type to deserialize into.
+   * @return the deserialized output.
+   */
+  @Stability.Volatile
+  default <T> T deserialize(Class<T> target, ByteBuffer input) {
+    return deserialize(target, Bytes.toByteArray(input));
+  }
+
+  /**
+   * Deserializes raw input, held in a buffer, into the target type.
+   *
+   * @param target the target type.
+   * @param input the raw input.
+   * @param <T> the type to deserialize into.
+   * @return the deserialized output.
+   */
+  @Stability.Volatile
+  default <T> T deserialize(TypeRef<T> target, ByteBuffer input) {
+    return deserialize(target, Bytes.toByteArray(input));
+  }
+
 }
@@ -20,6 +20,7 @@ import com.couchbase.client.core.error.DecodingFailedException;
 import com.couchbase.client.core.msg.kv.CodecFlags;
 import com.couchbase.client.java.CommonOptions;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 public class RawStringTranscoder implements Transcoder {
@@ -52,4 +53,14 @@ public class RawStringTranscoder implements Transcoder {
     }
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T decode(final Class<T> target, final ByteBuffer input, int flags) {
+    if (target.isAssignableFrom(String.class)) {
+      return (T) StandardCharsets.UTF_8.decode(input.duplicate()).toString();
+    } else {
+      throw new DecodingFailedException("RawStringTranscoder can only decode into String!");
+    }
+  }
+
 }
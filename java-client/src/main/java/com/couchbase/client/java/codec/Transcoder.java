@@ -16,7 +16,11 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.error.DecodingFailedException;
+import com.couchbase.client.core.util.Bytes;
+
+import java.nio.ByteBuffer;
 
 /**
  * The transcoder is responsible for transcoding KV binary packages between their binary and their java object
@@ -54,6 +58,38 @@ public interface Transcoder {
     throw new DecodingFailedException(getClass().getSimpleName() + " does not support decoding via TypeRef.");
   }
 
+  /**
+   * Decodes the wire representation, held in a buffer, into the entity based on the data format.
+   *
+   * <p>This is used when the result retains its content instead of copying it into an array. The default
+   * implementation copies the buffer and delegates to {@link #decode(Class, byte[], int)}, so transcoders should
+   * override it when they can decode straight from the buffer. The buffer is only valid during the call.</p>
+   *
+   * @param target the target type to decode.
+   * @param input the wire representation to decode.
+   * @param flags the flags on the wire
+   * @return the decoded entity.
+   */
+  @Stability.Volatile
+  default <T> T decode(Class<T> target, ByteBuffer input, int flags) {
+    return decode(target, Bytes.toByteArray(input), flags);
+  }
+
+  /**
+   * Decodes the wire representation, held in a buffer, into the entity based on the data format.
+   *
+   * <p>The default implementation copies the buffer and delegates to {@link #decode(TypeRef, byte[], int)}.</p>
+   *
+   * @param target the target type to decode.
+   * @param input the wire representation to decode.
+   * @param flags the flags on the wire
+   * @return the decoded entity.
+   */
+  @Stability.Volatile
+  default <T> T decode(TypeRef<T> target, ByteBuffer input, int flags) {
+    return decode(target, Bytes.toByteArray(input), flags);
+  }
+
   /**
    * Represents the tuple of encoded value and flags to be used on the wire.
    */
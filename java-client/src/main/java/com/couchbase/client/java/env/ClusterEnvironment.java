@@ -16,12 +16,14 @@
 
 package com.couchbase.client.java.env;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.java.codec.DefaultJsonSerializer;
 import com.couchbase.client.java.codec.JacksonJsonSerializer;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.codec.JsonTranscoder;
 import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.query.QueryAccessor;
 
 import static com.couchbase.client.core.util.CbObjects.defaultIfNull;
 import static com.couchbase.client.core.util.Validators.notNull;
@@ -30,11 +32,15 @@ public class ClusterEnvironment extends CoreEnvironment {
 
   private final JsonSerializer jsonSerializer;
   private final Transcoder transcoder;
+  private final int preparedStatementCacheSize;
+  private final NearCacheConfig nearCacheConfig;
 
   private ClusterEnvironment(Builder builder) {
     super(builder);
     this.jsonSerializer = defaultIfNull(builder.jsonSerializer, () -> newDefaultSerializer());
     this.transcoder = defaultIfNull(builder.transcoder, () -> JsonTranscoder.create(jsonSerializer));
+    this.preparedStatementCacheSize = builder.preparedStatementCacheSize;
+    this.nearCacheConfig = builder.nearCacheConfig.build();
   }
 
   private JsonSerializer newDefaultSerializer() {
@@ -79,10 +85,25 @@ public class ClusterEnvironment extends CoreEnvironment {
     return jsonSerializer;
   }
 
+  /**
+   * Returns the maximum number of prepared N1QL statements kept per cluster.
+   */
+  @Stability.Volatile
+  public int preparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
+  @Stability.Volatile
+  public NearCacheConfig nearCacheConfig() {
+    return nearCacheConfig;
+  }
+
   public static class Builder extends CoreEnvironment.Builder<Builder> {
 
     private JsonSerializer jsonSerializer;
     private Transcoder transcoder;
+    private int preparedStatementCacheSize = QueryAccessor.DEFAULT_QUERY_CACHE_SIZE;
+    private NearCacheConfig.Builder nearCacheConfig = NearCacheConfig.builder();
 
     Builder() {
       super();
@@ -124,6 +145,42 @@ public class ClusterEnvironment extends CoreEnvironment {
       return this;
     }
 
+    /**
+     * Sets the maximum number of prepared N1QL statements kept per cluster.
+     *
+     * <p>Non-adhoc queries whose statement is not in the cache need an extra round trip to prepare
+     * it first, so this should be at least the number of distinct statements in use.</p>
+     *
+     * @param preparedStatementCacheSize the maximum number of cached prepared statements.
+     * @return this builder for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder preparedStatementCacheSize(final int preparedStatementCacheSize) {
+      if (preparedStatementCacheSize < 0) {
+        throw new IllegalArgumentException("The prepared statement cache size must not be negative");
+      }
+      this.preparedStatementCacheSize = preparedStatementCacheSize;
+      return this;
+    }
+
+    /**
+     * Configures the client-side near cache for documents, see {@link NearCacheConfig}.
+     *
+     * @param nearCacheConfig the near cache config builder.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder nearCacheConfig(final NearCacheConfig.Builder nearCacheConfig) {
+      notNull(nearCacheConfig, "NearCacheConfig");
+      this.nearCacheConfig = nearCacheConfig;
+      return this;
+    }
+
+    @Stability.Volatile
+    public NearCacheConfig.Builder nearCacheConfig() {
+      return nearCacheConfig;
+    }
+
     public ClusterEnvironment build() {
       return new ClusterEnvironment(this);
     }
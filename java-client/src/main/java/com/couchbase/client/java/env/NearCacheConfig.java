@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.env;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.time.Duration;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+
+/**
+ * Allows configuring the client-side near cache for documents read through {@code Collection.get}.
+ * <p>
+ * If enabled, every collection keeps the documents it recently fetched in memory and answers repeated reads from
+ * there, without going over the network. Entries expire after a time to live and are evicted by frequency once the
+ * cache is full. Mutations made through the same cluster instance invalidate the entry right away, but writes from
+ * other clients only become visible once the entry expired, unless the CAS of every cached read is revalidated.
+ * <p>
+ * Reads with projections, the expiry or retained content bypass the cache. Cached results share their content,
+ * so arrays decoded through a raw binary transcoder must not be modified.
+ *
+ * @since 3.0.0
+ */
+@Stability.Volatile
+public class NearCacheConfig {
+
+  public static final boolean DEFAULT_ENABLED = false;
+  public static final int DEFAULT_MAX_ENTRIES = 10_000;
+  public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+  public static final Duration DEFAULT_TTL = Duration.ofSeconds(10);
+  public static final boolean DEFAULT_REVALIDATE = false;
+  public static final Duration DEFAULT_EMIT_INTERVAL = Duration.ofSeconds(10);
+
+  /**
+   * If the near cache is enabled.
+   */
+  private final boolean enabled;
+
+  /**
+   * The maximum number of documents cached per collection.
+   */
+  private final int maxEntries;
+
+  /**
+   * The maximum number of content bytes cached per collection.
+   */
+  private final long maxBytes;
+
+  /**
+   * How long a document is served from the cache after it has been fetched.
+   */
+  private final Duration ttl;
+
+  /**
+   * If the CAS of every cached document is checked against the server before it is returned.
+   */
+  private final boolean revalidate;
+
+  /**
+   * The interval at which the cache statistics are emitted.
+   */
+  private final Duration emitInterval;
+
+  /**
+   * Creates a {@link NearCacheConfig} with default arguments.
+   *
+   * @return a new {@link NearCacheConfig}.
+   */
+  public static NearCacheConfig create() {
+    return builder().build();
+  }
+
+  /**
+   * This builder allows to customize a {@link NearCacheConfig}.
+   *
+   * @return a builder to configure {@link NearCacheConfig}.
+   */
+  public static Builder builder() {
+    return new NearCacheConfig.Builder();
+  }
+
+  /**
+   * Enables or disables the near cache.
+   *
+   * @param enabled true to enable, false otherwise.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder enable(final boolean enabled) {
+    return builder().enable(enabled);
+  }
+
+  /**
+   * The maximum number of documents cached per collection.
+   *
+   * @param maxEntries the maximum number of documents.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder maxEntries(final int maxEntries) {
+    return builder().maxEntries(maxEntries);
+  }
+
+  /**
+   * The maximum number of content bytes cached per collection.
+   *
+   * @param maxBytes the maximum number of bytes.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder maxBytes(final long maxBytes) {
+    return builder().maxBytes(maxBytes);
+  }
+
+  /**
+   * How long a document is served from the cache after it has been fetched.
+   *
+   * @param ttl the time to live of an entry.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder ttl(final Duration ttl) {
+    return builder().ttl(ttl);
+  }
+
+  /**
+   * If the CAS of every cached document is checked against the server before it is returned.
+   *
+   * @param revalidate true to revalidate every hit.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder revalidate(final boolean revalidate) {
+    return builder().revalidate(revalidate);
+  }
+
+  /**
+   * The interval at which the cache statistics are emitted on the event bus.
+   *
+   * @param emitInterval the emit interval.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder emitInterval(final Duration emitInterval) {
+    return builder().emitInterval(emitInterval);
+  }
+
+  /**
+   * Internal constructor for a near cache config.
+   *
+   * @param builder the builder used to customize the options.
+   */
+  private NearCacheConfig(final Builder builder) {
+    this.enabled = builder.enabled;
+    this.maxEntries = builder.maxEntries;
+    this.maxBytes = builder.maxBytes;
+    this.ttl = builder.ttl;
+    this.revalidate = builder.revalidate;
+    this.emitInterval = builder.emitInterval;
+  }
+
+  /**
+   * True if the near cache is enabled, false otherwise.
+   */
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the maximum number of documents cached per collection.
+   */
+  public int maxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Returns the maximum number of content bytes cached per collection.
+   */
+  public long maxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Returns how long a document is served from the cache after it has been fetched.
+   */
+  public Duration ttl() {
+    return ttl;
+  }
+
+  /**
+   * True if the CAS of every cached document is checked against the server before it is returned.
+   */
+  public boolean revalidate() {
+    return revalidate;
+  }
+
+  /**
+   * Returns the interval at which the cache statistics are emitted.
+   */
+  public Duration emitInterval() {
+    return emitInterval;
+  }
+
+  /**
+   * This builder allows to customize the {@link NearCacheConfig}.
+   */
+  public static class Builder {
+
+    private boolean enabled = DEFAULT_ENABLED;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private Duration ttl = DEFAULT_TTL;
+    private boolean revalidate = DEFAULT_REVALIDATE;
+    private Duration emitInterval = DEFAULT_EMIT_INTERVAL;
+
+    public NearCacheConfig build() {
+      return new NearCacheConfig(this);
+    }
+
+    /**
+     * Enables or disables the near cache.
+     *
+     * <p>The default is disabled.</p>
+     *
+     * @param enabled true to enable, false otherwise.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder enable(final boolean enabled) {
+      this.enabled = enabled;
+      return this;
+    }
+
+    /**
+     * The maximum number of documents cached per collection.
+     *
+     * <p>The default is 10000.</p>
+     *
+     * @param maxEntries the maximum number of documents.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder maxEntries(final int maxEntries) {
+      if (maxEntries < 1) {
+        throw new IllegalArgumentException("The maximum number of entries must be at least 1");
+      }
+      this.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * The maximum number of content bytes cached per collection.
+     *
+     * <p>Documents larger than this are never cached. The default is 64 MiB.</p>
+     *
+     * @param maxBytes the maximum number of bytes.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder maxBytes(final long maxBytes) {
+      if (maxBytes < 1) {
+        throw new IllegalArgumentException("The maximum number of bytes must be at least 1");
+      }
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    /**
+     * How long a document is served from the cache after it has been fetched.
+     *
+     * <p>This bounds how stale a document changed by another client can be, unless hits are revalidated. The
+     * default is 10 seconds.</p>
+     *
+     * @param ttl the time to live of an entry.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder ttl(final Duration ttl) {
+      notNull(ttl, "TTL");
+      this.ttl = ttl;
+      return this;
+    }
+
+    /**
+     * If the CAS of every cached document is checked against the server before it is returned.
+     *
+     * <p>A revalidated hit still needs a round trip, but only a small metadata lookup instead of fetching and
+     * decoding the full document. If the CAS changed, the document is fetched again. The default is false.</p>
+     *
+     * @param revalidate true to revalidate every hit.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder revalidate(final boolean revalidate) {
+      this.revalidate = revalidate;
+      return this;
+    }
+
+    /**
+     * The interval at which the cache statistics are emitted on the event bus.
+     *
+     * <p>The default is 10 seconds.</p>
+     *
+     * @param emitInterval the emit interval.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder emitInterval(final Duration emitInterval) {
+      notNull(emitInterval, "EmitInterval");
+      if (emitInterval.isZero() || emitInterval.isNegative()) {
+        throw new IllegalArgumentException("The emit interval must be positive");
+      }
+      this.emitInterval = emitInterval;
+      return this;
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+/**
+ * A count-min sketch with 4-bit counters which estimates how often a key has been seen recently.
+ * <p>
+ * Every long in the table holds sixteen counters, and each key maps to four of them in different slots. Once as
+ * many increments as ten times the table size have been recorded, all counters are halved, so the estimates
+ * favor recent popularity. This is the admission filter of the TinyLFU policy and is not thread safe on its own.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = new long[] {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final int MAX_COUNT = 15;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+
+  /**
+   * Creates a sketch sized for the given number of cached entries.
+   *
+   * @param maximumSize the maximum number of entries of the cache.
+   */
+  FrequencySketch(final int maximumSize) {
+    int capacity = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 30)) - 1) << 1;
+    this.table = new long[capacity];
+    this.tableMask = capacity - 1;
+    this.sampleSize = 10 * capacity;
+  }
+
+  /**
+   * Returns the estimated number of recent occurrences, at most 15.
+   *
+   * @param hash the hash of the key.
+   */
+  int frequency(final int hash) {
+    int start = (hash & 3) << 2;
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records an occurrence of the key, ages all counters once the sample size is reached.
+   *
+   * @param hash the hash of the key.
+   */
+  void increment(final int hash) {
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(final int index, final int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = size >>> 1;
+  }
+
+  private int indexOf(final int hash, final int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+}
@@ -43,6 +43,10 @@ public enum GetAccessor {
   /**
    * Takes a {@link GetRequest} and dispatches, converts and returns the result.
    *
+   * <p>The latency of a read from the active partition is recorded once it is answered, but also once it is cancelled
+   * (for example because a hedged replica read won or it timed out). The elapsed time of a cancelled read is only a
+   * lower bound of its latency, but leaving it out would hide exactly the slow reads the window is meant to capture.</p>
+   *
    * @param core the core reference to dispatch into.
    * @param request the request to dispatch and convert once a response arrives.
    * @param transcoder the transcoder used to decode the response body.
@@ -50,26 +54,46 @@ public enum GetAccessor {
    */
   public static CompletableFuture<GetResult> get(final Core core, final GetRequest request, final Transcoder transcoder) {
     core.send(request);
+    if (!(request instanceof ReplicaGetRequest)) {
+      request.response().whenComplete((response, throwable) -> {
+        if (throwable == null || request.cancelled()) {
+          core.kvReadLatencies().record(System.nanoTime() - request.createdAt());
+        }
+      });
+    }
     return request
       .response()
-      .thenApply(response -> {
-        if (response.status().success()) {
-          return new GetResult(response.content(), response.flags(), response.cas(), Optional.empty(), transcoder);
-        }
-
-        final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
-        switch (response.status()) {
-          case NOT_FOUND: throw new DocumentNotFoundException(ctx);
-          case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
-          case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
-          case TEMPORARY_FAILURE: // intended fallthrough to the case below
-          case SERVER_BUSY: throw new TemporaryFailureException(ctx);
-          default: throw new CouchbaseException("Get operation failed", ctx);
-        }
-      })
+      .thenApply(response -> parseGet(request, response, transcoder))
       .whenComplete((t, e) -> request.context().logicallyComplete());
   }
 
+  /**
+   * Converts the response of a {@link GetRequest} into a {@link GetResult} or throws the matching exception.
+   *
+   * @param request the request which has been dispatched.
+   * @param response the response which arrived for the request.
+   * @param transcoder the transcoder used to decode the response body.
+   * @return the decoded result if successful.
+   */
+  static GetResult parseGet(final GetRequest request, final GetResponse response, final Transcoder transcoder) {
+    if (response.status().success()) {
+      if (response.contentBuffer() != null) {
+        return new GetResult(response.contentBuffer(), response.flags(), response.cas(), Optional.empty(), transcoder);
+      }
+      return new GetResult(response.content(), response.flags(), response.cas(), Optional.empty(), transcoder);
+    }
+
+    final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
+    switch (response.status()) {
+      case NOT_FOUND: throw new DocumentNotFoundException(ctx);
+      case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
+      case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
+      case TEMPORARY_FAILURE: // intended fallthrough to the case below
+      case SERVER_BUSY: throw new TemporaryFailureException(ctx);
+      default: throw new CouchbaseException("Get operation failed", ctx);
+    }
+  }
+
   /**
    * Takes a {@link GetAndLockRequest} and dispatches, converts and returns the result.
    *
@@ -129,20 +153,31 @@ public enum GetAccessor {
     core.send(request);
     return request
       .response()
-      .thenApply(response -> {
-        if (response.status().success() || response.status() == ResponseStatus.SUBDOC_FAILURE) {
-          return parseSubdocGet(response, transcoder);
-        }
-        final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
-        switch (response.status()) {
-          case NOT_FOUND: throw new DocumentNotFoundException(ctx);
-          case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
-          case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
-          case TEMPORARY_FAILURE: // intended fallthrough to the case below
-          case SERVER_BUSY: throw new TemporaryFailureException(ctx);
-          default: throw new CouchbaseException("Get operation failed", ctx);
-        }
-      });
+      .thenApply(response -> parseSubdocGet(request, response, transcoder));
+  }
+
+  /**
+   * Converts the response of a {@link SubdocGetRequest} into a {@link GetResult} or throws the matching exception.
+   *
+   * @param request the request which has been dispatched.
+   * @param response the response which arrived for the request.
+   * @param transcoder the transcoder used to decode the response body.
+   * @return the decoded result if successful.
+   */
+  static GetResult parseSubdocGet(final SubdocGetRequest request, final SubdocGetResponse response,
+                                  final Transcoder transcoder) {
+    if (response.status().success() || response.status() == ResponseStatus.SUBDOC_FAILURE) {
+      return parseSubdocGet(response, transcoder);
+    }
+    final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
+    switch (response.status()) {
+      case NOT_FOUND: throw new DocumentNotFoundException(ctx);
+      case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
+      case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
+      case TEMPORARY_FAILURE: // intended fallthrough to the case below
+      case SERVER_BUSY: throw new TemporaryFailureException(ctx);
+      default: throw new CouchbaseException("Get operation failed", ctx);
+    }
   }
 
   private static GetResult parseSubdocGet(final SubdocGetResponse response, Transcoder transcoder) {
@@ -20,6 +20,9 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.java.CommonOptions;
 import com.couchbase.client.java.codec.Transcoder;
 
+import java.time.Duration;
+import java.util.Optional;
+
 import static com.couchbase.client.core.util.Validators.notNull;
 
 public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
@@ -29,6 +32,16 @@ public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
    */
   private Transcoder transcoder;
 
+  /**
+   * Holds the fixed delay after which the replicas are read as well, if hedging.
+   */
+  private Duration hedgeAfter;
+
+  /**
+   * Holds the latency percentile the hedging delay is derived from, 0 if not hedging by percentile.
+   */
+  private double hedgeAfterPercentile;
+
   /**
    * Creates a new set of {@link GetAnyReplicaOptions}.
    *
@@ -53,6 +66,41 @@ public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
     return this;
   }
 
+  /**
+   * Reads from the active partition first and from the replicas only if it has not answered after the given delay.
+   *
+   * <p>By default all copies are read at once. In hedged mode the first successful result is returned and the other
+   * reads are cancelled, and a failure from the active partition sends the replica reads right away.</p>
+   *
+   * @param delay the delay after which the replicas are read as well.
+   * @return the {@link GetAnyReplicaOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetAnyReplicaOptions hedgeAfter(final Duration delay) {
+    notNull(delay, "HedgeAfter");
+    this.hedgeAfter = delay;
+    this.hedgeAfterPercentile = 0;
+    return this;
+  }
+
+  /**
+   * Reads from the active partition first and from the replicas only if it has not answered within the given
+   * percentile of the latencies recently observed for reads from active partitions.
+   *
+   * <p>Until enough latencies have been observed, {@link HedgedRead#FALLBACK_DELAY} is used. See
+   * {@link #hedgeAfter(Duration)} for the semantics of hedged reads.</p>
+   *
+   * @param percentile the latency percentile, for example 95.
+   * @return the {@link GetAnyReplicaOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetAnyReplicaOptions hedgeAfterPercentile(final double percentile) {
+    HedgedRead.validatePercentile(percentile);
+    this.hedgeAfterPercentile = percentile;
+    this.hedgeAfter = null;
+    return this;
+  }
+
   @Stability.Internal
   public Built build() {
     return new Built();
@@ -64,6 +112,18 @@ public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
       return transcoder;
     }
 
+    public boolean hedged() {
+      return hedgeAfter != null || hedgeAfterPercentile > 0;
+    }
+
+    public Optional<Duration> hedgeAfter() {
+      return Optional.ofNullable(hedgeAfter);
+    }
+
+    public double hedgeAfterPercentile() {
+      return hedgeAfterPercentile;
+    }
+
   }
 
 }
@@ -17,14 +17,17 @@
 package com.couchbase.client.java.kv;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.java.CommonOptions;
 import com.couchbase.client.java.codec.Transcoder;
 import com.couchbase.client.java.json.JsonObject;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.couchbase.client.core.util.CbStrings.isNullOrEmpty;
@@ -64,6 +67,21 @@ public class GetOptions extends CommonOptions<GetOptions> {
    */
   private Transcoder transcoder;
 
+  /**
+   * If the content should be retained as a buffer instead of being copied.
+   */
+  private boolean retainContent;
+
+  /**
+   * Holds the fixed delay after which the replicas are read as well, if hedging.
+   */
+  private Duration hedgeAfter;
+
+  /**
+   * Holds the latency percentile the hedging delay is derived from, 0 if not hedging by percentile.
+   */
+  private double hedgeAfterPercentile;
+
   private GetOptions() {
     withExpiry = false;
   }
@@ -130,6 +148,63 @@ public class GetOptions extends CommonOptions<GetOptions> {
     return this;
   }
 
+  /**
+   * If set to true, the content of the document is not copied out of the network buffer but retained and
+   * decoded straight from it.
+   *
+   * <p>This avoids allocating an intermediate byte array for every read, but the content of the returned
+   * {@link GetResult} can only be decoded once: the buffer is released right after, and decoding it again throws
+   * an {@link IllegalStateException}. A result whose content is not going to be decoded must be released through
+   * {@link GetResult#release()}, since its pooled buffer is never returned to the pool otherwise. The reactive API
+   * releases results which are discarded because the subscriber cancelled. It has no effect if projections or the expiry are requested, and it cannot be combined with hedged reads.</p>
+   *
+   * @param retainContent true if the content should be retained.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions retainContent(final boolean retainContent) {
+    this.retainContent = retainContent;
+    return this;
+  }
+
+  /**
+   * Reads from the active partition first and from the replicas only if it has not answered after the given delay.
+   *
+   * <p>The first successful result is returned and the other reads are cancelled, so only reads which are slow on the
+   * active partition put load on the replicas. A failure from the active partition (like the document not being
+   * found) is still returned as-is, and a result from a replica may be stale. It has no effect if projections or the
+   * expiry are requested, and it cannot be combined with {@link #retainContent(boolean)}: the get fails with an
+   * {@link InvalidArgumentException} instead.</p>
+   *
+   * @param delay the delay after which the replicas are read as well.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions hedgeAfter(final Duration delay) {
+    notNull(delay, "HedgeAfter");
+    this.hedgeAfter = delay;
+    this.hedgeAfterPercentile = 0;
+    return this;
+  }
+
+  /**
+   * Reads from the active partition first and from the replicas only if it has not answered within the given
+   * percentile of the latencies recently observed for reads from active partitions.
+   *
+   * <p>Until enough latencies have been observed, {@link HedgedRead#FALLBACK_DELAY} is used. See
+   * {@link #hedgeAfter(Duration)} for the semantics of hedged reads.</p>
+   *
+   * @param percentile the latency percentile, for example 95.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions hedgeAfterPercentile(final double percentile) {
+    HedgedRead.validatePercentile(percentile);
+    this.hedgeAfterPercentile = percentile;
+    this.hedgeAfter = null;
+    return this;
+  }
+
   @Stability.Internal
   public Built build() {
     return new Built();
@@ -150,6 +225,22 @@ public class GetOptions extends CommonOptions<GetOptions> {
       return transcoder;
     }
 
+    public boolean retainContent() {
+      return retainContent;
+    }
+
+    public boolean hedged() {
+      return hedgeAfter != null || hedgeAfterPercentile > 0;
+    }
+
+    public Optional<Duration> hedgeAfter() {
+      return Optional.ofNullable(hedgeAfter);
+    }
+
+    public double hedgeAfterPercentile() {
+      return hedgeAfterPercentile;
+    }
+
   }
 
 }
@@ -16,15 +16,12 @@
 
 package com.couchbase.client.java.kv;
 
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.java.codec.Transcoder;
 
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.Objects;
 import java.util.Optional;
 
-import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
-
 /**
  * Extends GetResult to include additional information for get-from-replica style calls.
  *
@@ -51,7 +48,35 @@ public class GetReplicaResult extends GetResult {
     this.isReplica = isReplica;
   }
 
+  /**
+   * Creates a new {@link GetReplicaResult} which decodes straight from the retained content buffer.
+   */
+  private GetReplicaResult(final ByteBuf contentBuffer,
+                           final int flags,
+                           final long cas,
+                           final Optional<Duration> expiration,
+                           Transcoder transcoder,
+                           boolean isReplica) {
+    super(contentBuffer, flags, cas, expiration, transcoder);
+    this.isReplica = isReplica;
+  }
+
+  /**
+   * Creates a new {@link GetReplicaResult} from a {@link GetResult}.
+   *
+   * <p>If the content of the given result is retained, the new result takes it over and the given result can no
+   * longer be decoded.</p>
+   *
+   * @param response the result to convert.
+   * @param isReplica whether a replica returned the result.
+   * @return the created result.
+   */
   public static GetReplicaResult from(GetResult response, boolean isReplica) {
+    ByteBuf contentBuffer = response.takeContentBuffer();
+    if (contentBuffer != null) {
+      return new GetReplicaResult(contentBuffer, response.flags, response.cas(), response.expiry(),
+        response.transcoder, isReplica);
+    }
     return new GetReplicaResult(response.content,
             response.flags,
             response.cas(),
@@ -70,7 +95,7 @@ public class GetReplicaResult extends GetResult {
   @Override
   public String toString() {
     return "GetReplicaResult{" +
-            "content=" + redactUser(Arrays.toString(content)) +
+            "content=" + contentToString() +
             ", flags=" + flags +
             ", cas=" + cas() +
             ", expiration=" + expiry() +
@@ -91,6 +116,6 @@ public class GetReplicaResult extends GetResult {
 
   @Override
   public int hashCode() {
-    return Objects.hash(content, flags, cas(), expiry(), isReplica);
+    return 31 * super.hashCode() + Boolean.hashCode(isReplica);
   }
 }
@@ -16,6 +16,10 @@
 
 package com.couchbase.client.java.kv;
 
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+import com.couchbase.client.core.util.RetainedBuffer;
 import com.couchbase.client.java.codec.Transcoder;
 import com.couchbase.client.java.codec.TypeRef;
 import com.couchbase.client.java.json.JsonArray;
@@ -60,6 +64,11 @@ public class GetResult {
    */
   protected final Transcoder transcoder;
 
+  /**
+   * Holds the content if {@link GetOptions#retainContent(boolean)} is used, null otherwise.
+   */
+  private final RetainedBuffer retained;
+
   /**
    * Creates a new {@link GetResult}.
    *
@@ -67,8 +76,24 @@ public class GetResult {
    * @param expiry the expiry if fetched from the doc.
    */
   GetResult(final byte[] content, final int flags, final long cas, final Optional<Duration> expiry, Transcoder transcoder) {
+    this(content, null, flags, cas, expiry, transcoder);
+  }
+
+  /**
+   * Creates a new {@link GetResult} which decodes straight from the retained content buffer.
+   *
+   * @param contentBuffer the retained content, released once decoded or released explicitly.
+   */
+  GetResult(final ByteBuf contentBuffer, final int flags, final long cas, final Optional<Duration> expiry,
+            final Transcoder transcoder) {
+    this(null, contentBuffer, flags, cas, expiry, transcoder);
+  }
+
+  private GetResult(final byte[] content, final ByteBuf contentBuffer, final int flags, final long cas,
+                    final Optional<Duration> expiry, final Transcoder transcoder) {
     this.cas = cas;
     this.content = content;
+    this.retained = contentBuffer == null ? null : new RetainedBuffer(contentBuffer);
     this.flags = flags;
     this.expiry = expiry;
     this.transcoder = transcoder;
@@ -93,6 +118,8 @@ public class GetResult {
 
   /**
    * Decodes the content of the document into a {@link JsonObject}.
+   *
+   * @throws IllegalStateException if the content is retained and has already been decoded or released.
    */
   public JsonObject contentAsObject() {
     return contentAs(JsonObject.class);
@@ -100,6 +127,8 @@ public class GetResult {
 
   /**
    * Decodes the content of the document into a {@link JsonArray}.
+   *
+   * @throws IllegalStateException if the content is retained and has already been decoded or released.
    */
   public JsonArray contentAsArray() {
     return contentAs(JsonArray.class);
@@ -108,9 +137,21 @@ public class GetResult {
   /**
    * Decodes the content of the document into an instance of the target class.
    *
+   * <p>If the content is retained (see {@link GetOptions#retainContent(boolean)}), it can only be decoded once
+   * since the buffer is released right after.</p>
+   *
    * @param target the target class to decode the encoded content into.
+   * @throws IllegalStateException if the content is retained and has already been decoded or released.
    */
   public <T> T contentAs(final Class<T> target) {
+    if (retained != null) {
+      final ByteBuf buffer = takeContentBuffer();
+      try {
+        return transcoder.decode(target, buffer.nioBuffer(), flags);
+      } finally {
+        ReferenceCountUtil.release(buffer);
+      }
+    }
     return transcoder.decode(target, content, flags);
   }
 
@@ -121,16 +162,69 @@ public class GetResult {
    * List&lt;String> strings = result.contentAs(new TypeRef&lt;List&lt;String>>(){});
    * </pre>
    *
+   * <p>If the content is retained (see {@link GetOptions#retainContent(boolean)}), it can only be decoded once
+   * since the buffer is released right after.</p>
+   *
    * @param target the type to decode the encoded content into.
+   * @throws IllegalStateException if the content is retained and has already been decoded or released.
    */
   public <T> T contentAs(final TypeRef<T> target) {
+    if (retained != null) {
+      final ByteBuf buffer = takeContentBuffer();
+      try {
+        return transcoder.decode(target, buffer.nioBuffer(), flags);
+      } finally {
+        ReferenceCountUtil.release(buffer);
+      }
+    }
     return transcoder.decode(target, content, flags);
   }
 
+  /**
+   * Releases the retained content without decoding it.
+   *
+   * <p>Only has an effect if {@link GetOptions#retainContent(boolean)} is used and the content has not been decoded
+   * yet. A result whose content is not going to be decoded must be released, otherwise its pooled buffer is never
+   * returned to the pool. Calling this method more than once is safe.</p>
+   */
+  @Stability.Volatile
+  public void release() {
+    if (retained != null) {
+      retained.release();
+    }
+  }
+
+  /**
+   * Takes ownership of the retained content buffer, which can only happen once.
+   *
+   * @return the buffer, or null if the content is not retained.
+   */
+  ByteBuf takeContentBuffer() {
+    if (retained == null) {
+      return null;
+    }
+    final ByteBuf buffer = retained.take();
+    if (buffer == null) {
+      throw new IllegalStateException("The retained content has already been decoded or released, it can only be "
+        + "decoded once.");
+    }
+    return buffer;
+  }
+
+  /**
+   * Renders the content for {@link #toString()} without consuming retained content.
+   */
+  String contentToString() {
+    if (retained != null) {
+      return "<retained " + retained.length() + " bytes" + (retained.available() ? "" : ", released") + ">";
+    }
+    return redactUser(Arrays.toString(content)).toString();
+  }
+
   @Override
   public String toString() {
     return "GetResult{" +
-      "content=" + redactUser(Arrays.toString(content)) +
+      "content=" + contentToString() +
       ", flags=" + flags +
       ", cas=" + cas +
       ", expiry=" + expiry +
@@ -145,13 +239,14 @@ public class GetResult {
     return flags == getResult.flags &&
       cas == getResult.cas &&
       Arrays.equals(content, getResult.content) &&
+      retained == getResult.retained &&
       Objects.equals(expiry, getResult.expiry) &&
       Objects.equals(transcoder, getResult.transcoder);
   }
 
   @Override
   public int hashCode() {
-    int result = Objects.hash(flags, cas, expiry, transcoder);
+    int result = Objects.hash(flags, cas, expiry, transcoder, retained);
     result = 31 * result + Arrays.hashCode(content);
     return result;
   }
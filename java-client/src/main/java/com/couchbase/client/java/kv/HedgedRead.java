@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.DocumentUnretrievableException;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.error.AggregateErrorContext;
+import com.couchbase.client.core.error.ErrorContext;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
+import com.couchbase.client.java.codec.Transcoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a document from the active partition first and only falls back to the replicas if it is slow.
+ * <p>
+ * Reading from all copies at once (like {@code getAnyReplica} does by default) always multiplies the load by the
+ * number of copies. A hedged read only sends the replica reads if the active has not answered after a delay (or
+ * failed), and the first successful result cancels all others. With a delay around a high percentile of the usual
+ * active latency, most of the tail latency benefit is kept while only a small fraction of reads is duplicated.
+ */
+@Stability.Internal
+public enum HedgedRead {
+  ;
+
+  /**
+   * The delay used if a percentile is requested but not enough latencies have been observed yet.
+   */
+  public static final Duration FALLBACK_DELAY = Duration.ofMillis(10);
+
+  /**
+   * Validates a percentile passed to one of the hedging options.
+   *
+   * @param percentile the percentile to check.
+   */
+  static void validatePercentile(final double percentile) {
+    if (!(percentile > 0 && percentile <= 100)) {
+      throw new InvalidArgumentException("The hedging percentile must be in (0, 100], but is " + percentile,
+        null, null);
+    }
+  }
+
+  /**
+   * Determines the delay after which the replica reads are sent.
+   *
+   * @param core the core which observes the active read latencies.
+   * @param hedgeAfter the fixed delay, if configured.
+   * @param percentile the latency percentile to derive the delay from, if no fixed delay is configured.
+   * @return the delay to use.
+   */
+  public static Duration delay(final Core core, final Optional<Duration> hedgeAfter, final double percentile) {
+    if (hedgeAfter.isPresent()) {
+      return hedgeAfter.get();
+    }
+    return core.kvReadLatencies().percentile(percentile).orElse(FALLBACK_DELAY);
+  }
+
+  /**
+   * Performs the hedged read.
+   *
+   * @param core the core reference to dispatch into.
+   * @param requests the read from the active partition, followed by the replica reads.
+   * @param transcoder the transcoder used to decode the response body.
+   * @param delay the delay after which the replica reads are sent.
+   * @param activeAuthoritative if a failure from the active partition fails the read instead of being
+   *                            answered from the replicas.
+   * @return a {@link CompletableFuture} completing with the first successful result.
+   */
+  public static CompletableFuture<GetReplicaResult> read(final Core core, final List<GetRequest> requests,
+                                                         final Transcoder transcoder, final Duration delay,
+                                                         final boolean activeAuthoritative) {
+    final CompletableFuture<GetReplicaResult> result = new CompletableFuture<>();
+    final List<GetRequest> replicas = requests.subList(1, requests.size());
+    final AtomicBoolean hedged = new AtomicBoolean(false);
+    final AtomicInteger pending = new AtomicInteger(requests.size());
+    final List<ErrorContext> nestedContexts = Collections.synchronizedList(new ArrayList<>());
+
+    final Runnable hedge = () -> {
+      if (!result.isDone() && hedged.compareAndSet(false, true)) {
+        for (GetRequest replica : replicas) {
+          dispatch(core, replica, transcoder, requests, result, pending, nestedContexts, null);
+        }
+      }
+    };
+
+    dispatch(core, requests.get(0), transcoder, requests, result, pending, nestedContexts,
+      activeAuthoritative ? null : hedge);
+    if (!result.isDone() && !replicas.isEmpty()) {
+      core.context().environment().timer().schedule(hedge, delay);
+    }
+    return result;
+  }
+
+  /**
+   * Sends a single read and wires its outcome into the overall result.
+   *
+   * @param onFailure run when the read fails, if null a failure of the active read completes the result.
+   */
+  private static void dispatch(final Core core, final GetRequest request, final Transcoder transcoder,
+                               final List<GetRequest> requests, final CompletableFuture<GetReplicaResult> result,
+                               final AtomicInteger pending, final List<ErrorContext> nestedContexts,
+                               final Runnable onFailure) {
+    final boolean isReplica = request instanceof ReplicaGetRequest;
+    GetAccessor.get(core, request, transcoder).whenComplete((getResult, throwable) -> {
+      if (getResult != null) {
+        if (result.complete(GetReplicaResult.from(getResult, isReplica))) {
+          cancelOthers(request, requests);
+        }
+        return;
+      }
+
+      Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+      if (!isReplica && onFailure == null) {
+        if (result.completeExceptionally(cause)) {
+          cancelOthers(request, requests);
+        }
+        return;
+      }
+
+      if (cause instanceof CouchbaseException) {
+        nestedContexts.add(((CouchbaseException) cause).context());
+      }
+      if (onFailure != null) {
+        onFailure.run();
+      }
+      if (pending.decrementAndGet() == 0) {
+        result.completeExceptionally(new DocumentUnretrievableException(new AggregateErrorContext(nestedContexts)));
+      }
+    });
+  }
+
+  private static void cancelOthers(final GetRequest winner, final List<GetRequest> requests) {
+    for (GetRequest request : requests) {
+      if (request != winner && !request.completed()) {
+        request.cancel(CancellationReason.STOPPED_LISTENING);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.endpoint.EndpointWriteBatch;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.msg.kv.RemoveRequest;
+import com.couchbase.client.core.msg.kv.RemoveResponse;
+import com.couchbase.client.core.msg.kv.SubdocGetRequest;
+import com.couchbase.client.core.msg.kv.SubdocGetResponse;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.msg.kv.UpsertResponse;
+import com.couchbase.client.java.codec.Transcoder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Dispatches and aggregates the multi-key variants of the KV operations.
+ *
+ * <p>All requests of one operation are handed to the core in a single batch, so that writes into the same
+ * endpoint are pipelined as one burst. Instead of chaining a separate future per id, the individual responses
+ * are converted and collected directly into one {@link MultiResult}.</p>
+ */
+@Stability.Internal
+public enum MultiAccessor {
+  ;
+
+  public static CompletableFuture<MultiResult<GetResult>> get(final Core core, final List<String> ids,
+                                                              final List<GetRequest> requests,
+                                                              final Map<String, Throwable> failed,
+                                                              final Transcoder transcoder) {
+    return execute(core, ids, requests, failed,
+      (GetRequest request, GetResponse response) -> GetAccessor.parseGet(request, response, transcoder));
+  }
+
+  public static CompletableFuture<MultiResult<GetResult>> subdocGet(final Core core, final List<String> ids,
+                                                                    final List<SubdocGetRequest> requests,
+                                                                    final Map<String, Throwable> failed,
+                                                                    final Transcoder transcoder) {
+    return execute(core, ids, requests, failed,
+      (SubdocGetRequest request, SubdocGetResponse response) -> GetAccessor.parseSubdocGet(request, response, transcoder));
+  }
+
+  public static CompletableFuture<MultiResult<MutationResult>> upsert(final Core core, final List<String> ids,
+                                                                      final List<UpsertRequest> requests,
+                                                                      final Map<String, Throwable> failed,
+                                                                      final PersistTo persistTo,
+                                                                      final ReplicateTo replicateTo) {
+    if (persistTo == PersistTo.NONE && replicateTo == ReplicateTo.NONE) {
+      return execute(core, ids, requests, failed, UpsertAccessor::parseUpsert);
+    }
+
+    final List<CompletableFuture<MutationResult>> futures = new ArrayList<>(requests.size());
+    EndpointWriteBatch.begin();
+    try {
+      for (int i = 0; i < requests.size(); i++) {
+        futures.add(UpsertAccessor.upsert(core, requests.get(i), ids.get(i), persistTo, replicateTo));
+      }
+    } finally {
+      EndpointWriteBatch.end();
+    }
+    return collect(ids, futures, failed);
+  }
+
+  public static CompletableFuture<MultiResult<MutationResult>> remove(final Core core, final List<String> ids,
+                                                                      final List<RemoveRequest> requests,
+                                                                      final Map<String, Throwable> failed,
+                                                                      final PersistTo persistTo,
+                                                                      final ReplicateTo replicateTo) {
+    if (persistTo == PersistTo.NONE && replicateTo == ReplicateTo.NONE) {
+      return execute(core, ids, requests, failed, RemoveAccessor::parseRemove);
+    }
+
+    final List<CompletableFuture<MutationResult>> futures = new ArrayList<>(requests.size());
+    EndpointWriteBatch.begin();
+    try {
+      for (int i = 0; i < requests.size(); i++) {
+        futures.add(RemoveAccessor.remove(core, requests.get(i), ids.get(i), persistTo, replicateTo));
+      }
+    } finally {
+      EndpointWriteBatch.end();
+    }
+    return collect(ids, futures, failed);
+  }
+
+  /**
+   * Dispatches all requests as one batch and converts each response as it arrives.
+   *
+   * @param core the core reference to dispatch into.
+   * @param ids the document ids, in the same order as the requests.
+   * @param requests the requests to dispatch.
+   * @param failed ids which already failed before they could be dispatched.
+   * @param converter converts a single response into its result or throws the matching exception.
+   * @return a future completing once all requests are completed.
+   */
+  private static <REQ extends KeyValueRequest<RES>, RES extends Response, T> CompletableFuture<MultiResult<T>> execute(
+    final Core core, final List<String> ids, final List<REQ> requests, final Map<String, Throwable> failed,
+    final BiFunction<REQ, RES, T> converter) {
+    final Aggregator<T> aggregator = new Aggregator<>(ids, failed);
+    for (int i = 0; i < requests.size(); i++) {
+      final int index = i;
+      final REQ request = requests.get(i);
+      request.response().whenComplete((response, throwable) -> {
+        try {
+          if (throwable == null) {
+            aggregator.success(index, converter.apply(request, response));
+          } else {
+            aggregator.failure(index, throwable);
+          }
+        } catch (Throwable t) {
+          aggregator.failure(index, t);
+        } finally {
+          request.context().logicallyComplete();
+        }
+      });
+    }
+    core.sendBatch(requests);
+    return aggregator.result();
+  }
+
+  /**
+   * Collects already dispatched, individual futures into one result.
+   *
+   * @param ids the document ids, in the same order as the futures.
+   * @param futures the individual futures.
+   * @param failed ids which already failed before they could be dispatched.
+   * @return a future completing once all individual futures are completed.
+   */
+  private static <T> CompletableFuture<MultiResult<T>> collect(final List<String> ids,
+                                                               final List<CompletableFuture<T>> futures,
+                                                               final Map<String, Throwable> failed) {
+    final Aggregator<T> aggregator = new Aggregator<>(ids, failed);
+    for (int i = 0; i < futures.size(); i++) {
+      final int index = i;
+      futures.get(i).whenComplete((result, throwable) -> {
+        if (throwable == null) {
+          aggregator.success(index, result);
+        } else {
+          aggregator.failure(index, throwable);
+        }
+      });
+    }
+    return aggregator.result();
+  }
+
+  /**
+   * Stores the individual outcomes by index and completes the overall result once the last one arrived.
+   */
+  private static class Aggregator<T> {
+
+    private final List<String> ids;
+    private final Map<String, Throwable> failed;
+    private final Object[] results;
+    private final Throwable[] failures;
+    private final AtomicInteger remaining;
+    private final CompletableFuture<MultiResult<T>> result = new CompletableFuture<>();
+
+    Aggregator(final List<String> ids, final Map<String, Throwable> failed) {
+      this.ids = ids;
+      this.failed = failed;
+      this.results = new Object[ids.size()];
+      this.failures = new Throwable[ids.size()];
+      this.remaining = new AtomicInteger(ids.size());
+      if (ids.isEmpty()) {
+        complete();
+      }
+    }
+
+    void success(final int index, final T value) {
+      results[index] = value;
+      if (remaining.decrementAndGet() == 0) {
+        complete();
+      }
+    }
+
+    void failure(final int index, final Throwable throwable) {
+      failures[index] = throwable instanceof CompletionException && throwable.getCause() != null
+        ? throwable.getCause()
+        : throwable;
+      if (remaining.decrementAndGet() == 0) {
+        complete();
+      }
+    }
+
+    CompletableFuture<MultiResult<T>> result() {
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete() {
+      final Map<String, T> successes = new HashMap<>(ids.size());
+      final Map<String, Throwable> errors = new HashMap<>(failed);
+      for (int i = 0; i < ids.size(); i++) {
+        if (failures[i] != null) {
+          errors.put(ids.get(i), failures[i]);
+        } else {
+          successes.put(ids.get(i), (T) results[i]);
+        }
+      }
+      result.complete(new MultiResult<>(successes, errors));
+    }
+  }
+
+}
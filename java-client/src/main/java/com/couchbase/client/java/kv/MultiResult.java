@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.error.CouchbaseException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
+
+/**
+ * Returned from the multi-key operations and holds the individual result or failure for each document id.
+ *
+ * <p>A multi-key operation itself never fails because one of its ids failed, so make sure to check
+ * {@link #failures()} (or use {@link #get(String)}, which rethrows the individual failure) before
+ * assuming all documents have been processed successfully.</p>
+ *
+ * @since 3.0.0
+ */
+public class MultiResult<T> {
+
+  /**
+   * Holds the successful results, indexed by document id.
+   */
+  private final Map<String, T> successes;
+
+  /**
+   * Holds the individual failures, indexed by document id.
+   */
+  private final Map<String, Throwable> failures;
+
+  /**
+   * Creates a new {@link MultiResult}.
+   *
+   * @param successes the successful results, indexed by document id.
+   * @param failures the individual failures, indexed by document id.
+   */
+  MultiResult(final Map<String, T> successes, final Map<String, Throwable> failures) {
+    this.successes = successes;
+    this.failures = failures;
+  }
+
+  /**
+   * Returns all successful results, indexed by their document id.
+   */
+  public Map<String, T> successes() {
+    return Collections.unmodifiableMap(successes);
+  }
+
+  /**
+   * Returns all individual failures, indexed by their document id.
+   */
+  public Map<String, Throwable> failures() {
+    return Collections.unmodifiableMap(failures);
+  }
+
+  /**
+   * Returns true if the operation succeeded for every document id.
+   */
+  public boolean allSucceeded() {
+    return failures.isEmpty();
+  }
+
+  /**
+   * Returns the number of document ids covered by this result (successful or not).
+   */
+  public int size() {
+    return successes.size() + failures.size();
+  }
+
+  /**
+   * Returns the result for the given document id, or rethrows the individual failure.
+   *
+   * @param id the document id to look up.
+   * @return the result for the document id if it succeeded.
+   * @throws NoSuchElementException if the document id has not been part of the operation.
+   */
+  public T get(final String id) {
+    T result = successes.get(id);
+    if (result != null) {
+      return result;
+    }
+
+    Throwable failure = failures.get(id);
+    if (failure == null) {
+      throw new NoSuchElementException("Document id " + redactUser(id) + " is not part of this result");
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else {
+      throw new CouchbaseException("Operation failed for document id " + redactUser(id), failure);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "MultiResult{" +
+      "successes=" + redactUser(successes.keySet()) +
+      ", failures=" + redactUser(failures) +
+      '}';
+  }
+
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.env.NearCacheConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds recently fetched documents of a single collection, see {@link NearCacheConfig}.
+ * <p>
+ * Lookups only touch a concurrent map. The eviction policy is a small admission window (1% of the entries) in front
+ * of the main space, both in LRU order: an entry pushed out of the window only replaces the least recently used
+ * entry of the main space if the {@link FrequencySketch} saw it more often, so one-off reads cannot flush the hot
+ * set. Policy bookkeeping on reads is skipped when another thread holds the lock, which loses a little accuracy
+ * instead of making hot reads wait on each other.
+ * <p>
+ * Every invalidation bumps the stamp of the stripe the id hashes to. A fetch takes that stamp before it is sent and
+ * its result is only cached if no invalidation of the same stripe happened in the meantime, so a read racing with a
+ * local write cannot put the old content back, while writes to unrelated ids rarely keep a fetch from being cached.
+ * <p>
+ * Cached content is copied when it is stored and whenever it is handed out, since transcoders may return the byte
+ * array as-is and a caller modifying it must not change what later reads see.
+ */
+@Stability.Internal
+public class NearCache {
+
+  /**
+   * Rough per-entry overhead in bytes, added to the content and key size to bound the memory used.
+   */
+  private static final int ENTRY_OVERHEAD = 64;
+
+  /**
+   * The number of invalidation stamps, must be a power of two.
+   */
+  private static final int STAMP_STRIPES = 64;
+
+  private final CollectionIdentifier collectionIdentifier;
+  private final Map<String, Node> data = new ConcurrentHashMap<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final AtomicLongArray invalidations = new AtomicLongArray(STAMP_STRIPES);
+  private final FrequencySketch sketch;
+  private final Node window = Node.sentinel();
+  private final Node main = Node.sentinel();
+  private final int windowCapacity;
+  private final int mainCapacity;
+  private final long maxBytes;
+  private final long ttlNanos;
+  private final boolean revalidate;
+
+  private int windowSize;
+  private int mainSize;
+  private long bytes;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder stale = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public NearCache(final CollectionIdentifier collectionIdentifier, final NearCacheConfig config) {
+    this.collectionIdentifier = collectionIdentifier;
+    this.windowCapacity = Math.max(1, config.maxEntries() / 100);
+    this.mainCapacity = config.maxEntries() - windowCapacity;
+    this.maxBytes = config.maxBytes();
+    this.ttlNanos = config.ttl().toNanos();
+    this.revalidate = config.revalidate();
+    this.sketch = new FrequencySketch(config.maxEntries());
+  }
+
+  /**
+   * True if every hit needs its CAS checked against the server before it is returned.
+   */
+  public boolean revalidate() {
+    return revalidate;
+  }
+
+  /**
+   * Returns the live entry for the id, or null (counted as a miss) if there is none.
+   *
+   * @param id the document id.
+   * @return the entry or null.
+   */
+  public Entry lookup(final String id) {
+    Node node = data.get(id);
+    if (node != null && System.nanoTime() - node.expiresAt >= 0) {
+      remove(node);
+      node = null;
+    }
+    if (node == null) {
+      misses.increment();
+      return null;
+    }
+
+    if (evictionLock.tryLock()) {
+      try {
+        if (node.linked()) {
+          sketch.increment(node.hash);
+          node.unlink();
+          node.linkAfter(node.inWindow ? window : main);
+        }
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+    return node.entry;
+  }
+
+  /**
+   * Records that an entry has been returned to the caller.
+   */
+  public void recordHit() {
+    hits.increment();
+  }
+
+  /**
+   * Records that a revalidated entry turned out to be stale and drops it.
+   *
+   * @param id the document id.
+   */
+  public void recordStale(final String id) {
+    stale.increment();
+    invalidate(id);
+  }
+
+  /**
+   * Returns the current stamp for the id, to be taken before fetching a document which should be cached.
+   *
+   * @param id the document id.
+   */
+  public long stamp(final String id) {
+    return invalidations.get(stripe(id));
+  }
+
+  /**
+   * Caches a fetched document unless an invalidation happened since the stamp was taken.
+   *
+   * @param id the document id.
+   * @param result the fetched document.
+   * @param stamp the stamp taken before the fetch.
+   */
+  public void put(final String id, final GetResult result, final long stamp) {
+    if (result.content == null || result.expiry().isPresent()) {
+      return;
+    }
+    final long weight = result.content.length + 2L * id.length() + ENTRY_OVERHEAD;
+    if (weight > maxBytes) {
+      return;
+    }
+
+    evictionLock.lock();
+    try {
+      if (stamp != invalidations.get(stripe(id))) {
+        return;
+      }
+      final Node node = new Node(id, new Entry(result.content.clone(), result.flags, result.cas()), weight,
+        System.nanoTime() + ttlNanos);
+      sketch.increment(node.hash);
+      Node previous = data.put(id, node);
+      if (previous != null) {
+        unlinkAndCount(previous);
+      }
+      node.inWindow = true;
+      node.linkAfter(window);
+      windowSize++;
+      bytes += weight;
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Drops the entry for the id and prevents in-flight fetches from caching it.
+   *
+   * @param id the document id.
+   */
+  public void invalidate(final String id) {
+    invalidations.incrementAndGet(stripe(id));
+    Node node = data.get(id);
+    if (node != null) {
+      remove(node);
+    }
+  }
+
+  /**
+   * Invalidates the id now and again once the given mutation completed.
+   *
+   * @param id the document id the request mutates.
+   * @param request the mutation request.
+   * @return the same request, for chaining.
+   */
+  public <R extends Request<?>> R invalidateOn(final String id, final R request) {
+    invalidate(id);
+    request.response().whenComplete((response, throwable) -> invalidate(id));
+    return request;
+  }
+
+  /**
+   * Returns the number of cached entries.
+   */
+  public int size() {
+    return data.size();
+  }
+
+  /**
+   * Exports the statistics since the last export and resets them.
+   *
+   * @return the statistics, or empty if the cache has not been used since.
+   */
+  Optional<Map<String, Object>> exportAndReset() {
+    long hitCount = hits.sumThenReset();
+    long missCount = misses.sumThenReset();
+    long staleCount = stale.sumThenReset();
+    long evictionCount = evictions.sumThenReset();
+    if (hitCount + missCount + staleCount == 0) {
+      return Optional.empty();
+    }
+
+    Map<String, Object> output = new LinkedHashMap<>();
+    output.put("bucket", collectionIdentifier.bucket());
+    collectionIdentifier.scope().ifPresent(s -> output.put("scope", s));
+    collectionIdentifier.collection().ifPresent(c -> output.put("collection", c));
+    output.put("hits", hitCount);
+    output.put("misses", missCount);
+    output.put("stale", staleCount);
+    output.put("hitRatio", (double) hitCount / (hitCount + missCount + staleCount));
+    output.put("evictions", evictionCount);
+    output.put("size", data.size());
+    return Optional.of(output);
+  }
+
+  private static int stripe(final String id) {
+    int hash = id.hashCode();
+    return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+  }
+
+  private void remove(final Node node) {
+    evictionLock.lock();
+    try {
+      if (data.remove(node.key, node)) {
+        unlinkAndCount(node);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Moves entries from the window into the main space, admitting them by frequency, then enforces the byte bound.
+   */
+  private void evict() {
+    while (windowSize > windowCapacity) {
+      Node candidate = window.prev;
+      unlinkAndCount(candidate);
+      if (mainSize < mainCapacity) {
+        admit(candidate);
+        continue;
+      }
+      Node victim = main.prev;
+      if (victim != main && sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+        evict(victim);
+        admit(candidate);
+      } else {
+        data.remove(candidate.key, candidate);
+        evictions.increment();
+      }
+    }
+    while (bytes > maxBytes) {
+      evict(mainSize > 0 ? main.prev : window.prev);
+    }
+  }
+
+  private void admit(final Node node) {
+    node.inWindow = false;
+    node.linkAfter(main);
+    mainSize++;
+    bytes += node.weight;
+  }
+
+  private void evict(final Node node) {
+    data.remove(node.key, node);
+    unlinkAndCount(node);
+    evictions.increment();
+  }
+
+  private void unlinkAndCount(final Node node) {
+    if (!node.linked()) {
+      return;
+    }
+    node.unlink();
+    if (node.inWindow) {
+      windowSize--;
+    } else {
+      mainSize--;
+    }
+    bytes -= node.weight;
+  }
+
+  /**
+   * A cached document, which can be turned into a result for any transcoder.
+   */
+  public static class Entry {
+
+    private final byte[] content;
+    private final int flags;
+    private final long cas;
+
+    Entry(final byte[] content, final int flags, final long cas) {
+      this.content = content;
+      this.flags = flags;
+      this.cas = cas;
+    }
+
+    public long cas() {
+      return cas;
+    }
+
+    public GetResult toResult(final Transcoder transcoder) {
+      return new GetResult(content.clone(), flags, cas, Optional.empty(), transcoder);
+    }
+  }
+
+  /**
+   * A node in one of the two circular, doubly linked LRU lists, most recently used first.
+   */
+  private static class Node {
+
+    private final String key;
+    private final int hash;
+    private final Entry entry;
+    private final long weight;
+    private final long expiresAt;
+
+    private boolean inWindow;
+    private Node prev;
+    private Node next;
+
+    Node(final String key, final Entry entry, final long weight, final long expiresAt) {
+      this.key = key;
+      this.hash = key == null ? 0 : key.hashCode();
+      this.entry = entry;
+      this.weight = weight;
+      this.expiresAt = expiresAt;
+    }
+
+    static Node sentinel() {
+      Node node = new Node(null, null, 0, 0);
+      node.prev = node;
+      node.next = node;
+      return node;
+    }
+
+    boolean linked() {
+      return prev != null;
+    }
+
+    void linkAfter(final Node head) {
+      prev = head;
+      next = head.next;
+      head.next.prev = this;
+      head.next = this;
+    }
+
+    void unlink() {
+      prev.next = next;
+      next.prev = prev;
+      prev = null;
+      next = null;
+    }
+  }
+
+}
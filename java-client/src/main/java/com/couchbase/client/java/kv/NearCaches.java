@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.events.metrics.NearCacheMetricsAggregatedEvent;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.env.NearCacheConfig;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the {@link NearCache} of every collection of a cluster and periodically emits their statistics.
+ */
+@Stability.Internal
+public class NearCaches {
+
+  private final NearCacheConfig config;
+  private final EventBus eventBus;
+  private final Map<CollectionIdentifier, NearCache> caches = new ConcurrentHashMap<>();
+  private final Disposable emitter;
+
+  public NearCaches(final ClusterEnvironment environment) {
+    this.config = environment.nearCacheConfig();
+    this.eventBus = environment.eventBus();
+    if (config.enabled()) {
+      long interval = config.emitInterval().toMillis();
+      this.emitter = environment.scheduler().schedulePeriodically(this::emit, interval, interval,
+        TimeUnit.MILLISECONDS);
+    } else {
+      this.emitter = null;
+    }
+  }
+
+  /**
+   * Returns the near cache of the given collection.
+   *
+   * @param collectionIdentifier the collection.
+   * @return the near cache, or null if the near cache is disabled.
+   */
+  public NearCache forCollection(final CollectionIdentifier collectionIdentifier) {
+    if (!config.enabled()) {
+      return null;
+    }
+    return caches.computeIfAbsent(collectionIdentifier, cid -> new NearCache(cid, config));
+  }
+
+  /**
+   * Stops emitting statistics and drops all cached documents.
+   */
+  public void stop() {
+    if (emitter != null) {
+      emitter.dispose();
+    }
+    caches.clear();
+  }
+
+  private void emit() {
+    List<Map<String, Object>> output = new ArrayList<>();
+    for (NearCache cache : caches.values()) {
+      cache.exportAndReset().ifPresent(output::add);
+    }
+    if (!output.isEmpty()) {
+      eventBus.publish(new NearCacheMetricsAggregatedEvent(Duration.ZERO, output));
+    }
+  }
+
+}
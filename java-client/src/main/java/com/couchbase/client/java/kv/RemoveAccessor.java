@@ -21,6 +21,7 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.error.*;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.msg.kv.RemoveRequest;
+import com.couchbase.client.core.msg.kv.RemoveResponse;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -38,28 +39,38 @@ public enum RemoveAccessor {
     core.send(request);
     final CompletableFuture<MutationResult> mutationResult = request
       .response()
-      .thenApply(response -> {
-        if (response.status().success()) {
-          return new MutationResult(response.cas(), response.mutationToken());
-        }
-
-        final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
-        switch (response.status()) {
-          case NOT_FOUND: throw new DocumentNotFoundException(ctx);
-          case EXISTS: throw new CasMismatchException(ctx);
-          case LOCKED: throw new DocumentLockedException(ctx);
-          case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
-          case TEMPORARY_FAILURE: // intended fallthrough to the case below
-          case SERVER_BUSY: throw new TemporaryFailureException(ctx);
-          case DURABILITY_INVALID_LEVEL: throw new DurabilityLevelNotAvailableException(ctx);
-          case DURABILITY_IMPOSSIBLE: throw new DurabilityImpossibleException(ctx);
-          case SYNC_WRITE_AMBIGUOUS: throw new DurabilityAmbiguousException(ctx);
-          case SYNC_WRITE_IN_PROGRESS: throw new DurableWriteInProgressException(ctx);
-          case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
-          default: throw new CouchbaseException("Remove operation failed", ctx);
-        }
-    });
+      .thenApply(response -> parseRemove(request, response));
     return wrapWithDurability(mutationResult, key, persistTo, replicateTo, core, request, true);
 
   }
+
+  /**
+   * Converts the response of a {@link RemoveRequest} into a {@link MutationResult} or throws the matching exception.
+   *
+   * @param request the request which has been dispatched.
+   * @param response the response which arrived for the request.
+   * @return the mutation result if successful.
+   */
+  static MutationResult parseRemove(final RemoveRequest request, final RemoveResponse response) {
+    if (response.status().success()) {
+      return new MutationResult(response.cas(), response.mutationToken());
+    }
+
+    final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
+    switch (response.status()) {
+      case NOT_FOUND: throw new DocumentNotFoundException(ctx);
+      case EXISTS: throw new CasMismatchException(ctx);
+      case LOCKED: throw new DocumentLockedException(ctx);
+      case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
+      case TEMPORARY_FAILURE: // intended fallthrough to the case below
+      case SERVER_BUSY: throw new TemporaryFailureException(ctx);
+      case DURABILITY_INVALID_LEVEL: throw new DurabilityLevelNotAvailableException(ctx);
+      case DURABILITY_IMPOSSIBLE: throw new DurabilityImpossibleException(ctx);
+      case SYNC_WRITE_AMBIGUOUS: throw new DurabilityAmbiguousException(ctx);
+      case SYNC_WRITE_IN_PROGRESS: throw new DurableWriteInProgressException(ctx);
+      case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
+      default: throw new CouchbaseException("Remove operation failed", ctx);
+    }
+  }
+
 }
@@ -30,6 +30,7 @@ import com.couchbase.client.core.error.ServerOutOfMemoryException;
 import com.couchbase.client.core.error.TemporaryFailureException;
 import com.couchbase.client.core.error.ValueTooLargeException;
 import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.msg.kv.UpsertResponse;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -47,27 +48,36 @@ public enum UpsertAccessor {
     core.send(request);
     final CompletableFuture<MutationResult> mutationResult = request
       .response()
-      .thenApply(response -> {
-        if (response.status().success()) {
-          return new MutationResult(response.cas(), response.mutationToken());
-        }
-
-        final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
-        switch (response.status()) {
-          case LOCKED: throw new DocumentLockedException(ctx);
-          case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
-          case TEMPORARY_FAILURE: // intended fallthrough to the case below
-          case SERVER_BUSY: throw new TemporaryFailureException(ctx);
-          case DURABILITY_INVALID_LEVEL: throw new DurabilityLevelNotAvailableException(ctx);
-          case DURABILITY_IMPOSSIBLE: throw new DurabilityImpossibleException(ctx);
-          case SYNC_WRITE_AMBIGUOUS: throw new DurabilityAmbiguousException(ctx);
-          case SYNC_WRITE_IN_PROGRESS: throw new DurableWriteInProgressException(ctx);
-          case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
-          case TOO_BIG: throw new ValueTooLargeException(ctx);
-          default: throw new CouchbaseException("Upsert operation failed", ctx);
-        }
-      });
+      .thenApply(response -> parseUpsert(request, response));
     return wrapWithDurability(mutationResult, key, persistTo, replicateTo, core, request, false);
   }
 
+  /**
+   * Converts the response of a {@link UpsertRequest} into a {@link MutationResult} or throws the matching exception.
+   *
+   * @param request the request which has been dispatched.
+   * @param response the response which arrived for the request.
+   * @return the mutation result if successful.
+   */
+  static MutationResult parseUpsert(final UpsertRequest request, final UpsertResponse response) {
+    if (response.status().success()) {
+      return new MutationResult(response.cas(), response.mutationToken());
+    }
+
+    final KeyValueErrorContext ctx = KeyValueErrorContext.completedRequest(request, response.status());
+    switch (response.status()) {
+      case LOCKED: throw new DocumentLockedException(ctx);
+      case OUT_OF_MEMORY: throw new ServerOutOfMemoryException(ctx);
+      case TEMPORARY_FAILURE: // intended fallthrough to the case below
+      case SERVER_BUSY: throw new TemporaryFailureException(ctx);
+      case DURABILITY_INVALID_LEVEL: throw new DurabilityLevelNotAvailableException(ctx);
+      case DURABILITY_IMPOSSIBLE: throw new DurabilityImpossibleException(ctx);
+      case SYNC_WRITE_AMBIGUOUS: throw new DurabilityAmbiguousException(ctx);
+      case SYNC_WRITE_IN_PROGRESS: throw new DurableWriteInProgressException(ctx);
+      case SYNC_WRITE_RE_COMMIT_IN_PROGRESS: throw new DurableWriteReCommitInProgressException(ctx);
+      case TOO_BIG: throw new ValueTooLargeException(ctx);
+      default: throw new CouchbaseException("Upsert operation failed", ctx);
+    }
+  }
+
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the prepared statements of a cluster, keyed by their statement.
+ *
+ * <p>Lookups and inserts do not take a global lock. Once the cache grows beyond its capacity, a single
+ * thread evicts the least recently used entries in a batch, so the cost of finding them is amortized over
+ * many inserts.</p>
+ *
+ * <p>Hit, miss and eviction counters are exposed so that the capacity can be sized to the workload.</p>
+ */
+@Stability.Volatile
+public class PreparedStatementCache {
+
+  /**
+   * The fraction of the capacity which is evicted in addition once the cache overflows.
+   */
+  private static final double EVICTION_BATCH_FRACTION = 0.05;
+
+  private final Map<String, Node> entries;
+  private final int capacity;
+  private final int evictionBatch;
+  private final AtomicBoolean evicting;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  PreparedStatementCache(final int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("The prepared statement cache capacity must not be negative");
+    }
+    this.capacity = capacity;
+    this.evictionBatch = (int) (capacity * EVICTION_BATCH_FRACTION);
+    this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1024));
+    this.evicting = new AtomicBoolean(false);
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.evictions = new LongAdder();
+  }
+
+  /**
+   * Returns the cached entry for the statement and records a hit or miss.
+   */
+  QueryAccessor.QueryCacheEntry get(final String statement) {
+    Node node = entries.get(statement);
+    if (node == null) {
+      misses.increment();
+      return null;
+    }
+    node.lastAccess = System.nanoTime();
+    hits.increment();
+    return node.entry;
+  }
+
+  /**
+   * Stores the entry for the statement, evicting the least recently used entries if full.
+   */
+  void put(final String statement, final QueryAccessor.QueryCacheEntry entry) {
+    entries.put(statement, new Node(entry));
+    if (entries.size() > capacity) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the entry for the statement, but only if it has not been replaced in the meantime.
+   */
+  void remove(final String statement, final QueryAccessor.QueryCacheEntry entry) {
+    entries.computeIfPresent(statement, (k, node) -> node.entry == entry ? null : node);
+  }
+
+  private void evict() {
+    if (!evicting.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      int toEvict = entries.size() - capacity;
+      if (toEvict <= 0) {
+        return;
+      }
+      toEvict = Math.min(entries.size(), toEvict + evictionBatch);
+
+      // snapshot the access times, they keep changing while we sort
+      List<Candidate> candidates = new ArrayList<>(entries.size());
+      for (Map.Entry<String, Node> e : entries.entrySet()) {
+        candidates.add(new Candidate(e.getKey(), e.getValue()));
+      }
+      candidates.sort(Comparator.comparingLong(c -> c.lastAccess));
+      for (int i = 0; i < toEvict && i < candidates.size(); i++) {
+        Candidate candidate = candidates.get(i);
+        if (entries.remove(candidate.statement, candidate.node)) {
+          evictions.increment();
+        }
+      }
+    } finally {
+      evicting.set(false);
+    }
+  }
+
+  /**
+   * The maximum number of prepared statements held.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * The number of prepared statements currently held.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * The number of queries which found their prepared statement in the cache.
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * The number of queries which had to prepare their statement first.
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * The number of prepared statements evicted because the cache was full.
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Removes all prepared statements, so they are prepared again on next use.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedStatementCache{" +
+      "capacity=" + capacity +
+      ", size=" + size() +
+      ", hits=" + hits() +
+      ", misses=" + misses() +
+      ", evictions=" + evictions() +
+      '}';
+  }
+
+  private static class Candidate {
+
+    private final String statement;
+    private final Node node;
+    private final long lastAccess;
+
+    Candidate(final String statement, final Node node) {
+      this.statement = statement;
+      this.node = node;
+      this.lastAccess = node.lastAccess;
+    }
+  }
+
+  private static class Node {
+
+    private final QueryAccessor.QueryCacheEntry entry;
+    private volatile long lastAccess;
+
+    Node(final QueryAccessor.QueryCacheEntry entry) {
+      this.entry = entry;
+      this.lastAccess = System.nanoTime();
+    }
+  }
+
+}
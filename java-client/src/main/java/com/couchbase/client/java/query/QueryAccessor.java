@@ -22,17 +22,18 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.config.ClusterCapabilities;
 import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.PreparedStatementException;
 import com.couchbase.client.core.msg.query.QueryRequest;
 import com.couchbase.client.core.msg.query.QueryResponse;
 import com.couchbase.client.core.service.ServiceType;
-import com.couchbase.client.core.util.LRUCache;
 import com.couchbase.client.java.codec.JsonSerializer;
+import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.json.JsonValue;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -54,14 +55,17 @@ public class QueryAccessor {
     /**
      * The maximum number of prepared queries that will be kept around if the cache is enabled.
      */
-    private static final int QUERY_CACHE_SIZE = 5000;
+    public static final int DEFAULT_QUERY_CACHE_SIZE = 5000;
+
+    /**
+     * How many statements are prepared concurrently during warm-up.
+     */
+    private static final int WARM_UP_CONCURRENCY = 16;
 
     /**
      * Holds the query cache.
      */
-    private final Map<String, QueryCacheEntry> queryCache = Collections.synchronizedMap(
-      new LRUCache<>(QUERY_CACHE_SIZE)
-    );
+    private final PreparedStatementCache queryCache;
 
     private final Core core;
 
@@ -71,7 +75,12 @@ public class QueryAccessor {
     private volatile boolean enhancedPreparedEnabled = false;
 
     public QueryAccessor(final Core core) {
+        this(core, DEFAULT_QUERY_CACHE_SIZE);
+    }
+
+    public QueryAccessor(final Core core, final int queryCacheSize) {
         this.core = core;
+        this.queryCache = new PreparedStatementCache(queryCacheSize);
 
         updateEnhancedPreparedEnabled(core.clusterConfig());
         core
@@ -135,6 +144,131 @@ public class QueryAccessor {
         return queryInternal(request, options, options.adhoc(), serializer).map(r -> new ReactiveQueryResult(r, serializer));
     }
 
+    /**
+     * Executes a {@link QueryTemplate} with the given parameters and returns the result as a future.
+     *
+     * @param template the template to execute.
+     * @param parameters positional parameters as {@link JsonArray} or named ones as {@link JsonObject}.
+     * @return the future once the result is complete.
+     */
+    public CompletableFuture<QueryResult> queryAsync(final QueryTemplate template, final JsonValue parameters) {
+        final JsonSerializer serializer = template.serializer();
+        return templateInternal(template, parameters)
+          .flatMap(response -> response
+            .rows()
+            .collectList()
+            .flatMap(rows -> response
+                .trailer()
+                .map(trailer -> new QueryResult(response.header(), rows, trailer, serializer))
+            )
+          )
+          .toFuture();
+    }
+
+    /**
+     * Executes a {@link QueryTemplate} with the given parameters and returns the result as a mono.
+     *
+     * @param template the template to execute.
+     * @param parameters positional parameters as {@link JsonArray} or named ones as {@link JsonObject}.
+     * @return the mono once the result is complete.
+     */
+    public Mono<ReactiveQueryResult> queryReactive(final QueryTemplate template, final JsonValue parameters) {
+        return Mono.defer(() -> templateInternal(template, parameters))
+          .map(r -> new ReactiveQueryResult(r, template.serializer()));
+    }
+
+    private Mono<QueryResponse> templateInternal(final QueryTemplate template, final JsonValue parameters) {
+        final byte[] encodedParameters;
+        try {
+            encodedParameters = template.encodeParameters(parameters);
+        } catch (Exception ex) {
+            return Mono.error(ex);
+        }
+
+        if (template.adhoc()) {
+            return send(template.adhocRequest(encodedParameters));
+        } else {
+            return executeTemplate(template, encodedParameters, true);
+        }
+    }
+
+    /**
+     * Executes a non-adhoc template through the prepared statement cache.
+     *
+     * <p>If the statement is not cached yet it is prepared first. Should it still not be cached afterwards
+     * (for example because the cache is disabled), the statement is executed adhoc.</p>
+     *
+     * @param template the template to execute.
+     * @param parameters the encoded parameters.
+     * @param allowPrepare if the statement may be prepared if not cached or stale.
+     * @return the mono once the result is complete.
+     */
+    private Mono<QueryResponse> executeTemplate(final QueryTemplate template, final byte[] parameters,
+                                                final boolean allowPrepare) {
+        final QueryCacheEntry cacheEntry = queryCache.get(template.statement());
+
+        if (cacheEntry != null && cacheEntryStillValid(cacheEntry, enhancedPreparedEnabled)) {
+            return send(template.preparedRequest(cacheEntry, parameters))
+              .onErrorResume(PreparedStatementException.class, err -> {
+                  queryCache.remove(template.statement(), cacheEntry);
+                  return allowPrepare ? prepareAndExecuteTemplate(template, parameters) : Mono.error(err);
+              });
+        } else if (allowPrepare) {
+            return prepareAndExecuteTemplate(template, parameters);
+        } else {
+            return send(template.adhocRequest(parameters));
+        }
+    }
+
+    private Mono<QueryResponse> prepareAndExecuteTemplate(final QueryTemplate template, final byte[] parameters) {
+        return prepare(template.prepareRequest(), template.serializer())
+          .then(Mono.defer(() -> executeTemplate(template, parameters, false)));
+    }
+
+    private Mono<QueryResponse> send(final QueryRequest request) {
+        core.send(request);
+        return Reactor.wrap(request, request.response(), true);
+    }
+
+    /**
+     * Returns the cache holding the prepared statements.
+     */
+    public PreparedStatementCache preparedStatementCache() {
+        return queryCache;
+    }
+
+    /**
+     * Prepares the statements of the given requests and stores them in the cache, so that the first
+     * non-adhoc query for each of them does not need to prepare first.
+     *
+     * @param requests the requests holding the statements to prepare.
+     * @param serializer the serializer to decode the prepared rows.
+     * @return a mono which completes once all statements are prepared.
+     */
+    public Mono<Void> warmUp(final Flux<QueryRequest> requests, final JsonSerializer serializer) {
+        return requests.flatMap(request -> prepare(request, serializer), WARM_UP_CONCURRENCY).then();
+    }
+
+    /**
+     * Prepares a single statement without executing it and stores the result in the cache.
+     *
+     * @param request the request holding the statement.
+     * @param serializer the serializer to decode the prepared row.
+     * @return a mono which completes once the statement is cached.
+     */
+    private Mono<Void> prepare(final QueryRequest request, final JsonSerializer serializer) {
+        final boolean enhancedEnabled = enhancedPreparedEnabled;
+        return queryReactive(buildPrepareRequest(request, null, false), queryOptions().build(), serializer)
+          .flatMap(result -> result.rowsAsObject().next())
+          .doOnNext(row -> queryCache.put(
+            request.statement(),
+            enhancedEnabled
+              ? new QueryCacheEntry(false, null, row.getString("name"))
+              : new QueryCacheEntry(true, row.getString("encoded_plan"), row.getString("name"))
+          ))
+          .then();
+    }
+
     /**
      * Internal method to dispatch the request into the core and return it as a mono.
      *
@@ -148,10 +282,9 @@ public class QueryAccessor {
                                               final boolean adhoc,
                                               final JsonSerializer serializer) {
         if (adhoc) {
-            core.send(request);
-            return Reactor.wrap(request, request.response(), true);
+            return send(request);
         } else {
-            return maybePrepareAndExecute(request, options, serializer);
+            return maybePrepareAndExecute(request, options, serializer, true);
         }
     }
 
@@ -165,20 +298,25 @@ public class QueryAccessor {
      * <p>The code also checks if the cache entry is still valid, to handle the upgrade scenario an potentially
      * flush the cache entry in this case to then execute with the newer approach.</p>
      *
+     * <p>If the server no longer knows a cached prepared statement, the entry is invalidated and the statement
+     * is prepared once more before giving up.</p>
+     *
      * @param request the request to perform.
      * @param options query options to use.
+     * @param retryStale if a stale cache entry should be prepared again.
      * @return the mono once the result is complete.
      */
     private Mono<QueryResponse> maybePrepareAndExecute(final QueryRequest request,
                                                        final QueryOptions.Built options,
-                                                       final JsonSerializer serializer) {
+                                                       final JsonSerializer serializer,
+                                                       final boolean retryStale) {
         final QueryCacheEntry cacheEntry = queryCache.get(request.statement());
         boolean enhancedEnabled = enhancedPreparedEnabled;
 
         if (cacheEntry != null && cacheEntryStillValid(cacheEntry, enhancedEnabled)) {
-            return queryInternal(buildExecuteRequest(cacheEntry, request, options), options, true, serializer);
+            return executePrepared(cacheEntry, request, options, serializer, retryStale);
         } else if (enhancedEnabled) {
-            return queryInternal(buildPrepareRequest(request, options), options, true, serializer)
+            return queryInternal(buildPrepareRequest(request, options, true), options, true, serializer)
               .flatMap(qr -> {
                   Optional<String> preparedName = qr.header().prepared();
                   if (!preparedName.isPresent()) {
@@ -193,37 +331,64 @@ public class QueryAccessor {
                   return Mono.just(qr);
               });
         } else {
-            return queryReactive(buildPrepareRequest(request, options), queryOptions().build(), serializer)
+            return queryReactive(buildPrepareRequest(request, options, false), queryOptions().build(), serializer)
               .flatMap(result -> result.rowsAsObject().next())
-              .map(row -> {
-                  queryCache.put(
-                    request.statement(),
-                    new QueryCacheEntry(
-                      true,
-                      row.getString("encoded_plan"),
-                      row.getString("name")
-                    )
+              .switchIfEmpty(Mono.error(
+                new CouchbaseException("No prepared statement returned but must be, this is a query bug!")
+              ))
+              .flatMap(row -> {
+                  QueryCacheEntry preparedEntry = new QueryCacheEntry(
+                    true,
+                    row.getString("encoded_plan"),
+                    row.getString("name")
                   );
-                  return row;
-              })
-              .then(Mono.defer(() -> maybePrepareAndExecute(request, options, serializer)));
+                  queryCache.put(request.statement(), preparedEntry);
+                  // execute the fresh entry directly, looking it up again would count the miss as a hit
+                  return executePrepared(preparedEntry, request, options, serializer, false);
+              });
         }
     }
 
+    /**
+     * Executes a prepared statement from the given cache entry.
+     *
+     * @param cacheEntry the entry holding the prepared statement.
+     * @param request the original request.
+     * @param options query options to use.
+     * @param retryStale if the statement should be prepared again if the server no longer knows the entry.
+     * @return the mono once the result is complete.
+     */
+    private Mono<QueryResponse> executePrepared(final QueryCacheEntry cacheEntry,
+                                                final QueryRequest request,
+                                                final QueryOptions.Built options,
+                                                final JsonSerializer serializer,
+                                                final boolean retryStale) {
+        return queryInternal(buildExecuteRequest(cacheEntry, request, options), options, true, serializer)
+          .onErrorResume(PreparedStatementException.class, err -> {
+              queryCache.remove(request.statement(), cacheEntry);
+              return retryStale
+                ? maybePrepareAndExecute(request, options, serializer, false)
+                : Mono.error(err);
+          });
+    }
+
     /**
      * Builds the request to prepare a prepared statement.
      *
      * @param original the original request from which params are extracted.
+     * @param options the options of the original request, only used with auto execute.
+     * @param autoExecute if the statement should be executed right away after preparing it.
      * @return the created request, ready to be sent over the wire.
      */
-    private QueryRequest buildPrepareRequest(final QueryRequest original, final QueryOptions.Built options) {
+    private QueryRequest buildPrepareRequest(final QueryRequest original, final QueryOptions.Built options,
+                                             final boolean autoExecute) {
         String statement = "PREPARE " + original.statement();
 
         JsonObject query = JsonObject.create();
         query.put("statement", statement);
         query.put("timeout", encodeDurationToMs(original.timeout()));
 
-        if (enhancedPreparedEnabled) {
+        if (autoExecute) {
             query.put("auto_execute", true);
             options.injectParams(query);
         }
@@ -236,7 +401,8 @@ public class QueryAccessor {
           statement,
           query.toString().getBytes(StandardCharsets.UTF_8),
           true,
-          query.getString("client_context_id")
+          query.getString("client_context_id"),
+          autoExecute && original.retainRows()
         );
     }
 
@@ -262,7 +428,8 @@ public class QueryAccessor {
           original.statement(),
           query.toString().getBytes(StandardCharsets.UTF_8),
           originalOptions.readonly(),
-          query.getString("client_context_id")
+          query.getString("client_context_id"),
+          original.retainRows()
         );
     }
 
@@ -281,7 +448,7 @@ public class QueryAccessor {
      * Holds a cache entry, which might either be the full plan or just the name, depending on the
      * cluster state.
      */
-    private static class QueryCacheEntry {
+    static class QueryCacheEntry {
 
         private final String name;
         private final boolean fullPlan;
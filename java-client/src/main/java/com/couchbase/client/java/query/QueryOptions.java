@@ -21,6 +21,7 @@ import com.couchbase.client.core.msg.kv.MutationToken;
 import com.couchbase.client.core.util.Golang;
 import com.couchbase.client.java.Cluster;
 import com.couchbase.client.java.CommonOptions;
+import com.couchbase.client.java.ReactiveCluster;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.env.ClusterEnvironment;
 import com.couchbase.client.java.json.JsonArray;
@@ -58,6 +59,7 @@ public class QueryOptions extends CommonOptions<QueryOptions> {
   private QueryProfile profile;
   private Map<String, Object> raw;
   private boolean readonly = false;
+  private boolean retainRows = false;
   private String scanWait;
   private Integer scanCap;
   private QueryScanConsistency scanConsistency;
@@ -268,6 +270,27 @@ public class QueryOptions extends CommonOptions<QueryOptions> {
     return this;
   }
 
+  /**
+   * Allows the rows of a reactive query to be decoded straight from the network buffers.
+   * <p>
+   * By default every row is copied out of the network buffers into a byte array before it is decoded. If enabled,
+   * the rows of a {@link ReactiveCluster#query(String, QueryOptions)} hold on to slices of the network buffers
+   * instead, which are decoded into the target type and released by {@link ReactiveQueryResult#rowsAs(Class)}.
+   * This avoids one copy per row for large result sets. Rows which are dropped without being decoded, for example
+   * because the subscriber cancels, are released right away. Rows which have not been consumed yet keep holding on to
+   * the network buffers though, so the rows should be consumed promptly.
+   * <p>
+   * This option is ignored by the blocking and async APIs, since they collect all rows before decoding them.
+   *
+   * @param retainRows true if the rows should hold on to the network buffers, false is the default.
+   * @return the same {@link QueryOptions} for chaining purposes.
+   */
+  @Stability.Volatile
+  public QueryOptions retainRows(final boolean retainRows) {
+    this.retainRows = retainRows;
+    return this;
+  }
+
   /**
    * Supports customizing the maximum buffered channel size between the indexer and the query service.
    * <p>
@@ -373,10 +396,18 @@ public class QueryOptions extends CommonOptions<QueryOptions> {
       return adhoc;
     }
 
+    String clientContextId() {
+      return clientContextId;
+    }
+
     public boolean readonly() {
       return readonly;
     }
 
+    public boolean retainRows() {
+      return retainRows;
+    }
+
     public JsonSerializer serializer() {
       return serializer;
     }
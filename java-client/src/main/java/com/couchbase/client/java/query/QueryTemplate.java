@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonProcessingException;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.msg.query.QueryRequest;
+import com.couchbase.client.core.retry.RetryStrategy;
+import com.couchbase.client.java.codec.JsonSerializer;
+import com.couchbase.client.java.json.JacksonTransformers;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.json.JsonValue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.couchbase.client.core.util.Golang.encodeDurationToMs;
+
+/**
+ * A N1QL statement together with its options, of which the request body is encoded only once.
+ *
+ * <p>Executing a template only encodes the parameters and splices them into the pre-encoded body, which
+ * saves building and serializing the full request for every call. This pays off for statements which are
+ * executed at a high rate with changing parameters.</p>
+ *
+ * <p>Templates are created through the cluster and must not contain parameters in their options, those are
+ * passed on every execution instead.</p>
+ */
+@Stability.Volatile
+public class QueryTemplate {
+
+  private static final byte[] EMPTY = new byte[0];
+  private static final byte[] ARGS_FIELD = ",\"args\":".getBytes(StandardCharsets.UTF_8);
+
+  private final String statement;
+  private final QueryOptions.Built options;
+  private final Duration timeout;
+  private final RetryStrategy retryStrategy;
+  private final CoreContext coreContext;
+  private final Authenticator authenticator;
+  private final JsonSerializer serializer;
+
+  /**
+   * Holds the client context id if it has been set on the options, otherwise one is generated per execution.
+   */
+  private final String clientContextId;
+
+  /**
+   * The encoded body for adhoc execution, without the closing brace.
+   */
+  private final byte[] statementHead;
+
+  /**
+   * The encoded body for the last prepared statement used, without the closing brace.
+   */
+  private volatile PreparedHead preparedHead;
+
+  @Stability.Internal
+  public QueryTemplate(final String statement, final QueryOptions.Built options, final Duration timeout,
+                       final RetryStrategy retryStrategy, final CoreContext coreContext,
+                       final Authenticator authenticator, final JsonSerializer serializer) {
+    this.statement = statement;
+    this.options = options;
+    this.timeout = timeout;
+    this.retryStrategy = retryStrategy;
+    this.coreContext = coreContext;
+    this.authenticator = authenticator;
+    this.serializer = serializer;
+    this.clientContextId = options.clientContextId();
+    this.statementHead = encodeHead(JsonObject.create().put("statement", statement));
+  }
+
+  /**
+   * The statement of this template.
+   */
+  public String statement() {
+    return statement;
+  }
+
+  boolean adhoc() {
+    return options.adhoc();
+  }
+
+  JsonSerializer serializer() {
+    return serializer;
+  }
+
+  /**
+   * Encodes the given query fields together with the constant options, leaving the object open.
+   */
+  private byte[] encodeHead(final JsonObject query) {
+    query.put("timeout", encodeDurationToMs(timeout));
+    options.injectParams(query);
+    if (query.containsKey("args") || query.getNames().stream().anyMatch(name -> name.startsWith("$"))) {
+      throw new IllegalArgumentException("Query templates must not contain parameters, pass them on execution");
+    }
+    if (clientContextId == null) {
+      query.removeKey("client_context_id");
+    }
+
+    byte[] encoded = encode(query);
+    byte[] head = new byte[encoded.length - 1];
+    System.arraycopy(encoded, 0, head, 0, head.length);
+    return head;
+  }
+
+  /**
+   * Encodes the parameters as fields which can be appended to the open request body.
+   *
+   * @param parameters either positional parameters as {@link JsonArray} or named ones as {@link JsonObject}.
+   * @return the encoded fields, each prefixed with a comma.
+   */
+  byte[] encodeParameters(final JsonValue parameters) {
+    if (parameters instanceof JsonArray) {
+      JsonArray positional = (JsonArray) parameters;
+      if (positional.isEmpty()) {
+        return EMPTY;
+      }
+      byte[] encoded = encode(positional);
+      byte[] fields = new byte[ARGS_FIELD.length + encoded.length];
+      System.arraycopy(ARGS_FIELD, 0, fields, 0, ARGS_FIELD.length);
+      System.arraycopy(encoded, 0, fields, ARGS_FIELD.length, encoded.length);
+      return fields;
+    } else if (parameters instanceof JsonObject) {
+      JsonObject named = (JsonObject) parameters;
+      if (named.isEmpty()) {
+        return EMPTY;
+      }
+      JsonObject prefixed = JsonObject.create();
+      for (String name : named.getNames()) {
+        prefixed.put(name.charAt(0) == '$' ? name : '$' + name, named.get(name));
+      }
+      // turn {"$a":1} into ,"$a":1
+      byte[] fields = encode(prefixed);
+      fields[0] = ',';
+      byte[] trimmed = new byte[fields.length - 1];
+      System.arraycopy(fields, 0, trimmed, 0, trimmed.length);
+      return trimmed;
+    } else {
+      throw new IllegalArgumentException("Parameters must either be a JsonArray or a JsonObject");
+    }
+  }
+
+  /**
+   * Creates the request which executes the statement adhoc.
+   */
+  QueryRequest adhocRequest(final byte[] parameters) {
+    return request(statementHead, parameters, options.readonly());
+  }
+
+  /**
+   * Creates the request which executes the given prepared statement.
+   */
+  QueryRequest preparedRequest(final QueryAccessor.QueryCacheEntry entry, final byte[] parameters) {
+    PreparedHead head = preparedHead;
+    if (head == null || head.entry != entry) {
+      head = new PreparedHead(entry, encodeHead(entry.export()));
+      preparedHead = head;
+    }
+    return request(head.head, parameters, options.readonly());
+  }
+
+  /**
+   * Creates a request which carries the statement for preparing it.
+   */
+  QueryRequest prepareRequest() {
+    return request(statementHead, EMPTY, true);
+  }
+
+  private QueryRequest request(final byte[] head, final byte[] parameters, final boolean idempotent) {
+    String contextId = clientContextId;
+    byte[] contextIdField = EMPTY;
+    if (contextId == null) {
+      contextId = UUID.randomUUID().toString();
+      contextIdField = (",\"client_context_id\":\"" + contextId + "\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    byte[] body = new byte[head.length + contextIdField.length + parameters.length + 1];
+    int offset = 0;
+    System.arraycopy(head, 0, body, offset, head.length);
+    offset += head.length;
+    System.arraycopy(contextIdField, 0, body, offset, contextIdField.length);
+    offset += contextIdField.length;
+    System.arraycopy(parameters, 0, body, offset, parameters.length);
+    body[body.length - 1] = '}';
+
+    QueryRequest request = new QueryRequest(timeout, coreContext, retryStrategy, authenticator, statement, body,
+      idempotent, contextId);
+    request.context().clientContext(options.clientContext());
+    return request;
+  }
+
+  private static byte[] encode(final JsonValue value) {
+    try {
+      return JacksonTransformers.MAPPER.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot encode query template", e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "QueryTemplate{" +
+      "statement='" + statement + '\'' +
+      ", adhoc=" + options.adhoc() +
+      '}';
+  }
+
+  /**
+   * The encoded body of a prepared statement, bound to the cache entry it was built from.
+   */
+  private static class PreparedHead {
+
+    private final QueryAccessor.QueryCacheEntry entry;
+    private final byte[] head;
+
+    PreparedHead(final QueryAccessor.QueryCacheEntry entry, final byte[] head) {
+      this.entry = entry;
+      this.head = head;
+    }
+  }
+
+}
@@ -17,7 +17,9 @@
 package com.couchbase.client.java.query;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.error.DecodingFailedException;
+import com.couchbase.client.core.msg.query.QueryChunkRow;
 import com.couchbase.client.core.msg.query.QueryResponse;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.codec.TypeRef;
@@ -25,6 +27,9 @@ import com.couchbase.client.java.json.JsonObject;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
 /**
  * Reactive result that fetch parts of the N1ql Query responses reactively
  *
@@ -64,7 +69,7 @@ public class ReactiveQueryResult {
    * @throws DecodingFailedException (async) if the decoding cannot be completed successfully
 	 */
 	public <T> Flux<T> rowsAs(Class<T> target) {
-		return response.rows().map(n -> serializer.deserialize(target, n.data()));
+		return decodeRows(b -> serializer.deserialize(target, b), b -> serializer.deserialize(target, b));
 	}
 
   /**
@@ -76,9 +81,36 @@ public class ReactiveQueryResult {
    * @throws DecodingFailedException (async) if the decoding cannot be completed successfully
    */
 	public <T> Flux<T> rowsAs(TypeRef<T> target) {
-		return response.rows().map(n -> serializer.deserialize(target, n.data()));
+		return decodeRows(b -> serializer.deserialize(target, b), b -> serializer.deserialize(target, b));
 	}
 
+  /**
+   * Decodes each row, straight from its network buffers if they have been retained.
+   * <p>
+   * Retained rows can only be decoded once, and are released right after decoding. Rows which are discarded before
+   * being decoded are released as well.
+   *
+   * @param fromBytes decodes a row which has been copied into a byte array.
+   * @param fromBuffer decodes a row from its retained network buffers.
+   * @return the decoded rows.
+   */
+  private <T> Flux<T> decodeRows(final Function<byte[], T> fromBytes, final Function<ByteBuffer, T> fromBuffer) {
+    return response
+      .rows()
+      .map(row -> {
+        final ByteBuf content = row.takeContent();
+        if (content == null) {
+          return fromBytes.apply(row.data());
+        }
+        try {
+          return fromBuffer.apply(content.nioBuffer());
+        } finally {
+          content.release();
+        }
+      })
+      .doOnDiscard(QueryChunkRow.class, QueryChunkRow::release);
+  }
+
 	/**
 	 * Returns a {@link Mono} containing a {@link QueryMetaData},  giving access to the additional metadata associated with
 	 * this query.
@@ -21,6 +21,7 @@ import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -153,4 +154,20 @@ abstract class JsonSerializerTestBase {
     });
   }
 
+  @Test
+  void decodesFromHeapAndDirectBuffers() {
+    byte[] input = "{\"foo\":\"bar\"}".getBytes(UTF_8);
+    ByteBuffer heap = ByteBuffer.wrap(input);
+    ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+    direct.put(input).flip();
+
+    JsonObject expected = JsonObject.fromJson(input);
+    assertEquals(expected, serializer().deserialize(JsonObject.class, heap));
+    assertEquals(expected, serializer().deserialize(JsonObject.class, direct));
+    assertEquals(expected, serializer().deserialize(new TypeRef<JsonObject>() {
+    }, direct));
+    assertArrayEquals(input, serializer().deserialize(byte[].class, direct));
+    assertEquals(input.length, direct.remaining());
+  }
+
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link FrequencySketch}.
+ */
+class FrequencySketchTest {
+
+  @Test
+  void countsUpToMaximum() {
+    FrequencySketch sketch = new FrequencySketch(512);
+    int hash = "key".hashCode();
+    assertEquals(0, sketch.frequency(hash));
+    for (int i = 0; i < 10; i++) {
+      sketch.increment(hash);
+    }
+    assertEquals(10, sketch.frequency(hash));
+    for (int i = 0; i < 20; i++) {
+      sketch.increment(hash);
+    }
+    assertEquals(15, sketch.frequency(hash));
+  }
+
+  @Test
+  void agesCounters() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    int hot = "hot".hashCode();
+    for (int i = 0; i < 15; i++) {
+      sketch.increment(hot);
+    }
+    for (int i = 0; i < 1000; i++) {
+      sketch.increment(("other" + i).hashCode());
+    }
+    assertTrue(sketch.frequency(hot) < 15);
+  }
+
+}
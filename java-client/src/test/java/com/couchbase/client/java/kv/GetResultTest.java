@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.java.codec.RawStringTranscoder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the handling of retained content in the {@link GetResult}.
+ */
+class GetResultTest {
+
+  @Test
+  void releasesRetainedBufferOnceDecoded() {
+    ByteBuf buffer = buffer("content");
+    GetResult result = retained(buffer);
+
+    assertEquals("content", result.contentAs(String.class));
+    assertEquals(0, buffer.refCnt());
+    assertThrows(IllegalStateException.class, () -> result.contentAs(String.class));
+  }
+
+  @Test
+  void releasesRetainedBufferExplicitly() {
+    ByteBuf buffer = buffer("content");
+    GetResult result = retained(buffer);
+
+    result.release();
+    assertEquals(0, buffer.refCnt());
+    result.release();
+    assertThrows(IllegalStateException.class, () -> result.contentAs(String.class));
+  }
+
+  @Test
+  void ignoresReleaseWithoutRetainedBuffer() {
+    GetResult result = new GetResult("content".getBytes(UTF_8), 0, 1, Optional.empty(), RawStringTranscoder.INSTANCE);
+    result.release();
+    assertEquals("content", result.contentAs(String.class));
+    assertEquals("content", result.contentAs(String.class));
+  }
+
+  @Test
+  void transfersRetainedBufferToReplicaResult() {
+    ByteBuf buffer = buffer("content");
+    GetResult result = retained(buffer);
+
+    GetReplicaResult replicaResult = GetReplicaResult.from(result, true);
+    assertThrows(IllegalStateException.class, () -> result.contentAs(String.class));
+    assertEquals(1, buffer.refCnt());
+    assertEquals("content", replicaResult.contentAs(String.class));
+    assertEquals(0, buffer.refCnt());
+  }
+
+  @Test
+  void rendersRetainedBufferWithoutConsumingIt() {
+    ByteBuf buffer = buffer("content");
+    GetResult result = retained(buffer);
+
+    assertTrue(result.toString().contains("<retained 7 bytes>"));
+    assertEquals(result, result);
+    GetResult other = retained(buffer("content"));
+    assertNotEquals(result, other);
+    other.release();
+    assertEquals("content", result.contentAs(String.class));
+    assertTrue(result.toString().contains("released"));
+  }
+
+  private static ByteBuf buffer(final String content) {
+    return PooledByteBufAllocator.DEFAULT.buffer().writeBytes(content.getBytes(UTF_8));
+  }
+
+  private static GetResult retained(final ByteBuf buffer) {
+    return new GetResult(buffer, 0, 1, Optional.empty(), RawStringTranscoder.INSTANCE);
+  }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.Timer;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.core.util.LatencyWindow;
+import com.couchbase.client.java.codec.Transcoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link HedgedRead}.
+ */
+class HedgedReadTest {
+
+  private static final CollectionIdentifier CID = CollectionIdentifier.fromDefault("bucket");
+
+  private final List<GetRequest> sent = new CopyOnWriteArrayList<>();
+  private final LatencyWindow latencies = new LatencyWindow(64);
+  private Timer timer;
+  private Core core;
+  private CoreContext ctx;
+
+  @BeforeEach
+  void setup() {
+    sent.clear();
+    timer = Timer.createAndStart();
+
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(env.timer()).thenReturn(timer);
+    core = mock(Core.class);
+    ctx = new CoreContext(core, 1, env, null);
+    when(core.context()).thenReturn(ctx);
+    when(core.kvReadLatencies()).thenReturn(latencies);
+    doAnswer(i -> sent.add(i.getArgument(0))).when(core).send(any(GetRequest.class));
+  }
+
+  @AfterEach
+  void teardown() {
+    timer.stop();
+  }
+
+  @Test
+  void readsOnlyFromActiveIfItIsFast() throws Exception {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = HedgedRead.read(core, requests, mock(Transcoder.class),
+      Duration.ofHours(1), true);
+    assertEquals(1, sent.size());
+
+    requests.get(0).succeed(response(ResponseStatus.SUCCESS));
+    assertFalse(result.get().isReplica());
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  void readsFromReplicasAfterDelayAndCancelsTheRest() throws Exception {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = HedgedRead.read(core, requests, mock(Transcoder.class),
+      Duration.ofMillis(10), true);
+
+    waitUntil(() -> sent.size() == 3);
+    requests.get(2).succeed(response(ResponseStatus.SUCCESS));
+
+    assertTrue(result.get().isReplica());
+    assertTrue(requests.get(0).cancelled());
+    assertTrue(requests.get(1).cancelled());
+  }
+
+  @Test
+  void recordsLatencyOfCancelledActiveRead() throws Exception {
+    LatencyWindow window = mock(LatencyWindow.class);
+    when(core.kvReadLatencies()).thenReturn(window);
+
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = HedgedRead.read(core, requests, mock(Transcoder.class),
+      Duration.ofMillis(10), true);
+
+    waitUntil(() -> sent.size() == 3);
+    requests.get(1).succeed(response(ResponseStatus.SUCCESS));
+
+    assertTrue(result.get().isReplica());
+    verify(window).record(longThat(latency -> latency >= Duration.ofMillis(10).toNanos()));
+  }
+
+  @Test
+  void failsWithActiveFailureIfAuthoritative() {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = HedgedRead.read(core, requests, mock(Transcoder.class),
+      Duration.ofHours(1), true);
+
+    requests.get(0).succeed(response(ResponseStatus.NOT_FOUND));
+    ExecutionException e = assertThrows(ExecutionException.class, result::get);
+    assertTrue(e.getCause() instanceof DocumentNotFoundException);
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  void readsFromReplicasRightAwayIfActiveFails() throws Exception {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = HedgedRead.read(core, requests, mock(Transcoder.class),
+      Duration.ofHours(1), false);
+
+    requests.get(0).succeed(response(ResponseStatus.NOT_FOUND));
+    assertEquals(3, sent.size());
+    requests.get(1).succeed(response(ResponseStatus.SUCCESS));
+    assertTrue(result.get().isReplica());
+  }
+
+  @Test
+  void derivesDelayFromObservedLatencies() {
+    assertEquals(Duration.ofSeconds(1), HedgedRead.delay(core, Optional.of(Duration.ofSeconds(1)), 0));
+    assertEquals(HedgedRead.FALLBACK_DELAY, HedgedRead.delay(core, Optional.empty(), 95));
+
+    for (int i = 1; i <= 64; i++) {
+      latencies.record(Duration.ofMillis(i).toNanos());
+    }
+    assertEquals(Duration.ofMillis(61), HedgedRead.delay(core, Optional.empty(), 95));
+  }
+
+  private List<GetRequest> requests() {
+    Duration timeout = Duration.ofSeconds(5);
+    return Arrays.asList(
+      new GetRequest("key", timeout, ctx, CID, BestEffortRetryStrategy.INSTANCE),
+      new ReplicaGetRequest("key", timeout, ctx, CID, BestEffortRetryStrategy.INSTANCE, (short) 1),
+      new ReplicaGetRequest("key", timeout, ctx, CID, BestEffortRetryStrategy.INSTANCE, (short) 2)
+    );
+  }
+
+  private static GetResponse response(final ResponseStatus status) {
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(status);
+    when(response.content()).thenReturn(new byte[0]);
+    return response;
+  }
+
+  private static void waitUntil(final BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.kv.NoopRequest;
+import com.couchbase.client.core.msg.kv.NoopResponse;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.env.NearCacheConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of the {@link NearCache}.
+ */
+class NearCacheTest {
+
+  private static final CollectionIdentifier CID = CollectionIdentifier.fromDefault("bucket");
+  private static final Transcoder TRANSCODER = mock(Transcoder.class);
+
+  @Test
+  void returnsCachedDocuments() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.create());
+    assertNull(cache.lookup("id"));
+
+    cache.put("id", result("content", 5), cache.stamp("id"));
+    NearCache.Entry entry = cache.lookup("id");
+    assertNotNull(entry);
+    assertEquals(5, entry.cas());
+    GetResult result = entry.toResult(TRANSCODER);
+    assertArrayEquals("content".getBytes(UTF_8), result.content);
+    assertEquals(5, result.cas());
+  }
+
+  @Test
+  void expiresEntriesAfterTtl() throws Exception {
+    NearCache cache = new NearCache(CID, NearCacheConfig.ttl(Duration.ofMillis(1)).build());
+    cache.put("id", result("content", 1), cache.stamp("id"));
+    Thread.sleep(5);
+    assertNull(cache.lookup("id"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void doesNotCacheFetchesRacingWithInvalidation() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.create());
+    long stamp = cache.stamp("id");
+    cache.invalidate("id");
+    cache.put("id", result("old", 1), stamp);
+    assertNull(cache.lookup("id"));
+  }
+
+  @Test
+  void cachesFetchesRacingWithUnrelatedInvalidation() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.create());
+    String other = null;
+    for (int i = 0; i < 100 && other == null; i++) {
+      long before = cache.stamp("id");
+      cache.invalidate("other" + i);
+      if (cache.stamp("id") == before) {
+        other = "other" + i;
+      }
+    }
+    assertNotNull(other);
+
+    long stamp = cache.stamp("id");
+    cache.invalidate(other);
+    cache.put("id", result("content", 1), stamp);
+    assertNotNull(cache.lookup("id"));
+  }
+
+  @Test
+  void handsOutCopiesOfCachedContent() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.create());
+    GetResult fetched = result("content", 1);
+    cache.put("id", fetched, cache.stamp("id"));
+    fetched.content[0] = 'X';
+
+    GetResult first = cache.lookup("id").toResult(TRANSCODER);
+    first.content[0] = 'Y';
+    assertArrayEquals("content".getBytes(UTF_8), cache.lookup("id").toResult(TRANSCODER).content);
+  }
+
+  @Test
+  void invalidatesBeforeAndAfterMutation() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.create());
+    cache.put("id", result("content", 1), cache.stamp("id"));
+
+    NoopRequest request = new NoopRequest(Duration.ofSeconds(1), mock(CoreContext.class),
+      BestEffortRetryStrategy.INSTANCE, CID);
+    cache.invalidateOn("id", request);
+    assertNull(cache.lookup("id"));
+
+    long stamp = cache.stamp("id");
+    request.succeed(mock(NoopResponse.class));
+    cache.put("id", result("stale", 1), stamp);
+    assertNull(cache.lookup("id"));
+  }
+
+  @Test
+  void boundsNumberOfEntries() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.maxEntries(100).build());
+    for (int i = 0; i < 1000; i++) {
+      cache.put("id" + i, result("content", i), cache.stamp("id" + i));
+    }
+    assertEquals(100, cache.size());
+  }
+
+  @Test
+  void keepsFrequentlyReadEntries() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.maxEntries(100).build());
+    for (int i = 0; i < 100; i++) {
+      cache.put("hot" + i, result("content", i), cache.stamp("hot" + i));
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 100; i++) {
+        assertNotNull(cache.lookup("hot" + i));
+      }
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      cache.put("cold" + i, result("content", i), cache.stamp("cold" + i));
+    }
+
+    int hot = 0;
+    for (int i = 0; i < 100; i++) {
+      if (cache.lookup("hot" + i) != null) {
+        hot++;
+      }
+    }
+    assertTrue(hot >= 95, "Only " + hot + " hot entries survived");
+  }
+
+  @Test
+  void boundsBytes() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.maxBytes(1000).build());
+    for (int i = 0; i < 100; i++) {
+      cache.put("id" + i, result("0123456789012345678901234567890123456789", i), cache.stamp("id" + i));
+    }
+    assertTrue(cache.size() > 0);
+    assertTrue(cache.size() <= 1000 / 100, "Size is " + cache.size());
+
+    cache.put("large", new GetResult(new byte[2000], 0, 1, Optional.empty(), TRANSCODER), cache.stamp("large"));
+    assertNull(cache.lookup("large"));
+  }
+
+  @Test
+  void exportsHitRatio() {
+    NearCache cache = new NearCache(CID, NearCacheConfig.create());
+    assertFalse(cache.exportAndReset().isPresent());
+
+    cache.put("id", result("content", 1), cache.stamp("id"));
+    cache.lookup("id");
+    cache.recordHit();
+    cache.lookup("other");
+
+    Map<String, Object> exported = cache.exportAndReset().get();
+    assertEquals(1L, exported.get("hits"));
+    assertEquals(1L, exported.get("misses"));
+    assertEquals(0.5, exported.get("hitRatio"));
+    assertFalse(cache.exportAndReset().isPresent());
+  }
+
+  private static GetResult result(final String content, final long cas) {
+    return new GetResult(content.getBytes(UTF_8), 0, cas, Optional.empty(), TRANSCODER);
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifies the functionality of the {@link PreparedStatementCache}.
+ */
+class PreparedStatementCacheTest {
+
+  @Test
+  void recordsHitsAndMisses() {
+    PreparedStatementCache cache = new PreparedStatementCache(10);
+    QueryAccessor.QueryCacheEntry entry = entry("p1");
+
+    assertNull(cache.get("select 1"));
+    cache.put("select 1", entry);
+    assertSame(entry, cache.get("select 1"));
+    assertSame(entry, cache.get("select 1"));
+
+    assertEquals(2, cache.hits());
+    assertEquals(1, cache.misses());
+    assertEquals(0, cache.evictions());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed() {
+    PreparedStatementCache cache = new PreparedStatementCache(100);
+    for (int i = 0; i < 100; i++) {
+      cache.put("select " + i, entry("p" + i));
+    }
+    // touch the first statement so it is the most recently used one
+    assertNotNull(cache.get("select 0"));
+
+    cache.put("select 100", entry("p100"));
+
+    // one over capacity plus a batch of 5% is evicted at once
+    assertEquals(6, cache.evictions());
+    assertEquals(95, cache.size());
+    assertNotNull(cache.get("select 0"));
+    assertNotNull(cache.get("select 100"));
+  }
+
+  @Test
+  void removesOnlyIfNotReplaced() {
+    PreparedStatementCache cache = new PreparedStatementCache(10);
+    QueryAccessor.QueryCacheEntry stale = entry("p1");
+    QueryAccessor.QueryCacheEntry fresh = entry("p2");
+
+    cache.put("select 1", stale);
+    cache.put("select 1", fresh);
+    cache.remove("select 1", stale);
+    assertSame(fresh, cache.get("select 1"));
+
+    cache.remove("select 1", fresh);
+    assertNull(cache.get("select 1"));
+  }
+
+  private static QueryAccessor.QueryCacheEntry entry(final String name) {
+    return new QueryAccessor.QueryCacheEntry(false, null, name);
+  }
+
+}
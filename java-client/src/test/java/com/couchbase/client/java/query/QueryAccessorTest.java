@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.config.ConfigurationProvider;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.msg.query.QueryChunkRow;
+import com.couchbase.client.core.msg.query.QueryRequest;
+import com.couchbase.client.core.msg.query.QueryResponse;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the prepare and execute cycle of the {@link QueryAccessor}.
+ */
+class QueryAccessorTest {
+
+  @Test
+  void countsPreparingStatementAsMissOnly() {
+    QueryAccessor accessor = new QueryAccessor(core());
+    QueryOptions.Built options = QueryOptions.queryOptions().adhoc(false).build();
+
+    accessor.queryReactive(request(), options, DefaultJsonSerializer.create()).block();
+    assertEquals(0, accessor.preparedStatementCache().hits());
+    assertEquals(1, accessor.preparedStatementCache().misses());
+
+    accessor.queryReactive(request(), options, DefaultJsonSerializer.create()).block();
+    assertEquals(1, accessor.preparedStatementCache().hits());
+    assertEquals(1, accessor.preparedStatementCache().misses());
+  }
+
+  /**
+   * Creates a core which answers prepare requests with a prepared plan and everything else with an empty result.
+   */
+  private static Core core() {
+    ConfigurationProvider configurationProvider = mock(ConfigurationProvider.class);
+    when(configurationProvider.configs()).thenReturn(Flux.empty());
+
+    Core core = mock(Core.class);
+    when(core.clusterConfig()).thenReturn(new ClusterConfig());
+    when(core.configurationProvider()).thenReturn(configurationProvider);
+    doAnswer(invocation -> {
+      QueryRequest request = invocation.getArgument(0);
+      QueryResponse response = mock(QueryResponse.class);
+      when(response.rows()).thenReturn(request.statement().startsWith("PREPARE")
+        ? Flux.just(new QueryChunkRow("{\"name\":\"p1\",\"encoded_plan\":\"plan\"}".getBytes(UTF_8)))
+        : Flux.empty());
+      request.succeed(response);
+      return null;
+    }).when(core).send(any());
+    return core;
+  }
+
+  private static QueryRequest request() {
+    return new QueryRequest(Duration.ofSeconds(1), mock(CoreContext.class), BestEffortRetryStrategy.INSTANCE,
+      mock(Authenticator.class), "select 1", "{}".getBytes(UTF_8), false, "id");
+  }
+
+}
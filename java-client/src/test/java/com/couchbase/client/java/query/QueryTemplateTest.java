@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.FullHttpRequest;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.UserAgent;
+import com.couchbase.client.core.msg.query.QueryRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the request bodies encoded by the {@link QueryTemplate}.
+ */
+class QueryTemplateTest {
+
+  @Test
+  void splicesPositionalParameters() {
+    QueryTemplate template = template(QueryOptions.queryOptions().scanConsistency(QueryScanConsistency.REQUEST_PLUS));
+
+    JsonObject body = body(template.adhocRequest(template.encodeParameters(JsonArray.from("a", 1))));
+    assertEquals("select * from b where x = $1", body.getString("statement"));
+    assertEquals("2500ms", body.getString("timeout"));
+    assertEquals("request_plus", body.getString("scan_consistency"));
+    assertEquals(JsonArray.from("a", 1), body.getArray("args"));
+    assertNotNull(body.getString("client_context_id"));
+  }
+
+  @Test
+  void splicesNamedParameters() {
+    QueryTemplate template = template(QueryOptions.queryOptions());
+
+    JsonObject named = JsonObject.create().put("x", true).put("$y", "z");
+    JsonObject body = body(template.adhocRequest(template.encodeParameters(named)));
+    assertEquals(true, body.getBoolean("$x"));
+    assertEquals("z", body.getString("$y"));
+    assertFalse(body.containsKey("args"));
+  }
+
+  @Test
+  void omitsEmptyParameters() {
+    QueryTemplate template = template(QueryOptions.queryOptions());
+
+    JsonObject body = body(template.adhocRequest(template.encodeParameters(JsonArray.empty())));
+    assertFalse(body.containsKey("args"));
+    assertEquals("select * from b where x = $1", body.getString("statement"));
+  }
+
+  @Test
+  void generatesClientContextIdPerExecution() {
+    QueryTemplate template = template(QueryOptions.queryOptions());
+    byte[] params = template.encodeParameters(JsonArray.from(1));
+
+    assertNotEquals(
+      body(template.adhocRequest(params)).getString("client_context_id"),
+      body(template.adhocRequest(params)).getString("client_context_id")
+    );
+  }
+
+  @Test
+  void keepsConfiguredClientContextId() {
+    QueryTemplate template = template(QueryOptions.queryOptions().clientContextId("my-id"));
+
+    QueryRequest request = template.adhocRequest(template.encodeParameters(JsonArray.from(1)));
+    assertEquals("my-id", request.operationId());
+    assertEquals("my-id", body(request).getString("client_context_id"));
+  }
+
+  @Test
+  void encodesPreparedStatement() {
+    QueryTemplate template = template(QueryOptions.queryOptions().adhoc(false));
+    QueryAccessor.QueryCacheEntry entry = new QueryAccessor.QueryCacheEntry(false, null, "p1");
+
+    JsonObject body = body(template.preparedRequest(entry, template.encodeParameters(JsonArray.from(1))));
+    assertEquals("p1", body.getString("prepared"));
+    assertFalse(body.containsKey("statement"));
+    assertEquals(JsonArray.from(1), body.getArray("args"));
+  }
+
+  @Test
+  void rejectsParametersInOptions() {
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> template(QueryOptions.queryOptions().parameters(JsonArray.from(1)))
+    );
+  }
+
+  private static QueryTemplate template(final QueryOptions options) {
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(env.userAgent()).thenReturn(new UserAgent("test", Optional.empty(), Optional.empty(), Optional.empty()));
+    CoreContext coreContext = mock(CoreContext.class);
+    when(coreContext.environment()).thenReturn(env);
+
+    return new QueryTemplate(
+      "select * from b where x = $1",
+      options.build(),
+      Duration.ofMillis(2500),
+      BestEffortRetryStrategy.INSTANCE,
+      coreContext,
+      mock(Authenticator.class),
+      DefaultJsonSerializer.create()
+    );
+  }
+
+  private static JsonObject body(final QueryRequest request) {
+    FullHttpRequest encoded = request.encode();
+    try {
+      return JsonObject.fromJson(encoded.content().toString(StandardCharsets.UTF_8));
+    } finally {
+      encoded.release();
+    }
+  }
+
+}
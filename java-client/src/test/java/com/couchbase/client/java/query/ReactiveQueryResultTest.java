@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.msg.query.QueryChunkRow;
+import com.couchbase.client.core.msg.query.QueryResponse;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the decoding of retained rows in the {@link ReactiveQueryResult}.
+ */
+class ReactiveQueryResultTest {
+
+  @Test
+  void decodesAndReleasesRetainedRows() {
+    ByteBuf first = buffer("{\"id\":1}");
+    ByteBuf second = buffer("{\"id\":2}");
+
+    List<JsonObject> decoded = result(Flux.just(new QueryChunkRow(first), new QueryChunkRow(second)))
+      .rowsAsObject()
+      .collectList()
+      .block();
+
+    assertEquals(Arrays.asList(JsonObject.create().put("id", 1), JsonObject.create().put("id", 2)), decoded);
+
+    assertEquals(0, first.refCnt());
+    assertEquals(0, second.refCnt());
+  }
+
+  @Test
+  void retainedRowDataCanBeReadRepeatedly() {
+    ByteBuf content = buffer("{\"id\":1}");
+    QueryChunkRow row = new QueryChunkRow(content);
+
+    assertEquals("{\"id\":1}", new String(row.data(), UTF_8));
+    assertEquals(0, content.refCnt());
+    assertEquals("{\"id\":1}", new String(row.data(), UTF_8));
+    assertNull(row.takeContent());
+  }
+
+  @Test
+  void releasedRowCannotBeRead() {
+    ByteBuf content = buffer("{\"id\":1}");
+    QueryChunkRow row = new QueryChunkRow(content);
+
+    row.release();
+    assertEquals(0, content.refCnt());
+    assertThrows(IllegalStateException.class, row::data);
+  }
+
+  @Test
+  void releasesRowsDiscardedBeforeDecoding() {
+    ByteBuf first = buffer("{\"id\":1}");
+    ByteBuf second = buffer("{\"id\":2}");
+
+    List<JsonObject> decoded = result(Flux.just(new QueryChunkRow(first), new QueryChunkRow(second)).filter(row -> false))
+      .rowsAsObject()
+      .collectList()
+      .block();
+
+    assertEquals(Collections.emptyList(), decoded);
+    assertEquals(0, first.refCnt());
+    assertEquals(0, second.refCnt());
+  }
+
+  private static ReactiveQueryResult result(final Flux<QueryChunkRow> rows) {
+    QueryResponse response = mock(QueryResponse.class);
+    when(response.rows()).thenReturn(rows);
+    return new ReactiveQueryResult(response, DefaultJsonSerializer.create());
+  }
+
+  private static ByteBuf buffer(final String content) {
+    return PooledByteBufAllocator.DEFAULT.buffer().writeBytes(content.getBytes(UTF_8));
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.env.SeedNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds the environment, core and context shared by the benchmarks.
+ *
+ * <p>The core is never bootstrapped against a cluster, it only provides the context that requests and
+ * handlers need to be constructed.</p>
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+  private final CoreEnvironment environment;
+  private final Core core;
+
+  BenchmarkContext() {
+    this.environment = CoreEnvironment.create();
+    this.core = Core.create(environment, PasswordAuthenticator.create("Administrator", "password"), SeedNode.DEFAULT);
+  }
+
+  CoreEnvironment environment() {
+    return environment;
+  }
+
+  Core core() {
+    return core;
+  }
+
+  CoreContext context() {
+    return core.context();
+  }
+
+  @Override
+  public void close() {
+    core.shutdown().block();
+    environment.shutdown();
+  }
+
+  /**
+   * Loads a resource bundled with the benchmarks into a string.
+   *
+   * @param name the name of the resource, relative to this class.
+   * @return the content of the resource.
+   */
+  static String resource(final String name) {
+    try (InputStream in = BenchmarkContext.class.getResourceAsStream(name)) {
+      if (in == null) {
+        throw new IllegalArgumentException("Resource not found: " + name);
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks matching the optional regular expression with the GC profiler attached, so that the
+ * allocation rate per operation is reported next to the timings.
+ */
+public class BenchmarkRunner {
+
+  public static void main(final String... args) throws RunnerException {
+    Options options = new OptionsBuilder()
+      .include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*")
+      .addProfiler(GCProfiler.class)
+      .build();
+    new Runner(options).run();
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.benchmarks.mock.MockKeyValueServer;
+import com.couchbase.client.java.Cluster;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.codec.RawJsonTranscoder;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.UpsertOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static com.couchbase.client.java.ClusterOptions.clusterOptions;
+
+/**
+ * Measures a blocking get and upsert through the whole {@link Cluster} stack against a {@link MockKeyValueServer}
+ * on loopback, so the result is dominated by the client side cost of a round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClusterRoundTripBenchmark {
+
+  private static final String KEY = "roundtrip";
+  private static final byte[] CONTENT = "{\"name\":\"40-Mile Air\",\"country\":\"United States\"}"
+    .getBytes(StandardCharsets.UTF_8);
+  private static final GetOptions GET_OPTIONS = GetOptions.getOptions().transcoder(RawJsonTranscoder.INSTANCE);
+  private static final UpsertOptions UPSERT_OPTIONS = UpsertOptions.upsertOptions()
+    .transcoder(RawJsonTranscoder.INSTANCE);
+
+  private MockKeyValueServer server;
+  private Cluster cluster;
+  private Collection collection;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    server = MockKeyValueServer.start();
+    cluster = Cluster.connect("127.0.0.1", clusterOptions(server.authenticator()).seedNodes(server.seedNodes()));
+    collection = cluster.bucket(server.bucketName()).defaultCollection();
+    collection.upsert(KEY, CONTENT, UPSERT_OPTIONS);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    cluster.disconnect();
+    server.close();
+  }
+
+  @Benchmark
+  public GetResult get() {
+    return collection.get(KEY, GET_OPTIONS);
+  }
+
+  @Benchmark
+  public MutationResult upsert() {
+    return collection.upsert(KEY, CONTENT, UPSERT_OPTIONS);
+  }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.json.stream.CompositeStreamWindow;
+import com.couchbase.client.core.json.stream.CopyingStreamWindow;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
+import com.couchbase.client.core.json.stream.StreamWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast the {@link JsonStreamParser} extracts the rows of a query response which arrives in
+ * chunks, with either of the stream window implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonStreamParserBenchmark {
+
+  @Param({"10", "1000"})
+  public int rows;
+
+  @Param({"1024", "16384"})
+  public int chunkSize;
+
+  @Param({"copying", "composite"})
+  public String window;
+
+  private ByteBufAllocator alloc;
+  private List<ByteBuf> chunks;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    alloc = PooledByteBufAllocator.DEFAULT;
+
+    StringBuilder sb = new StringBuilder("{\"requestID\":\"2c0cb58b-3e3a-4a5e-9c8a-0d3e4fc7c7a1\",")
+      .append("\"signature\":{\"*\":\"*\"},\"results\":[");
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"airline\":{\"id\":").append(i)
+        .append(",\"type\":\"airline\",\"name\":\"40-Mile Air\",\"iata\":\"Q5\",\"icao\":\"MLA\",")
+        .append("\"callsign\":\"MILE-AIR\",\"country\":\"United States\"}}");
+    }
+    sb.append("],\"status\":\"success\",\"metrics\":{\"elapsedTime\":\"4.2ms\",\"executionTime\":\"4.1ms\",")
+      .append("\"resultCount\":").append(rows).append("}}");
+
+    byte[] raw = sb.toString().getBytes(StandardCharsets.UTF_8);
+    chunks = new ArrayList<>();
+    for (int offset = 0; offset < raw.length; offset += chunkSize) {
+      int length = Math.min(chunkSize, raw.length - offset);
+      chunks.add(Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(raw, offset, length)));
+    }
+  }
+
+  @Benchmark
+  public void parseRows(final Blackhole bh) {
+    StreamWindow streamWindow = "composite".equals(window)
+      ? new CompositeStreamWindow(alloc)
+      : new CopyingStreamWindow(alloc);
+
+    try (JsonStreamParser parser = JsonStreamParser.builder()
+      .doOnValue("/results/-", v -> bh.consume(v.readBytes()))
+      .doOnValue("/status", v -> bh.consume(v.readString()))
+      .build(alloc.heapBuffer(chunkSize), streamWindow)) {
+      // The window takes ownership of every chunk, so only hand out duplicates of the unreleasable originals.
+      for (ByteBuf chunk : chunks) {
+        parser.feed(chunk.duplicate());
+      }
+      parser.endOfInput();
+    }
+  }
+
+}
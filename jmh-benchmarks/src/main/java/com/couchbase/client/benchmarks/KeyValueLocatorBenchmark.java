@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.BucketConfigParser;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.node.KeyValueLocator;
+import com.couchbase.client.core.node.Node;
+import com.couchbase.client.core.node.NodeIdentifier;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes the {@link KeyValueLocator} to map a key to its partition and hand the request
+ * to the owning node.
+ *
+ * <p>The nodes only count the requests they receive, so nothing but the locator itself is measured.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyValueLocatorBenchmark {
+
+  private static final int NUM_KEYS = 1024;
+
+  private BenchmarkContext context;
+  private KeyValueLocator locator;
+  private ClusterConfig config;
+  private List<Node> nodes;
+  private GetRequest[] requests;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new BenchmarkContext();
+    CoreContext ctx = context.context();
+
+    BucketConfig bucketConfig = BucketConfigParser.parse(
+      BenchmarkContext.resource("couchbase_bucket_config.json"),
+      context.environment(),
+      "192.168.1.194"
+    );
+    config = new ClusterConfig();
+    config.setBucketConfig(bucketConfig);
+
+    nodes = new ArrayList<>();
+    nodes.add(new CountingNode(ctx, new NodeIdentifier("192.168.1.194", 9000)));
+    nodes.add(new CountingNode(ctx, new NodeIdentifier("192.168.1.194", 9001)));
+
+    CollectionIdentifier collection = CollectionIdentifier.fromDefault(bucketConfig.name());
+    requests = new GetRequest[NUM_KEYS];
+    for (int i = 0; i < NUM_KEYS; i++) {
+      requests[i] = new GetRequest("key::" + i, Duration.ofSeconds(2), ctx, collection,
+        BestEffortRetryStrategy.INSTANCE);
+    }
+
+    locator = new KeyValueLocator();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    long dispatched = 0;
+    for (Node node : nodes) {
+      dispatched += ((CountingNode) node).received;
+    }
+    if (dispatched == 0) {
+      throw new IllegalStateException("No request has been dispatched to a node");
+    }
+    context.close();
+  }
+
+  @Benchmark
+  public GetRequest dispatch() {
+    GetRequest request = requests[index++ & (NUM_KEYS - 1)];
+    locator.dispatch(request, nodes, config, context.context());
+    return request;
+  }
+
+  /**
+   * A node which is never connected and only counts the requests sent to it.
+   */
+  private static class CountingNode extends Node {
+
+    private long received;
+
+    CountingNode(final CoreContext ctx, final NodeIdentifier identifier) {
+      super(ctx, identifier, Optional.empty());
+    }
+
+    @Override
+    public <R extends Request<? extends Response>> void send(final R request) {
+      received++;
+    }
+
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.netty.kv.KeyValueMessageHandler;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full get round trip through the {@link KeyValueMessageHandler}: the request is written into an
+ * {@link EmbeddedChannel}, the encoded request is read back and a matching response is fed in until the
+ * request completes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyValueMessageHandlerBenchmark {
+
+  private static final String BUCKET = "default";
+  private static final int OPAQUE_OFFSET = 12;
+  private static final CollectionIdentifier COLLECTION = CollectionIdentifier.fromDefault(BUCKET);
+
+  @Param({"128", "4096"})
+  public int documentSize;
+
+  private BenchmarkContext context;
+  private EndpointContext endpointContext;
+  private EmbeddedChannel channel;
+  private byte[] content;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new BenchmarkContext();
+    endpointContext = new EndpointContext(context.context(), new HostAndPort("127.0.0.1", 11210), null,
+      ServiceType.KV, Optional.empty(), Optional.of(BUCKET), Optional.empty());
+    channel = new EmbeddedChannel(new KeyValueMessageHandler(null, endpointContext, Optional.of(BUCKET)));
+
+    content = new byte[documentSize];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) ('a' + (i % 26));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    channel.finishAndReleaseAll();
+    context.close();
+  }
+
+  @Benchmark
+  public GetResponse getRoundTrip() {
+    GetRequest request = new GetRequest("airline_10123", Duration.ofSeconds(2), endpointContext, COLLECTION,
+      BestEffortRetryStrategy.INSTANCE);
+    channel.writeOutbound(request);
+
+    ByteBuf encoded = channel.readOutbound();
+    int opaque = encoded.getInt(OPAQUE_OFFSET);
+    encoded.release();
+
+    channel.writeInbound(MemcacheProtocol.response(channel.alloc(), MemcacheProtocol.Opcode.GET, (byte) 0,
+      MemcacheProtocol.Status.SUCCESS.status(), opaque, 1234, Unpooled.buffer(4).writeInt(0),
+      Unpooled.EMPTY_BUFFER, Unpooled.wrappedBuffer(content)));
+
+    GetResponse response = request.response().getNow(null);
+    if (response == null) {
+      throw new IllegalStateException("Request has not been completed by the handler");
+    }
+    return response;
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A lock-free, log-linear latency histogram which can be recorded into from any thread.
+ *
+ * <p>Every power of two is split into 128 linear buckets, so a reported value is never off by more than
+ * 1% from the recorded one while the memory footprint stays constant.</p>
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records a single latency value.
+   *
+   * @param nanos the latency in nanoseconds.
+   */
+  void record(final long nanos) {
+    long value = Math.max(0, nanos);
+    counts.incrementAndGet(indexOf(value));
+    max.accumulate(value);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   */
+  long count() {
+    long count = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the largest recorded value in nanoseconds.
+   */
+  long max() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value at the given percentile in nanoseconds.
+   *
+   * @param percentile the percentile, between 0 and 100.
+   * @return the highest value of the bucket the percentile falls into, 0 if nothing is recorded.
+   */
+  long percentile(final double percentile) {
+    long total = count();
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(highestValueAt(i), max());
+      }
+    }
+    return max();
+  }
+
+  static int indexOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+    return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  static long highestValueAt(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long mantissa = (index % SUB_BUCKETS) + SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.benchmarks.mock.MockKeyValueServer;
+import com.couchbase.client.java.AsyncCollection;
+import com.couchbase.client.java.Cluster;
+import com.couchbase.client.java.codec.RawJsonTranscoder;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.UpsertOptions;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.couchbase.client.java.ClusterOptions.clusterOptions;
+
+/**
+ * Drives a closed-loop get/upsert workload through {@link Cluster} against a {@link MockKeyValueServer} and
+ * reports the throughput and latency percentiles.
+ *
+ * <p>Every one of the {@code concurrency} virtual users keeps exactly one operation in flight and issues
+ * the next one as soon as the previous completed. All options are passed as {@code --name=value}:</p>
+ *
+ * <ul>
+ *   <li>{@code nodes} (1): number of mock nodes.</li>
+ *   <li>{@code latency-us} (0) and {@code jitter-us} (0): server side delay of every data response.</li>
+ *   <li>{@code concurrency} (64): number of operations in flight.</li>
+ *   <li>{@code keys} (10000) and {@code doc-size} (256): size of the working set.</li>
+ *   <li>{@code read-ratio} (0.8): share of gets, the rest are upserts.</li>
+ *   <li>{@code warmup-s} (5) and {@code duration-s} (30): length of the warmup and the measurement.</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+  private static final GetOptions GET_OPTIONS = GetOptions.getOptions().transcoder(RawJsonTranscoder.INSTANCE);
+  private static final UpsertOptions UPSERT_OPTIONS = UpsertOptions.upsertOptions()
+    .transcoder(RawJsonTranscoder.INSTANCE);
+
+  private final AsyncCollection collection;
+  private final int concurrency;
+  private final int keys;
+  private final double readRatio;
+  private final byte[] document;
+
+  private volatile boolean running = true;
+  private volatile Recorder recorder = new Recorder();
+
+  LoadGenerator(final AsyncCollection collection, final int concurrency, final int keys, final double readRatio,
+                final int documentSize) {
+    this.collection = collection;
+    this.concurrency = concurrency;
+    this.keys = keys;
+    this.readRatio = readRatio;
+    this.document = document(documentSize);
+  }
+
+  public static void main(final String... args) throws Exception {
+    Map<String, String> options = parse(args);
+    int nodes = intOption(options, "nodes", 1);
+    Duration latency = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(intOption(options, "latency-us", 0)));
+    Duration jitter = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(intOption(options, "jitter-us", 0)));
+    int concurrency = intOption(options, "concurrency", 64);
+    int keys = intOption(options, "keys", 10000);
+    int documentSize = intOption(options, "doc-size", 256);
+    double readRatio = Double.parseDouble(options.getOrDefault("read-ratio", "0.8"));
+    Duration warmup = Duration.ofSeconds(intOption(options, "warmup-s", 5));
+    Duration duration = Duration.ofSeconds(intOption(options, "duration-s", 30));
+
+    try (MockKeyValueServer server = MockKeyValueServer.builder()
+      .nodes(nodes)
+      .latency(latency)
+      .jitter(jitter)
+      .start()) {
+      Cluster cluster = Cluster.connect("127.0.0.1", clusterOptions(server.authenticator())
+        .seedNodes(server.seedNodes()));
+      try {
+        AsyncCollection collection = cluster.bucket(server.bucketName()).defaultCollection().async();
+        LoadGenerator generator = new LoadGenerator(collection, concurrency, keys, readRatio, documentSize);
+
+        System.out.printf("Loading %d documents of %d bytes into %d node(s), latency %s, jitter %s%n",
+          keys, documentSize, nodes, latency, jitter);
+        generator.load();
+
+        System.out.printf("Running %d concurrent operations, %.0f%% reads, warmup %s, measuring %s%n",
+          concurrency, readRatio * 100, warmup, duration);
+        generator.run(warmup, duration).print(duration);
+      } finally {
+        cluster.disconnect();
+      }
+    }
+  }
+
+  /**
+   * Upserts every document of the working set once, with at most {@code concurrency} upserts in flight.
+   *
+   * <p>The first upsert is done on its own so the rest does not pile up in retry while the bucket opens.</p>
+   */
+  void load() {
+    collection.upsert(key(0), document, UPSERT_OPTIONS).join();
+    for (int batch = 1; batch < keys; batch += concurrency) {
+      int end = Math.min(keys, batch + concurrency);
+      CompletableFuture<?>[] futures = new CompletableFuture<?>[end - batch];
+      for (int i = batch; i < end; i++) {
+        futures[i - batch] = collection.upsert(key(i), document, UPSERT_OPTIONS);
+      }
+      CompletableFuture.allOf(futures).join();
+    }
+  }
+
+  /**
+   * Runs the workload for the warmup and then for the measured duration.
+   *
+   * @return the recorder holding the results of the measurement only.
+   */
+  Recorder run(final Duration warmup, final Duration duration) throws InterruptedException {
+    CountDownLatch stopped = new CountDownLatch(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      next(stopped);
+    }
+
+    Thread.sleep(warmup.toMillis());
+    Recorder measured = new Recorder();
+    recorder = measured;
+    Thread.sleep(duration.toMillis());
+    running = false;
+    recorder = new Recorder();
+
+    stopped.await();
+    return measured;
+  }
+
+  /**
+   * Issues the next operation of a virtual user, which chains the one after on completion.
+   */
+  private void next(final CountDownLatch stopped) {
+    if (!running) {
+      stopped.countDown();
+      return;
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String key = key(random.nextInt(keys));
+    boolean read = random.nextDouble() < readRatio;
+    long start = System.nanoTime();
+    CompletableFuture<?> operation = read
+      ? collection.get(key, GET_OPTIONS)
+      : collection.upsert(key, document, UPSERT_OPTIONS);
+
+    operation.whenComplete((result, error) -> {
+      recorder.record(read, System.nanoTime() - start, error != null);
+      next(stopped);
+    });
+  }
+
+  private static String key(final int index) {
+    return "load::" + index;
+  }
+
+  private static byte[] document(final int size) {
+    byte[] content = new byte[Math.max(size, 2)];
+    Arrays.fill(content, (byte) 'x');
+    content[0] = '"';
+    content[content.length - 1] = '"';
+    return content;
+  }
+
+  private static Map<String, String> parse(final String... args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Options need to be passed as --name=value, got: " + arg);
+      }
+      int split = arg.indexOf('=');
+      options.put(arg.substring(2, split), arg.substring(split + 1));
+    }
+    return options;
+  }
+
+  private static int intOption(final Map<String, String> options, final String name, final int defaultValue) {
+    String value = options.get(name);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
+  /**
+   * Collects the latencies and failures of one phase of the run.
+   */
+  static final class Recorder {
+
+    private final LatencyHistogram reads = new LatencyHistogram();
+    private final LatencyHistogram writes = new LatencyHistogram();
+    private final AtomicLong failures = new AtomicLong();
+
+    void record(final boolean read, final long nanos, final boolean failed) {
+      if (failed) {
+        failures.incrementAndGet();
+      } else {
+        (read ? reads : writes).record(nanos);
+      }
+    }
+
+    void print(final Duration duration) {
+      double seconds = duration.toNanos() / 1e9;
+      long total = reads.count() + writes.count();
+      System.out.printf("%n%-8s %12s %10s %10s %10s %10s %10s%n",
+        "op", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+      print("get", reads, seconds);
+      print("upsert", writes, seconds);
+      System.out.printf("%-8s %12.0f%n", "total", total / seconds);
+      System.out.printf("failed operations: %d%n", failures.get());
+    }
+
+    private static void print(final String name, final LatencyHistogram histogram, final double seconds) {
+      System.out.printf("%-8s %12.0f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+        name,
+        histogram.count() / seconds,
+        histogram.percentile(50) / 1e3,
+        histogram.percentile(90) / 1e3,
+        histogram.percentile(99) / 1e3,
+        histogram.percentile(99.9) / 1e3,
+        histogram.max() / 1e3);
+    }
+
+  }
+
+}
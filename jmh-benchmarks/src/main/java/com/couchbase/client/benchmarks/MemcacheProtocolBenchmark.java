@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.CollectionMap;
+import com.couchbase.client.core.io.netty.kv.ChannelContext;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.AppendRequest;
+import com.couchbase.client.core.msg.kv.GetAndLockRequest;
+import com.couchbase.client.core.msg.kv.GetAndTouchRequest;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.IncrementRequest;
+import com.couchbase.client.core.msg.kv.InsertRequest;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.msg.kv.RemoveRequest;
+import com.couchbase.client.core.msg.kv.ReplaceRequest;
+import com.couchbase.client.core.msg.kv.SubdocCommandType;
+import com.couchbase.client.core.msg.kv.SubdocGetRequest;
+import com.couchbase.client.core.msg.kv.SubdocMutateRequest;
+import com.couchbase.client.core.msg.kv.TouchRequest;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.core.retry.RetryStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of encoding each key/value request into its memcache binary representation and of
+ * decoding the matching successful response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemcacheProtocolBenchmark {
+
+  private static final String BUCKET = "default";
+  private static final String KEY = "airline_10123";
+  private static final Duration TIMEOUT = Duration.ofSeconds(2);
+  private static final RetryStrategy RETRY = BestEffortRetryStrategy.INSTANCE;
+  private static final CollectionIdentifier COLLECTION = CollectionIdentifier.fromDefault(BUCKET);
+
+  @Param({
+    "get", "getAndLock", "getAndTouch", "insert", "upsert", "replace", "remove",
+    "touch", "increment", "append", "subdocGet", "subdocMutate"
+  })
+  public String request;
+
+  @Param({"false", "true"})
+  public boolean compression;
+
+  private BenchmarkContext context;
+  private ByteBufAllocator alloc;
+  private ChannelContext channelContext;
+  private KeyValueRequest<? extends Response> kvRequest;
+  private ByteBuf response;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new BenchmarkContext();
+    alloc = PooledByteBufAllocator.DEFAULT;
+    channelContext = new ChannelContext(
+      CompressionConfig.enable(compression).build(),
+      false,
+      false,
+      Optional.of(BUCKET),
+      false,
+      false,
+      new CollectionMap()
+    );
+
+    byte[] content = document();
+    CoreContext ctx = context.context();
+    switch (request) {
+      case "get":
+        kvRequest = new GetRequest(KEY, TIMEOUT, ctx, COLLECTION, RETRY);
+        response = contentResponse(MemcacheProtocol.Opcode.GET, content);
+        break;
+      case "getAndLock":
+        kvRequest = new GetAndLockRequest(KEY, TIMEOUT, ctx, COLLECTION, RETRY, Duration.ofSeconds(15));
+        response = contentResponse(MemcacheProtocol.Opcode.GET_AND_LOCK, content);
+        break;
+      case "getAndTouch":
+        kvRequest = new GetAndTouchRequest(KEY, TIMEOUT, ctx, COLLECTION, RETRY, Duration.ofSeconds(60));
+        response = contentResponse(MemcacheProtocol.Opcode.GET_AND_TOUCH, content);
+        break;
+      case "insert":
+        kvRequest = new InsertRequest(KEY, content, 0, 0, TIMEOUT, ctx, COLLECTION, RETRY, Optional.empty());
+        response = emptyResponse(MemcacheProtocol.Opcode.ADD);
+        break;
+      case "upsert":
+        kvRequest = new UpsertRequest(KEY, content, 0, 0, TIMEOUT, ctx, COLLECTION, RETRY, Optional.empty());
+        response = emptyResponse(MemcacheProtocol.Opcode.SET);
+        break;
+      case "replace":
+        kvRequest = new ReplaceRequest(KEY, content, 0, 0, TIMEOUT, 1234, ctx, COLLECTION, RETRY, Optional.empty());
+        response = emptyResponse(MemcacheProtocol.Opcode.REPLACE);
+        break;
+      case "remove":
+        kvRequest = new RemoveRequest(KEY, 0, TIMEOUT, ctx, COLLECTION, RETRY, Optional.empty());
+        response = emptyResponse(MemcacheProtocol.Opcode.DELETE);
+        break;
+      case "touch":
+        kvRequest = new TouchRequest(TIMEOUT, ctx, COLLECTION, RETRY, KEY, 60);
+        response = emptyResponse(MemcacheProtocol.Opcode.TOUCH);
+        break;
+      case "increment":
+        kvRequest = new IncrementRequest(TIMEOUT, ctx, COLLECTION, RETRY, KEY, 0, 1,
+          Optional.of(0L), 0, Optional.empty());
+        response = MemcacheProtocol.response(alloc, MemcacheProtocol.Opcode.INCREMENT, (byte) 0, success(), 1,
+          1234, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER, Unpooled.buffer(8).writeLong(42));
+        break;
+      case "append":
+        kvRequest = new AppendRequest(TIMEOUT, ctx, COLLECTION, RETRY, KEY,
+          "-suffix".getBytes(StandardCharsets.UTF_8), 0, Optional.empty());
+        response = emptyResponse(MemcacheProtocol.Opcode.APPEND);
+        break;
+      case "subdocGet":
+        kvRequest = new SubdocGetRequest(TIMEOUT, ctx, COLLECTION, RETRY, KEY, (byte) 0, Arrays.asList(
+          new SubdocGetRequest.Command(SubdocCommandType.GET, "name", false, 0),
+          new SubdocGetRequest.Command(SubdocCommandType.GET, "country", false, 1)
+        ));
+        response = MemcacheProtocol.response(alloc, MemcacheProtocol.Opcode.SUBDOC_MULTI_LOOKUP, (byte) 0,
+          success(), 1, 1234, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER,
+          subdocLookupBody("\"40-Mile Air\"", "\"United States\""));
+        break;
+      case "subdocMutate":
+        kvRequest = new SubdocMutateRequest(TIMEOUT, ctx, COLLECTION, RETRY, KEY, false, false, false,
+          Arrays.asList(
+            new SubdocMutateRequest.Command(SubdocCommandType.DICT_UPSERT, "callsign",
+              "\"MILE-AIR\"".getBytes(StandardCharsets.UTF_8), false, false, false, 0),
+            new SubdocMutateRequest.Command(SubdocCommandType.COUNTER, "visits",
+              "1".getBytes(StandardCharsets.UTF_8), false, false, false, 1)
+          ), 0, 0, Optional.empty());
+        response = MemcacheProtocol.response(alloc, MemcacheProtocol.Opcode.SUBDOC_MULTI_MUTATE, (byte) 0,
+          success(), 1, 1234, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER, subdocMutateBody(1, "42"));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown request type " + request);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    response.release();
+    context.close();
+  }
+
+  @Benchmark
+  public ByteBuf encode() {
+    ByteBuf encoded = kvRequest.encode(alloc, 1, channelContext);
+    encoded.release();
+    return encoded;
+  }
+
+  @Benchmark
+  public Response decode() {
+    return kvRequest.decode(response, channelContext);
+  }
+
+  /**
+   * Returns a JSON document close to the size of a typical travel-sample document.
+   */
+  private static byte[] document() {
+    StringBuilder sb = new StringBuilder("{\"type\":\"airline\",\"id\":10123,\"name\":\"40-Mile Air\",")
+      .append("\"iata\":\"Q5\",\"icao\":\"MLA\",\"callsign\":\"MILE-AIR\",\"country\":\"United States\",")
+      .append("\"routes\":[");
+    for (int i = 0; i < 16; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"from\":\"SFO\",\"to\":\"LAX\",\"stops\":").append(i).append('}');
+    }
+    return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static short success() {
+    return MemcacheProtocol.Status.SUCCESS.status();
+  }
+
+  private ByteBuf emptyResponse(final MemcacheProtocol.Opcode opcode) {
+    return MemcacheProtocol.response(alloc, opcode, (byte) 0, success(), 1, 1234,
+      Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER);
+  }
+
+  /**
+   * Builds a response carrying the document, snappy compressed if compression is enabled for this trial.
+   */
+  private ByteBuf contentResponse(final MemcacheProtocol.Opcode opcode, final byte[] content) {
+    byte datatype = 0;
+    ByteBuf body = Unpooled.wrappedBuffer(content);
+    if (compression) {
+      ByteBuf compressed = SnappyCodec.tryCompress(alloc, content, channelContext.compressionConfig());
+      if (compressed != null) {
+        datatype = MemcacheProtocol.Datatype.SNAPPY.datatype();
+        body = compressed;
+      }
+    }
+    try {
+      return MemcacheProtocol.response(alloc, opcode, datatype, success(), 1, 1234,
+        Unpooled.buffer(4).writeInt(0x02000006), Unpooled.EMPTY_BUFFER, body);
+    } finally {
+      body.release();
+    }
+  }
+
+  private static ByteBuf subdocLookupBody(final String... values) {
+    ByteBuf body = Unpooled.buffer();
+    for (String value : values) {
+      byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+      body.writeShort(0).writeInt(raw.length).writeBytes(raw);
+    }
+    return body;
+  }
+
+  private static ByteBuf subdocMutateBody(final int index, final String value) {
+    byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+    return Unpooled.buffer().writeByte(index).writeShort(0).writeInt(raw.length).writeBytes(raw);
+  }
+
+}
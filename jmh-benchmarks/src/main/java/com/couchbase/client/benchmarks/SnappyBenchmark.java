@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures snappy compression and decompression of JSON documents through the {@link SnappyCodec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnappyBenchmark {
+
+  @Param({"256", "4096", "65536"})
+  public int size;
+
+  private ByteBufAllocator alloc;
+  private CompressionConfig config;
+  private byte[] document;
+  private ByteBuf compressed;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    alloc = PooledByteBufAllocator.DEFAULT;
+    config = CompressionConfig.create();
+
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; sb.length() < size - 1; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"id\":").append(i).append(",\"name\":\"user").append(i).append("\",\"active\":true}");
+    }
+    sb.setLength(size - 1);
+    document = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+    compressed = SnappyCodec.tryCompress(alloc, document, config);
+    if (compressed == null) {
+      throw new IllegalStateException("Document of size " + size + " is not compressible");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    compressed.release();
+  }
+
+  @Benchmark
+  public ByteBuf compress() {
+    ByteBuf output = SnappyCodec.tryCompress(alloc, document, config);
+    output.release();
+    return output;
+  }
+
+  @Benchmark
+  public ByteBuf decompress() {
+    ByteBuf output = SnappyCodec.decompress(alloc, compressed);
+    output.release();
+    return output;
+  }
+
+  @Benchmark
+  public byte[] decompressToArray() {
+    return SnappyCodec.decompressToArray(compressed);
+  }
+
+}
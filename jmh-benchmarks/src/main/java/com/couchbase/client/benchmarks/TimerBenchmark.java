@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.core.Timer;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.env.TimeoutTracking;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.CollectionMap;
+import com.couchbase.client.core.io.netty.kv.ChannelContext;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of tracking a request timeout with each {@link TimeoutTracking} mode, from registration
+ * until the request completes successfully well before its deadline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class TimerBenchmark {
+
+  private static final CollectionIdentifier COLLECTION = CollectionIdentifier.fromDefault("default");
+
+  @Param({"WHEEL", "DEADLINE_BUCKETS"})
+  public TimeoutTracking tracking;
+
+  private BenchmarkContext context;
+  private Timer timer;
+  private GetResponse response;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new BenchmarkContext();
+    timer = Timer.createAndStart(tracking);
+
+    GetRequest request = newRequest();
+    ByteBuf raw = MemcacheProtocol.response(Unpooled.buffer().alloc(), MemcacheProtocol.Opcode.GET, (byte) 0,
+      MemcacheProtocol.Status.SUCCESS.status(), 1, 1234, Unpooled.buffer(4).writeInt(0), Unpooled.EMPTY_BUFFER,
+      Unpooled.EMPTY_BUFFER);
+    try {
+      response = request.decode(raw, new ChannelContext(CompressionConfig.create(), false, false,
+        Optional.of("default"), false, false, new CollectionMap()));
+    } finally {
+      raw.release();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    timer.stop();
+    context.close();
+  }
+
+  @Benchmark
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public GetRequest registerAndComplete() {
+    GetRequest request = newRequest();
+    timer.register((Request<Response>) (Request) request);
+    request.succeed(response);
+    return request;
+  }
+
+  private GetRequest newRequest() {
+    return new GetRequest("airline_10123", Duration.ofSeconds(2), context.context(), COLLECTION,
+      BestEffortRetryStrategy.INSTANCE);
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks;
+
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.codec.JsonTranscoder;
+import com.couchbase.client.java.codec.LegacyTranscoder;
+import com.couchbase.client.java.codec.RawBinaryTranscoder;
+import com.couchbase.client.java.codec.RawJsonTranscoder;
+import com.couchbase.client.java.codec.RawStringTranscoder;
+import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and decoding of a document through each of the {@link Transcoder} implementations,
+ * using the content type each one is meant for.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscoderBenchmark {
+
+  @Param({"json", "legacy", "rawJson", "rawString", "rawBinary"})
+  public String transcoder;
+
+  private Transcoder instance;
+  private Object input;
+  private Class<?> target;
+  private byte[] encoded;
+  private int flags;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    JsonArray routes = JsonArray.create();
+    for (int i = 0; i < 16; i++) {
+      routes.add(JsonObject.create().put("from", "SFO").put("to", "LAX").put("stops", i));
+    }
+    JsonObject document = JsonObject.create()
+      .put("type", "airline")
+      .put("id", 10123)
+      .put("name", "40-Mile Air")
+      .put("callsign", "MILE-AIR")
+      .put("country", "United States")
+      .put("routes", routes);
+
+    switch (transcoder) {
+      case "json":
+        instance = JsonTranscoder.create(DefaultJsonSerializer.create());
+        input = document;
+        target = JsonObject.class;
+        break;
+      case "legacy":
+        instance = LegacyTranscoder.create(DefaultJsonSerializer.create());
+        input = document;
+        target = JsonObject.class;
+        break;
+      case "rawJson":
+        instance = RawJsonTranscoder.INSTANCE;
+        input = document.toString();
+        target = String.class;
+        break;
+      case "rawString":
+        instance = RawStringTranscoder.INSTANCE;
+        input = document.toString();
+        target = String.class;
+        break;
+      case "rawBinary":
+        instance = RawBinaryTranscoder.INSTANCE;
+        input = document.toString().getBytes(StandardCharsets.UTF_8);
+        target = byte[].class;
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown transcoder " + transcoder);
+    }
+
+    Transcoder.EncodedValue value = instance.encode(input);
+    encoded = value.encoded();
+    flags = value.flags();
+  }
+
+  @Benchmark
+  public Transcoder.EncodedValue encode() {
+    return instance.encode(input);
+  }
+
+  @Benchmark
+  public Object decode() {
+    return instance.decode(target, encoded, flags);
+  }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks.mock;
+
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.node.ArrayNode;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.node.ObjectNode;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.json.Mapper;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Holds the documents of the single bucket served by the {@link MockKeyValueServer} and renders its
+ * cluster config.
+ *
+ * <p>Partitions are assigned round-robin to the nodes and there are no replicas. Documents are shared by all
+ * nodes, a node only checks if it owns the partition of a request.</p>
+ */
+final class MockBucket {
+
+  private final String name;
+  private final int numPartitions;
+  private final ConcurrentMap<String, MockDocument> documents = new ConcurrentHashMap<>();
+  private final AtomicLong casCounter = new AtomicLong(System.currentTimeMillis() * 1000);
+  private final AtomicLongArray sequenceNumbers;
+  private final long[] partitionUuids;
+
+  private volatile List<Integer> ports;
+  private volatile long revision = 1;
+  private volatile byte[] config;
+
+  MockBucket(final String name, final int numPartitions) {
+    this.name = name;
+    this.numPartitions = numPartitions;
+    this.sequenceNumbers = new AtomicLongArray(numPartitions);
+    this.partitionUuids = new long[numPartitions];
+    for (int i = 0; i < numPartitions; i++) {
+      partitionUuids[i] = 0x0A0B0C0D00000000L | i;
+    }
+  }
+
+  String name() {
+    return name;
+  }
+
+  int numPartitions() {
+    return numPartitions;
+  }
+
+  /**
+   * Sets the kv ports of all nodes once they are bound, which completes the config.
+   */
+  void ports(final List<Integer> ports) {
+    this.ports = ports;
+    this.config = renderConfig();
+  }
+
+  /**
+   * Returns the index of the node which is active for the given partition.
+   */
+  int ownerOf(final int partition) {
+    return partition % ports.size();
+  }
+
+  long partitionUuid(final int partition) {
+    return partitionUuids[partition];
+  }
+
+  /**
+   * Increments the config revision without changing anything else, so that clients pick it up as new.
+   */
+  synchronized void bumpRevision() {
+    revision++;
+    config = renderConfig();
+  }
+
+  /**
+   * Returns the current terse bucket config, with {@code $HOST} placeholders like the server sends it.
+   */
+  byte[] config() {
+    return config;
+  }
+
+  MockDocument get(final String key) {
+    return documents.get(key);
+  }
+
+  /**
+   * Atomically applies a mutation to the document with the given key.
+   *
+   * @param key the document key.
+   * @param partition the partition of the key, used to track sequence numbers.
+   * @param expectedCas the cas the document needs to have, or 0 if any cas is fine.
+   * @param mutator computes the new document, or null to remove it.
+   * @return the result of the mutation.
+   * @throws MockStatusException if the cas does not match or the mutator aborts.
+   */
+  Mutation mutate(final String key, final int partition, final long expectedCas, final Mutator mutator) {
+    final long cas = casCounter.incrementAndGet();
+    documents.compute(key, (k, current) -> {
+      if (expectedCas != 0) {
+        if (current == null) {
+          throw new MockStatusException(MemcacheProtocol.Status.NOT_FOUND.status());
+        } else if (current.cas() != expectedCas) {
+          throw new MockStatusException(MemcacheProtocol.Status.EXISTS.status());
+        }
+      }
+      return mutator.apply(current, cas);
+    });
+    return new Mutation(cas, sequenceNumbers.incrementAndGet(partition));
+  }
+
+  private byte[] renderConfig() {
+    ObjectNode root = Mapper.createObjectNode();
+    root.put("rev", revision);
+    root.put("name", name);
+    root.put("uuid", "c2a8b3d7e1f04f3e9a1b6d5c4e3f2a10");
+    root.put("nodeLocator", "vbucket");
+    root.put("bucketCapabilitiesVer", "");
+    ArrayNode capabilities = root.putArray("bucketCapabilities");
+    for (String capability : new String[] { "cbhello", "touch", "cccp", "xattr", "nodesExt" }) {
+      capabilities.add(capability);
+    }
+
+    ArrayNode nodes = root.putArray("nodes");
+    ArrayNode nodesExt = root.putArray("nodesExt");
+    ArrayNode serverList = Mapper.createArrayNode();
+    for (int port : ports) {
+      ObjectNode node = nodes.addObject();
+      node.put("hostname", "$HOST:" + port);
+      node.putObject("ports").put("direct", port);
+
+      // The manager port only serves as the node identity, no http requests are ever sent to it.
+      ObjectNode nodeExt = nodesExt.addObject();
+      nodeExt.put("hostname", "$HOST");
+      nodeExt.putObject("services").put("mgmt", port).put("kv", port);
+
+      serverList.add("$HOST:" + port);
+    }
+
+    ObjectNode serverMap = root.putObject("vBucketServerMap");
+    serverMap.put("hashAlgorithm", "CRC");
+    serverMap.put("numReplicas", 0);
+    serverMap.set("serverList", serverList);
+    ArrayNode partitions = serverMap.putArray("vBucketMap");
+    for (int i = 0; i < numPartitions; i++) {
+      partitions.addArray().add(ownerOf(i));
+    }
+    return Mapper.encodeAsBytes(root);
+  }
+
+  /**
+   * Computes the new version of a document.
+   */
+  @FunctionalInterface
+  interface Mutator {
+
+    /**
+     * Returns the new document, or null if the document should be removed.
+     *
+     * @param current the current document, null if there is none.
+     * @param cas the cas to assign to the new document.
+     * @throws MockStatusException if the mutation cannot be applied.
+     */
+    MockDocument apply(MockDocument current, long cas);
+
+  }
+
+  /**
+   * The cas and sequence number assigned by a successful mutation.
+   */
+  static final class Mutation {
+
+    private final long cas;
+    private final long sequenceNumber;
+
+    Mutation(final long cas, final long sequenceNumber) {
+      this.cas = cas;
+      this.sequenceNumber = sequenceNumber;
+    }
+
+    long cas() {
+      return cas;
+    }
+
+    long sequenceNumber() {
+      return sequenceNumber;
+    }
+
+  }
+
+}
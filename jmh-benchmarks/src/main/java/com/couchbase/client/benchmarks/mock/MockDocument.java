@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks.mock;
+
+/**
+ * A document as stored by the {@link MockBucket}.
+ *
+ * <p>The content is kept exactly as the client sent it, so it might be snappy compressed if the datatype
+ * says so.</p>
+ */
+final class MockDocument {
+
+  private final byte[] content;
+  private final int flags;
+  private final byte datatype;
+  private final long cas;
+
+  MockDocument(final byte[] content, final int flags, final byte datatype, final long cas) {
+    this.content = content;
+    this.flags = flags;
+    this.datatype = datatype;
+    this.cas = cas;
+  }
+
+  byte[] content() {
+    return content;
+  }
+
+  int flags() {
+    return flags;
+  }
+
+  byte datatype() {
+    return datatype;
+  }
+
+  long cas() {
+    return cas;
+  }
+
+}
@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks.mock;
+
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JsonNode;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.SimpleChannelInboundHandler;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.ServerFeature;
+import com.couchbase.client.core.io.netty.kv.SnappyCodec;
+import com.couchbase.client.core.json.Mapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the memcache binary protocol on a single connection of a {@link MockKeyValueServer} node.
+ *
+ * <p>The connection has to go through the regular bootstrap (HELLO, error map, SASL PLAIN and select
+ * bucket) before any document can be accessed, just like with a real server.</p>
+ */
+final class MockKeyValueHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+  /**
+   * Features the mock agrees to if the client asks for them.
+   */
+  private static final Set<ServerFeature> SUPPORTED_FEATURES = EnumSet.of(
+    ServerFeature.TCPNODELAY,
+    ServerFeature.XERROR,
+    ServerFeature.SELECT_BUCKET,
+    ServerFeature.JSON,
+    ServerFeature.SNAPPY,
+    ServerFeature.MUTATION_SEQNO,
+    ServerFeature.UNORDERED_EXECUTION
+  );
+
+  private static final MemcacheProtocol.Opcode[] OPCODES = new MemcacheProtocol.Opcode[256];
+
+  static {
+    for (MemcacheProtocol.Opcode opcode : MemcacheProtocol.Opcode.values()) {
+      OPCODES[opcode.opcode() & 0xFF] = opcode;
+    }
+  }
+
+  private static final int HEADER_SIZE = 24;
+  private static final short AUTH_ERROR = 0x20;
+  private static final byte DATATYPE_JSON = 0x01;
+  private static final byte DATATYPE_SNAPPY = MemcacheProtocol.Datatype.SNAPPY.datatype();
+  private static final byte DOC_FLAG_MKDOC = 0x01;
+  private static final byte DOC_FLAG_ADD = 0x02;
+
+  private final MockKeyValueServer server;
+  private final MockBucket bucket;
+  private final int nodeIndex;
+
+  private boolean authenticated;
+  private boolean bucketSelected;
+  private boolean snappy;
+  private boolean mutationTokens;
+
+  MockKeyValueHandler(final MockKeyValueServer server, final MockBucket bucket, final int nodeIndex) {
+    this.server = server;
+    this.bucket = bucket;
+    this.nodeIndex = nodeIndex;
+  }
+
+  @Override
+  protected void channelRead0(final ChannelHandlerContext ctx, final ByteBuf msg) {
+    byte magic = msg.getByte(0);
+    if (magic != MemcacheProtocol.Magic.REQUEST.magic() && magic != MemcacheProtocol.Magic.FLEXIBLE_REQUEST.magic()) {
+      ctx.close();
+      return;
+    }
+
+    Request request = new Request(msg);
+    MemcacheProtocol.Opcode opcode = OPCODES[request.opcode & 0xFF];
+    try {
+      if (opcode == null) {
+        reply(ctx, request, MemcacheProtocol.Status.UNKNOWN_COMMAND.status());
+        return;
+      }
+      switch (opcode) {
+        case HELLO:
+          hello(ctx, request);
+          break;
+        case ERROR_MAP:
+          ctx.write(response(ctx, request, MemcacheProtocol.Status.SUCCESS.status(), 0, DATATYPE_JSON,
+            null, server.errorMap()));
+          break;
+        case SASL_LIST_MECHS:
+          ctx.write(response(ctx, request, MemcacheProtocol.Status.SUCCESS.status(), 0, (byte) 0,
+            null, "PLAIN".getBytes(StandardCharsets.UTF_8)));
+          break;
+        case SASL_AUTH:
+          authenticate(ctx, request);
+          break;
+        case SELECT_BUCKET:
+          selectBucket(ctx, request);
+          break;
+        case GET_CONFIG:
+          if (!bucketSelected) {
+            throw new MockStatusException(MemcacheProtocol.Status.NO_BUCKET.status());
+          }
+          ctx.write(response(ctx, request, MemcacheProtocol.Status.SUCCESS.status(), 0, DATATYPE_JSON,
+            null, bucket.config()));
+          break;
+        case NOOP:
+          reply(ctx, request, MemcacheProtocol.Status.SUCCESS.status());
+          break;
+        case GET:
+        case SET:
+        case ADD:
+        case REPLACE:
+        case DELETE:
+        case SUBDOC_MULTI_LOOKUP:
+        case SUBDOC_MULTI_MUTATE:
+          checkAccess(request);
+          send(ctx, execute(ctx, opcode, request));
+          break;
+        default:
+          reply(ctx, request, MemcacheProtocol.Status.UNKNOWN_COMMAND.status());
+      }
+    } catch (MockStatusException ex) {
+      ByteBuf response = response(ctx, request, ex.status(), 0, (byte) 0, null, ex.body());
+      if (isDataOperation(opcode)) {
+        send(ctx, response);
+      } else {
+        ctx.write(response);
+      }
+    }
+  }
+
+  @Override
+  public void channelReadComplete(final ChannelHandlerContext ctx) {
+    ctx.flush();
+  }
+
+  @Override
+  public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+    ctx.close();
+  }
+
+  private static boolean isDataOperation(final MemcacheProtocol.Opcode opcode) {
+    if (opcode == null) {
+      return false;
+    }
+    switch (opcode) {
+      case GET:
+      case SET:
+      case ADD:
+      case REPLACE:
+      case DELETE:
+      case SUBDOC_MULTI_LOOKUP:
+      case SUBDOC_MULTI_MUTATE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Writes a data response, delayed by the injected latency if there is any.
+   */
+  private void send(final ChannelHandlerContext ctx, final ByteBuf response) {
+    long delay = server.responseDelayNanos();
+    if (delay > 0) {
+      ctx.executor().schedule(() -> ctx.writeAndFlush(response), delay, TimeUnit.NANOSECONDS);
+    } else {
+      ctx.write(response);
+    }
+  }
+
+  private void hello(final ChannelHandlerContext ctx, final Request request) {
+    ByteBuf requested = request.value;
+    ByteBuf body = ctx.alloc().buffer(requested.readableBytes());
+    while (requested.isReadable(2)) {
+      short code = requested.readShort();
+      for (ServerFeature feature : SUPPORTED_FEATURES) {
+        if (feature.value() == code) {
+          body.writeShort(code);
+          snappy |= feature == ServerFeature.SNAPPY;
+          mutationTokens |= feature == ServerFeature.MUTATION_SEQNO;
+        }
+      }
+    }
+    byte[] negotiated = new byte[body.readableBytes()];
+    body.readBytes(negotiated).release();
+    ctx.write(response(ctx, request, MemcacheProtocol.Status.SUCCESS.status(), 0, (byte) 0, null, negotiated));
+  }
+
+  private void authenticate(final ChannelHandlerContext ctx, final Request request) {
+    // PLAIN is "authzid NUL authcid NUL passwd", with an optional authzid.
+    String[] credentials = request.value.toString(StandardCharsets.UTF_8).split("\u0000", -1);
+    boolean valid = "PLAIN".equals(request.key)
+      && credentials.length == 3
+      && server.username().equals(credentials[1])
+      && server.password().equals(credentials[2]);
+    authenticated = valid;
+    reply(ctx, request, valid ? MemcacheProtocol.Status.SUCCESS.status() : AUTH_ERROR);
+  }
+
+  private void selectBucket(final ChannelHandlerContext ctx, final Request request) {
+    if (!authenticated) {
+      throw new MockStatusException(MemcacheProtocol.Status.ACCESS_ERROR.status());
+    } else if (!bucket.name().equals(request.key)) {
+      throw new MockStatusException(MemcacheProtocol.Status.NOT_FOUND.status());
+    }
+    bucketSelected = true;
+    reply(ctx, request, MemcacheProtocol.Status.SUCCESS.status());
+  }
+
+  /**
+   * Makes sure a bucket is selected and this node is active for the partition of the request.
+   */
+  private void checkAccess(final Request request) {
+    if (!bucketSelected) {
+      throw new MockStatusException(MemcacheProtocol.Status.NO_BUCKET.status());
+    }
+    if (request.partition >= bucket.numPartitions() || bucket.ownerOf(request.partition) != nodeIndex) {
+      throw new MockStatusException(MemcacheProtocol.Status.NOT_MY_VBUCKET.status(), bucket.config());
+    }
+  }
+
+  private ByteBuf execute(final ChannelHandlerContext ctx, final MemcacheProtocol.Opcode opcode,
+                          final Request request) {
+    switch (opcode) {
+      case GET:
+        return get(ctx, request);
+      case SET:
+      case ADD:
+      case REPLACE:
+        return store(ctx, opcode, request);
+      case DELETE:
+        return remove(ctx, request);
+      case SUBDOC_MULTI_LOOKUP:
+        return lookupIn(ctx, request);
+      case SUBDOC_MULTI_MUTATE:
+        return mutateIn(ctx, request);
+      default:
+        throw new MockStatusException(MemcacheProtocol.Status.UNKNOWN_COMMAND.status());
+    }
+  }
+
+  private ByteBuf get(final ChannelHandlerContext ctx, final Request request) {
+    MockDocument document = bucket.get(request.key);
+    if (document == null) {
+      throw new MockStatusException(MemcacheProtocol.Status.NOT_FOUND.status());
+    }
+
+    byte datatype = document.datatype();
+    byte[] content = document.content();
+    if ((datatype & DATATYPE_SNAPPY) != 0 && !snappy) {
+      content = SnappyCodec.decompressToArray(Unpooled.wrappedBuffer(content));
+      datatype &= ~DATATYPE_SNAPPY;
+    }
+    ByteBuf extras = ctx.alloc().buffer(Integer.BYTES).writeInt(document.flags());
+    return response(ctx, request, MemcacheProtocol.Status.SUCCESS.status(), document.cas(), datatype, extras,
+      content);
+  }
+
+  private ByteBuf store(final ChannelHandlerContext ctx, final MemcacheProtocol.Opcode opcode,
+                        final Request request) {
+    final int flags = request.extras.isReadable(Integer.BYTES) ? request.extras.getInt(0) : 0;
+    final byte datatype = (byte) (request.datatype & (DATATYPE_JSON | DATATYPE_SNAPPY));
+    final byte[] content = new byte[request.value.readableBytes()];
+    request.value.readBytes(content);
+
+    MockBucket.Mutation mutation = bucket.mutate(request.key, request.partition, request.cas, (current, cas) -> {
+      if (opcode == MemcacheProtocol.Opcode.ADD && current != null) {
+        throw new MockStatusException(MemcacheProtocol.Status.EXISTS.status());
+      } else if (opcode == MemcacheProtocol.Opcode.REPLACE && current == null) {
+        throw new MockStatusException(MemcacheProtocol.Status.NOT_FOUND.status());
+      }
+      return new MockDocument(content, flags, datatype, cas);
+    });
+    return mutationResponse(ctx, request, mutation, null);
+  }
+
+  private ByteBuf remove(final ChannelHandlerContext ctx, final Request request) {
+    MockBucket.Mutation mutation = bucket.mutate(request.key, request.partition, request.cas, (current, cas) -> {
+      if (current == null) {
+        throw new MockStatusException(MemcacheProtocol.Status.NOT_FOUND.status());
+      }
+      return null;
+    });
+    return mutationResponse(ctx, request, mutation, null);
+  }
+
+  private ByteBuf lookupIn(final ChannelHandlerContext ctx, final Request request) {
+    MockDocument document = bucket.get(request.key);
+    if (document == null) {
+      throw new MockStatusException(MemcacheProtocol.Status.NOT_FOUND.status());
+    }
+
+    ByteBuf body = ctx.alloc().buffer();
+    try {
+      short status = MockSubdocument.lookup(parse(document), request.value, body);
+      byte[] encoded = new byte[body.readableBytes()];
+      body.readBytes(encoded);
+      return response(ctx, request, status, document.cas(), (byte) 0, null, encoded);
+    } finally {
+      body.release();
+    }
+  }
+
+  private ByteBuf mutateIn(final ChannelHandlerContext ctx, final Request request) {
+    // The client writes the optional document flags before the optional expiry.
+    int extrasLength = request.extras.readableBytes();
+    byte docFlags = extrasLength == 1 || extrasLength == 5 ? request.extras.getByte(0) : 0;
+    boolean create = (docFlags & (DOC_FLAG_MKDOC | DOC_FLAG_ADD)) != 0;
+
+    ByteBuf body = ctx.alloc().buffer();
+    try {
+      MockBucket.Mutation mutation = bucket.mutate(request.key, request.partition, request.cas, (current, cas) -> {
+        JsonNode root;
+        if (current == null) {
+          if (!create) {
+            throw new MockStatusException(MemcacheProtocol.Status.NOT_FOUND.status());
+          }
+          root = Mapper.createObjectNode();
+        } else if ((docFlags & DOC_FLAG_ADD) != 0) {
+          throw new MockStatusException(MemcacheProtocol.Status.EXISTS.status());
+        } else {
+          root = parse(current);
+        }
+        body.clear();
+        JsonNode result = MockSubdocument.mutate(root, request.value.duplicate(), body);
+        return new MockDocument(Mapper.encodeAsBytes(result), current == null ? 0 : current.flags(), DATATYPE_JSON,
+          cas);
+      });
+      byte[] encoded = new byte[body.readableBytes()];
+      body.readBytes(encoded);
+      return mutationResponse(ctx, request, mutation, encoded);
+    } finally {
+      body.release();
+    }
+  }
+
+  private ByteBuf mutationResponse(final ChannelHandlerContext ctx, final Request request,
+                                   final MockBucket.Mutation mutation, final byte[] body) {
+    ByteBuf extras = null;
+    if (mutationTokens) {
+      extras = ctx.alloc().buffer(2 * Long.BYTES)
+        .writeLong(bucket.partitionUuid(request.partition))
+        .writeLong(mutation.sequenceNumber());
+    }
+    return response(ctx, request, MemcacheProtocol.Status.SUCCESS.status(), mutation.cas(), (byte) 0, extras, body);
+  }
+
+  private static JsonNode parse(final MockDocument document) {
+    byte[] content = document.content();
+    if ((document.datatype() & DATATYPE_SNAPPY) != 0) {
+      content = SnappyCodec.decompressToArray(Unpooled.wrappedBuffer(content));
+    }
+    try {
+      return Mapper.decodeIntoTree(content);
+    } catch (RuntimeException ex) {
+      throw new MockStatusException(MemcacheProtocol.Status.SUBDOC_DOC_NOT_JSON.status());
+    }
+  }
+
+  private void reply(final ChannelHandlerContext ctx, final Request request, final short status) {
+    ctx.write(response(ctx, request, status, 0, (byte) 0, null, null));
+  }
+
+  /**
+   * Encodes a response to the given request, releasing the extras.
+   */
+  private static ByteBuf response(final ChannelHandlerContext ctx, final Request request, final short status,
+                                  final long cas, final byte datatype, final ByteBuf extras, final byte[] body) {
+    int extrasLength = extras == null ? 0 : extras.readableBytes();
+    int bodyLength = body == null ? 0 : body.length;
+    ByteBuf response = ctx.alloc().buffer(HEADER_SIZE + extrasLength + bodyLength)
+      .writeByte(MemcacheProtocol.Magic.RESPONSE.magic())
+      .writeByte(request.opcode)
+      .writeShort(0)
+      .writeByte(extrasLength)
+      .writeByte(datatype)
+      .writeShort(status)
+      .writeInt(extrasLength + bodyLength)
+      .writeInt(request.opaque)
+      .writeLong(cas);
+    if (extras != null) {
+      response.writeBytes(extras);
+      extras.release();
+    }
+    if (body != null) {
+      response.writeBytes(body);
+    }
+    return response;
+  }
+
+  /**
+   * The decoded header and sections of a request frame.
+   */
+  private static final class Request {
+
+    final byte opcode;
+    final byte datatype;
+    final int partition;
+    final int opaque;
+    final long cas;
+    final ByteBuf extras;
+    final String key;
+    final ByteBuf value;
+
+    Request(final ByteBuf frame) {
+      boolean flexible = frame.getByte(0) == MemcacheProtocol.Magic.FLEXIBLE_REQUEST.magic();
+      int framingExtrasLength = flexible ? frame.getUnsignedByte(2) : 0;
+      int keyLength = flexible ? frame.getUnsignedByte(3) : frame.getUnsignedShort(2);
+      int extrasLength = frame.getUnsignedByte(4);
+      int totalBodyLength = frame.getInt(8);
+
+      opcode = frame.getByte(1);
+      datatype = frame.getByte(5);
+      partition = frame.getUnsignedShort(6);
+      opaque = frame.getInt(12);
+      cas = frame.getLong(16);
+
+      int extrasOffset = HEADER_SIZE + framingExtrasLength;
+      int keyOffset = extrasOffset + extrasLength;
+      int valueOffset = keyOffset + keyLength;
+      extras = frame.slice(extrasOffset, extrasLength);
+      key = frame.toString(keyOffset, keyLength, StandardCharsets.UTF_8);
+      value = frame.slice(valueOffset, HEADER_SIZE + totalBodyLength - valueOffset);
+    }
+
+  }
+
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks.mock;
+
+import com.couchbase.client.core.deps.io.netty.bootstrap.ServerBootstrap;
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelInitializer;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelOption;
+import com.couchbase.client.core.deps.io.netty.channel.EventLoopGroup;
+import com.couchbase.client.core.deps.io.netty.channel.nio.NioEventLoopGroup;
+import com.couchbase.client.core.deps.io.netty.channel.socket.SocketChannel;
+import com.couchbase.client.core.deps.io.netty.channel.socket.nio.NioServerSocketChannel;
+import com.couchbase.client.core.deps.io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.DefaultThreadFactory;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.env.SeedNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process key/value server which speaks enough of the memcache binary protocol to bootstrap the
+ * client and serve documents, so the full client stack can be benchmarked without a cluster.
+ *
+ * <p>It supports HELLO, the error map, SASL PLAIN, select bucket, the carrier config and get, set, add,
+ * replace, delete as well as sub-document lookups and mutations. Every node listens on its own loopback port
+ * and owns a share of the partitions; requests sent to the wrong node are answered with a not my vbucket
+ * status and the current config. Documents are kept in memory and never expire.</p>
+ *
+ * <p>Data operations can be delayed by a fixed latency plus a uniformly distributed jitter, to simulate a
+ * network and server which are not infinitely fast:</p>
+ *
+ * <pre>
+ * try (MockKeyValueServer server = MockKeyValueServer.builder()
+ *     .nodes(2)
+ *     .latency(Duration.ofMillis(1))
+ *     .jitter(Duration.ofMillis(2))
+ *     .start()) {
+ *   Cluster cluster = Cluster.connect("127.0.0.1", clusterOptions(server.authenticator())
+ *     .seedNodes(server.seedNodes()));
+ *   Collection collection = cluster.bucket(server.bucketName()).defaultCollection();
+ *   ...
+ * }
+ * </pre>
+ */
+public class MockKeyValueServer implements AutoCloseable {
+
+  private static final String HOST = "127.0.0.1";
+  private static final int MAX_FRAME_SIZE = 21 * 1024 * 1024;
+
+  private final String username;
+  private final String password;
+  private final long latencyNanos;
+  private final long jitterNanos;
+  private final MockBucket bucket;
+  private final byte[] errorMap;
+  private final EventLoopGroup eventLoopGroup;
+  private final List<Channel> channels = new ArrayList<>();
+  private final List<Integer> ports = new ArrayList<>();
+
+  private MockKeyValueServer(final Builder builder) {
+    this.username = builder.username;
+    this.password = builder.password;
+    this.latencyNanos = builder.latency.toNanos();
+    this.jitterNanos = builder.jitter.toNanos();
+    this.bucket = new MockBucket(builder.bucketName, builder.partitions);
+    this.errorMap = loadErrorMap();
+    this.eventLoopGroup = new NioEventLoopGroup(builder.ioThreads, new DefaultThreadFactory("cb-mock-kv", true));
+
+    try {
+      for (int i = 0; i < builder.nodes; i++) {
+        final int nodeIndex = i;
+        Channel channel = new ServerBootstrap()
+          .group(eventLoopGroup)
+          .channel(NioServerSocketChannel.class)
+          .childOption(ChannelOption.TCP_NODELAY, true)
+          .childHandler(new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(final SocketChannel ch) {
+              ch.pipeline()
+                .addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_SIZE, 8, 4, 12, 0, false))
+                .addLast(new MockKeyValueHandler(MockKeyValueServer.this, bucket, nodeIndex));
+            }
+          })
+          .bind(new InetSocketAddress(HOST, 0))
+          .syncUninterruptibly()
+          .channel();
+        channels.add(channel);
+        ports.add(((InetSocketAddress) channel.localAddress()).getPort());
+      }
+    } catch (RuntimeException ex) {
+      close();
+      throw ex;
+    }
+    bucket.ports(Collections.unmodifiableList(new ArrayList<>(ports)));
+  }
+
+  /**
+   * Starts a single node server with the default settings and no injected latency.
+   *
+   * @return the started server.
+   */
+  public static MockKeyValueServer start() {
+    return builder().start();
+  }
+
+  /**
+   * Creates a builder to customize the server before it is started.
+   *
+   * @return a new builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the seed nodes which need to be passed to the cluster options to connect to this server.
+   *
+   * <p>Since all nodes run on the same host, the seed nodes carry both the kv and the manager port, which
+   * is the same port and only used to identify the node.</p>
+   *
+   * @return the seed nodes, one per node.
+   */
+  public Set<SeedNode> seedNodes() {
+    Set<SeedNode> seedNodes = new LinkedHashSet<>();
+    for (int port : ports) {
+      seedNodes.add(SeedNode.create(HOST, Optional.of(port), Optional.of(port)));
+    }
+    return seedNodes;
+  }
+
+  /**
+   * Returns an authenticator with the credentials this server accepts.
+   */
+  public Authenticator authenticator() {
+    return PasswordAuthenticator.create(username, password);
+  }
+
+  /**
+   * Returns the kv ports of all nodes, in node order.
+   */
+  public List<Integer> ports() {
+    return Collections.unmodifiableList(ports);
+  }
+
+  /**
+   * Returns the name of the bucket served.
+   */
+  public String bucketName() {
+    return bucket.name();
+  }
+
+  /**
+   * Increments the revision of the served config, so that clients treat it as a new one.
+   */
+  public void bumpConfigRevision() {
+    bucket.bumpRevision();
+  }
+
+  /**
+   * Stops all nodes and closes all open connections.
+   */
+  @Override
+  public void close() {
+    for (Channel channel : channels) {
+      channel.close().syncUninterruptibly();
+    }
+    eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+  }
+
+  String username() {
+    return username;
+  }
+
+  String password() {
+    return password;
+  }
+
+  byte[] errorMap() {
+    return errorMap;
+  }
+
+  /**
+   * Returns how long the next data response should be held back, based on the latency and jitter.
+   */
+  long responseDelayNanos() {
+    if (jitterNanos <= 0) {
+      return latencyNanos;
+    }
+    return latencyNanos + ThreadLocalRandom.current().nextLong(jitterNanos + 1);
+  }
+
+  private static byte[] loadErrorMap() {
+    try (InputStream in = MockKeyValueServer.class.getResourceAsStream("error_map.json")) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public static class Builder {
+
+    private String bucketName = "default";
+    private String username = "Administrator";
+    private String password = "password";
+    private int nodes = 1;
+    private int partitions = 1024;
+    private int ioThreads = 0;
+    private Duration latency = Duration.ZERO;
+    private Duration jitter = Duration.ZERO;
+
+    /**
+     * Sets the name of the bucket which is served, "default" if not set.
+     */
+    public Builder bucketName(final String bucketName) {
+      this.bucketName = bucketName;
+      return this;
+    }
+
+    /**
+     * Sets the credentials the server accepts, "Administrator" and "password" if not set.
+     */
+    public Builder credentials(final String username, final String password) {
+      this.username = username;
+      this.password = password;
+      return this;
+    }
+
+    /**
+     * Sets the number of nodes, each listening on its own port. Defaults to 1.
+     */
+    public Builder nodes(final int nodes) {
+      if (nodes < 1) {
+        throw new IllegalArgumentException("At least one node is needed");
+      }
+      this.nodes = nodes;
+      return this;
+    }
+
+    /**
+     * Sets the number of partitions of the bucket. Defaults to 1024.
+     */
+    public Builder partitions(final int partitions) {
+      if (partitions < 1) {
+        throw new IllegalArgumentException("At least one partition is needed");
+      }
+      this.partitions = partitions;
+      return this;
+    }
+
+    /**
+     * Sets the number of event loop threads shared by all nodes, 0 picks the netty default.
+     */
+    public Builder ioThreads(final int ioThreads) {
+      this.ioThreads = ioThreads;
+      return this;
+    }
+
+    /**
+     * Sets the fixed delay applied to every data response. Defaults to none.
+     */
+    public Builder latency(final Duration latency) {
+      this.latency = latency;
+      return this;
+    }
+
+    /**
+     * Sets the maximum random delay added on top of the latency to every data response. Defaults to none.
+     */
+    public Builder jitter(final Duration jitter) {
+      this.jitter = jitter;
+      return this;
+    }
+
+    /**
+     * Binds all nodes and returns the running server.
+     */
+    public MockKeyValueServer start() {
+      return new MockKeyValueServer(this);
+    }
+
+  }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks.mock;
+
+/**
+ * Aborts the handling of a request with the given memcache status and an optional response body.
+ *
+ * <p>The stack trace is not filled in, since it is only used to unwind the request handling.</p>
+ */
+final class MockStatusException extends RuntimeException {
+
+  private final short status;
+  private final byte[] body;
+
+  MockStatusException(final short status) {
+    this(status, null);
+  }
+
+  MockStatusException(final short status, final byte[] body) {
+    super("Status 0x" + Integer.toHexString(status), null, false, false);
+    this.status = status;
+    this.body = body;
+  }
+
+  short status() {
+    return status;
+  }
+
+  byte[] body() {
+    return body;
+  }
+
+}
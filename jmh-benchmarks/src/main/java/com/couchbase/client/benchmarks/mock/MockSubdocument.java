@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks.mock;
+
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JsonNode;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.node.ArrayNode;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.node.ContainerNode;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.node.LongNode;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.node.ObjectNode;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.json.Mapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes sub-document lookup and mutation specs against a JSON document.
+ *
+ * <p>Paths support dotted field names and array indexes (including {@code -1} for the last element).
+ * Extended attributes are not stored, so every spec with the xattr flag fails with an invalid path.</p>
+ */
+final class MockSubdocument {
+
+  static final byte GET_DOC = (byte) 0x00;
+  static final byte SET_DOC = (byte) 0x01;
+  static final byte GET = (byte) 0xc5;
+  static final byte EXISTS = (byte) 0xc6;
+  static final byte DICT_ADD = (byte) 0xc7;
+  static final byte DICT_UPSERT = (byte) 0xc8;
+  static final byte DELETE = (byte) 0xc9;
+  static final byte REPLACE = (byte) 0xca;
+  static final byte ARRAY_PUSH_LAST = (byte) 0xcb;
+  static final byte ARRAY_PUSH_FIRST = (byte) 0xcc;
+  static final byte ARRAY_INSERT = (byte) 0xcd;
+  static final byte ARRAY_ADD_UNIQUE = (byte) 0xce;
+  static final byte COUNTER = (byte) 0xcf;
+  static final byte COUNT = (byte) 0xd2;
+
+  private static final byte FLAG_CREATE_PATH = (byte) 0x01;
+  private static final byte FLAG_XATTR_PATH = (byte) 0x04;
+
+  private static final short SUCCESS = MemcacheProtocol.Status.SUCCESS.status();
+  private static final short PATH_NOT_FOUND = MemcacheProtocol.Status.SUBDOC_PATH_NOT_FOUND.status();
+  private static final short PATH_MISMATCH = MemcacheProtocol.Status.SUBDOC_PATH_MISMATCH.status();
+  private static final short PATH_INVALID = MemcacheProtocol.Status.SUBDOC_PATH_INVALID.status();
+  private static final short PATH_EXISTS = MemcacheProtocol.Status.SUBDOC_PATH_EXISTS.status();
+  private static final short VALUE_CANTINSERT = MemcacheProtocol.Status.SUBDOC_VALUE_CANTINSERT.status();
+  private static final short DELTA_RANGE = MemcacheProtocol.Status.SUBDOC_DELTA_RANGE.status();
+  private static final short MULTI_PATH_FAILURE = MemcacheProtocol.Status.SUBDOC_MULTI_PATH_FAILURE.status();
+
+  private MockSubdocument() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Executes all lookup specs and encodes the multi lookup response body.
+   *
+   * @param document the parsed document.
+   * @param specs the encoded lookup specs.
+   * @param body the buffer to write the response body into.
+   * @return the overall status, a multi path failure if at least one spec failed.
+   */
+  static short lookup(final JsonNode document, final ByteBuf specs, final ByteBuf body) {
+    short overall = SUCCESS;
+    while (specs.isReadable()) {
+      byte opcode = specs.readByte();
+      byte flags = specs.readByte();
+      String path = specs.readCharSequence(specs.readUnsignedShort(), StandardCharsets.UTF_8).toString();
+
+      short status = SUCCESS;
+      byte[] value = new byte[0];
+      try {
+        if ((flags & FLAG_XATTR_PATH) != 0) {
+          throw new MockStatusException(PATH_INVALID);
+        }
+        value = lookup(document, opcode, parse(path));
+      } catch (MockStatusException ex) {
+        status = ex.status();
+        overall = MULTI_PATH_FAILURE;
+      }
+      body.writeShort(status).writeInt(value.length).writeBytes(value);
+    }
+    return overall;
+  }
+
+  /**
+   * Applies all mutation specs to the document, which is modified in place.
+   *
+   * @param document the parsed document, modified in place.
+   * @param specs the encoded mutation specs.
+   * @param body the buffer to write the result values into.
+   * @return the new document root, which only differs from the input if the whole document was replaced.
+   * @throws MockStatusException with a multi path failure and the failed index as body if a spec failed.
+   */
+  static JsonNode mutate(final JsonNode document, final ByteBuf specs, final ByteBuf body) {
+    JsonNode root = document;
+    int index = 0;
+    while (specs.isReadable()) {
+      byte opcode = specs.readByte();
+      byte flags = specs.readByte();
+      int pathLength = specs.readUnsignedShort();
+      int valueLength = specs.readInt();
+      String path = specs.readCharSequence(pathLength, StandardCharsets.UTF_8).toString();
+      byte[] fragment = new byte[valueLength];
+      specs.readBytes(fragment);
+
+      try {
+        if ((flags & FLAG_XATTR_PATH) != 0) {
+          throw new MockStatusException(PATH_INVALID);
+        }
+        if (opcode == SET_DOC) {
+          root = parseValue(fragment);
+        } else {
+          JsonNode result = mutate(root, opcode, parse(path), fragment, (flags & FLAG_CREATE_PATH) != 0);
+          if (result != null) {
+            byte[] value = Mapper.encodeAsBytes(result);
+            body.writeByte(index).writeShort(SUCCESS).writeInt(value.length).writeBytes(value);
+          }
+        }
+      } catch (MockStatusException ex) {
+        byte[] failure = { (byte) index, (byte) (ex.status() >> 8), (byte) ex.status() };
+        throw new MockStatusException(MULTI_PATH_FAILURE, failure);
+      }
+      index++;
+    }
+    return root;
+  }
+
+  private static byte[] lookup(final JsonNode document, final byte opcode, final List<Object> path) {
+    if (opcode == GET_DOC) {
+      return Mapper.encodeAsBytes(document);
+    }
+
+    JsonNode found = find(document, path);
+    switch (opcode) {
+      case GET:
+        return Mapper.encodeAsBytes(found);
+      case EXISTS:
+        return new byte[0];
+      case COUNT:
+        if (!found.isContainerNode()) {
+          throw new MockStatusException(PATH_MISMATCH);
+        }
+        return Integer.toString(found.size()).getBytes(StandardCharsets.UTF_8);
+      default:
+        throw new MockStatusException(PATH_INVALID);
+    }
+  }
+
+  /**
+   * Applies a single mutation and returns the value to report back, which is only done for counters.
+   */
+  private static JsonNode mutate(final JsonNode root, final byte opcode, final List<Object> path,
+                                 final byte[] fragment, final boolean createParents) {
+    if (path.isEmpty() && opcode != ARRAY_PUSH_FIRST && opcode != ARRAY_PUSH_LAST && opcode != ARRAY_ADD_UNIQUE) {
+      throw new MockStatusException(PATH_INVALID);
+    }
+
+    switch (opcode) {
+      case DICT_ADD:
+      case DICT_UPSERT: {
+        ObjectNode parent = asObject(parentOf(root, path, createParents));
+        String field = fieldName(path);
+        if (opcode == DICT_ADD && parent.has(field)) {
+          throw new MockStatusException(PATH_EXISTS);
+        }
+        parent.set(field, parseValue(fragment));
+        return null;
+      }
+      case REPLACE: {
+        find(root, path);
+        setChild(parentOf(root, path, false), last(path), parseValue(fragment));
+        return null;
+      }
+      case DELETE: {
+        find(root, path);
+        ContainerNode<?> parent = parentOf(root, path, false);
+        Object last = last(path);
+        if (parent.isObject()) {
+          ((ObjectNode) parent).remove((String) last);
+        } else {
+          ArrayNode array = (ArrayNode) parent;
+          array.remove(arrayIndex(array, (Integer) last, false));
+        }
+        return null;
+      }
+      case ARRAY_PUSH_FIRST:
+      case ARRAY_PUSH_LAST:
+      case ARRAY_ADD_UNIQUE: {
+        ArrayNode array = arrayAt(root, path, createParents);
+        ArrayNode values = parseValues(fragment);
+        if (opcode == ARRAY_ADD_UNIQUE) {
+          if (values.size() != 1 || values.get(0).isContainerNode()) {
+            throw new MockStatusException(VALUE_CANTINSERT);
+          }
+          for (JsonNode element : array) {
+            if (element.equals(values.get(0))) {
+              throw new MockStatusException(PATH_EXISTS);
+            }
+          }
+        }
+        if (opcode == ARRAY_PUSH_FIRST) {
+          for (int i = values.size() - 1; i >= 0; i--) {
+            array.insert(0, values.get(i));
+          }
+        } else {
+          array.addAll(values);
+        }
+        return null;
+      }
+      case ARRAY_INSERT: {
+        Object last = last(path);
+        if (!(last instanceof Integer)) {
+          throw new MockStatusException(PATH_INVALID);
+        }
+        ContainerNode<?> parent = parentOf(root, path, false);
+        if (!parent.isArray()) {
+          throw new MockStatusException(PATH_MISMATCH);
+        }
+        ArrayNode array = (ArrayNode) parent;
+        int position = arrayIndex(array, (Integer) last, true);
+        ArrayNode values = parseValues(fragment);
+        for (int i = values.size() - 1; i >= 0; i--) {
+          array.insert(position, values.get(i));
+        }
+        return null;
+      }
+      case COUNTER: {
+        long delta;
+        try {
+          delta = Long.parseLong(new String(fragment, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException ex) {
+          throw new MockStatusException(DELTA_RANGE);
+        }
+        ContainerNode<?> parent = parentOf(root, path, createParents);
+        JsonNode current = child(parent, last(path));
+        long value = delta;
+        if (current != null) {
+          if (!current.canConvertToLong() || !current.isIntegralNumber()) {
+            throw new MockStatusException(PATH_MISMATCH);
+          }
+          value = current.asLong() + delta;
+        }
+        LongNode result = LongNode.valueOf(value);
+        setChild(parent, last(path), result);
+        return result;
+      }
+      default:
+        throw new MockStatusException(PATH_INVALID);
+    }
+  }
+
+  /**
+   * Parses a path like {@code foo.bar[2].baz} into field names and array indexes.
+   */
+  static List<Object> parse(final String path) {
+    List<Object> elements = new ArrayList<>();
+    int i = 0;
+    while (i < path.length()) {
+      char c = path.charAt(i);
+      if (c == '[') {
+        int end = path.indexOf(']', i);
+        if (end < 0) {
+          throw new MockStatusException(PATH_INVALID);
+        }
+        try {
+          elements.add(Integer.parseInt(path.substring(i + 1, end)));
+        } catch (NumberFormatException ex) {
+          throw new MockStatusException(PATH_INVALID);
+        }
+        i = end + 1;
+      } else if (c == '.') {
+        i++;
+      } else {
+        int end = i;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+          end++;
+        }
+        elements.add(path.substring(i, end));
+        i = end;
+      }
+    }
+    return elements;
+  }
+
+  private static JsonNode find(final JsonNode root, final List<Object> path) {
+    JsonNode current = root;
+    for (Object element : path) {
+      if (!current.isContainerNode()) {
+        throw new MockStatusException(PATH_MISMATCH);
+      }
+      current = child((ContainerNode<?>) current, element);
+      if (current == null) {
+        throw new MockStatusException(PATH_NOT_FOUND);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Returns the container holding the last path element, creating missing objects on the way if allowed.
+   */
+  private static ContainerNode<?> parentOf(final JsonNode root, final List<Object> path, final boolean create) {
+    if (!root.isContainerNode()) {
+      throw new MockStatusException(PATH_MISMATCH);
+    }
+    ContainerNode<?> current = (ContainerNode<?>) root;
+    for (int i = 0; i < path.size() - 1; i++) {
+      Object element = path.get(i);
+      JsonNode next = child(current, element);
+      if (next == null) {
+        if (!create || !(element instanceof String) || !current.isObject()) {
+          throw new MockStatusException(PATH_NOT_FOUND);
+        }
+        next = ((ObjectNode) current).putObject((String) element);
+      }
+      if (!next.isContainerNode()) {
+        throw new MockStatusException(PATH_MISMATCH);
+      }
+      current = (ContainerNode<?>) next;
+    }
+    return current;
+  }
+
+  private static ArrayNode arrayAt(final JsonNode root, final List<Object> path, final boolean create) {
+    if (path.isEmpty()) {
+      if (!root.isArray()) {
+        throw new MockStatusException(PATH_MISMATCH);
+      }
+      return (ArrayNode) root;
+    }
+    ContainerNode<?> parent = parentOf(root, path, create);
+    JsonNode current = child(parent, last(path));
+    if (current == null) {
+      if (!create || !parent.isObject()) {
+        throw new MockStatusException(PATH_NOT_FOUND);
+      }
+      return asObject(parent).putArray(fieldName(path));
+    }
+    if (!current.isArray()) {
+      throw new MockStatusException(PATH_MISMATCH);
+    }
+    return (ArrayNode) current;
+  }
+
+  private static JsonNode child(final ContainerNode<?> container, final Object element) {
+    if (element instanceof String) {
+      if (!container.isObject()) {
+        throw new MockStatusException(PATH_MISMATCH);
+      }
+      return container.get((String) element);
+    }
+    if (!container.isArray()) {
+      throw new MockStatusException(PATH_MISMATCH);
+    }
+    int index = (Integer) element;
+    return container.get(index < 0 ? container.size() + index : index);
+  }
+
+  private static void setChild(final ContainerNode<?> container, final Object element, final JsonNode value) {
+    if (element instanceof String) {
+      asObject(container).set((String) element, value);
+    } else {
+      ArrayNode array = (ArrayNode) container;
+      array.set(arrayIndex(array, (Integer) element, false), value);
+    }
+  }
+
+  private static int arrayIndex(final ArrayNode array, final int index, final boolean forInsert) {
+    int resolved = index < 0 ? array.size() + index : index;
+    int limit = forInsert ? array.size() : array.size() - 1;
+    if (resolved < 0 || resolved > limit) {
+      throw new MockStatusException(PATH_NOT_FOUND);
+    }
+    return resolved;
+  }
+
+  private static ObjectNode asObject(final ContainerNode<?> container) {
+    if (!container.isObject()) {
+      throw new MockStatusException(PATH_MISMATCH);
+    }
+    return (ObjectNode) container;
+  }
+
+  private static String fieldName(final List<Object> path) {
+    Object last = last(path);
+    if (!(last instanceof String)) {
+      throw new MockStatusException(PATH_MISMATCH);
+    }
+    return (String) last;
+  }
+
+  private static Object last(final List<Object> path) {
+    return path.get(path.size() - 1);
+  }
+
+  private static JsonNode parseValue(final byte[] fragment) {
+    try {
+      return Mapper.decodeIntoTree(fragment);
+    } catch (RuntimeException ex) {
+      throw new MockStatusException(VALUE_CANTINSERT);
+    }
+  }
+
+  /**
+   * Parses the comma separated values the array operations accept.
+   */
+  private static ArrayNode parseValues(final byte[] fragment) {
+    byte[] wrapped = new byte[fragment.length + 2];
+    wrapped[0] = '[';
+    System.arraycopy(fragment, 0, wrapped, 1, fragment.length);
+    wrapped[wrapped.length - 1] = ']';
+    JsonNode values = parseValue(wrapped);
+    if (!values.isArray()) {
+      throw new MockStatusException(VALUE_CANTINSERT);
+    }
+    return (ArrayNode) values;
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2019 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.benchmarks.mock;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.DocumentExistsException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.Cluster;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.LookupInResult;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MutateInResult;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.MutationResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.couchbase.client.java.ClusterOptions.clusterOptions;
+import static com.couchbase.client.java.kv.ReplaceOptions.replaceOptions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the java client against the {@link MockKeyValueServer} to make sure it bootstraps and serves
+ * documents like a real server would.
+ */
+class MockKeyValueServerTest {
+
+  private static MockKeyValueServer server;
+  private static Cluster cluster;
+  private static Collection collection;
+
+  @BeforeAll
+  static void setup() {
+    server = MockKeyValueServer.builder().nodes(3).start();
+    cluster = Cluster.connect("127.0.0.1", clusterOptions(server.authenticator()).seedNodes(server.seedNodes()));
+    collection = cluster.bucket(server.bucketName()).defaultCollection();
+  }
+
+  @AfterAll
+  static void teardown() {
+    cluster.disconnect();
+    server.close();
+  }
+
+  @Test
+  void upsertsAndGetsAcrossAllNodes() {
+    for (int i = 0; i < 100; i++) {
+      JsonObject content = JsonObject.create().put("id", i);
+      MutationResult mutation = collection.upsert("doc-" + i, content);
+      assertTrue(mutation.mutationToken().isPresent());
+
+      GetResult result = collection.get("doc-" + i);
+      assertEquals(content, result.contentAsObject());
+      assertEquals(mutation.cas(), result.cas());
+    }
+  }
+
+  @Test
+  void honorsStoreSemantics() {
+    assertThrows(DocumentNotFoundException.class, () -> collection.get("missing"));
+    assertThrows(DocumentNotFoundException.class, () -> collection.replace("missing", JsonObject.create()));
+
+    MutationResult inserted = collection.insert("semantics", JsonObject.create().put("v", 1));
+    assertThrows(DocumentExistsException.class, () -> collection.insert("semantics", JsonObject.create()));
+    assertThrows(CasMismatchException.class, () -> collection.replace("semantics", JsonObject.create(),
+      replaceOptions().cas(inserted.cas() + 1)));
+
+    MutationResult replaced = collection.replace("semantics", JsonObject.create().put("v", 2),
+      replaceOptions().cas(inserted.cas()));
+    assertNotEquals(inserted.cas(), replaced.cas());
+
+    collection.remove("semantics");
+    assertThrows(DocumentNotFoundException.class, () -> collection.get("semantics"));
+  }
+
+  @Test
+  void executesSubdocumentOperations() {
+    collection.upsert("subdoc", JsonObject.create().put("name", "mock").put("tags", Collections.singletonList("a")));
+
+    MutateInResult mutated = collection.mutateIn("subdoc", Arrays.asList(
+      MutateInSpec.upsert("address.city", "Oslo").createPath(),
+      MutateInSpec.arrayAppend("tags", Collections.singletonList("b")),
+      MutateInSpec.increment("visits", 5)
+    ));
+    assertEquals(5L, (long) mutated.contentAs(2, Long.class));
+
+    LookupInResult result = collection.lookupIn("subdoc", Arrays.asList(
+      LookupInSpec.get("address.city"),
+      LookupInSpec.get("tags[-1]"),
+      LookupInSpec.exists("nope"),
+      LookupInSpec.count("tags")
+    ));
+    assertEquals("Oslo", result.contentAs(0, String.class));
+    assertEquals("b", result.contentAs(1, String.class));
+    assertFalse(result.exists(2));
+    assertEquals(2, (int) result.contentAs(3, Integer.class));
+  }
+
+  @Test
+  void delaysDataResponses() {
+    try (MockKeyValueServer slow = MockKeyValueServer.builder().latency(Duration.ofMillis(50)).start()) {
+      Cluster slowCluster = Cluster.connect("127.0.0.1", clusterOptions(slow.authenticator())
+        .seedNodes(slow.seedNodes()));
+      try {
+        Collection slowCollection = slowCluster.bucket(slow.bucketName()).defaultCollection();
+        slowCollection.upsert("slow", JsonObject.create());
+
+        long start = System.nanoTime();
+        slowCollection.get("slow");
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+      } finally {
+        slowCluster.disconnect();
+      }
+    }
+  }
+
+}